@@ -17,6 +17,11 @@ public abstract class AbstractAlgorithm<Observer> {
     // List of observers for the algorithm
     protected final ArrayList<Observer> observers;
 
+    // Time (in nanoseconds, see System#nanoTime()) after which the current run
+    // must stop, meaningful only if the run has a time limit.
+    private boolean hasDeadline;
+    private long deadline;
+
     /**
      * Create a new algorithm with an empty list of observers.
      * 
@@ -70,12 +75,39 @@ public abstract class AbstractAlgorithm<Observer> {
      * @return The solution found by the algorithm (may not be a feasible solution).
      */
     public AbstractSolution run() {
+        final Duration timeLimit = getTimeLimit();
+        this.hasDeadline = timeLimit != null;
+        if (this.hasDeadline) {
+            this.deadline = System.nanoTime() + timeLimit.toNanos();
+        }
         Instant start = Instant.now();
         AbstractSolution solution = this.doRun();
         solution.setSolvingTime(Duration.between(start, Instant.now()));
         return solution;
     }
 
+    /**
+     * Retrieve the time limit of a run of this algorithm. Algorithms that can stop
+     * early (e.g., with the best solution found so far) override this method,
+     * usually to return the time limit of their input data, and check
+     * {@link #isTimeLimitReached()} during the search.
+     * 
+     * @return Maximum duration of a run, or null if runs are not limited (default).
+     */
+    protected Duration getTimeLimit() {
+        return null;
+    }
+
+    /**
+     * @return true if the time limit of the current run has been reached (always
+     *         false if there is no time limit).
+     * 
+     * @see #getTimeLimit()
+     */
+    protected boolean isTimeLimitReached() {
+        return this.hasDeadline && System.nanoTime() - this.deadline >= 0;
+    }
+
     /**
      * Abstract method that should be implemented by child class.
      * 
@@ -45,6 +45,13 @@ public abstract class AbstractInputData {
         return graph;
     }
 
+    /**
+     * @return Arc inspector associated with this input.
+     */
+    public ArcInspector getArcInspector() {
+        return this.arcInspector;
+    }
+
     /**
      * Retrieve the cost associated with the given arc according to the underlying
      * arc inspector.
@@ -98,4 +105,24 @@ public abstract class AbstractInputData {
         return this.arcInspector.isAllowed(arc);
     }
 
+    /**
+     * <p>
+     * Check if the arcs allowed by this input and their costs are exactly those of
+     * the underlying arc inspector, in which case algorithms may evaluate the
+     * inspector once for all the arcs of the graph and read the costs by arc index
+     * (see {@link org.insa.graphs.algorithm.utils.ArcCosts}).
+     * </p>
+     *
+     * <p>
+     * Subclasses that override {@link #isAllowed(Arc)} or {@link #getCost(Arc)},
+     * or whose costs depend on something else than the arc, must override this
+     * method to return false.
+     * </p>
+     *
+     * @return true if this input only uses the costs of its arc inspector.
+     */
+    public boolean usesInspectorCostsOnly() {
+        return true;
+    }
+
 }
@@ -6,11 +6,30 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Function;
 
+import org.insa.graphs.algorithm.alternatives.AlternativePathsAlgorithm;
+import org.insa.graphs.algorithm.alternatives.KShortestPathsAlgorithm;
+import org.insa.graphs.algorithm.alternatives.ViaNodeAlternativesAlgorithm;
+import org.insa.graphs.algorithm.isochrone.IsochroneAlgorithm;
+import org.insa.graphs.algorithm.pareto.ParetoAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ALTAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.AStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ArcFlagsAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.BellmanFordAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.BidirectionalDijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ConstrainedShortestPathAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchiesAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.CustomizableContractionHierarchiesAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.HubLabelingAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.MultiLevelOverlayAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ParallelBidirectionalDijkstraAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.TimeDependentAStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.TimeDependentDijkstraAlgorithm;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
 import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
 
 /**
@@ -23,6 +42,9 @@ public class AlgorithmFactory {
     // Map between algorithm names and class.
     private final static Map<Class<? extends AbstractAlgorithm<?>>, Map<String, Class<? extends AbstractAlgorithm<?>>>> ALGORITHMS = new IdentityHashMap<>();
 
+    // Constructors of the algorithms registered with one, by base class and name.
+    private final static Map<Class<? extends AbstractAlgorithm<?>>, Map<String, Function<AbstractInputData, AbstractAlgorithm<?>>>> CONSTRUCTORS = new IdentityHashMap<>();
+
     static {
         // Register weakly-connected components algorithm:
         registerAlgorithm(WeaklyConnectedComponentsAlgorithm.class, "WCC basic",
@@ -31,7 +53,52 @@ public class AlgorithmFactory {
         // Register shortest path algorithm:
         registerAlgorithm(ShortestPathAlgorithm.class, "Bellman-Ford", BellmanFordAlgorithm.class);
         registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra", DijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (4-ary heap)",
+                DijkstraAlgorithm.class, (ShortestPathData data) -> new DijkstraAlgorithm(data,
+                        QueueType.FOUR_ARY_HEAP));
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (radix heap)",
+                DijkstraAlgorithm.class, (ShortestPathData data) -> new DijkstraAlgorithm(data,
+                        QueueType.RADIX_HEAP));
+        registerAlgorithm(ShortestPathAlgorithm.class, "Dijkstra (bucket queue)",
+                DijkstraAlgorithm.class, (ShortestPathData data) -> new DijkstraAlgorithm(data,
+                        QueueType.BUCKET_QUEUE));
         registerAlgorithm(ShortestPathAlgorithm.class, "A*", AStarAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bidirectional Dijkstra",
+                BidirectionalDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Bidirectional Dijkstra (parallel)",
+                ParallelBidirectionalDijkstraAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "A* (landmarks)", ALTAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Contraction hierarchies",
+                ContractionHierarchiesAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Contraction hierarchies (customizable)",
+                CustomizableContractionHierarchiesAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Multi-level overlay",
+                MultiLevelOverlayAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Arc flags", ArcFlagsAlgorithm.class);
+        registerAlgorithm(ShortestPathAlgorithm.class, "Hub labeling", HubLabelingAlgorithm.class);
+
+        // Register time-dependent shortest path algorithms (their input data holds
+        // the travel time profiles and the departure time):
+        registerAlgorithm(TimeDependentDijkstraAlgorithm.class, "Dijkstra (time-dependent)",
+                TimeDependentDijkstraAlgorithm.class);
+        registerAlgorithm(TimeDependentDijkstraAlgorithm.class, "A* (time-dependent)",
+                TimeDependentAStarAlgorithm.class);
+
+        // Register resource-constrained shortest path algorithm:
+        registerAlgorithm(ConstrainedShortestPathAlgorithm.class, "Constrained (Lagrangian)",
+                ConstrainedShortestPathAlgorithm.class);
+
+        // Register alternative paths algorithms:
+        registerAlgorithm(AlternativePathsAlgorithm.class, "Yen (k shortest paths)",
+                KShortestPathsAlgorithm.class);
+        registerAlgorithm(AlternativePathsAlgorithm.class, "Via node (plateaus)",
+                ViaNodeAlternativesAlgorithm.class);
+
+        // Register isochrone algorithm:
+        registerAlgorithm(IsochroneAlgorithm.class, "Isochrone (Dijkstra)", IsochroneAlgorithm.class);
+
+        // Register Pareto (length, time) algorithm:
+        registerAlgorithm(ParetoAlgorithm.class, "Pareto (length, time)", ParetoAlgorithm.class);
 
         // Register your algorithms here:
         // registerAlgorithm(CarPoolingAlgorithm.class, "My Awesome Algorithm",
@@ -54,6 +121,37 @@ public class AlgorithmFactory {
             ALGORITHMS.put(baseAlgorithm, new LinkedHashMap<>());
         }
         ALGORITHMS.get(baseAlgorithm).put(name, algoClass);
+        if (CONSTRUCTORS.containsKey(baseAlgorithm)) {
+            CONSTRUCTORS.get(baseAlgorithm).remove(name);
+        }
+    }
+
+    /**
+     * Register the given algorithm class with the given name as a child class of
+     * the given base algorithm, the algorithm being created by the given
+     * constructor instead of the constructor of the class taking the input data
+     * (e.g., to register a class several times with different parameters).
+     * 
+     * @param baseAlgorithm Base algorithm class that corresponds to the newly
+     *                      registered algorithm class (e.g., generic algorithm
+     *                      class for the problem).
+     * @param name          Name for the registered algorithm class.
+     * @param algoClass     Algorithm class to register.
+     * @param constructor   Function creating an instance of the algorithm class
+     *                      from input data.
+     * 
+     * @see #createAlgorithm(Class, String, AbstractInputData)
+     */
+    @SuppressWarnings("unchecked")
+    public static <D extends AbstractInputData> void registerAlgorithm(
+            Class<? extends AbstractAlgorithm<?>> baseAlgorithm, String name,
+            Class<? extends AbstractAlgorithm<?>> algoClass,
+            Function<D, ? extends AbstractAlgorithm<?>> constructor) {
+        registerAlgorithm(baseAlgorithm, name, algoClass);
+        if (!CONSTRUCTORS.containsKey(baseAlgorithm)) {
+            CONSTRUCTORS.put(baseAlgorithm, new LinkedHashMap<>());
+        }
+        CONSTRUCTORS.get(baseAlgorithm).put(name, (data) -> constructor.apply((D) data));
     }
 
     /**
@@ -90,6 +188,33 @@ public class AlgorithmFactory {
         return constructed;
     }
 
+    /**
+     * Create an instance of the algorithm registered with the given base algorithm
+     * class and name using the given input data, with the constructor it was
+     * registered with if any, or as {@link #createAlgorithm(Class, AbstractInputData)}
+     * otherwise.
+     * 
+     * @param baseAlgorithm Base algorithm class for the algorithm to create.
+     * @param name          Name of the algorithm to create.
+     * @param data          Input data for the algorithm.
+     * 
+     * @return A new instance of the algorithm using the given data.
+     * 
+     * @throws Exception if something wrong happens when constructing the object
+     *                   (see {@link #createAlgorithm(Class, AbstractInputData)}).
+     * 
+     * @see #registerAlgorithm
+     */
+    public static AbstractAlgorithm<?> createAlgorithm(
+            Class<? extends AbstractAlgorithm<?>> baseAlgorithm, String name,
+            AbstractInputData data) throws Exception {
+        if (CONSTRUCTORS.containsKey(baseAlgorithm)
+                && CONSTRUCTORS.get(baseAlgorithm).containsKey(name)) {
+            return CONSTRUCTORS.get(baseAlgorithm).get(name).apply(data);
+        }
+        return createAlgorithm(getAlgorithmClass(baseAlgorithm, name), data);
+    }
+
     /**
      * Return the algorithm class corresponding to the given base algorithm class
      * and name. The algorithm must have been previously registered using
@@ -0,0 +1,44 @@
+package org.insa.graphs.algorithm.alternatives;
+
+import java.time.Duration;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.model.Path;
+
+public abstract class AlternativePathsAlgorithm extends AbstractAlgorithm<AlternativePathsObserver> {
+
+    protected AlternativePathsAlgorithm(AlternativePathsData data) {
+        super(data);
+    }
+
+    @Override
+    public AlternativePathsSolution run() {
+        return (AlternativePathsSolution) super.run();
+    }
+
+    @Override
+    protected abstract AlternativePathsSolution doRun();
+
+    @Override
+    public AlternativePathsData getInputData() {
+        return (AlternativePathsData) super.getInputData();
+    }
+
+    @Override
+    protected Duration getTimeLimit() {
+        return getInputData().getTimeLimit();
+    }
+
+    /**
+     * Notify all observers that a new path has been added to the solution.
+     *
+     * @param rank Rank of the path.
+     * @param path The path.
+     */
+    public void notifyPathFound(int rank, Path path) {
+        for (AlternativePathsObserver obs: getObservers()) {
+            obs.notifyPathFound(rank, path);
+        }
+    }
+
+}
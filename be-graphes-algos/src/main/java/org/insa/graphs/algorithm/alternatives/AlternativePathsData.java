@@ -0,0 +1,103 @@
+package org.insa.graphs.algorithm.alternatives;
+
+import java.time.Duration;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class AlternativePathsData extends AbstractInputData {
+
+    // Origin and destination nodes.
+    private final Node origin, destination;
+
+    // Maximum number of paths.
+    private final int maximumPaths;
+
+    // Maximum duration of the search, or null.
+    private final Duration timeLimit;
+
+    /**
+     * Construct a new instance of AlternativePathsData without time limit.
+     * 
+     * @param graph Graph in which the paths should be looked for.
+     * @param origin Origin node of the paths.
+     * @param destination Destination node of the paths.
+     * @param maximumPaths Maximum number of paths (including the shortest one).
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     * 
+     * @throws IllegalArgumentException if the maximum number of paths is not
+     *         positive.
+     */
+    public AlternativePathsData(Graph graph, Node origin, Node destination, int maximumPaths,
+            ArcInspector arcInspector) throws IllegalArgumentException {
+        this(graph, origin, destination, maximumPaths, null, arcInspector);
+    }
+
+    /**
+     * Construct a new instance of AlternativePathsData with the given parameters.
+     * 
+     * @param graph Graph in which the paths should be looked for.
+     * @param origin Origin node of the paths.
+     * @param destination Destination node of the paths.
+     * @param maximumPaths Maximum number of paths (including the shortest one).
+     * @param timeLimit Maximum duration of the search, or null for no limit. Once
+     *        the limit is reached, the paths found so far are returned.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     * 
+     * @throws IllegalArgumentException if the maximum number of paths is not
+     *         positive, or if the time limit is negative.
+     */
+    public AlternativePathsData(Graph graph, Node origin, Node destination, int maximumPaths,
+            Duration timeLimit, ArcInspector arcInspector) throws IllegalArgumentException {
+        super(graph, arcInspector);
+        if (maximumPaths <= 0) {
+            throw new IllegalArgumentException("invalid number of paths: " + maximumPaths);
+        }
+        if (timeLimit != null && timeLimit.isNegative()) {
+            throw new IllegalArgumentException("invalid time limit: " + timeLimit);
+        }
+        this.origin = origin;
+        this.destination = destination;
+        this.maximumPaths = maximumPaths;
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * @return Origin node for the paths.
+     */
+    public Node getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return Destination node for the paths.
+     */
+    public Node getDestination() {
+        return destination;
+    }
+
+    /**
+     * @return Maximum number of paths (including the shortest one).
+     */
+    public int getMaximumPaths() {
+        return maximumPaths;
+    }
+
+    /**
+     * @return Maximum duration of the search, or null if the search is not
+     *         limited.
+     */
+    public Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "Alternative paths (" + maximumPaths + ") from #" + origin.getId() + " to #"
+                + destination.getId() + " [" + this.arcInspector.toString().toLowerCase() + "]";
+    }
+}
@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.alternatives;
+
+import org.insa.graphs.model.Path;
+
+public interface AlternativePathsObserver {
+
+    /**
+     * Notify the observer that a new path has been added to the solution.
+     * 
+     * @param rank Rank of the path in the solution (0 for the first path).
+     * @param path The path.
+     */
+    public void notifyPathFound(int rank, Path path);
+
+}
@@ -0,0 +1,84 @@
+package org.insa.graphs.algorithm.alternatives;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Path;
+
+public class AlternativePathsSolution extends AbstractSolution {
+
+    // Paths, by rank.
+    private final List<Path> paths;
+
+    /**
+     * Create a new alternative paths solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution: OPTIMAL if the search has completed,
+     *        FEASIBLE if it has been stopped by the time limit, INFEASIBLE if there
+     *        is no path.
+     * @param paths Paths of the solution, by rank.
+     */
+    protected AlternativePathsSolution(AlternativePathsData data, Status status,
+            List<Path> paths) {
+        super(data, status);
+        this.paths = Collections.unmodifiableList(paths);
+    }
+
+    @Override
+    public AlternativePathsData getInputData() {
+        return (AlternativePathsData) super.getInputData();
+    }
+
+    /**
+     * @return Paths of this solution, by rank (the first one is a shortest path).
+     */
+    public List<Path> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @param rank Rank of a path.
+     * 
+     * @return Cost of the path of the given rank.
+     */
+    public double getCost(int rank) {
+        double cost = 0;
+        for (Arc arc: paths.get(rank).getArcs()) {
+            cost += getInputData().getCost(arc);
+        }
+        return cost;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        AlternativePathsData data = getInputData();
+        String info = null;
+        if (!isFeasible()) {
+            info = String.format("No path found from node #%d to node #%d",
+                    data.getOrigin().getId(), data.getDestination().getId());
+        }
+        else {
+            StringBuilder costs = new StringBuilder();
+            for (int i = 0; i < paths.size(); ++i) {
+                costs.append(i == 0 ? "" : ", ").append(String.format("%.4f", getCost(i)));
+            }
+            info = String.format("Found %d path(s) from node #%d to node #%d, costs: %s",
+                    paths.size(), data.getOrigin().getId(), data.getDestination().getId(),
+                    costs);
+            if (getStatus() == Status.FEASIBLE) {
+                info += ", search stopped by the time limit";
+            }
+        }
+        info += " in " + getSolvingTime().getSeconds() + " seconds.";
+        return info;
+    }
+
+}
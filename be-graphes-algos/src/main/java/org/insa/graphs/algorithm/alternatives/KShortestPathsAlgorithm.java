@@ -0,0 +1,290 @@
+package org.insa.graphs.algorithm.alternatives;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Yen's algorithm for the k shortest loopless paths: each new path is the
+ * cheapest candidate obtained by leaving the previous path at one of its nodes
+ * (the spur node), without using the nodes of the path before the spur node nor
+ * the arcs already used from the same prefix by the paths found so far.
+ * </p>
+ *
+ * <p>
+ * All the spur searches reuse a single backward shortest path tree towards the
+ * destination: its costs are a consistent lower bound used by A* (removing
+ * nodes and arcs only increases costs), and a spur search stops as soon as it
+ * settles a node whose tree path to the destination avoids the removed nodes
+ * and arcs, since this tree path is then a shortest path from the node. Most
+ * spur searches only settle a few nodes.
+ * </p>
+ *
+ */
+public class KShortestPathsAlgorithm extends AlternativePathsAlgorithm {
+
+    /**
+     * Candidate path, compared by cost, equal to the candidates with the same
+     * arcs.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+
+        private final double cost;
+        private final int[] arcs;
+
+        Candidate(double cost, int[] arcs) {
+            this.cost = cost;
+            this.arcs = arcs;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(this.cost, other.cost);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Candidate && Arrays.equals(this.arcs, ((Candidate) other).arcs);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(this.arcs);
+        }
+
+    }
+
+    // State of the current run: adjacency arrays, arc costs, backward tree, and
+    // nodes and arcs removed for the current spur search.
+    private AdjacencyArrays adjacency;
+    private double[] costs;
+    private ShortestPathTree tree;
+    private boolean[] removedNodes, removedArcs;
+
+    // Memoized validity of the tree paths for the current spur search: a tree path
+    // is checked for the search whose stamp is in checked, and valid is true if it
+    // avoids the removed nodes and arcs.
+    private int[] checked;
+    private boolean[] valid;
+    private int stamp;
+
+    public KShortestPathsAlgorithm(AlternativePathsData data) {
+        super(data);
+    }
+
+    /**
+     * @return true if the tree path from the given node to the destination avoids
+     *         the removed nodes and arcs.
+     */
+    private boolean isTreePathValid(int node) {
+        // Walk the tree path up to a removed node or arc, a node already checked,
+        // or the destination, then memoize the result for the nodes walked.
+        int top = node;
+        while (this.checked[top] != this.stamp && !this.removedNodes[top]
+                && this.tree.arcs[top] != -1 && !this.removedArcs[this.tree.arcs[top]]) {
+            top = this.tree.parents[top];
+        }
+        final boolean result = this.checked[top] == this.stamp ? this.valid[top]
+                : !this.removedNodes[top] && this.tree.arcs[top] == -1;
+        for (int v = node; v != top; v = this.tree.parents[v]) {
+            this.checked[v] = this.stamp;
+            this.valid[v] = result;
+        }
+        this.checked[top] = this.stamp;
+        this.valid[top] = result;
+        return result;
+    }
+
+    /**
+     * Find a shortest path from the given spur node to the destination, avoiding
+     * the removed nodes and arcs.
+     *
+     * @return Arcs of the path, or null if there is no such path.
+     */
+    private int[] findSpurPath(int spur) {
+        ++this.stamp;
+        final int nbNodes = this.adjacency.getNumberOfNodes();
+        int last = -1;
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(nbNodes)) {
+            final IndexedPriorityQueue queue = workspace.getQueue();
+            workspace.visit(spur, this.tree.distances[spur]);
+            workspace.update(spur, 0, -1);
+            queue.insert(spur, this.tree.distances[spur]);
+            while (!queue.isEmpty()) {
+                final int node = queue.deleteMin();
+                workspace.settle(node);
+                if (isTreePathValid(node)) {
+                    last = node;
+                    break;
+                }
+                final double distance = workspace.getDistance(node);
+                for (int a = this.adjacency.getFirstArc(node), end = this.adjacency
+                        .getEndArc(node); a < end; ++a) {
+                    final int head = this.adjacency.getHead(a);
+                    if (this.removedArcs[a] || this.removedNodes[head]
+                            || !this.tree.contains(head) || workspace.isSettled(head)
+                            || this.costs[a] == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    if (!workspace.isVisited(head)) {
+                        workspace.visit(head, this.tree.distances[head]);
+                    }
+                    final double newDistance = distance + this.costs[a];
+                    if (newDistance < workspace.getDistance(head)) {
+                        workspace.update(head, newDistance, a);
+                        final double key = newDistance + workspace.getPotential(head);
+                        if (queue.contains(head)) {
+                            queue.decreaseKey(head, key);
+                        }
+                        else {
+                            queue.insert(head, key);
+                        }
+                    }
+                }
+            }
+            if (last == -1) {
+                return null;
+            }
+
+            // Path from the spur node to the last node, then tree path.
+            int nbArcs = 0;
+            for (int v = last; v != spur; v = this.adjacency.getArc(workspace.getPredecessorArc(v))
+                    .getOrigin().getId()) {
+                ++nbArcs;
+            }
+            final int prefix = nbArcs;
+            for (int v = last; this.tree.arcs[v] != -1; v = this.tree.parents[v]) {
+                ++nbArcs;
+            }
+            int[] arcs = new int[nbArcs];
+            int i = prefix;
+            for (int v = last; v != spur;) {
+                final int a = workspace.getPredecessorArc(v);
+                arcs[--i] = a;
+                v = this.adjacency.getArc(a).getOrigin().getId();
+            }
+            i = prefix;
+            for (int v = last; this.tree.arcs[v] != -1; v = this.tree.parents[v]) {
+                arcs[i++] = this.tree.arcs[v];
+            }
+            return arcs;
+        }
+    }
+
+    @Override
+    protected AlternativePathsSolution doRun() {
+        final AlternativePathsData data = getInputData();
+        final Graph graph = data.getGraph();
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        List<Path> paths = new ArrayList<>();
+        if (ShortestPathAlgorithm.isTrivial(data.getOrigin(), data.getDestination())) {
+            return new AlternativePathsSolution(data, Status.INFEASIBLE, paths);
+        }
+
+        this.adjacency = graph.getAdjacency();
+        this.costs = ArcCosts.compute(graph, data.getArcInspector());
+        this.tree = ShortestPathTree.compute(this.adjacency, this.costs, destination, true, -1,
+                1);
+        if (!this.tree.contains(origin)) {
+            return new AlternativePathsSolution(data, Status.INFEASIBLE, paths);
+        }
+        final int nbNodes = graph.size();
+        this.removedNodes = new boolean[nbNodes];
+        this.removedArcs = new boolean[this.adjacency.getNumberOfArcs()];
+        this.checked = new int[nbNodes];
+        this.valid = new boolean[nbNodes];
+        this.stamp = 0;
+
+        // The first path is the tree path from the origin.
+        List<int[]> found = new ArrayList<>();
+        int[] first = findSpurPath(origin);
+        found.add(first);
+        paths.add(Path.createFromArcIndices(graph, first));
+        notifyPathFound(0, paths.get(0));
+
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<Candidate> known = new HashSet<>();
+        known.add(new Candidate(this.tree.distances[origin], first));
+
+        boolean complete = true;
+        while (found.size() < data.getMaximumPaths() && complete) {
+            final int[] previous = found.get(found.size() - 1);
+            int spur = origin;
+            double rootCost = 0;
+            for (int i = 0; i < previous.length; ++i) {
+                if (isTimeLimitReached()) {
+                    complete = false;
+                    break;
+                }
+
+                // Remove the next arcs of the paths sharing the root path.
+                List<Integer> removed = new ArrayList<>();
+                for (int[] path: found) {
+                    if (path.length > i
+                            && Arrays.equals(path, 0, i, previous, 0, i)) {
+                        this.removedArcs[path[i]] = true;
+                        removed.add(path[i]);
+                    }
+                }
+
+                int[] spurPath = findSpurPath(spur);
+                if (spurPath != null) {
+                    int[] arcs = Arrays.copyOf(previous, i + spurPath.length);
+                    System.arraycopy(spurPath, 0, arcs, i, spurPath.length);
+                    double cost = rootCost;
+                    for (int a: spurPath) {
+                        cost += this.costs[a];
+                    }
+                    Candidate candidate = new Candidate(cost, arcs);
+                    if (known.add(candidate)) {
+                        candidates.add(candidate);
+                    }
+                }
+
+                for (int a: removed) {
+                    this.removedArcs[a] = false;
+                }
+                this.removedNodes[spur] = true;
+                rootCost += this.costs[previous[i]];
+                spur = this.adjacency.getHead(previous[i]);
+            }
+
+            // Restore the nodes of the root paths.
+            this.removedNodes[origin] = false;
+            for (int a: previous) {
+                this.removedNodes[this.adjacency.getHead(a)] = false;
+            }
+
+            if (!complete || candidates.isEmpty()) {
+                break;
+            }
+            Candidate best = candidates.poll();
+            found.add(best.arcs);
+            paths.add(Path.createFromArcIndices(graph, best.arcs));
+            notifyPathFound(paths.size() - 1, paths.get(paths.size() - 1));
+        }
+
+        this.removedNodes = this.removedArcs = this.valid = null;
+        this.checked = null;
+        this.costs = null;
+        this.tree = null;
+        return new AlternativePathsSolution(data, complete ? Status.OPTIMAL : Status.FEASIBLE,
+                paths);
+    }
+
+}
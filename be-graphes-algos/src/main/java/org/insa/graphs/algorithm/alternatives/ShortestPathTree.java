@@ -0,0 +1,134 @@
+package org.insa.graphs.algorithm.alternatives;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.utils.OneToManySearch;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+
+/**
+ * Shortest path tree rooted at a node, towards the other nodes (forward tree) or
+ * from the other nodes (backward tree), possibly bounded.
+ *
+ */
+final class ShortestPathTree {
+
+    // Cost between the root and each node, infinite for the nodes outside the tree.
+    final double[] distances;
+
+    // Arc linking each node to its parent (the arc entering the node in a forward
+    // tree, the arc leaving it in a backward tree), -1 for the root and the nodes
+    // outside the tree.
+    final int[] arcs;
+
+    // Parent of each node, -1 for the root and the nodes outside the tree.
+    final int[] parents;
+
+    // Nodes of the tree, by increasing cost.
+    final int[] order;
+
+    private ShortestPathTree(double[] distances, int[] arcs, int[] parents, int[] order) {
+        this.distances = distances;
+        this.arcs = arcs;
+        this.parents = parents;
+        this.order = order;
+    }
+
+    /**
+     * Compute a shortest path tree with a Dijkstra search from the given root.
+     * The search stops when the cost of the next node exceeds the given factor of
+     * the cost of the given target, or when all the reachable nodes are settled
+     * if there is no target.
+     *
+     * @param adjacency Adjacency arrays of the graph.
+     * @param costs Cost of each arc (infinite for forbidden arcs).
+     * @param root Root of the tree.
+     * @param backward true for a backward tree (following incoming arcs).
+     * @param target Target of the search, or -1.
+     * @param factor Factor of the cost of the target bounding the search.
+     *
+     * @return The tree.
+     */
+    static ShortestPathTree compute(AdjacencyArrays adjacency, double[] costs, int root,
+            boolean backward, int target, double factor) {
+        final int nbNodes = adjacency.getNumberOfNodes();
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(nbNodes)) {
+            Builder builder = new Builder(nbNodes, workspace, target, factor);
+            OneToManySearch.run(adjacency, costs, backward, root, workspace, builder);
+            return builder.build();
+        }
+    }
+
+    /**
+     * Listener of the search building a tree.
+     */
+    private static final class Builder implements OneToManySearch.Listener {
+
+        private final double[] distances;
+        private final int[] arcs, parents;
+        private int[] order = new int[16];
+        private int size = 0;
+
+        // Workspace of the search, target and factor bounding the search.
+        private final SearchWorkspace workspace;
+        private final int target;
+        private final double factor;
+        private double bound = Double.POSITIVE_INFINITY;
+
+        Builder(int nbNodes, SearchWorkspace workspace, int target, double factor) {
+            this.distances = new double[nbNodes];
+            this.arcs = new int[nbNodes];
+            this.parents = new int[nbNodes];
+            Arrays.fill(this.distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(this.arcs, -1);
+            Arrays.fill(this.parents, -1);
+            this.workspace = workspace;
+            this.target = target;
+            this.factor = factor;
+        }
+
+        @Override
+        public boolean nodeSettled(int node, double distance) {
+            if (distance > this.bound) {
+                return false;
+            }
+            this.distances[node] = distance;
+            this.arcs[node] = this.workspace.getPredecessorArc(node);
+            if (this.size == this.order.length) {
+                this.order = Arrays.copyOf(this.order, 2 * this.size);
+            }
+            this.order[this.size++] = node;
+            if (node == this.target) {
+                this.bound = this.factor * distance;
+            }
+            return true;
+        }
+
+        @Override
+        public void nodeReached(int node, int parent, int arc) {
+            this.parents[node] = parent;
+        }
+
+        ShortestPathTree build() {
+            // Parents of the nodes reached but not settled are not part of the tree.
+            for (int node = 0; node < this.parents.length; ++node) {
+                if (this.distances[node] == Double.POSITIVE_INFINITY) {
+                    this.parents[node] = -1;
+                }
+            }
+            return new ShortestPathTree(this.distances, this.arcs, this.parents,
+                    Arrays.copyOf(this.order, this.size));
+        }
+
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return true if the given node is in the tree.
+     */
+    boolean contains(int node) {
+        return this.distances[node] != Double.POSITIVE_INFINITY;
+    }
+
+}
@@ -0,0 +1,297 @@
+package org.insa.graphs.algorithm.alternatives;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Alternative routes made of a shortest path from the origin to a via node,
+ * followed by a shortest path from the via node to the destination. Both parts
+ * are read from a forward tree rooted at the origin and a backward tree rooted
+ * at the destination, bounded by the maximum stretch, so no search is run per
+ * candidate.
+ * </p>
+ *
+ * <p>
+ * The arcs that belong to both trees form plateaus: a via path through a node of
+ * a plateau follows the whole plateau, and any of its subpaths that is not
+ * longer than the plateau is a shortest path. Via nodes are tried by decreasing
+ * plateau cost (once per plateau), and a via path is accepted if:
+ * </p>
+ *
+ * <ul>
+ * <li>its cost is at most the maximum stretch times the cost of the shortest
+ * path,</li>
+ * <li>the cost it shares with the paths already accepted is at most the maximum
+ * sharing times the cost of the shortest path,</li>
+ * <li>its plateau costs at least the minimum local optimality times the cost of
+ * the shortest path, i.e., all its subpaths up to that cost are shortest
+ * paths,</li>
+ * <li>it has no loop.</li>
+ * </ul>
+ *
+ * <p>
+ * The alternatives accepted are then ranked by cost, after the shortest path.
+ * </p>
+ *
+ */
+public class ViaNodeAlternativesAlgorithm extends AlternativePathsAlgorithm {
+
+    /**
+     * Default maximum stretch of the alternatives.
+     */
+    public static final double DEFAULT_MAXIMUM_STRETCH = 1.25;
+
+    /**
+     * Default maximum sharing of the alternatives.
+     */
+    public static final double DEFAULT_MAXIMUM_SHARING = 0.8;
+
+    /**
+     * Default minimum local optimality of the alternatives.
+     */
+    public static final double DEFAULT_MINIMUM_LOCAL_OPTIMALITY = 0.25;
+
+    // Limits of the alternatives.
+    private final double maximumStretch, maximumSharing, minimumLocalOptimality;
+
+    /**
+     * Create a new algorithm with the default limits.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public ViaNodeAlternativesAlgorithm(AlternativePathsData data) {
+        this(data, DEFAULT_MAXIMUM_STRETCH, DEFAULT_MAXIMUM_SHARING,
+                DEFAULT_MINIMUM_LOCAL_OPTIMALITY);
+    }
+
+    /**
+     * Create a new algorithm with the given limits, all relative to the cost of
+     * the shortest path.
+     *
+     * @param data Input data for the algorithm.
+     * @param maximumStretch Maximum cost of an alternative (at least 1).
+     * @param maximumSharing Maximum cost shared by an alternative with the paths
+     *        found before it (between 0 and 1).
+     * @param minimumLocalOptimality Minimum cost of the subpaths of an
+     *        alternative that must be shortest paths (between 0 and 1).
+     *
+     * @throws IllegalArgumentException if a limit is out of its range.
+     */
+    public ViaNodeAlternativesAlgorithm(AlternativePathsData data, double maximumStretch,
+            double maximumSharing, double minimumLocalOptimality)
+            throws IllegalArgumentException {
+        super(data);
+        if (!(maximumStretch >= 1) || maximumStretch == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("invalid maximum stretch: " + maximumStretch);
+        }
+        if (!(maximumSharing >= 0 && maximumSharing <= 1)) {
+            throw new IllegalArgumentException("invalid maximum sharing: " + maximumSharing);
+        }
+        if (!(minimumLocalOptimality >= 0 && minimumLocalOptimality <= 1)) {
+            throw new IllegalArgumentException(
+                    "invalid minimum local optimality: " + minimumLocalOptimality);
+        }
+        this.maximumStretch = maximumStretch;
+        this.maximumSharing = maximumSharing;
+        this.minimumLocalOptimality = minimumLocalOptimality;
+    }
+
+    /**
+     * @return Maximum cost of an alternative, relative to the shortest path.
+     */
+    public double getMaximumStretch() {
+        return this.maximumStretch;
+    }
+
+    /**
+     * @return Maximum cost shared by an alternative with the paths found before
+     *         it, relative to the shortest path.
+     */
+    public double getMaximumSharing() {
+        return this.maximumSharing;
+    }
+
+    /**
+     * @return Minimum cost of the subpaths of an alternative that are shortest
+     *         paths, relative to the shortest path.
+     */
+    public double getMinimumLocalOptimality() {
+        return this.minimumLocalOptimality;
+    }
+
+    /**
+     * @return Arcs of the path through the given via node, following the forward
+     *         tree then the backward tree.
+     */
+    private static int[] createViaPath(ShortestPathTree forward, ShortestPathTree backward,
+            int via) {
+        int nbArcs = 0;
+        for (int v = via; forward.arcs[v] != -1; v = forward.parents[v]) {
+            ++nbArcs;
+        }
+        final int prefix = nbArcs;
+        for (int v = via; backward.arcs[v] != -1; v = backward.parents[v]) {
+            ++nbArcs;
+        }
+        int[] arcs = new int[nbArcs];
+        int i = prefix;
+        for (int v = via; forward.arcs[v] != -1; v = forward.parents[v]) {
+            arcs[--i] = forward.arcs[v];
+        }
+        i = prefix;
+        for (int v = via; backward.arcs[v] != -1; v = backward.parents[v]) {
+            arcs[i++] = backward.arcs[v];
+        }
+        return arcs;
+    }
+
+    @Override
+    protected AlternativePathsSolution doRun() {
+        final AlternativePathsData data = getInputData();
+        final Graph graph = data.getGraph();
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        List<Path> paths = new ArrayList<>();
+        if (ShortestPathAlgorithm.isTrivial(data.getOrigin(), data.getDestination())) {
+            return new AlternativePathsSolution(data, Status.INFEASIBLE, paths);
+        }
+
+        final double[] costs = ArcCosts.compute(graph, data.getArcInspector());
+        final ShortestPathTree forward = ShortestPathTree.compute(adjacency, costs, origin,
+                false, destination, this.maximumStretch);
+        if (!forward.contains(destination)) {
+            return new AlternativePathsSolution(data, Status.INFEASIBLE, paths);
+        }
+        final double optimum = forward.distances[destination];
+        final ShortestPathTree backward = ShortestPathTree.compute(adjacency, costs,
+                destination, true, origin, this.maximumStretch);
+
+        // The shortest path comes first, then the alternatives, which are selected
+        // first and ranked once all of them are known.
+        final int nbNodes = graph.size();
+        boolean[] used = new boolean[adjacency.getNumberOfArcs()];
+        int[] shortest = createViaPath(forward, backward, destination);
+        for (int a: shortest) {
+            used[a] = true;
+        }
+        paths.add(Path.createFromArcIndices(graph, shortest));
+        notifyPathFound(0, paths.get(0));
+
+        // Plateau of each node: first node and cost from its first node (forward
+        // order), cost to its last node (backward order). An arc is a plateau arc
+        // if it belongs to both trees.
+        int[] plateauFirst = new int[nbNodes];
+        double[] fromFirst = new double[nbNodes], toLast = new double[nbNodes];
+        for (int node: forward.order) {
+            final int parent = forward.parents[node];
+            if (parent != -1 && backward.contains(node)
+                    && backward.arcs[parent] == forward.arcs[node]) {
+                plateauFirst[node] = plateauFirst[parent];
+                fromFirst[node] = fromFirst[parent] + costs[forward.arcs[node]];
+            }
+            else {
+                plateauFirst[node] = node;
+            }
+        }
+        for (int node: backward.order) {
+            final int parent = backward.parents[node];
+            if (parent != -1 && forward.contains(node)
+                    && forward.arcs[parent] == backward.arcs[node]) {
+                toLast[node] = toLast[parent] + costs[backward.arcs[node]];
+            }
+        }
+
+        // Candidate via nodes, by decreasing plateau cost.
+        final double maximumCost = this.maximumStretch * optimum;
+        List<Integer> candidates = new ArrayList<>();
+        for (int node: forward.order) {
+            if (backward.contains(node)
+                    && forward.distances[node] + backward.distances[node] <= maximumCost
+                    && fromFirst[node] + toLast[node] >= this.minimumLocalOptimality * optimum) {
+                candidates.add(node);
+            }
+        }
+        candidates.sort((u, v) -> Double.compare(fromFirst[v] + toLast[v],
+                fromFirst[u] + toLast[u]));
+
+        boolean[] triedPlateau = new boolean[nbNodes];
+        triedPlateau[plateauFirst[destination]] = true;
+        int[] visited = new int[nbNodes];
+        int stamp = 0;
+        boolean complete = true;
+        List<int[]> alternatives = new ArrayList<>();
+        List<Double> alternativeCosts = new ArrayList<>();
+        for (int via: candidates) {
+            if (alternatives.size() + 1 == data.getMaximumPaths()) {
+                break;
+            }
+            if (isTimeLimitReached()) {
+                complete = false;
+                break;
+            }
+            if (triedPlateau[plateauFirst[via]]) {
+                continue;
+            }
+            triedPlateau[plateauFirst[via]] = true;
+
+            int[] arcs = createViaPath(forward, backward, via);
+
+            // Sharing with the paths already accepted.
+            double shared = 0;
+            for (int a: arcs) {
+                if (used[a]) {
+                    shared += costs[a];
+                }
+            }
+            if (shared > this.maximumSharing * optimum) {
+                continue;
+            }
+
+            // Loops: the forward and backward parts may have nodes in common.
+            ++stamp;
+            visited[origin] = stamp;
+            boolean loop = false;
+            for (int i = 0; i < arcs.length && !loop; ++i) {
+                final int head = adjacency.getHead(arcs[i]);
+                loop = visited[head] == stamp;
+                visited[head] = stamp;
+            }
+            if (loop) {
+                continue;
+            }
+
+            for (int a: arcs) {
+                used[a] = true;
+            }
+            alternatives.add(arcs);
+            alternativeCosts.add(forward.distances[via] + backward.distances[via]);
+        }
+
+        // Alternatives are ranked by cost.
+        Integer[] ranks = new Integer[alternatives.size()];
+        for (int i = 0; i < ranks.length; ++i) {
+            ranks[i] = i;
+        }
+        Arrays.sort(ranks, (i, j) -> Double.compare(alternativeCosts.get(i),
+                alternativeCosts.get(j)));
+        for (int i: ranks) {
+            paths.add(Path.createFromArcIndices(graph, alternatives.get(i)));
+            notifyPathFound(paths.size() - 1, paths.get(paths.size() - 1));
+        }
+
+        return new AlternativePathsSolution(data, complete ? Status.OPTIMAL : Status.FEASIBLE,
+                paths);
+    }
+
+}
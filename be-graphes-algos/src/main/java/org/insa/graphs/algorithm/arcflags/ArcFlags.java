@@ -0,0 +1,323 @@
+package org.insa.graphs.algorithm.arcflags;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.partition.MultiLevelPartition;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.OneToManySearch;
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Arc flags of a graph for a given {@link ArcInspector}: the nodes are split in
+ * regions, and each arc has one flag per region, which is set if the arc is on
+ * a shortest path to a node of the region. A search towards a node only needs
+ * to follow the arcs whose flag is set for the region of this node.
+ * </p>
+ *
+ * <p>
+ * The flags of a region are set for the arcs inside the region, and for the
+ * arcs of the shortest path trees towards the entry nodes of the region (nodes
+ * of the region that are the head of an arc from another region): any shortest
+ * path to a node of the region is made of a shortest path to the last entry node
+ * it goes through, followed by arcs inside the region. The trees are computed
+ * by backward searches, in parallel for the regions.
+ * </p>
+ *
+ * <p>
+ * Flags are stored as bits, arc by arc. Arc flags are usually retrieved through
+ * {@link #get(Graph, ArcInspector)}, which uses the highest level of the
+ * partition of {@link MultiLevelPartition#get(Graph)} as regions, and keeps the
+ * flags next to the map files. Files hold a fingerprint of the graph and of the
+ * costs of its arcs (see {@link ArcCosts#fingerprint(Graph, double[])}), so
+ * that flags of another graph or inspector are not read.
+ * </p>
+ *
+ */
+public final class ArcFlags {
+
+    // Magic number and version of the files.
+    private static final int MAGIC_NUMBER = 0x41464c01;
+    private static final int VERSION = 2;
+
+    /**
+     * Extension of the files containing arc flags.
+     */
+    public static final String FILE_EXTENSION = "arcflags";
+
+    // ID of the map, and fingerprint of the graph and of the costs of its arcs.
+    private final String mapId;
+    private final long fingerprint;
+
+    // Region of each node, and number of regions.
+    private final int[] regions;
+    private final int nbRegions;
+
+    // Flags of the arcs, words words per arc.
+    private final int words;
+    private final long[] flags;
+
+    private ArcFlags(String mapId, long fingerprint, int[] regions, int nbRegions,
+            long[] flags) {
+        this.mapId = mapId;
+        this.fingerprint = fingerprint;
+        this.regions = regions;
+        this.nbRegions = nbRegions;
+        this.words = (nbRegions + 63) / 64;
+        this.flags = flags;
+    }
+
+    /**
+     * Retrieve the arc flags of the given graph and inspector. The flags are read
+     * from (or written to) the directory of {@link PreprocessingStore}, and only
+     * computed if they have not been computed yet.
+     *
+     * @param graph Graph of the flags.
+     * @param inspector Inspector giving the costs of the arcs.
+     *
+     * @return Arc flags for the given graph and inspector.
+     */
+    public static ArcFlags get(Graph graph, ArcInspector inspector) {
+        return PreprocessingStore.get(graph, inspector, FILE_EXTENSION,
+                file -> read(file, graph, inspector), () -> {
+                    MultiLevelPartition partition = MultiLevelPartition.get(graph);
+                    return compute(graph, inspector, partition,
+                            partition.getNumberOfLevels() - 1);
+                }, ArcFlags::write);
+    }
+
+    /**
+     * Compute the arc flags of the given graph, using the cells of the given level
+     * of a partition as regions.
+     *
+     * @param graph Graph of the flags.
+     * @param inspector Inspector giving the costs of the arcs.
+     * @param partition Partition of the graph.
+     * @param level Level of the partition, or {@code -1} to use a single region.
+     *
+     * @return Arc flags for the given graph and inspector.
+     *
+     * @throws IllegalArgumentException if the partition is not a partition of the
+     *         given graph.
+     */
+    public static ArcFlags compute(Graph graph, ArcInspector inspector,
+            MultiLevelPartition partition, int level) throws IllegalArgumentException {
+        if (!partition.getMapId().equals(graph.getMapId())
+                || (level >= 0 && partition.getNumberOfNodes() != graph.size())) {
+            throw new IllegalArgumentException("not a partition of this graph: " + partition.getMapId());
+        }
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int nbNodes = graph.size(), nbArcs = adjacency.getNumberOfArcs();
+        final int[] regions = new int[nbNodes];
+        final int nbRegions = level >= 0 ? partition.getNumberOfCells(level) : 1;
+        for (int node = 0; node < nbNodes && level >= 0; ++node) {
+            regions[node] = partition.getCell(level, node);
+        }
+
+        // Entry nodes of each region.
+        int[] entriesFirst = new int[nbRegions + 1];
+        boolean[] isEntry = new boolean[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                final int head = adjacency.getHead(a);
+                if (regions[head] != regions[node] && !isEntry[head]) {
+                    isEntry[head] = true;
+                    ++entriesFirst[regions[head] + 1];
+                }
+            }
+        }
+        for (int r = 0; r < nbRegions; ++r) {
+            entriesFirst[r + 1] += entriesFirst[r];
+        }
+        int[] entries = new int[entriesFirst[nbRegions]];
+        int[] next = entriesFirst.clone();
+        for (int node = 0; node < nbNodes; ++node) {
+            if (isEntry[node]) {
+                entries[next[regions[node]]++] = node;
+            }
+        }
+
+        // Flags of each region, as bits indexed by arc, then merged arc by arc.
+        final double[] costs = ArcCosts.compute(graph, inspector);
+        final int words = (nbRegions + 63) / 64;
+        long[][] regionFlags = new long[nbRegions][];
+        IntStream.range(0, nbRegions).parallel().forEach(r -> {
+            long[] bits = new long[(nbArcs + 63) / 64];
+            try (SearchWorkspace workspace = SearchWorkspace.acquire(nbNodes)) {
+                for (int i = entriesFirst[r]; i < entriesFirst[r + 1]; ++i) {
+                    workspace.reset();
+                    searchTree(adjacency, costs, entries[i], workspace, bits);
+                }
+            }
+            regionFlags[r] = bits;
+        });
+        long[] flags = new long[nbArcs * words];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                final int r = regions[node];
+                if (regions[adjacency.getHead(a)] == r && costs[a] != Double.POSITIVE_INFINITY) {
+                    flags[a * words + (r >>> 6)] |= 1L << r;
+                }
+            }
+        }
+        for (int r = 0; r < nbRegions; ++r) {
+            final long[] bits = regionFlags[r];
+            for (int a = 0; a < nbArcs; ++a) {
+                if ((bits[a >>> 6] & (1L << a)) != 0) {
+                    flags[a * words + (r >>> 6)] |= 1L << r;
+                }
+            }
+        }
+        return new ArcFlags(graph.getMapId(), ArcCosts.fingerprint(graph, costs), regions,
+                nbRegions, flags);
+    }
+
+    /**
+     * Run a backward search from the given node, and set the bits of the arcs of
+     * the shortest path tree towards this node.
+     */
+    private static void searchTree(AdjacencyArrays adjacency, double[] costs, int root,
+            SearchWorkspace workspace, long[] bits) {
+        OneToManySearch.run(adjacency, costs, true, root, workspace, (node, distance) -> {
+            final int predecessor = workspace.getPredecessorArc(node);
+            if (predecessor != -1) {
+                bits[predecessor >>> 6] |= 1L << predecessor;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * @return ID of the map of these flags.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Fingerprint of the graph and of the costs of its arcs for the
+     *         inspector of these flags (see
+     *         {@link ArcCosts#fingerprint(Graph, double[])}).
+     */
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * @return Number of regions.
+     */
+    public int getNumberOfRegions() {
+        return this.nbRegions;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Region of the given node.
+     */
+    public int getRegion(int node) {
+        return this.regions[node];
+    }
+
+    /**
+     * @param arc Index of an arc in the adjacency arrays of the graph.
+     * @param region A region.
+     *
+     * @return true if the given arc is on a shortest path to a node of the given
+     *         region.
+     */
+    public boolean isSet(int arc, int region) {
+        return (this.flags[arc * this.words + (region >>> 6)] & (1L << region)) != 0;
+    }
+
+    /**
+     * Write these flags to the given file.
+     *
+     * @param file File to write.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(File file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(VERSION);
+            output.writeUTF(this.mapId);
+            output.writeInt(this.regions.length);
+            output.writeInt(this.flags.length / this.words);
+            output.writeInt(this.nbRegions);
+            output.writeLong(this.fingerprint);
+            for (int region: this.regions) {
+                output.writeInt(region);
+            }
+            for (long word: this.flags) {
+                output.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * Read arc flags from the given file.
+     *
+     * @param file File to read.
+     * @param graph Graph of the flags.
+     * @param inspector Inspector of the flags.
+     *
+     * @return Arc flags read from the file.
+     *
+     * @throws IOException if the file cannot be read or does not contain flags of
+     *         the given graph and inspector.
+     */
+    public static ArcFlags read(File file, Graph graph, ArcInspector inspector)
+            throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC_NUMBER) {
+                throw new IOException("Not an arc flags file.");
+            }
+            final int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version: " + version + ".");
+            }
+            final String mapId = input.readUTF();
+            final int nbNodes = input.readInt(), nbArcs = input.readInt();
+            if (!mapId.equals(graph.getMapId()) || nbNodes != graph.size()
+                    || nbArcs != graph.getAdjacency().getNumberOfArcs()) {
+                throw new IOException("Arc flags of another map: " + mapId + ".");
+            }
+            final int nbRegions = input.readInt();
+            if (nbRegions <= 0 || nbRegions > nbNodes + 1) {
+                throw new IOException("Invalid number of regions: " + nbRegions + ".");
+            }
+            final long fingerprint = input.readLong();
+            if (fingerprint != ArcCosts.fingerprint(graph, inspector)) {
+                throw new IOException("Arc flags of another graph or inspector.");
+            }
+            int[] regions = new int[nbNodes];
+            for (int node = 0; node < nbNodes; ++node) {
+                regions[node] = input.readInt();
+                if (regions[node] < 0 || regions[node] >= nbRegions) {
+                    throw new IOException("Invalid region: " + regions[node] + ".");
+                }
+            }
+            long[] flags = new long[nbArcs * ((nbRegions + 63) / 64)];
+            for (int i = 0; i < flags.length; ++i) {
+                flags[i] = input.readLong();
+            }
+            return new ArcFlags(mapId, fingerprint, regions, nbRegions, flags);
+        }
+    }
+
+}
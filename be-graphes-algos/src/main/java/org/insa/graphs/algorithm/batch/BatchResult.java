@@ -0,0 +1,55 @@
+package org.insa.graphs.algorithm.batch;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+
+/**
+ * Solutions of a batch of queries, in the order of the queries, together with
+ * the statistics of the batch.
+ *
+ */
+public class BatchResult {
+
+    // Solutions of the queries.
+    private final List<ShortestPathSolution> solutions;
+
+    // Statistics of the batch.
+    private final BatchStatistics statistics;
+
+    /**
+     * Create a new result.
+     *
+     * @param solutions Solutions of the queries, in the order of the queries.
+     * @param statistics Statistics of the batch.
+     */
+    BatchResult(List<ShortestPathSolution> solutions, BatchStatistics statistics) {
+        this.solutions = Collections.unmodifiableList(solutions);
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return Solutions of the queries, in the order of the queries.
+     */
+    public List<ShortestPathSolution> getSolutions() {
+        return this.solutions;
+    }
+
+    /**
+     * @param index Index of a query.
+     *
+     * @return Solution of the query at the given index.
+     */
+    public ShortestPathSolution getSolution(int index) {
+        return this.solutions.get(index);
+    }
+
+    /**
+     * @return Statistics of the batch.
+     */
+    public BatchStatistics getStatistics() {
+        return this.statistics;
+    }
+
+}
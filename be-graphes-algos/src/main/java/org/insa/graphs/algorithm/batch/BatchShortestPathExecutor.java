@@ -0,0 +1,492 @@
+package org.insa.graphs.algorithm.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.OneToManySearch;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Executor solving large batches of shortest-path queries (origin, destination
+ * and arc inspector, see {@link ShortestPathData}) on a fixed pool of worker
+ * threads, over a single graph shared by all the workers.
+ * </p>
+ *
+ * <p>
+ * Algorithms are created through a factory given at construction (by default
+ * {@link DijkstraAlgorithm}), without reflection and without observers. The
+ * per-node state of the searches is kept in pooled
+ * {@link org.insa.graphs.algorithm.utils.SearchWorkspace}s, so that each worker
+ * reuses the same arrays from one query to the next.
+ * </p>
+ *
+ * <p>
+ * Queries can also be grouped by origin (and arc inspector): instead of one
+ * search per query, a single Dijkstra search is run from the common origin of
+ * a group until all the destinations of the group are settled, and the paths
+ * of all the queries are read from its tree. This is much faster when many
+ * queries share an origin (e.g., one depot and many customers). Only queries
+ * whose data only use the costs of their inspector are grouped (see
+ * {@link ShortestPathData#usesInspectorCostsOnly()}), other queries (e.g.,
+ * time-dependent ones) and origins with a single query are solved with the
+ * algorithm of the executor.
+ * </p>
+ *
+ * <p>
+ * Queries can be solved as a list, with solutions returned in the order of the
+ * queries, or streamed from an iterator, with solutions handed to a consumer
+ * as soon as they are found. In the latter case, only a bounded number of
+ * queries are submitted to the workers at any time, so that arbitrarily long
+ * streams can be solved in constant memory. Both methods return the statistics
+ * of the batch (throughput and latency percentiles).
+ * </p>
+ *
+ * <p>
+ * The graph must not be modified while queries are being solved.
+ * </p>
+ *
+ */
+public class BatchShortestPathExecutor implements AutoCloseable {
+
+    // Number of queries submitted per worker when streaming.
+    private static final int QUERIES_PER_WORKER = 4;
+
+    // Number of queries read at once from a stream to be grouped by origin.
+    private static final int GROUPING_WINDOW = 4096;
+
+    /**
+     * Solution of a query, with its index and latency (the latency of the search
+     * of its group for grouped queries).
+     */
+    private static final class Result {
+
+        final int index;
+        final ShortestPathSolution solution;
+        final long latency;
+
+        Result(int index, ShortestPathSolution solution, long latency) {
+            this.index = index;
+            this.solution = solution;
+            this.latency = latency;
+        }
+
+    }
+
+    // Graph of the queries.
+    private final Graph graph;
+
+    // Factory of the algorithm used to solve a query.
+    private final Function<ShortestPathData, ? extends ShortestPathAlgorithm> algorithmFactory;
+
+    // true if queries are grouped by origin.
+    private final boolean groupByOrigin;
+
+    // Workers.
+    private final int nbThreads;
+    private final ExecutorService workers;
+
+    /**
+     * Create a new executor solving queries with Dijkstra, grouped by origin,
+     * with one worker per available processor.
+     *
+     * @param graph Graph of the queries.
+     */
+    public BatchShortestPathExecutor(Graph graph) {
+        this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new executor solving queries with Dijkstra, grouped by origin.
+     *
+     * @param graph Graph of the queries.
+     * @param nbThreads Number of worker threads.
+     *
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public BatchShortestPathExecutor(Graph graph, int nbThreads) throws IllegalArgumentException {
+        this(graph, nbThreads, DijkstraAlgorithm::new, true);
+    }
+
+    /**
+     * Create a new executor solving queries with the given algorithm, without
+     * grouping them by origin.
+     *
+     * @param graph Graph of the queries.
+     * @param nbThreads Number of worker threads.
+     * @param algorithmFactory Factory creating the algorithm solving a query,
+     *        e.g., {@code AStarAlgorithm::new}. The algorithms created must not
+     *        share mutable state, since they are run concurrently.
+     *
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public BatchShortestPathExecutor(Graph graph, int nbThreads,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> algorithmFactory)
+            throws IllegalArgumentException {
+        this(graph, nbThreads, algorithmFactory, false);
+    }
+
+    /**
+     * Create a new executor solving queries with the given algorithm, possibly
+     * grouped by origin.
+     *
+     * @param graph Graph of the queries.
+     * @param nbThreads Number of worker threads.
+     * @param algorithmFactory Factory creating the algorithm solving a query that
+     *        is not grouped with other queries, e.g., {@code AStarAlgorithm::new}.
+     *        The algorithms created must not share mutable state, since they are
+     *        run concurrently.
+     * @param groupByOrigin true to solve the queries sharing an origin and an arc
+     *        inspector with a single search.
+     *
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public BatchShortestPathExecutor(Graph graph, int nbThreads,
+            Function<ShortestPathData, ? extends ShortestPathAlgorithm> algorithmFactory,
+            boolean groupByOrigin) throws IllegalArgumentException {
+        if (nbThreads <= 0) {
+            throw new IllegalArgumentException("invalid number of threads: " + nbThreads);
+        }
+        this.graph = graph;
+        this.algorithmFactory = algorithmFactory;
+        this.groupByOrigin = groupByOrigin;
+        this.nbThreads = nbThreads;
+        final AtomicInteger nbWorkers = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable,
+                    "batch-shortest-path-" + nbWorkers.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.workers = Executors.newFixedThreadPool(nbThreads, threadFactory);
+    }
+
+    /**
+     * @return Graph of the queries.
+     */
+    public Graph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @return true if the queries are grouped by origin.
+     */
+    public boolean isGroupingByOrigin() {
+        return this.groupByOrigin;
+    }
+
+    /**
+     * @return Number of worker threads.
+     */
+    public int getNumberOfThreads() {
+        return this.nbThreads;
+    }
+
+    /**
+     * Solve the given queries.
+     *
+     * @param queries Queries to solve, on the graph of this executor.
+     *
+     * @return Solutions of the queries, in the order of the queries, and
+     *         statistics of the batch.
+     *
+     * @throws IllegalArgumentException if a query is on another graph.
+     * @throws InterruptedException if the calling thread is interrupted while
+     *         waiting for the workers.
+     */
+    public BatchResult solveAll(List<? extends ShortestPathData> queries)
+            throws IllegalArgumentException, InterruptedException {
+        for (ShortestPathData query: queries) {
+            checkQuery(query);
+        }
+        final ShortestPathSolution[] solutions = new ShortestPathSolution[queries.size()];
+        final BatchStatistics statistics = solve(queries.iterator(),
+                (solution, index) -> solutions[index] = solution);
+        return new BatchResult(new ArrayList<>(Arrays.asList(solutions)), statistics);
+    }
+
+    /**
+     * Solve the given stream of queries.
+     *
+     * @param queries Queries to solve, on the graph of this executor.
+     * @param consumer Consumer of the solutions, see
+     *        {@link #solve(Iterator, ObjIntConsumer)}.
+     *
+     * @return Statistics of the batch.
+     *
+     * @throws IllegalArgumentException if a query is on another graph.
+     * @throws InterruptedException if the calling thread is interrupted while
+     *         waiting for the workers.
+     */
+    public BatchStatistics solve(Stream<? extends ShortestPathData> queries,
+            ObjIntConsumer<ShortestPathSolution> consumer)
+            throws IllegalArgumentException, InterruptedException {
+        return solve(queries.iterator(), consumer);
+    }
+
+    /**
+     * Solve the queries of the given iterator. Queries are read from the iterator
+     * as workers become available, and their solutions are handed to the given
+     * consumer as soon as they are found, in the calling thread, together with
+     * the index of the query in the iterator (solutions are thus not in the order
+     * of the queries).
+     *
+     * @param queries Queries to solve, on the graph of this executor.
+     * @param consumer Consumer of the solutions and of the indices of their
+     *        queries.
+     *
+     * @return Statistics of the batch.
+     *
+     * @throws IllegalArgumentException if a query is on another graph.
+     * @throws InterruptedException if the calling thread is interrupted while
+     *         waiting for the workers.
+     */
+    public BatchStatistics solve(Iterator<? extends ShortestPathData> queries,
+            ObjIntConsumer<ShortestPathSolution> consumer)
+            throws IllegalArgumentException, InterruptedException {
+        final CompletionService<List<Result>> completion = new ExecutorCompletionService<>(
+                this.workers);
+        final int windowSize = this.groupByOrigin ? GROUPING_WINDOW : 1;
+        final int maxPending = Math.max(QUERIES_PER_WORKER * this.nbThreads, windowSize);
+        final long start = System.nanoTime();
+        long[] latencies = new long[16];
+        int nbSubmitted = 0, nbCompleted = 0, nbFeasible = 0, nbSearches = 0;
+        while (nbCompleted < nbSubmitted || queries.hasNext()) {
+            while (nbSubmitted - nbCompleted < maxPending && queries.hasNext()) {
+                List<ShortestPathData> window = new ArrayList<>(windowSize);
+                while (window.size() < windowSize && queries.hasNext()) {
+                    final ShortestPathData query = queries.next();
+                    checkQuery(query);
+                    window.add(query);
+                }
+                nbSearches += submit(completion, window, nbSubmitted);
+                nbSubmitted += window.size();
+            }
+            for (Result result: getResults(completion)) {
+                if (nbCompleted == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, 2 * nbCompleted);
+                }
+                latencies[nbCompleted++] = result.latency;
+                if (result.solution.isFeasible()) {
+                    ++nbFeasible;
+                }
+                consumer.accept(result.solution, result.index);
+            }
+        }
+        return new BatchStatistics(nbFeasible, nbSearches, System.nanoTime() - start,
+                Arrays.copyOf(latencies, nbCompleted));
+    }
+
+    /**
+     * Stop the workers. Queries that are being solved are completed, but no new
+     * query can be solved.
+     */
+    @Override
+    public void close() {
+        this.workers.shutdown();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the given query is on another graph.
+     */
+    private void checkQuery(ShortestPathData query) throws IllegalArgumentException {
+        if (query.getGraph() != this.graph) {
+            throw new IllegalArgumentException(
+                    "query on another graph: " + query.getGraph().getMapId());
+        }
+    }
+
+    /**
+     * Key of a group of queries sharing an origin and an arc inspector.
+     */
+    private static final class GroupKey {
+
+        final int origin;
+        final ArcInspector arcInspector;
+
+        GroupKey(ShortestPathData query) {
+            this.origin = query.getOrigin().getId();
+            this.arcInspector = query.getArcInspector();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey key = (GroupKey) other;
+            return this.origin == key.origin && this.arcInspector == key.arcInspector;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.origin + System.identityHashCode(this.arcInspector);
+        }
+
+    }
+
+    /**
+     * Submit the searches solving the given queries, grouped by origin if needed.
+     *
+     * @param completion Completion service receiving the results.
+     * @param queries Queries to solve.
+     * @param firstIndex Index of the first query in the batch.
+     *
+     * @return Number of searches submitted.
+     */
+    private int submit(CompletionService<List<Result>> completion,
+            List<ShortestPathData> queries, int firstIndex) {
+        Map<GroupKey, List<Integer>> groups = new HashMap<>();
+        List<Integer> singles = new ArrayList<>();
+        for (int i = 0; i < queries.size(); ++i) {
+            final ShortestPathData query = queries.get(i);
+            if (this.groupByOrigin && query.usesInspectorCostsOnly()) {
+                groups.computeIfAbsent(new GroupKey(query), key -> new ArrayList<>()).add(i);
+            }
+            else {
+                singles.add(i);
+            }
+        }
+        int nbSearches = singles.size();
+        for (List<Integer> group: groups.values()) {
+            if (group.size() == 1) {
+                singles.add(group.get(0));
+                ++nbSearches;
+                continue;
+            }
+            final int[] indices = new int[group.size()];
+            final ShortestPathData[] data = new ShortestPathData[group.size()];
+            for (int i = 0; i < indices.length; ++i) {
+                indices[i] = firstIndex + group.get(i);
+                data[i] = queries.get(group.get(i));
+            }
+            completion.submit(() -> solveGroup(indices, data));
+            ++nbSearches;
+        }
+        for (int i: singles) {
+            final int index = firstIndex + i;
+            final ShortestPathData query = queries.get(i);
+            completion.submit(() -> Collections.singletonList(solveQuery(index, query)));
+        }
+        return nbSearches;
+    }
+
+    /**
+     * Solve the given query, in a worker.
+     */
+    private Result solveQuery(int index, ShortestPathData query) {
+        final long start = System.nanoTime();
+        final ShortestPathSolution solution = this.algorithmFactory.apply(query).run();
+        return new Result(index, solution, System.nanoTime() - start);
+    }
+
+    /**
+     * Solve the given queries, sharing an origin and an arc inspector, in a worker:
+     * the shortest path tree of the origin is built until all the destinations are
+     * settled, and the paths are read from its predecessors.
+     */
+    private List<Result> solveGroup(int[] indices, ShortestPathData[] queries) {
+        final long start = System.nanoTime();
+        final ShortestPathData data = queries[0];
+        final AdjacencyArrays adjacency = this.graph.getAdjacency();
+        final int origin = data.getOrigin().getId();
+
+        // Distinct destinations, sorted to be found by binary search.
+        int[] destinations = new int[queries.length];
+        for (int i = 0; i < queries.length; ++i) {
+            destinations[i] = queries[i].getDestination().getId();
+        }
+        Arrays.sort(destinations);
+        int nbTargets = 0;
+        for (int i = 0; i < destinations.length; ++i) {
+            if (i == 0 || destinations[i] != destinations[i - 1]) {
+                destinations[nbTargets++] = destinations[i];
+            }
+        }
+        final int[] targets = Arrays.copyOf(destinations, nbTargets);
+
+        // Grouped queries use the costs of their inspector (see submit).
+        final double[] costs = ArcCosts.get(this.graph, data.getArcInspector());
+        final ShortestPathSolution[] solutions = new ShortestPathSolution[queries.length];
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(this.graph.size())) {
+            final int[] remaining = { nbTargets };
+            OneToManySearch.run(adjacency, costs, false, origin, workspace,
+                    (node, distance) -> Arrays.binarySearch(targets, node) < 0
+                            || --remaining[0] > 0);
+
+            for (int i = 0; i < queries.length; ++i) {
+                final int destination = queries[i].getDestination().getId();
+                if (ShortestPathAlgorithm.isTrivial(queries[i].getOrigin(),
+                        queries[i].getDestination())
+                        || workspace.getPredecessorArc(destination) == -1) {
+                    solutions[i] = new ShortestPathSolution(queries[i], Status.INFEASIBLE);
+                    continue;
+                }
+                List<Arc> arcs = new ArrayList<>();
+                for (int a = workspace.getPredecessorArc(destination); a != -1;) {
+                    final Arc arc = adjacency.getArc(a);
+                    arcs.add(arc);
+                    a = workspace.getPredecessorArc(arc.getOrigin().getId());
+                }
+                Collections.reverse(arcs);
+                solutions[i] = new ShortestPathSolution(queries[i], Status.OPTIMAL,
+                        new Path(this.graph, arcs));
+            }
+        }
+
+        final long latency = System.nanoTime() - start;
+        List<Result> results = new ArrayList<>(queries.length);
+        for (int i = 0; i < queries.length; ++i) {
+            results.add(new Result(indices[i], solutions[i], latency));
+        }
+        return results;
+    }
+
+    /**
+     * Wait for the next results of the given completion service, rethrowing the
+     * exception thrown by the algorithm, if any.
+     */
+    private static List<Result> getResults(CompletionService<List<Result>> completion)
+            throws InterruptedException {
+        try {
+            return completion.take().get();
+        }
+        catch (ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package org.insa.graphs.algorithm.batch;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Statistics of a batch of queries solved by a {@link BatchShortestPathExecutor}:
+ * number of queries and of searches, total elapsed time, throughput and
+ * distribution of the latencies of the queries, i.e., of the time spent solving
+ * each of them (or the group of queries it belongs to, when queries are grouped
+ * by origin).
+ *
+ */
+public class BatchStatistics {
+
+    // Number of queries, of queries with a feasible solution, and of searches.
+    private final int nbQueries, nbFeasible, nbSearches;
+
+    // Elapsed time of the whole batch, in nanoseconds.
+    private final long elapsedTime;
+
+    // Sorted latencies of the queries, in nanoseconds.
+    private final long[] latencies;
+
+    /**
+     * Create new statistics.
+     *
+     * @param nbFeasible Number of queries with a feasible solution.
+     * @param nbSearches Number of searches run to solve the queries.
+     * @param elapsedTime Elapsed time of the whole batch, in nanoseconds.
+     * @param latencies Latencies of the queries, in nanoseconds (the array is
+     *        sorted in place).
+     */
+    BatchStatistics(int nbFeasible, int nbSearches, long elapsedTime, long[] latencies) {
+        Arrays.sort(latencies);
+        this.nbQueries = latencies.length;
+        this.nbFeasible = nbFeasible;
+        this.nbSearches = nbSearches;
+        this.elapsedTime = elapsedTime;
+        this.latencies = latencies;
+    }
+
+    /**
+     * @return Number of queries of the batch.
+     */
+    public int getNumberOfQueries() {
+        return this.nbQueries;
+    }
+
+    /**
+     * @return Number of queries of the batch with a feasible solution.
+     */
+    public int getNumberOfFeasibleQueries() {
+        return this.nbFeasible;
+    }
+
+    /**
+     * @return Number of searches run to solve the queries of the batch, lower
+     *         than the number of queries if some of them have been grouped by
+     *         origin.
+     */
+    public int getNumberOfSearches() {
+        return this.nbSearches;
+    }
+
+    /**
+     * @return Elapsed time of the whole batch.
+     */
+    public Duration getElapsedTime() {
+        return Duration.ofNanos(this.elapsedTime);
+    }
+
+    /**
+     * @return Number of queries solved per second, or 0 if the batch is empty.
+     */
+    public double getThroughput() {
+        return this.nbQueries == 0 ? 0 : this.nbQueries * 1e9 / Math.max(this.elapsedTime, 1);
+    }
+
+    /**
+     * Retrieve a percentile of the latencies of the queries (nearest-rank method).
+     *
+     * @param percentile Percentile to retrieve, in [0, 100] (e.g., 50 for the
+     *        median, 100 for the maximum).
+     *
+     * @return Latency such that the given percentage of the queries have been
+     *         solved in at most this time, or zero if the batch is empty.
+     *
+     * @throws IllegalArgumentException if the percentile is not in [0, 100].
+     */
+    public Duration getLatency(double percentile) throws IllegalArgumentException {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("invalid percentile: " + percentile);
+        }
+        if (this.nbQueries == 0) {
+            return Duration.ZERO;
+        }
+        final int rank = (int) Math.ceil(percentile / 100 * this.nbQueries);
+        return Duration.ofNanos(this.latencies[Math.max(rank, 1) - 1]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d queries (%d feasible, %d searches) in %.3f s, %.1f queries/s, "
+                        + "latency p50 = %.3f ms, p90 = %.3f ms, p99 = %.3f ms, max = %.3f ms",
+                this.nbQueries, this.nbFeasible, this.nbSearches, this.elapsedTime / 1e9,
+                getThroughput(), getLatency(50).toNanos() / 1e6, getLatency(90).toNanos() / 1e6,
+                getLatency(99).toNanos() / 1e6, getLatency(100).toNanos() / 1e6);
+    }
+
+}
@@ -0,0 +1,531 @@
+package org.insa.graphs.algorithm.contraction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Contraction hierarchy of a graph for a given {@link ArcInspector}: the nodes
+ * are ranked, and shortcuts are added so that the distance between any two
+ * nodes is the length of a path that first goes up the ranks, then down.
+ * </p>
+ * 
+ * <p>
+ * The edges of the hierarchy are the allowed arcs of the graph and the
+ * shortcuts, each shortcut being made of two edges going through a node of
+ * lower rank (see {@link #unpack(int, IntConsumer)}). The upward edges of a node
+ * lead to nodes of higher rank, and the downward edges of a node come from nodes
+ * of higher rank, so that a query only needs two upward searches.
+ * </p>
+ * 
+ * <p>
+ * The length and minimum travel time of the path of each edge are computed
+ * when the hierarchy is created (see {@link #getLength(int)}), so that they can
+ * be summed over the edges of a path without unpacking it.
+ * </p>
+ * 
+ * <p>
+ * Files hold the number of arcs of the graph and a fingerprint of the costs of
+ * its arcs (see {@link ArcCosts#fingerprint(Graph, double[])}), so that a
+ * hierarchy of another graph or inspector is not read.
+ * </p>
+ *
+ */
+public final class ContractionHierarchy {
+
+    // Magic number and version of the files.
+    private static final int MAGIC_NUMBER = 0x43480001;
+    private static final int VERSION = 2;
+
+    /**
+     * Extension of the files containing contraction hierarchies.
+     */
+    public static final String FILE_EXTENSION = "ch";
+
+    // ID of the map, number of arcs of the graph, and fingerprint of the graph
+    // and of the costs of its arcs.
+    private final String mapId;
+    private final int nbArcs;
+    private final long fingerprint;
+
+    // Rank of each node.
+    private final int[] rank;
+
+    // Edges: tail, head and weight, index of the arc of the graph (-1 for
+    // shortcuts), and edges of the shortcuts (-1 for arcs).
+    private final int nbEdges;
+    private final int[] tail, head, arc, first, second;
+    private final double[] weight;
+
+    // Length and minimum travel time of the path of each edge.
+    private final double[] length, time;
+
+    // Upward edges of each node, and downward edges to each node.
+    private final int[] upwardFirst, upwardEdges;
+    private final int[] downwardFirst, downwardEdges;
+
+    /**
+     * Create a new hierarchy from its edges (the arrays may be larger than the
+     * number of edges).
+     * 
+     * @param mapId ID of the map of the hierarchy.
+     * @param nbArcs Number of arcs of the graph.
+     * @param fingerprint Fingerprint of the graph and of the costs of its arcs
+     *        (see {@link ArcCosts#fingerprint(Graph, double[])}).
+     * @param adjacency Adjacency arrays of the graph.
+     * @param rank Rank of each node.
+     * @param nbEdges Number of edges.
+     * @param tail Tail of each edge.
+     * @param head Head of each edge.
+     * @param weight Weight of each edge.
+     * @param arc Index of the arc of each edge, or -1 for shortcuts.
+     * @param first First edge of each shortcut, or -1 for arcs.
+     * @param second Second edge of each shortcut, or -1 for arcs.
+     */
+    ContractionHierarchy(String mapId, int nbArcs, long fingerprint, AdjacencyArrays adjacency,
+            int[] rank, int nbEdges, int[] tail, int[] head, double[] weight, int[] arc,
+            int[] first, int[] second) {
+        this.mapId = mapId;
+        this.nbArcs = nbArcs;
+        this.fingerprint = fingerprint;
+        this.rank = rank;
+        this.nbEdges = nbEdges;
+        this.tail = Arrays.copyOf(tail, nbEdges);
+        this.head = Arrays.copyOf(head, nbEdges);
+        this.weight = Arrays.copyOf(weight, nbEdges);
+        this.arc = Arrays.copyOf(arc, nbEdges);
+        this.first = Arrays.copyOf(first, nbEdges);
+        this.second = Arrays.copyOf(second, nbEdges);
+        this.length = new double[nbEdges];
+        this.time = new double[nbEdges];
+        computeLengths(adjacency);
+
+        int[][] upward = buildIndex(true);
+        this.upwardFirst = upward[0];
+        this.upwardEdges = upward[1];
+        int[][] downward = buildIndex(false);
+        this.downwardFirst = downward[0];
+        this.downwardEdges = downward[1];
+    }
+
+    /**
+     * Compute the length and minimum travel time of the edges: the arcs first,
+     * then the shortcuts by increasing rank of their middle node, so that the
+     * edges of a shortcut, whose middle nodes have lower ranks, come before it.
+     */
+    private void computeLengths(AdjacencyArrays adjacency) {
+        final int nbNodes = this.rank.length;
+        int[] offsets = new int[nbNodes + 1];
+        for (int e = 0; e < this.nbEdges; ++e) {
+            if (this.arc[e] != -1) {
+                this.length[e] = adjacency.getLength(this.arc[e]);
+                this.time[e] = adjacency.getArc(this.arc[e]).getMinimumTravelTime();
+            }
+            else if (this.first[e] == -1 || this.weight[e] == Double.POSITIVE_INFINITY) {
+                // Shortcut of a customization without any path.
+                this.length[e] = this.time[e] = Double.POSITIVE_INFINITY;
+            }
+            else {
+                ++offsets[this.rank[this.head[this.first[e]]] + 1];
+            }
+        }
+        for (int r = 0; r < nbNodes; ++r) {
+            offsets[r + 1] += offsets[r];
+        }
+        int[] shortcuts = new int[offsets[nbNodes]];
+        for (int e = 0; e < this.nbEdges; ++e) {
+            if (this.arc[e] == -1 && this.first[e] != -1
+                    && this.weight[e] != Double.POSITIVE_INFINITY) {
+                shortcuts[offsets[this.rank[this.head[this.first[e]]]]++] = e;
+            }
+        }
+        for (int e: shortcuts) {
+            this.length[e] = this.length[this.first[e]] + this.length[this.second[e]];
+            this.time[e] = this.time[this.first[e]] + this.time[this.second[e]];
+        }
+    }
+
+    /**
+     * Build the index of the upward edges of each node (or of the downward edges
+     * to each node), keeping only the shortest edge between two nodes.
+     * 
+     * @return Offsets of the nodes and edges.
+     */
+    private int[][] buildIndex(boolean upward) {
+        final int nbNodes = this.rank.length;
+        int[] offsets = new int[nbNodes + 1];
+        for (int e = 0; e < this.nbEdges; ++e) {
+            if ((this.rank[this.tail[e]] < this.rank[this.head[e]]) == upward) {
+                ++offsets[(upward ? this.tail : this.head)[e] + 1];
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            offsets[node + 1] += offsets[node];
+        }
+        int[] edges = new int[offsets[nbNodes]];
+        int[] next = Arrays.copyOf(offsets, nbNodes);
+        for (int e = 0; e < this.nbEdges; ++e) {
+            if ((this.rank[this.tail[e]] < this.rank[this.head[e]]) == upward) {
+                edges[next[(upward ? this.tail : this.head)[e]]++] = e;
+            }
+        }
+
+        // Remove the edges that are longer than another edge between the same nodes.
+        int[] best = new int[nbNodes];
+        Arrays.fill(best, -1);
+        int[] first = new int[nbNodes + 1];
+        int size = 0;
+        for (int node = 0; node < nbNodes; ++node) {
+            first[node] = size;
+            for (int i = offsets[node]; i < offsets[node + 1]; ++i) {
+                final int e = edges[i];
+                final int other = (upward ? this.head : this.tail)[e];
+                if (best[other] == -1 || this.weight[e] < this.weight[best[other]]) {
+                    best[other] = e;
+                }
+            }
+            for (int i = offsets[node]; i < offsets[node + 1]; ++i) {
+                final int other = (upward ? this.head : this.tail)[edges[i]];
+                if (best[other] != -1) {
+                    edges[size++] = best[other];
+                    best[other] = -1;
+                }
+            }
+        }
+        first[nbNodes] = size;
+        return new int[][] { first, Arrays.copyOf(edges, size) };
+    }
+
+    /**
+     * Retrieve the hierarchy of the given graph and inspector. The hierarchy is
+     * read from (or written to) the directory of {@link PreprocessingStore}, and
+     * only computed if it has not been computed yet.
+     * 
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector of the hierarchy.
+     * 
+     * @return Contraction hierarchy for the given graph and inspector.
+     */
+    public static ContractionHierarchy get(Graph graph, ArcInspector inspector) {
+        return PreprocessingStore.get(graph, inspector, FILE_EXTENSION,
+                file -> read(file, graph, inspector), () -> compute(graph, inspector),
+                ContractionHierarchy::write);
+    }
+
+    /**
+     * Compute the hierarchy of the given graph and inspector (see
+     * {@link ContractionHierarchyBuilder}).
+     * 
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector giving the allowed arcs and their costs.
+     * 
+     * @return Contraction hierarchy for the given graph and inspector.
+     */
+    public static ContractionHierarchy compute(Graph graph, ArcInspector inspector) {
+        return new ContractionHierarchyBuilder(graph, ArcCosts.compute(graph, inspector))
+                .build();
+    }
+
+    /**
+     * @return ID of the map of this hierarchy.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Number of nodes of the graph of this hierarchy.
+     */
+    public int getNumberOfNodes() {
+        return this.rank.length;
+    }
+
+    /**
+     * @return Number of arcs of the graph of this hierarchy.
+     */
+    public int getNumberOfArcs() {
+        return this.nbArcs;
+    }
+
+    /**
+     * @return Fingerprint of the graph and of the costs of its arcs for the
+     *         inspector of this hierarchy (see
+     *         {@link ArcCosts#fingerprint(Graph, double[])}).
+     */
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * @return Number of edges (arcs and shortcuts) of this hierarchy.
+     */
+    public int getNumberOfEdges() {
+        return this.nbEdges;
+    }
+
+    /**
+     * @param node ID of a node.
+     * 
+     * @return Rank of the given node, from 0 (contracted first) to the number of
+     *         nodes minus one (contracted last).
+     */
+    public int getRank(int node) {
+        return this.rank[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     * 
+     * @return Position of the first upward edge of the given node.
+     */
+    public int getFirstUpwardEdge(int node) {
+        return this.upwardFirst[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     * 
+     * @return Position after the last upward edge of the given node.
+     */
+    public int getEndUpwardEdge(int node) {
+        return this.upwardFirst[node + 1];
+    }
+
+    /**
+     * @param position Position of an upward edge.
+     * 
+     * @return Index of the edge at the given position.
+     */
+    public int getUpwardEdge(int position) {
+        return this.upwardEdges[position];
+    }
+
+    /**
+     * @param node ID of a node.
+     * 
+     * @return Position of the first downward edge to the given node.
+     */
+    public int getFirstDownwardEdge(int node) {
+        return this.downwardFirst[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     * 
+     * @return Position after the last downward edge to the given node.
+     */
+    public int getEndDownwardEdge(int node) {
+        return this.downwardFirst[node + 1];
+    }
+
+    /**
+     * @param position Position of a downward edge.
+     * 
+     * @return Index of the edge at the given position.
+     */
+    public int getDownwardEdge(int position) {
+        return this.downwardEdges[position];
+    }
+
+    /**
+     * @param edge Index of an edge.
+     * 
+     * @return ID of the tail of the given edge.
+     */
+    public int getTail(int edge) {
+        return this.tail[edge];
+    }
+
+    /**
+     * @param edge Index of an edge.
+     * 
+     * @return ID of the head of the given edge.
+     */
+    public int getHead(int edge) {
+        return this.head[edge];
+    }
+
+    /**
+     * @param edge Index of an edge.
+     * 
+     * @return Weight of the given edge.
+     */
+    public double getWeight(int edge) {
+        return this.weight[edge];
+    }
+
+    /**
+     * @param edge Index of an edge.
+     * 
+     * @return Length of the path of the given edge, in meters (infinite for a
+     *         shortcut without any path).
+     */
+    public double getLength(int edge) {
+        return this.length[edge];
+    }
+
+    /**
+     * @param edge Index of an edge.
+     * 
+     * @return Minimum travel time of the path of the given edge, in seconds
+     *         (infinite for a shortcut without any path).
+     */
+    public double getMinimumTravelTime(int edge) {
+        return this.time[edge];
+    }
+
+    /**
+     * @param edge Index of an edge.
+     * 
+     * @return true if the given edge is a shortcut.
+     */
+    public boolean isShortcut(int edge) {
+        return this.arc[edge] == -1;
+    }
+
+    /**
+     * Replace the given edge by the arcs of the graph it is made of.
+     * 
+     * @param edge Index of an edge.
+     * @param arcs Function called with the index of each arc (see
+     *        {@link org.insa.graphs.model.AdjacencyArrays}), in path order.
+     */
+    public void unpack(int edge, IntConsumer arcs) {
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = edge;
+        while (size > 0) {
+            final int e = stack[--size];
+            if (this.arc[e] != -1) {
+                arcs.accept(this.arc[e]);
+            }
+            else {
+                if (size + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                }
+                stack[size++] = this.second[e];
+                stack[size++] = this.first[e];
+            }
+        }
+    }
+
+    /**
+     * Write this hierarchy to the given file.
+     * 
+     * @param file File to write.
+     * 
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(File file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(VERSION);
+            output.writeUTF(this.mapId);
+            output.writeInt(this.rank.length);
+            output.writeInt(this.nbArcs);
+            output.writeLong(this.fingerprint);
+            output.writeInt(this.nbEdges);
+            for (int r: this.rank) {
+                output.writeInt(r);
+            }
+            for (int e = 0; e < this.nbEdges; ++e) {
+                output.writeInt(this.tail[e]);
+                output.writeInt(this.head[e]);
+                output.writeDouble(this.weight[e]);
+                output.writeInt(this.arc[e]);
+                output.writeInt(this.first[e]);
+                output.writeInt(this.second[e]);
+            }
+        }
+    }
+
+    /**
+     * Read a hierarchy from the given file.
+     * 
+     * @param file File to read.
+     * @param graph Graph of the hierarchy.
+     * @param inspector Inspector of the hierarchy.
+     * 
+     * @return Hierarchy read from the file.
+     * 
+     * @throws IOException if the file cannot be read or does not contain a
+     *         hierarchy of the given graph and inspector.
+     */
+    public static ContractionHierarchy read(File file, Graph graph, ArcInspector inspector)
+            throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC_NUMBER) {
+                throw new IOException("Not a contraction hierarchy file.");
+            }
+            final int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version: " + version + ".");
+            }
+            final String mapId = input.readUTF();
+            final int nbNodes = input.readInt();
+            final int nbArcs = input.readInt();
+            if (!mapId.equals(graph.getMapId()) || nbNodes != graph.size()
+                    || nbArcs != graph.getAdjacency().getNumberOfArcs()) {
+                throw new IOException("Hierarchy of another map: " + mapId + ".");
+            }
+            final long fingerprint = input.readLong();
+            if (fingerprint != ArcCosts.fingerprint(graph, inspector)) {
+                throw new IOException("Hierarchy of another graph or inspector.");
+            }
+            final int nbEdges = input.readInt();
+            if (nbEdges < 0) {
+                throw new IOException("Invalid number of edges: " + nbEdges + ".");
+            }
+            int[] rank = new int[nbNodes];
+            for (int node = 0; node < nbNodes; ++node) {
+                rank[node] = input.readInt();
+            }
+            int[] tail = new int[nbEdges], head = new int[nbEdges], arc = new int[nbEdges],
+                    first = new int[nbEdges], second = new int[nbEdges];
+            double[] weight = new double[nbEdges];
+            for (int e = 0; e < nbEdges; ++e) {
+                tail[e] = input.readInt();
+                head[e] = input.readInt();
+                weight[e] = input.readDouble();
+                arc[e] = input.readInt();
+                first[e] = input.readInt();
+                second[e] = input.readInt();
+                if (tail[e] < 0 || tail[e] >= nbNodes || head[e] < 0 || head[e] >= nbNodes
+                        || arc[e] >= nbArcs || first[e] >= nbEdges || second[e] >= nbEdges) {
+                    throw new IOException("Invalid edge: " + e + ".");
+                }
+            }
+
+            // Shortcuts must go through a node of lower rank, so that unpacking ends.
+            for (int e = 0; e < nbEdges; ++e) {
+                if (arc[e] >= 0 || weight[e] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                if (first[e] < 0 || second[e] < 0 || tail[first[e]] != tail[e]
+                        || head[first[e]] != tail[second[e]] || head[second[e]] != head[e]
+                        || rank[head[first[e]]] >= Math.min(rank[tail[e]], rank[head[e]])) {
+                    throw new IOException("Invalid shortcut: " + e + ".");
+                }
+            }
+            return new ContractionHierarchy(mapId, nbArcs, fingerprint, graph.getAdjacency(),
+                    rank, nbEdges, tail, head, weight, arc, first, second);
+        }
+    }
+
+}
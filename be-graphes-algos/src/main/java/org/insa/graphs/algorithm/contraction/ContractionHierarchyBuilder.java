@@ -0,0 +1,455 @@
+package org.insa.graphs.algorithm.contraction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Computation of a {@link ContractionHierarchy}: nodes are contracted one after
+ * the other, and when a node is contracted, a shortcut is added between two of
+ * its neighbors unless a witness search finds a path between them that avoids
+ * the node and is not longer.
+ * </p>
+ * 
+ * <p>
+ * Nodes are ordered by priority, combining their edge difference (number of
+ * shortcuts that their contraction would add, minus the number of their edges),
+ * their number of contracted neighbors and their depth in the hierarchy. The
+ * contraction is run in rounds: each round contracts in parallel the nodes
+ * whose priority is lower than the priority of all their neighbors. These nodes
+ * are independent, and witness searches avoid them, so the shortcuts of a node
+ * do not depend on the other nodes of the round. The priorities of their
+ * neighbors are then updated in parallel.
+ * </p>
+ *
+ */
+final class ContractionHierarchyBuilder {
+
+    // Maximum number of nodes settled by a witness search when contracting a node
+    // and when computing its priority (when the limit is reached, a shortcut is
+    // added even though it may not be needed).
+    private static final int MAX_SETTLED = 500;
+    private static final int MAX_SETTLED_PRIORITY = 50;
+
+    // States of the nodes.
+    private static final byte ACTIVE = 0, SELECTED = 1, CONTRACTED = 2;
+
+    /**
+     * Shortcut found when contracting a node.
+     */
+    private static class Shortcut {
+
+        final int tail, head, first, second;
+        final double weight;
+
+        Shortcut(int tail, int head, double weight, int first, int second) {
+            this.tail = tail;
+            this.head = head;
+            this.weight = weight;
+            this.first = first;
+            this.second = second;
+        }
+
+    }
+
+    /**
+     * Set of target nodes of a witness search, cleared in constant time.
+     */
+    private static class TargetMarks {
+
+        private final int[] stamps;
+        private int generation = 0;
+
+        TargetMarks(int nbNodes) {
+            this.stamps = new int[nbNodes];
+        }
+
+        void clear() {
+            if (++this.generation == Integer.MAX_VALUE) {
+                Arrays.fill(this.stamps, 0);
+                this.generation = 1;
+            }
+        }
+
+        /**
+         * @return true if the node was not marked yet.
+         */
+        boolean mark(int node) {
+            if (this.stamps[node] == this.generation) {
+                return false;
+            }
+            this.stamps[node] = this.generation;
+            return true;
+        }
+
+        boolean isMarked(int node) {
+            return this.stamps[node] == this.generation;
+        }
+
+    }
+
+    private final String mapId;
+    private final AdjacencyArrays adjacency;
+    private final int nbNodes, nbArcs;
+    private final long fingerprint;
+
+    // Targets of the witness searches of each thread.
+    private final ThreadLocal<TargetMarks> targetMarks;
+
+    // Edges of the hierarchy (arcs and shortcuts).
+    private int nbEdges = 0;
+    private int[] tail, head, arc, first, second;
+    private double[] weight;
+
+    // Outgoing and incoming edges of each node that is not contracted (edges to
+    // contracted nodes are removed at the end of each round).
+    private final int[][] outEdges, inEdges;
+    private final int[] outSize, inSize;
+
+    // State, rank, priority, number of contracted neighbors and depth of each
+    // node.
+    private final byte[] state;
+    private final int[] rank;
+    private final double[] priority;
+    private final int[] deleted, depth;
+
+    /**
+     * Create a new builder for the given graph.
+     * 
+     * @param graph Graph to contract.
+     * @param costs Cost of each arc of the graph (infinite for arcs that are not
+     *        allowed).
+     */
+    ContractionHierarchyBuilder(Graph graph, double[] costs) {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        this.mapId = graph.getMapId();
+        this.adjacency = adjacency;
+        this.nbNodes = graph.size();
+        this.nbArcs = costs.length;
+        this.fingerprint = ArcCosts.fingerprint(graph, costs);
+        this.targetMarks = ThreadLocal.withInitial(() -> new TargetMarks(this.nbNodes));
+
+        final int capacity = Math.max(16, 2 * costs.length);
+        this.tail = new int[capacity];
+        this.head = new int[capacity];
+        this.arc = new int[capacity];
+        this.first = new int[capacity];
+        this.second = new int[capacity];
+        this.weight = new double[capacity];
+
+        this.outEdges = new int[this.nbNodes][];
+        this.inEdges = new int[this.nbNodes][];
+        this.outSize = new int[this.nbNodes];
+        this.inSize = new int[this.nbNodes];
+        for (int node = 0; node < this.nbNodes; ++node) {
+            this.outEdges[node] = new int[4];
+            this.inEdges[node] = new int[4];
+        }
+
+        this.state = new byte[this.nbNodes];
+        this.rank = new int[this.nbNodes];
+        this.priority = new double[this.nbNodes];
+        this.deleted = new int[this.nbNodes];
+        this.depth = new int[this.nbNodes];
+
+        for (int node = 0; node < this.nbNodes; ++node) {
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                if (adjacency.getHead(a) != node && costs[a] != Double.POSITIVE_INFINITY) {
+                    addEdge(node, adjacency.getHead(a), costs[a], a, -1, -1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add an edge to the hierarchy and to the lists of its nodes.
+     */
+    private void addEdge(int tail, int head, double weight, int arc, int first, int second) {
+        if (this.nbEdges == this.tail.length) {
+            final int capacity = 2 * this.nbEdges;
+            this.tail = Arrays.copyOf(this.tail, capacity);
+            this.head = Arrays.copyOf(this.head, capacity);
+            this.arc = Arrays.copyOf(this.arc, capacity);
+            this.first = Arrays.copyOf(this.first, capacity);
+            this.second = Arrays.copyOf(this.second, capacity);
+            this.weight = Arrays.copyOf(this.weight, capacity);
+        }
+        final int e = this.nbEdges++;
+        this.tail[e] = tail;
+        this.head[e] = head;
+        this.weight[e] = weight;
+        this.arc[e] = arc;
+        this.first[e] = first;
+        this.second[e] = second;
+
+        if (this.outSize[tail] == this.outEdges[tail].length) {
+            this.outEdges[tail] = Arrays.copyOf(this.outEdges[tail], 2 * this.outSize[tail]);
+        }
+        this.outEdges[tail][this.outSize[tail]++] = e;
+        if (this.inSize[head] == this.inEdges[head].length) {
+            this.inEdges[head] = Arrays.copyOf(this.inEdges[head], 2 * this.inSize[head]);
+        }
+        this.inEdges[head][this.inSize[head]++] = e;
+    }
+
+    /**
+     * Collect the shortest edge to (or from) each active neighbor of the given
+     * node.
+     * 
+     * @return Number of neighbors, stored in neighbors and edges.
+     */
+    private int collectNeighbors(int node, boolean incoming, int[] neighbors, int[] edges) {
+        final int[] list = incoming ? this.inEdges[node] : this.outEdges[node];
+        final int size = incoming ? this.inSize[node] : this.outSize[node];
+        int count = 0;
+        for (int i = 0; i < size; ++i) {
+            final int e = list[i];
+            final int other = incoming ? this.tail[e] : this.head[e];
+            if (this.state[other] != ACTIVE || other == node) {
+                continue;
+            }
+            int j = 0;
+            while (j < count && neighbors[j] != other) {
+                ++j;
+            }
+            if (j == count) {
+                neighbors[count] = other;
+                edges[count++] = e;
+            }
+            else if (this.weight[e] < this.weight[edges[j]]) {
+                edges[j] = e;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Find the shortcuts needed to contract the given node.
+     * 
+     * @param node Node to contract.
+     * @param shortcuts List filled with the shortcuts, or null to only count them.
+     * @param maxSettled Maximum number of nodes settled by each witness search.
+     * 
+     * @return Number of shortcuts, and number of neighbors of the node.
+     */
+    private int[] findShortcuts(int node, List<Shortcut> shortcuts, int maxSettled) {
+        final int[] inNeighbors = new int[this.inSize[node]], inEdges = new int[this.inSize[node]];
+        final int[] outNeighbors = new int[this.outSize[node]],
+                outEdges = new int[this.outSize[node]];
+        final int nbIn = collectNeighbors(node, true, inNeighbors, inEdges);
+        final int nbOut = collectNeighbors(node, false, outNeighbors, outEdges);
+
+        double maxOut = 0;
+        for (int j = 0; j < nbOut; ++j) {
+            maxOut = Math.max(maxOut, this.weight[outEdges[j]]);
+        }
+
+        int count = 0;
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(this.nbNodes)) {
+            for (int i = 0; i < nbIn; ++i) {
+                final int source = inNeighbors[i];
+                final double inWeight = this.weight[inEdges[i]];
+                witnessSearch(workspace, source, node, inWeight + maxOut, outNeighbors, nbOut,
+                        maxSettled);
+                for (int j = 0; j < nbOut; ++j) {
+                    final int target = outNeighbors[j];
+                    final double length = inWeight + this.weight[outEdges[j]];
+                    if (target == source || workspace.getDistance(target) <= length) {
+                        continue;
+                    }
+                    ++count;
+                    if (shortcuts != null) {
+                        shortcuts.add(
+                                new Shortcut(source, target, length, inEdges[i], outEdges[j]));
+                    }
+                }
+            }
+        }
+        return new int[] { count, nbIn + nbOut };
+    }
+
+    /**
+     * Run a Dijkstra from the given source among the active nodes, avoiding the
+     * given node, until the targets are settled, or the given distance or the
+     * maximum number of settled nodes is reached. The distances of the workspace
+     * are then the lengths of paths from the source (not necessarily the shortest
+     * ones).
+     */
+    private void witnessSearch(SearchWorkspace workspace, int source, int avoided,
+            double limit, int[] targets, int nbTargets, int maxSettled) {
+        workspace.reset();
+        final IndexedPriorityQueue queue = workspace.getQueue();
+        final TargetMarks marks = this.targetMarks.get();
+        marks.clear();
+        int remaining = 0;
+        for (int j = 0; j < nbTargets; ++j) {
+            if (targets[j] != source && marks.mark(targets[j])) {
+                ++remaining;
+            }
+        }
+        if (remaining == 0) {
+            return;
+        }
+        workspace.visit(source, 0);
+        workspace.update(source, 0, -1);
+        queue.insert(source, 0);
+        for (int settled = 0; settled < maxSettled && !queue.isEmpty(); ++settled) {
+            final int node = queue.deleteMin();
+            workspace.settle(node);
+            final double distance = workspace.getDistance(node);
+            if (distance > limit) {
+                break;
+            }
+            if (marks.isMarked(node) && --remaining == 0) {
+                break;
+            }
+            for (int i = 0; i < this.outSize[node]; ++i) {
+                final int e = this.outEdges[node][i];
+                final int next = this.head[e];
+                if (next == avoided || this.state[next] != ACTIVE || workspace.isSettled(next)) {
+                    continue;
+                }
+                if (!workspace.isVisited(next)) {
+                    workspace.visit(next, 0);
+                }
+                final double newDistance = distance + this.weight[e];
+                if (newDistance < workspace.getDistance(next)) {
+                    workspace.update(next, newDistance, e);
+                    if (queue.contains(next)) {
+                        queue.decreaseKey(next, newDistance);
+                    }
+                    else {
+                        queue.insert(next, newDistance);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the priority of the given node.
+     */
+    private void updatePriority(int node) {
+        final int[] counts = findShortcuts(node, null, MAX_SETTLED_PRIORITY);
+        this.priority[node] = 2 * (counts[0] - counts[1]) + this.deleted[node]
+                + this.depth[node];
+    }
+
+    /**
+     * @return true if the priority of the given node is lower than the priority of
+     *         all its active neighbors (ties are broken by ID).
+     */
+    private boolean isLocalMinimum(int node) {
+        for (int i = 0; i < this.outSize[node] + this.inSize[node]; ++i) {
+            final int other = i < this.outSize[node] ? this.head[this.outEdges[node][i]]
+                    : this.tail[this.inEdges[node][i - this.outSize[node]]];
+            if (other != node && this.state[other] == ACTIVE
+                    && (this.priority[other] < this.priority[node]
+                            || (this.priority[other] == this.priority[node] && other < node))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove the edges of the given node that lead to (or come from) contracted
+     * nodes.
+     */
+    private void removeContracted(int node) {
+        int size = 0;
+        for (int i = 0; i < this.outSize[node]; ++i) {
+            final int e = this.outEdges[node][i];
+            if (this.state[this.head[e]] != CONTRACTED) {
+                this.outEdges[node][size++] = e;
+            }
+        }
+        this.outSize[node] = size;
+        size = 0;
+        for (int i = 0; i < this.inSize[node]; ++i) {
+            final int e = this.inEdges[node][i];
+            if (this.state[this.tail[e]] != CONTRACTED) {
+                this.inEdges[node][size++] = e;
+            }
+        }
+        this.inSize[node] = size;
+    }
+
+    /**
+     * Contract all the nodes.
+     * 
+     * @return The contraction hierarchy.
+     */
+    ContractionHierarchy build() {
+        IntStream.range(0, this.nbNodes).parallel().forEach(this::updatePriority);
+
+        int[] remaining = IntStream.range(0, this.nbNodes).toArray();
+        int nextRank = 0;
+        int[] stamp = new int[this.nbNodes];
+        int round = 0;
+        while (remaining.length > 0) {
+            ++round;
+
+            // Independent set of nodes, contracted in parallel.
+            final int[] selected = Arrays.stream(remaining).parallel()
+                    .filter(this::isLocalMinimum).toArray();
+            for (int node: selected) {
+                this.state[node] = SELECTED;
+            }
+            final List<List<Shortcut>> shortcuts = IntStream.range(0, selected.length).parallel()
+                    .mapToObj(i -> {
+                        List<Shortcut> found = new ArrayList<>();
+                        findShortcuts(selected[i], found, MAX_SETTLED);
+                        return found;
+                    }).collect(Collectors.toList());
+
+            // Add the shortcuts and collect the neighbors of the contracted nodes.
+            List<Integer> neighbors = new ArrayList<>();
+            for (int i = 0; i < selected.length; ++i) {
+                final int node = selected[i];
+                this.rank[node] = nextRank++;
+                this.state[node] = CONTRACTED;
+                for (Shortcut shortcut: shortcuts.get(i)) {
+                    addEdge(shortcut.tail, shortcut.head, shortcut.weight, -1, shortcut.first,
+                            shortcut.second);
+                }
+                for (int j = 0; j < this.outSize[node] + this.inSize[node]; ++j) {
+                    final int other = j < this.outSize[node]
+                            ? this.head[this.outEdges[node][j]]
+                            : this.tail[this.inEdges[node][j - this.outSize[node]]];
+                    if (this.state[other] != ACTIVE) {
+                        continue;
+                    }
+                    if (stamp[other] != round) {
+                        stamp[other] = round;
+                        neighbors.add(other);
+                        ++this.deleted[other];
+                    }
+                    this.depth[other] = Math.max(this.depth[other], this.depth[node] + 1);
+                }
+            }
+
+            // Update the neighbors (edges first, since priorities depend on the edges
+            // of other nodes).
+            neighbors.parallelStream().forEach(this::removeContracted);
+            neighbors.parallelStream().forEach(this::updatePriority);
+
+            remaining = Arrays.stream(remaining).filter(node -> this.state[node] == ACTIVE)
+                    .toArray();
+        }
+
+        return new ContractionHierarchy(this.mapId, this.nbArcs, this.fingerprint,
+                this.adjacency, this.rank, this.nbEdges, this.tail, this.head, this.weight,
+                this.arc, this.first, this.second);
+    }
+
+}
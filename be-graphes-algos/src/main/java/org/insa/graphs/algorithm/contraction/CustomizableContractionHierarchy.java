@@ -0,0 +1,463 @@
+package org.insa.graphs.algorithm.contraction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Customizable contraction hierarchy (CCH): the nodes of a graph are ranked by
+ * a nested dissection ordering that does not depend on the costs of the arcs
+ * (see {@link NestedDissection}), and the graph is completed with all the edges
+ * that the contraction of the nodes in this order may need, whatever the
+ * costs.
+ * </p>
+ * 
+ * <p>
+ * The weights of these edges are then computed for a given
+ * {@link ArcInspector} by {@link #customize(Graph, ArcInspector)}, which
+ * results in a regular {@link ContractionHierarchy}. The customization only
+ * relaxes the triangles of the edges, level by level (in parallel within a
+ * level), so a new inspector only takes a few seconds, even on large graphs.
+ * </p>
+ * 
+ * <p>
+ * Edges are undirected: each edge links a node to a node of higher rank, and has
+ * an upward weight (from the lower node) and a downward weight (to the lower
+ * node). Nodes are identified by their rank internally.
+ * </p>
+ *
+ */
+public final class CustomizableContractionHierarchy {
+
+    // Magic number and version of the files.
+    private static final int MAGIC_NUMBER = 0x43434801;
+    private static final int VERSION = 1;
+
+    /**
+     * Extension of the files containing the ordering of customizable contraction
+     * hierarchies.
+     */
+    public static final String FILE_EXTENSION = "cch";
+
+    // ID of the map.
+    private final String mapId;
+
+    // Rank of each node, and node of each rank.
+    private final int[] rank, order;
+
+    // Edges to higher ranks of each rank (sorted), and edges from lower ranks of
+    // each rank (with the index of the edge).
+    private final int[] upwardFirst, upwardHeads;
+    private final int[] downwardFirst, downwardTails, downwardEdges;
+
+    // Edge of each arc of the graph (-1 for loops), and whether the arc goes up.
+    private final int[] arcEdges;
+    private final boolean[] arcUpward;
+
+    // Ranks sorted by level, a rank only having edges from lower levels.
+    private final int[] levelFirst, levelRanks;
+
+    // Customized hierarchies, by inspector.
+    private final Map<String, ContractionHierarchy> customizations = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new customizable hierarchy for the given graph and ranks.
+     * 
+     * @param graph Graph of the hierarchy.
+     * @param rank Rank of each node.
+     */
+    private CustomizableContractionHierarchy(Graph graph, int[] rank) {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int nbNodes = graph.size();
+        this.mapId = graph.getMapId();
+        this.rank = rank;
+        this.order = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            this.order[rank[node]] = node;
+        }
+
+        // Initial edges, then contraction of the ranks in increasing order: the
+        // higher neighbors of a rank are all linked to the lowest of them.
+        int[][] higher = new int[nbNodes][];
+        int[] sizes = new int[nbNodes];
+        for (int r = 0; r < nbNodes; ++r) {
+            higher[r] = new int[4];
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                final int r = rank[node], s = rank[adjacency.getHead(a)];
+                if (r != s) {
+                    add(higher, sizes, Math.min(r, s), Math.max(r, s));
+                }
+            }
+        }
+        this.upwardFirst = new int[nbNodes + 1];
+        int nbEdges = 0;
+        for (int r = 0; r < nbNodes; ++r) {
+            int[] neighbors = Arrays.copyOf(higher[r], sizes[r]);
+            Arrays.sort(neighbors);
+            int size = 0;
+            for (int i = 0; i < neighbors.length; ++i) {
+                if (i == 0 || neighbors[i] != neighbors[i - 1]) {
+                    neighbors[size++] = neighbors[i];
+                }
+            }
+            higher[r] = Arrays.copyOf(neighbors, size);
+            for (int i = 1; i < size; ++i) {
+                add(higher, sizes, higher[r][0], higher[r][i]);
+            }
+            nbEdges += size;
+            this.upwardFirst[r + 1] = nbEdges;
+        }
+        this.upwardHeads = new int[nbEdges];
+        for (int r = 0; r < nbNodes; ++r) {
+            System.arraycopy(higher[r], 0, this.upwardHeads, this.upwardFirst[r],
+                    higher[r].length);
+            higher[r] = null;
+        }
+
+        // Reverse index of the edges.
+        this.downwardFirst = new int[nbNodes + 1];
+        for (int e = 0; e < nbEdges; ++e) {
+            ++this.downwardFirst[this.upwardHeads[e] + 1];
+        }
+        for (int r = 0; r < nbNodes; ++r) {
+            this.downwardFirst[r + 1] += this.downwardFirst[r];
+        }
+        this.downwardTails = new int[nbEdges];
+        this.downwardEdges = new int[nbEdges];
+        int[] next = Arrays.copyOf(this.downwardFirst, nbNodes);
+        for (int r = 0; r < nbNodes; ++r) {
+            for (int e = this.upwardFirst[r]; e < this.upwardFirst[r + 1]; ++e) {
+                final int position = next[this.upwardHeads[e]]++;
+                this.downwardTails[position] = r;
+                this.downwardEdges[position] = e;
+            }
+        }
+
+        // Edge of each arc.
+        this.arcEdges = new int[adjacency.getNumberOfArcs()];
+        this.arcUpward = new boolean[adjacency.getNumberOfArcs()];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                final int r = rank[node], s = rank[adjacency.getHead(a)];
+                this.arcEdges[a] = r == s ? -1 : findEdge(Math.min(r, s), Math.max(r, s));
+                this.arcUpward[a] = r < s;
+            }
+        }
+
+        // Levels of the ranks.
+        int[] level = new int[nbNodes];
+        int nbLevels = 0;
+        for (int r = 0; r < nbNodes; ++r) {
+            for (int e = this.upwardFirst[r]; e < this.upwardFirst[r + 1]; ++e) {
+                level[this.upwardHeads[e]] = Math.max(level[this.upwardHeads[e]], level[r] + 1);
+            }
+            nbLevels = Math.max(nbLevels, level[r] + 1);
+        }
+        this.levelFirst = new int[nbLevels + 1];
+        for (int r = 0; r < nbNodes; ++r) {
+            ++this.levelFirst[level[r] + 1];
+        }
+        for (int l = 0; l < nbLevels; ++l) {
+            this.levelFirst[l + 1] += this.levelFirst[l];
+        }
+        this.levelRanks = new int[nbNodes];
+        next = Arrays.copyOf(this.levelFirst, nbLevels);
+        for (int r = 0; r < nbNodes; ++r) {
+            this.levelRanks[next[level[r]]++] = r;
+        }
+    }
+
+    /**
+     * Add a higher neighbor to the given rank.
+     */
+    private static void add(int[][] higher, int[] sizes, int r, int s) {
+        if (sizes[r] == higher[r].length) {
+            higher[r] = Arrays.copyOf(higher[r], 2 * sizes[r]);
+        }
+        higher[r][sizes[r]++] = s;
+    }
+
+    /**
+     * @return Index of the edge between the given ranks (r lower than s).
+     */
+    private int findEdge(int r, int s) {
+        return Arrays.binarySearch(this.upwardHeads, this.upwardFirst[r], this.upwardFirst[r + 1],
+                s);
+    }
+
+    /**
+     * Retrieve the customizable hierarchy of the given graph. The ordering of the
+     * hierarchy is read from (or written to) the directory of
+     * {@link PreprocessingStore}, and only computed if it has not been computed
+     * yet.
+     * 
+     * @param graph Graph of the hierarchy.
+     * 
+     * @return Customizable contraction hierarchy for the given graph.
+     */
+    public static CustomizableContractionHierarchy get(Graph graph) {
+        return PreprocessingStore.get(graph, FILE_EXTENSION, file -> read(file, graph),
+                () -> compute(graph), CustomizableContractionHierarchy::write);
+    }
+
+    /**
+     * Compute the ordering of the given graph, and the edges of the hierarchy.
+     * 
+     * @param graph Graph of the hierarchy.
+     * 
+     * @return Customizable contraction hierarchy for the given graph.
+     */
+    public static CustomizableContractionHierarchy compute(Graph graph) {
+        return new CustomizableContractionHierarchy(graph,
+                new NestedDissection(graph).computeRanks());
+    }
+
+    /**
+     * @return ID of the map of this hierarchy.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @param node ID of a node.
+     * 
+     * @return Rank of the given node.
+     */
+    public int getRank(int node) {
+        return this.rank[node];
+    }
+
+    /**
+     * @return Number of edges of this hierarchy (each edge having an upward and a
+     *         downward weight).
+     */
+    public int getNumberOfEdges() {
+        return this.upwardHeads.length;
+    }
+
+    /**
+     * @return Number of levels of this hierarchy, i.e., the number of steps of the
+     *         customization.
+     */
+    public int getNumberOfLevels() {
+        return this.levelFirst.length - 1;
+    }
+
+    /**
+     * Retrieve the hierarchy customized for the given inspector, which is computed
+     * on the first call for an inspector (see
+     * {@link PreprocessingStore#getInspectorKey(ArcInspector)}).
+     * 
+     * @param graph Graph of this hierarchy.
+     * @param inspector An arc inspector.
+     * 
+     * @return Contraction hierarchy for the given inspector.
+     */
+    public ContractionHierarchy getCustomization(Graph graph, ArcInspector inspector) {
+        return this.customizations.computeIfAbsent(
+                PreprocessingStore.getInspectorKey(inspector), key -> customize(graph, inspector));
+    }
+
+    /**
+     * Compute the weights of the edges for the given inspector: each edge gets the
+     * cost of its arcs, then the edges of each rank are relaxed through their
+     * lower triangles, level by level.
+     * 
+     * @param graph Graph of this hierarchy.
+     * @param inspector An arc inspector.
+     * 
+     * @return Contraction hierarchy for the given inspector.
+     * 
+     * @throws IllegalArgumentException if the graph is not the graph of this
+     *         hierarchy.
+     */
+    public ContractionHierarchy customize(Graph graph, ArcInspector inspector)
+            throws IllegalArgumentException {
+        if (!graph.getMapId().equals(this.mapId) || graph.size() != this.rank.length
+                || graph.getAdjacency().getNumberOfArcs() != this.arcEdges.length) {
+            throw new IllegalArgumentException("not the graph of this hierarchy: " + graph.getMapId());
+        }
+        final double[] costs = ArcCosts.compute(graph, inspector);
+        final int nbEdges = this.upwardHeads.length;
+
+        // Weights and arcs (or middle rank of the shortcuts) of the edges, upward
+        // and downward.
+        final double[] upward = new double[nbEdges], downward = new double[nbEdges];
+        final int[] upwardArc = new int[nbEdges], downwardArc = new int[nbEdges];
+        final int[] upwardMiddle = new int[nbEdges], downwardMiddle = new int[nbEdges];
+        Arrays.fill(upward, Double.POSITIVE_INFINITY);
+        Arrays.fill(downward, Double.POSITIVE_INFINITY);
+        Arrays.fill(upwardArc, -1);
+        Arrays.fill(downwardArc, -1);
+        Arrays.fill(upwardMiddle, -1);
+        Arrays.fill(downwardMiddle, -1);
+        for (int a = 0; a < costs.length; ++a) {
+            final int e = this.arcEdges[a];
+            if (e == -1) {
+                continue;
+            }
+            if (this.arcUpward[a] && costs[a] < upward[e]) {
+                upward[e] = costs[a];
+                upwardArc[e] = a;
+            }
+            else if (!this.arcUpward[a] && costs[a] < downward[e]) {
+                downward[e] = costs[a];
+                downwardArc[e] = a;
+            }
+        }
+
+        // Each rank only updates its own edges, from edges of lower levels.
+        final ThreadLocal<int[]> edgeOf = ThreadLocal.withInitial(() -> {
+            int[] edges = new int[this.rank.length];
+            Arrays.fill(edges, -1);
+            return edges;
+        });
+        for (int l = 0; l < getNumberOfLevels(); ++l) {
+            IntStream.range(this.levelFirst[l], this.levelFirst[l + 1]).parallel().forEach(i -> {
+                final int r = this.levelRanks[i];
+                final int[] edges = edgeOf.get();
+                for (int f = this.upwardFirst[r]; f < this.upwardFirst[r + 1]; ++f) {
+                    edges[this.upwardHeads[f]] = f;
+                }
+
+                // Triangle (v, r, s) for each lower rank v, and each higher rank s of v
+                // that is higher than r.
+                for (int j = this.downwardFirst[r]; j < this.downwardFirst[r + 1]; ++j) {
+                    final int v = this.downwardTails[j], low = this.downwardEdges[j];
+                    for (int e = low + 1; e < this.upwardFirst[v + 1]; ++e) {
+                        final int f = edges[this.upwardHeads[e]];
+                        final double up = downward[low] + upward[e];
+                        if (up < upward[f]) {
+                            upward[f] = up;
+                            upwardArc[f] = -1;
+                            upwardMiddle[f] = v;
+                        }
+                        final double down = downward[e] + upward[low];
+                        if (down < downward[f]) {
+                            downward[f] = down;
+                            downwardArc[f] = -1;
+                            downwardMiddle[f] = v;
+                        }
+                    }
+                }
+
+                for (int f = this.upwardFirst[r]; f < this.upwardFirst[r + 1]; ++f) {
+                    edges[this.upwardHeads[f]] = -1;
+                }
+            });
+        }
+
+        // Edges of the hierarchy: 2 * e upward, 2 * e + 1 downward, the edges of
+        // the shortcuts being found from their middle rank.
+        final int[] tail = new int[2 * nbEdges], head = new int[2 * nbEdges];
+        final int[] arc = new int[2 * nbEdges], first = new int[2 * nbEdges],
+                second = new int[2 * nbEdges];
+        final double[] weight = new double[2 * nbEdges];
+        IntStream.range(0, this.rank.length).parallel().forEach(r -> {
+            for (int e = this.upwardFirst[r]; e < this.upwardFirst[r + 1]; ++e) {
+                final int s = this.upwardHeads[e];
+                tail[2 * e] = head[2 * e + 1] = this.order[r];
+                head[2 * e] = tail[2 * e + 1] = this.order[s];
+                weight[2 * e] = upward[e];
+                weight[2 * e + 1] = downward[e];
+                arc[2 * e] = upwardArc[e];
+                arc[2 * e + 1] = downwardArc[e];
+                first[2 * e] = second[2 * e] = first[2 * e + 1] = second[2 * e + 1] = -1;
+                if (upwardMiddle[e] != -1) {
+                    final int v = upwardMiddle[e];
+                    first[2 * e] = 2 * findEdge(v, r) + 1;
+                    second[2 * e] = 2 * findEdge(v, s);
+                }
+                if (downwardMiddle[e] != -1) {
+                    final int v = downwardMiddle[e];
+                    first[2 * e + 1] = 2 * findEdge(v, s) + 1;
+                    second[2 * e + 1] = 2 * findEdge(v, r);
+                }
+            }
+        });
+        return new ContractionHierarchy(this.mapId, costs.length,
+                ArcCosts.fingerprint(graph, costs), graph.getAdjacency(), this.rank, 2 * nbEdges,
+                tail, head, weight, arc, first, second);
+    }
+
+    /**
+     * Write the ordering of this hierarchy to the given file.
+     * 
+     * @param file File to write.
+     * 
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(File file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(VERSION);
+            output.writeUTF(this.mapId);
+            output.writeInt(this.rank.length);
+            for (int r: this.rank) {
+                output.writeInt(r);
+            }
+        }
+    }
+
+    /**
+     * Read the ordering of a hierarchy from the given file, and compute the edges
+     * of the hierarchy.
+     * 
+     * @param file File to read.
+     * @param graph Graph of the hierarchy.
+     * 
+     * @return Hierarchy read from the file.
+     * 
+     * @throws IOException if the file cannot be read or does not contain an
+     *         ordering of the given graph.
+     */
+    public static CustomizableContractionHierarchy read(File file, Graph graph)
+            throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC_NUMBER) {
+                throw new IOException("Not a customizable contraction hierarchy file.");
+            }
+            final int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version: " + version + ".");
+            }
+            final String mapId = input.readUTF();
+            final int nbNodes = input.readInt();
+            if (!mapId.equals(graph.getMapId()) || nbNodes != graph.size()) {
+                throw new IOException("Hierarchy of another map: " + mapId + ".");
+            }
+            int[] rank = new int[nbNodes];
+            boolean[] used = new boolean[nbNodes];
+            for (int node = 0; node < nbNodes; ++node) {
+                rank[node] = input.readInt();
+                if (rank[node] < 0 || rank[node] >= nbNodes || used[rank[node]]) {
+                    throw new IOException("Invalid rank: " + rank[node] + ".");
+                }
+                used[rank[node]] = true;
+            }
+            return new CustomizableContractionHierarchy(graph, rank);
+        }
+    }
+
+}
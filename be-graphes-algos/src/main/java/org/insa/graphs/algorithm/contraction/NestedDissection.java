@@ -0,0 +1,274 @@
+package org.insa.graphs.algorithm.contraction;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Nested dissection ordering of the nodes of a graph, which does not depend on
+ * the costs of the arcs: the nodes are split in two halves, the nodes of one
+ * half that are adjacent to the other half form a separator that gets the
+ * highest ranks, and both halves (without the separator) are ordered
+ * recursively, in parallel for large halves.
+ * </p>
+ * 
+ * <p>
+ * Nodes are split by their position along the widest dimension of their
+ * bounding box, or by breadth-first search order if some nodes have no
+ * position. Arcs are considered in both directions.
+ * </p>
+ *
+ */
+final class NestedDissection {
+
+    // Minimum number of nodes to order both halves in parallel.
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    private final Graph graph;
+
+    // Neighbors of each node, whatever the direction of the arcs.
+    private final int[] neighborsFirst, neighbors;
+
+    // Cell of each node during the dissection (-1 for separators), and marks of
+    // the breadth-first searches.
+    private final int[] cell, mark;
+    private final AtomicInteger nextCell = new AtomicInteger(1);
+
+    // Rank of each node.
+    private final int[] rank;
+
+    /**
+     * Create a new dissection of the given graph.
+     * 
+     * @param graph Graph to order.
+     */
+    NestedDissection(Graph graph) {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int nbNodes = graph.size();
+        this.graph = graph;
+
+        this.neighborsFirst = new int[nbNodes + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                if (adjacency.getHead(a) != node) {
+                    ++this.neighborsFirst[node + 1];
+                    ++this.neighborsFirst[adjacency.getHead(a) + 1];
+                }
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            this.neighborsFirst[node + 1] += this.neighborsFirst[node];
+        }
+        this.neighbors = new int[this.neighborsFirst[nbNodes]];
+        int[] next = Arrays.copyOf(this.neighborsFirst, nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                final int head = adjacency.getHead(a);
+                if (head != node) {
+                    this.neighbors[next[node]++] = head;
+                    this.neighbors[next[head]++] = node;
+                }
+            }
+        }
+
+        this.cell = new int[nbNodes];
+        this.mark = new int[nbNodes];
+        this.rank = new int[nbNodes];
+    }
+
+    /**
+     * Compute the rank of each node.
+     * 
+     * @return Array containing the rank of each node.
+     */
+    int[] computeRanks() {
+        final int nbNodes = this.graph.size();
+        int[] nodes = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            nodes[node] = node;
+        }
+        ForkJoinPool.commonPool().invoke(new Dissection(nodes, 0, 0));
+        return this.rank;
+    }
+
+    /**
+     * Order the nodes of the given cell by position along the widest dimension of
+     * their bounding box.
+     * 
+     * @return The ordered nodes, or null if some nodes have no position.
+     */
+    private int[] orderByPosition(int[] nodes) {
+        float minLon = Float.POSITIVE_INFINITY, maxLon = Float.NEGATIVE_INFINITY;
+        float minLat = Float.POSITIVE_INFINITY, maxLat = Float.NEGATIVE_INFINITY;
+        for (int node: nodes) {
+            final Point point = this.graph.get(node).getPoint();
+            if (point == null) {
+                return null;
+            }
+            minLon = Math.min(minLon, point.getLongitude());
+            maxLon = Math.max(maxLon, point.getLongitude());
+            minLat = Math.min(minLat, point.getLatitude());
+            maxLat = Math.max(maxLat, point.getLatitude());
+        }
+        final boolean byLongitude = maxLon - minLon >= maxLat - minLat;
+
+        // Keys are the sortable bits of the coordinates, followed by the nodes.
+        long[] keys = new long[nodes.length];
+        for (int i = 0; i < nodes.length; ++i) {
+            final Point point = this.graph.get(nodes[i]).getPoint();
+            final int bits = Float.floatToIntBits(
+                    byLongitude ? point.getLongitude() : point.getLatitude());
+            keys[i] = ((long) (bits ^ ((bits >> 31) & 0x7fffffff)) << 32) | nodes[i];
+        }
+        Arrays.sort(keys);
+        int[] ordered = new int[nodes.length];
+        for (int i = 0; i < nodes.length; ++i) {
+            ordered[i] = (int) keys[i];
+        }
+        return ordered;
+    }
+
+    /**
+     * Order the nodes of the given cell by breadth-first search from
+     * pseudo-peripheral nodes (one search per connected component).
+     */
+    private int[] orderBySearch(int[] nodes, int cellId) {
+        int[] ordered = new int[nodes.length], component = new int[nodes.length];
+        int size = 0;
+        for (int start: nodes) {
+            if (this.mark[start] == 2 * cellId + 2) {
+                continue;
+            }
+            // A first search finds a node far from the start, the second one orders
+            // the component from this node.
+            final int last = component[search(start, cellId, 2 * cellId + 1, component) - 1];
+            final int componentSize = search(last, cellId, 2 * cellId + 2, component);
+            System.arraycopy(component, 0, ordered, size, componentSize);
+            size += componentSize;
+        }
+        return ordered;
+    }
+
+    /**
+     * Run a breadth-first search in the given cell, marking nodes with the given
+     * stamp.
+     * 
+     * @return Number of nodes reached, stored in order.
+     */
+    private int search(int start, int cellId, int stamp, int[] order) {
+        int head = 0, tail = 0;
+        order[tail++] = start;
+        this.mark[start] = stamp;
+        while (head < tail) {
+            final int node = order[head++];
+            for (int i = this.neighborsFirst[node]; i < this.neighborsFirst[node + 1]; ++i) {
+                final int next = this.neighbors[i];
+                if (this.cell[next] == cellId && this.mark[next] != stamp) {
+                    this.mark[next] = stamp;
+                    order[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * @return Nodes of the given half that have a neighbor in the given cell.
+     */
+    private int[] boundary(int[] nodes, int from, int to, int otherCell) {
+        int[] boundary = new int[to - from];
+        int size = 0;
+        for (int i = from; i < to; ++i) {
+            final int node = nodes[i];
+            for (int j = this.neighborsFirst[node]; j < this.neighborsFirst[node + 1]; ++j) {
+                if (this.cell[this.neighbors[j]] == otherCell) {
+                    boundary[size++] = node;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(boundary, size);
+    }
+
+    /**
+     * Dissection of a cell, whose nodes get consecutive ranks.
+     */
+    private class Dissection extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] nodes;
+        private final int cellId;
+        private final int firstRank;
+
+        Dissection(int[] nodes, int cellId, int firstRank) {
+            this.nodes = nodes;
+            this.cellId = cellId;
+            this.firstRank = firstRank;
+        }
+
+        @Override
+        protected void compute() {
+            final int size = this.nodes.length;
+            if (size <= 2) {
+                for (int i = 0; i < size; ++i) {
+                    rank[this.nodes[i]] = this.firstRank + i;
+                }
+                return;
+            }
+
+            int[] ordered = orderByPosition(this.nodes);
+            if (ordered == null) {
+                ordered = orderBySearch(this.nodes, this.cellId);
+            }
+
+            // Split in two halves, and use the smallest boundary as separator.
+            final int half = size / 2;
+            final int first = nextCell.getAndIncrement(), second = nextCell.getAndIncrement();
+            for (int i = 0; i < size; ++i) {
+                cell[ordered[i]] = i < half ? first : second;
+            }
+            final int[] firstBoundary = boundary(ordered, 0, half, second);
+            final int[] secondBoundary = boundary(ordered, half, size, first);
+            final int[] separator = firstBoundary.length <= secondBoundary.length
+                    ? firstBoundary
+                    : secondBoundary;
+            for (int node: separator) {
+                cell[node] = -1;
+            }
+            for (int i = 0; i < separator.length; ++i) {
+                rank[separator[i]] = this.firstRank + size - separator.length + i;
+            }
+
+            int[] firstHalf = new int[half], secondHalf = new int[size - half];
+            int firstSize = 0, secondSize = 0;
+            for (int node: ordered) {
+                if (cell[node] == first) {
+                    firstHalf[firstSize++] = node;
+                }
+                else if (cell[node] == second) {
+                    secondHalf[secondSize++] = node;
+                }
+            }
+            Dissection firstDissection = new Dissection(Arrays.copyOf(firstHalf, firstSize),
+                    first, this.firstRank);
+            Dissection secondDissection = new Dissection(
+                    Arrays.copyOf(secondHalf, secondSize), second, this.firstRank + firstSize);
+            if (size >= PARALLEL_THRESHOLD) {
+                invokeAll(firstDissection, secondDissection);
+            }
+            else {
+                firstDissection.compute();
+                secondDissection.compute();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,556 @@
+package org.insa.graphs.algorithm.hublabels;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.contraction.ContractionHierarchy;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Hub labels of a graph for a given {@link ArcInspector}: each node has a
+ * forward label, containing hubs with the distances from the node to them, and
+ * a backward label, containing hubs with the distances from them to the node,
+ * such that any shortest path from a node to another goes through a hub of both
+ * the forward label of the first one and the backward label of the second one.
+ * A distance query is a merge of two labels, which are sorted by hub.
+ * </p>
+ *
+ * <p>
+ * Labels are built from a {@link ContractionHierarchy}, from the node of highest
+ * rank down: the forward label of a node is made of the node itself and of the
+ * forward labels of the heads of its upward edges, and entries whose distance is
+ * not the distance given by the labels computed so far are pruned. Each entry
+ * keeps the edge of the hierarchy leading towards its hub, so that the path of
+ * a query can be unpacked with the hierarchy.
+ * </p>
+ *
+ * <p>
+ * Labels are stored as flat arrays of primitive values. Labels read from a file
+ * (see {@link #read(File, Graph, ArcInspector)}) are memory-mapped, so they are
+ * loaded lazily and shared between processes using the same labels. Files hold
+ * the number of arcs of the graph and a fingerprint of the costs of its arcs
+ * (see {@link ArcCosts#fingerprint(Graph, double[])}), so that labels of another
+ * graph or inspector are not read.
+ * </p>
+ *
+ */
+public final class HubLabels {
+
+    // Magic number and version of the files.
+    private static final int MAGIC_NUMBER = 0x484c4201;
+    private static final int VERSION = 2;
+
+    /**
+     * Extension of the files containing hub labels.
+     */
+    public static final String FILE_EXTENSION = "hl";
+
+    /**
+     * Labels of one direction: offsets of the labels of the nodes, then hub,
+     * distance and edge of each entry.
+     */
+    private static final class Labels {
+
+        private final IntBuffer first, hubs, edges;
+        private final DoubleBuffer distances;
+
+        Labels(IntBuffer first, IntBuffer hubs, DoubleBuffer distances, IntBuffer edges) {
+            this.first = first;
+            this.hubs = hubs;
+            this.distances = distances;
+            this.edges = edges;
+        }
+
+        int size() {
+            return this.hubs.capacity();
+        }
+
+        /**
+         * @return Position of the given hub in the label of the given node, or -1.
+         */
+        int find(int node, int hub) {
+            int low = this.first.get(node), high = this.first.get(node + 1) - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int value = this.hubs.get(middle);
+                if (value < hub) {
+                    low = middle + 1;
+                }
+                else if (value > hub) {
+                    high = middle - 1;
+                }
+                else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+    }
+
+    // ID of the map, number of arcs of the graph, and fingerprint of the graph
+    // and of the costs of its arcs.
+    private final String mapId;
+    private final int nbArcs;
+    private final long graphFingerprint;
+
+    // Fingerprint of the hierarchy the labels have been built from.
+    private final long fingerprint;
+
+    // Forward and backward labels.
+    private final Labels forward, backward;
+
+    // Last hierarchy found to match the fingerprint.
+    private volatile ContractionHierarchy checkedHierarchy = null;
+
+    private HubLabels(String mapId, int nbArcs, long graphFingerprint, long fingerprint,
+            Labels forward, Labels backward) {
+        this.mapId = mapId;
+        this.nbArcs = nbArcs;
+        this.graphFingerprint = graphFingerprint;
+        this.fingerprint = fingerprint;
+        this.forward = forward;
+        this.backward = backward;
+    }
+
+    /**
+     * Retrieve the hub labels of the given graph and inspector. The labels are
+     * read from (or written to) the directory of {@link PreprocessingStore}, and
+     * only computed (from the contraction hierarchy of the graph and inspector) if
+     * they have not been computed yet.
+     *
+     * @param graph Graph of the labels.
+     * @param inspector Inspector of the labels.
+     *
+     * @return Hub labels for the given graph and inspector.
+     */
+    public static HubLabels get(Graph graph, ArcInspector inspector) {
+        return PreprocessingStore.get(graph, inspector, FILE_EXTENSION,
+                file -> read(file, graph, inspector),
+                () -> compute(ContractionHierarchy.get(graph, inspector)), HubLabels::write);
+    }
+
+    /**
+     * Compute the hub labels of the given contraction hierarchy.
+     *
+     * @param hierarchy Contraction hierarchy.
+     *
+     * @return Hub labels built from the given hierarchy.
+     */
+    public static HubLabels compute(ContractionHierarchy hierarchy) {
+        final int nbNodes = hierarchy.getNumberOfNodes();
+        int[] order = new int[nbNodes];
+        for (int node = 0; node < nbNodes; ++node) {
+            order[nbNodes - 1 - hierarchy.getRank(node)] = node;
+        }
+
+        // Labels of each node, sorted by hub.
+        int[][][] hubs = new int[2][nbNodes][];
+        double[][][] distances = new double[2][nbNodes][];
+        int[][][] edges = new int[2][nbNodes][];
+
+        // Candidate entries of the current label, indexed by hub.
+        double[] best = new double[nbNodes];
+        int[] bestEdge = new int[nbNodes];
+        int[] touched = new int[nbNodes];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+
+        for (int node: order) {
+            for (int direction = 0; direction < 2; ++direction) {
+                final boolean isBackward = direction == 1;
+                int size = 0;
+                best[node] = 0;
+                bestEdge[node] = -1;
+                touched[size++] = node;
+                final int first = isBackward ? hierarchy.getFirstDownwardEdge(node)
+                        : hierarchy.getFirstUpwardEdge(node);
+                final int end = isBackward ? hierarchy.getEndDownwardEdge(node)
+                        : hierarchy.getEndUpwardEdge(node);
+                for (int i = first; i < end; ++i) {
+                    final int e = isBackward ? hierarchy.getDownwardEdge(i)
+                            : hierarchy.getUpwardEdge(i);
+                    final int next = isBackward ? hierarchy.getTail(e) : hierarchy.getHead(e);
+                    final double weight = hierarchy.getWeight(e);
+                    final int[] nextHubs = hubs[direction][next];
+                    final double[] nextDistances = distances[direction][next];
+                    for (int j = 0; j < nextHubs.length; ++j) {
+                        final int hub = nextHubs[j];
+                        final double distance = weight + nextDistances[j];
+                        if (best[hub] == Double.POSITIVE_INFINITY) {
+                            touched[size++] = hub;
+                        }
+                        if (distance < best[hub]) {
+                            best[hub] = distance;
+                            bestEdge[hub] = e;
+                        }
+                    }
+                }
+                Arrays.sort(touched, 0, size);
+
+                // Keep the entries whose distance cannot be improved through another
+                // hub, using the complete labels of the hubs (of higher rank).
+                int[] labelHubs = new int[size];
+                double[] labelDistances = new double[size];
+                int[] labelEdges = new int[size];
+                int kept = 0;
+                for (int i = 0; i < size; ++i) {
+                    final int hub = touched[i];
+                    final int[] otherHubs = hubs[1 - direction][hub];
+                    final double[] otherDistances = distances[1 - direction][hub];
+                    boolean dominated = false;
+                    for (int j = 0, k = 0; hub != node && j < size && k < otherHubs.length;) {
+                        if (touched[j] < otherHubs[k]) {
+                            ++j;
+                        }
+                        else if (touched[j] > otherHubs[k]) {
+                            ++k;
+                        }
+                        else {
+                            if (best[touched[j]] + otherDistances[k] < best[hub]) {
+                                dominated = true;
+                                break;
+                            }
+                            ++j;
+                            ++k;
+                        }
+                    }
+                    if (!dominated) {
+                        labelHubs[kept] = hub;
+                        labelDistances[kept] = best[hub];
+                        labelEdges[kept] = bestEdge[hub];
+                        ++kept;
+                    }
+                }
+                for (int i = 0; i < size; ++i) {
+                    best[touched[i]] = Double.POSITIVE_INFINITY;
+                }
+                hubs[direction][node] = Arrays.copyOf(labelHubs, kept);
+                distances[direction][node] = Arrays.copyOf(labelDistances, kept);
+                edges[direction][node] = Arrays.copyOf(labelEdges, kept);
+            }
+        }
+        return new HubLabels(hierarchy.getMapId(), hierarchy.getNumberOfArcs(),
+                hierarchy.getFingerprint(), fingerprint(hierarchy), flatten(hubs[0], distances[0], edges[0]),
+                flatten(hubs[1], distances[1], edges[1]));
+    }
+
+    /**
+     * Concatenate the labels of the nodes.
+     */
+    private static Labels flatten(int[][] hubs, double[][] distances, int[][] edges) {
+        int[] first = new int[hubs.length + 1];
+        for (int node = 0; node < hubs.length; ++node) {
+            first[node + 1] = first[node] + hubs[node].length;
+        }
+        int[] allHubs = new int[first[hubs.length]];
+        double[] allDistances = new double[allHubs.length];
+        int[] allEdges = new int[allHubs.length];
+        for (int node = 0; node < hubs.length; ++node) {
+            System.arraycopy(hubs[node], 0, allHubs, first[node], hubs[node].length);
+            System.arraycopy(distances[node], 0, allDistances, first[node], hubs[node].length);
+            System.arraycopy(edges[node], 0, allEdges, first[node], hubs[node].length);
+        }
+        return new Labels(IntBuffer.wrap(first), IntBuffer.wrap(allHubs),
+                DoubleBuffer.wrap(allDistances), IntBuffer.wrap(allEdges));
+    }
+
+    /**
+     * @return Fingerprint of the edges of the given hierarchy.
+     */
+    private static long fingerprint(ContractionHierarchy hierarchy) {
+        long hash = hierarchy.getNumberOfNodes();
+        for (int e = 0; e < hierarchy.getNumberOfEdges(); ++e) {
+            hash = 31 * hash + hierarchy.getTail(e);
+            hash = 31 * hash + hierarchy.getHead(e);
+            hash = 31 * hash + Double.hashCode(hierarchy.getWeight(e));
+        }
+        return hash;
+    }
+
+    /**
+     * @return ID of the map of these labels.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Number of nodes of the graph of these labels.
+     */
+    public int getNumberOfNodes() {
+        return this.forward.first.capacity() - 1;
+    }
+
+    /**
+     * @return Number of arcs of the graph of these labels.
+     */
+    public int getNumberOfArcs() {
+        return this.nbArcs;
+    }
+
+    /**
+     * @return Fingerprint of the graph and of the costs of its arcs for the
+     *         inspector of these labels (see
+     *         {@link ArcCosts#fingerprint(Graph, double[])}).
+     */
+    public long getFingerprint() {
+        return this.graphFingerprint;
+    }
+
+    /**
+     * @return Total number of entries of the forward and backward labels.
+     */
+    public long getNumberOfEntries() {
+        return (long) this.forward.size() + this.backward.size();
+    }
+
+    /**
+     * @param node ID of a node.
+     * @param backward true for the backward label, false for the forward label.
+     *
+     * @return Number of hubs in the label of the given node.
+     */
+    public int getLabelSize(int node, boolean backward) {
+        final Labels labels = backward ? this.backward : this.forward;
+        return labels.first.get(node + 1) - labels.first.get(node);
+    }
+
+    /**
+     * Find the hub of the shortest path from a node to another, by merging the
+     * forward label of the origin with the backward label of the destination.
+     *
+     * @param origin ID of the origin.
+     * @param destination ID of the destination.
+     *
+     * @return Position of the hub in the forward label of the origin, and position
+     *         of the hub in the backward label of the destination, packed in a
+     *         long, or -1 if the destination cannot be reached.
+     */
+    private long findHub(int origin, int destination) {
+        final Labels forward = this.forward, backward = this.backward;
+        int i = forward.first.get(origin), j = backward.first.get(destination);
+        final int endI = forward.first.get(origin + 1), endJ = backward.first.get(destination + 1);
+        double best = Double.POSITIVE_INFINITY;
+        long found = -1;
+        while (i < endI && j < endJ) {
+            final int hubI = forward.hubs.get(i), hubJ = backward.hubs.get(j);
+            if (hubI < hubJ) {
+                ++i;
+            }
+            else if (hubI > hubJ) {
+                ++j;
+            }
+            else {
+                final double distance = forward.distances.get(i) + backward.distances.get(j);
+                if (distance < best) {
+                    best = distance;
+                    found = ((long) i << 32) | j;
+                }
+                ++i;
+                ++j;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param origin ID of the origin.
+     * @param destination ID of the destination.
+     *
+     * @return Cost of the shortest path from the origin to the destination, or
+     *         {@link Double#POSITIVE_INFINITY} if the destination cannot be
+     *         reached.
+     */
+    public double getDistance(int origin, int destination) {
+        final long found = findHub(origin, destination);
+        if (found == -1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return this.forward.distances.get((int) (found >>> 32))
+                + this.backward.distances.get((int) found);
+    }
+
+    /**
+     * Replace the shortest path from a node to another by the arcs of the graph it
+     * is made of.
+     *
+     * @param hierarchy Hierarchy these labels have been built from.
+     * @param origin ID of the origin.
+     * @param destination ID of the destination, which must be reachable from the
+     *        origin.
+     * @param arcs Function called with the index of each arc (see
+     *        {@link org.insa.graphs.model.AdjacencyArrays}), in path order.
+     *
+     * @throws IllegalArgumentException if the labels have not been built from the
+     *         given hierarchy, or if the destination cannot be reached.
+     */
+    public void unpack(ContractionHierarchy hierarchy, int origin, int destination,
+            IntConsumer arcs) throws IllegalArgumentException {
+        if (this.checkedHierarchy != hierarchy) {
+            if (!hierarchy.getMapId().equals(this.mapId)
+                    || fingerprint(hierarchy) != this.fingerprint) {
+                throw new IllegalArgumentException("labels not built from this hierarchy");
+            }
+            this.checkedHierarchy = hierarchy;
+        }
+        final long found = findHub(origin, destination);
+        if (found == -1) {
+            throw new IllegalArgumentException(
+                    "node " + destination + " cannot be reached from node " + origin);
+        }
+        final int hub = this.forward.hubs.get((int) (found >>> 32));
+
+        // Upward edges from the origin to the hub.
+        for (int node = origin, i = (int) (found >>> 32); node != hub;) {
+            final int e = this.forward.edges.get(i);
+            hierarchy.unpack(e, arcs);
+            node = hierarchy.getHead(e);
+            i = this.forward.find(node, hub);
+        }
+
+        // Downward edges from the hub to the destination, found in reverse order.
+        int[] edges = new int[16];
+        int size = 0;
+        for (int node = destination, j = (int) found; node != hub;) {
+            final int e = this.backward.edges.get(j);
+            if (size == edges.length) {
+                edges = Arrays.copyOf(edges, 2 * size);
+            }
+            edges[size++] = e;
+            node = hierarchy.getTail(e);
+            j = this.backward.find(node, hub);
+        }
+        for (int i = size - 1; i >= 0; --i) {
+            hierarchy.unpack(edges[i], arcs);
+        }
+    }
+
+    /**
+     * Write these labels to the given file.
+     *
+     * @param file File to write.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(File file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(VERSION);
+            output.writeUTF(this.mapId);
+            output.writeLong(this.fingerprint);
+            output.writeInt(getNumberOfNodes());
+            output.writeInt(this.nbArcs);
+            output.writeLong(this.graphFingerprint);
+            output.writeInt(this.forward.size());
+            output.writeInt(this.backward.size());
+            for (Labels labels: new Labels[] { this.forward, this.backward }) {
+                for (int i = 0; i < labels.first.capacity(); ++i) {
+                    output.writeInt(labels.first.get(i));
+                }
+                for (int i = 0; i < labels.size(); ++i) {
+                    output.writeInt(labels.hubs.get(i));
+                }
+                for (int i = 0; i < labels.size(); ++i) {
+                    output.writeInt(labels.edges.get(i));
+                }
+                for (int i = 0; i < labels.size(); ++i) {
+                    output.writeDouble(labels.distances.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Read hub labels from the given file. The labels are memory-mapped rather
+     * than copied, so the file must not be modified while they are used.
+     *
+     * @param file File to read.
+     * @param graph Graph of the labels.
+     * @param inspector Inspector of the labels.
+     *
+     * @return Hub labels read from the file.
+     *
+     * @throws IOException if the file cannot be read or does not contain labels of
+     *         the given graph and inspector.
+     */
+    public static HubLabels read(File file, Graph graph, ArcInspector inspector)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // The header is read without buffering, so that the position of the
+            // channel is the position of the arrays.
+            DataInputStream input = new DataInputStream(Channels.newInputStream(channel));
+            if (input.readInt() != MAGIC_NUMBER) {
+                throw new IOException("Not a hub labels file.");
+            }
+            final int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version: " + version + ".");
+            }
+            final String mapId = input.readUTF();
+            final long fingerprint = input.readLong();
+            final int nbNodes = input.readInt();
+            final int nbArcs = input.readInt();
+            if (!mapId.equals(graph.getMapId()) || nbNodes != graph.size()
+                    || nbArcs != graph.getAdjacency().getNumberOfArcs()) {
+                throw new IOException("Hub labels of another map: " + mapId + ".");
+            }
+            final long graphFingerprint = input.readLong();
+            if (graphFingerprint != ArcCosts.fingerprint(graph, inspector)) {
+                throw new IOException("Hub labels of another graph or inspector.");
+            }
+            final int[] sizes = { input.readInt(), input.readInt() };
+            long position = channel.position();
+            Labels[] labels = new Labels[2];
+            for (int direction = 0; direction < 2; ++direction) {
+                final long size = sizes[direction];
+                if (size < 0 || position + 4L * (nbNodes + 1) + 16 * size > channel.size()) {
+                    throw new IOException("Truncated hub labels.");
+                }
+                IntBuffer first = map(channel, position, 4L * (nbNodes + 1)).asIntBuffer();
+                position += 4L * (nbNodes + 1);
+                IntBuffer hubs = map(channel, position, 4 * size).asIntBuffer();
+                position += 4 * size;
+                IntBuffer edges = map(channel, position, 4 * size).asIntBuffer();
+                position += 4 * size;
+                DoubleBuffer distances = map(channel, position, 8 * size).asDoubleBuffer();
+                position += 8 * size;
+                if (first.get(0) != 0 || first.get(nbNodes) != size) {
+                    throw new IOException("Invalid hub labels.");
+                }
+                labels[direction] = new Labels(first, hubs, distances, edges);
+            }
+            return new HubLabels(mapId, nbArcs, graphFingerprint, fingerprint, labels[0],
+                    labels[1]);
+        }
+    }
+
+    /**
+     * Map the given section of the given file.
+     */
+    private static ByteBuffer map(FileChannel channel, long position, long size)
+            throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Hub labels too large to be mapped.");
+        }
+        return channel.map(MapMode.READ_ONLY, position, size);
+    }
+
+}
@@ -0,0 +1,429 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * One-to-all Dijkstra search from an origin, stopped once the largest budget is
+ * exceeded. Nodes are settled by increasing cost, so the nodes reachable within
+ * each budget are a prefix of the settled nodes, and all the budgets are
+ * answered by a single search.
+ * </p>
+ *
+ * <p>
+ * The boundary of an isochrone is computed on a grid: the roads that can be
+ * travelled within the budget (including the reachable part of the arcs leaving
+ * the area, interpolated along their geometry) are drawn on the grid, the drawn
+ * cells are dilated by one cell to fill the gaps between close roads, and the
+ * outer contour of the resulting cells is traced. The boundary follows the shape
+ * of the road network (unlike a convex hull), holes are ignored.
+ * </p>
+ *
+ */
+public class IsochroneAlgorithm extends AbstractAlgorithm<IsochroneObserver> {
+
+    /**
+     * Default number of cells of the grid along its largest side.
+     */
+    public static final int DEFAULT_RESOLUTION = 128;
+
+    // Minimum size of the cells of the grid, in meters.
+    private static final double MINIMUM_CELL_SIZE = 10;
+
+    // Length of a degree of latitude, in meters.
+    private static final double METERS_PER_DEGREE = Point.EARTH_RADIUS * Math.PI / 180;
+
+    // Directions of the contour (east, north, west, south, counter-clockwise), and
+    // offsets of the cells ahead-left and ahead-right of a vertex in each of them.
+    private static final int[] DX = { 1, 0, -1, 0 }, DY = { 0, 1, 0, -1 };
+    private static final int[] LEFT_X = { 0, -1, -1, 0 }, LEFT_Y = { 0, 0, -1, -1 };
+    private static final int[] RIGHT_X = { 0, 0, -1, -1 }, RIGHT_Y = { -1, 0, 0, -1 };
+
+    // Number of cells of the grid along its largest side.
+    private final int resolution;
+
+    /**
+     * Create a new algorithm using a grid of {@link #DEFAULT_RESOLUTION} cells for
+     * the boundaries.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public IsochroneAlgorithm(IsochroneData data) {
+        this(data, DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * Create a new algorithm using a grid of the given resolution for the
+     * boundaries: the finer the grid, the closer the boundaries to the roads.
+     *
+     * @param data Input data for the algorithm.
+     * @param resolution Number of cells of the grid along its largest side.
+     *
+     * @throws IllegalArgumentException if the resolution is not positive.
+     */
+    public IsochroneAlgorithm(IsochroneData data, int resolution)
+            throws IllegalArgumentException {
+        super(data);
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("invalid resolution: " + resolution);
+        }
+        this.resolution = resolution;
+    }
+
+    /**
+     * @return Number of cells of the grid used for the boundaries, along its
+     *         largest side.
+     */
+    public int getResolution() {
+        return this.resolution;
+    }
+
+    @Override
+    public IsochroneSolution run() {
+        return (IsochroneSolution) super.run();
+    }
+
+    @Override
+    public IsochroneData getInputData() {
+        return (IsochroneData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the origin has been processed.
+     *
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyOriginProcessed(node);
+        }
+    }
+
+    /**
+     * Notify all observers that a node has been marked.
+     *
+     * @param node Node that has been marked.
+     * @param cost Cost of the node.
+     */
+    public void notifyNodeMarked(Node node, double cost) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyNodeMarked(node, cost);
+        }
+    }
+
+    /**
+     * Notify all observers that all the nodes within a budget have been marked.
+     *
+     * @param index Index of the budget.
+     * @param budget The budget.
+     */
+    public void notifyBudgetExhausted(int index, double budget) {
+        for (IsochroneObserver obs: getObservers()) {
+            obs.notifyBudgetExhausted(index, budget);
+        }
+    }
+
+    /**
+     * Polylines of the roads travelled within a budget, as arrays of alternating
+     * longitudes and latitudes. Nodes without coordinates are ignored.
+     */
+    private List<float[]> collectRoads(double budget, int count, int[] settled,
+            double[] costs) {
+        final IsochroneData data = getInputData();
+        final AdjacencyArrays adjacency = data.getGraph().getAdjacency();
+        List<float[]> roads = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            final int node = settled[i];
+            final Point point = data.getGraph().get(node).getPoint();
+            if (point == null) {
+                continue;
+            }
+            roads.add(new float[] { point.getLongitude(), point.getLatitude() });
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                final Arc arc = adjacency.getArc(node, a);
+                if (!data.isAllowed(arc) || arc.getDestination().getPoint() == null) {
+                    continue;
+                }
+                List<Point> points = arc.getPoints();
+                if (points.isEmpty()) {
+                    points = Arrays.asList(point, arc.getDestination().getPoint());
+                }
+                final double cost = data.getCost(arc);
+                final double fraction = cost > 0 ? Math.min(1, (budget - costs[node]) / cost) : 1;
+                roads.add(cutPolyline(points, fraction));
+            }
+        }
+        return roads;
+    }
+
+    /**
+     * @return The first given fraction (by length) of the given polyline.
+     */
+    private static float[] cutPolyline(List<Point> points, double fraction) {
+        double length = 0;
+        for (int i = 1; i < points.size(); ++i) {
+            length += points.get(i - 1).distanceTo(points.get(i));
+        }
+        double remaining = fraction * length;
+        float[] coordinates = new float[2 * points.size()];
+        Point previous = points.get(0);
+        coordinates[0] = previous.getLongitude();
+        coordinates[1] = previous.getLatitude();
+        int size = 2;
+        for (int i = 1; i < points.size() && fraction < 1; ++i) {
+            final Point point = points.get(i);
+            final double distance = previous.distanceTo(point);
+            if (distance >= remaining) {
+                final double t = distance > 0 ? remaining / distance : 0;
+                coordinates[size++] = (float) (previous.getLongitude()
+                        + t * (point.getLongitude() - previous.getLongitude()));
+                coordinates[size++] = (float) (previous.getLatitude()
+                        + t * (point.getLatitude() - previous.getLatitude()));
+                return Arrays.copyOf(coordinates, size);
+            }
+            remaining -= distance;
+            coordinates[size++] = point.getLongitude();
+            coordinates[size++] = point.getLatitude();
+            previous = point;
+        }
+        for (int i = size / 2; i < points.size(); ++i) {
+            coordinates[size++] = points.get(i).getLongitude();
+            coordinates[size++] = points.get(i).getLatitude();
+        }
+        return coordinates;
+    }
+
+    /**
+     * Grid of square cells (in meters) covering the roads of the largest budget.
+     */
+    private final class Grid {
+
+        // Coordinates of the lower-left corner and size of the cells, in degrees.
+        private final double longitude, latitude, cellLongitude, cellLatitude;
+
+        // Dimensions of the grid.
+        private final int width, height;
+
+        Grid(List<float[]> roads) {
+            double minLon = Double.POSITIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+            double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+            for (float[] road: roads) {
+                for (int i = 0; i < road.length; i += 2) {
+                    minLon = Math.min(minLon, road[i]);
+                    maxLon = Math.max(maxLon, road[i]);
+                    minLat = Math.min(minLat, road[i + 1]);
+                    maxLat = Math.max(maxLat, road[i + 1]);
+                }
+            }
+            final double cos = Math.max(Math.cos(Math.toRadians((minLat + maxLat) / 2)), 1e-6);
+            final double extent = Math.max((maxLon - minLon) * cos, maxLat - minLat)
+                    * METERS_PER_DEGREE;
+            final double size = Math.max(extent / resolution, MINIMUM_CELL_SIZE);
+            this.cellLatitude = size / METERS_PER_DEGREE;
+            this.cellLongitude = this.cellLatitude / cos;
+
+            // Two free cells on each side, for the dilation and the contour.
+            this.longitude = minLon - 2 * this.cellLongitude;
+            this.latitude = minLat - 2 * this.cellLatitude;
+            this.width = (int) ((maxLon - minLon) / this.cellLongitude) + 5;
+            this.height = (int) ((maxLat - minLat) / this.cellLatitude) + 5;
+        }
+
+        /**
+         * @return Cells covered by the given roads, dilated by one cell.
+         */
+        boolean[] draw(List<float[]> roads) {
+            boolean[] cells = new boolean[this.width * this.height];
+            for (float[] road: roads) {
+                double x0 = (road[0] - this.longitude) / this.cellLongitude;
+                double y0 = (road[1] - this.latitude) / this.cellLatitude;
+                cells[(int) y0 * this.width + (int) x0] = true;
+                for (int i = 2; i < road.length; i += 2) {
+                    final double x1 = (road[i] - this.longitude) / this.cellLongitude;
+                    final double y1 = (road[i + 1] - this.latitude) / this.cellLatitude;
+                    // Half-cell steps, so that consecutive cells are neighbors.
+                    final int steps = (int) Math.ceil(2 * Math.hypot(x1 - x0, y1 - y0));
+                    for (int k = 1; k <= steps; ++k) {
+                        final int x = (int) (x0 + (x1 - x0) * k / steps);
+                        final int y = (int) (y0 + (y1 - y0) * k / steps);
+                        cells[y * this.width + x] = true;
+                    }
+                    x0 = x1;
+                    y0 = y1;
+                }
+            }
+            boolean[] dilated = new boolean[cells.length];
+            for (int y = 1; y < this.height - 1; ++y) {
+                for (int x = 1; x < this.width - 1; ++x) {
+                    if (cells[y * this.width + x]) {
+                        for (int dy = -1; dy <= 1; ++dy) {
+                            for (int dx = -1; dx <= 1; ++dx) {
+                                dilated[(y + dy) * this.width + x + dx] = true;
+                            }
+                        }
+                    }
+                }
+            }
+            return dilated;
+        }
+
+        /**
+         * @return true if the given cell is inside the grid and set.
+         */
+        private boolean isSet(boolean[] cells, int x, int y) {
+            return x >= 0 && y >= 0 && x < this.width && y < this.height
+                    && cells[y * this.width + x];
+        }
+
+        /**
+         * Trace the outer contour of the given cells, starting from the lower-left
+         * corner of the first set cell, with the cells on the left. At a vertex
+         * shared by two diagonal cells only, the contour turns left, so it never
+         * crosses itself.
+         *
+         * @return Corners of the contour, counter-clockwise.
+         */
+        List<Point> trace(boolean[] cells) {
+            List<Point> contour = new ArrayList<>();
+            int start = 0;
+            while (start < cells.length && !cells[start]) {
+                ++start;
+            }
+            if (start == cells.length) {
+                return contour;
+            }
+            final int sx = start % this.width, sy = start / this.width;
+            int x = sx, y = sy, direction = 0;
+            do {
+                final boolean left = isSet(cells, x + LEFT_X[direction], y + LEFT_Y[direction]);
+                final boolean right = isSet(cells, x + RIGHT_X[direction],
+                        y + RIGHT_Y[direction]);
+                final int next = !left ? (direction + 1) & 3 : right ? (direction + 3) & 3
+                        : direction;
+                if (next != direction || contour.isEmpty()) {
+                    contour.add(new Point((float) (this.longitude + x * this.cellLongitude),
+                            (float) (this.latitude + y * this.cellLatitude)));
+                }
+                direction = next;
+                x += DX[direction];
+                y += DY[direction];
+            }
+            while (x != sx || y != sy);
+            return contour;
+        }
+
+    }
+
+    @Override
+    protected IsochroneSolution doRun() {
+        final IsochroneData data = getInputData();
+        final Graph graph = data.getGraph();
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int nbBudgets = data.getNumberOfBudgets();
+        final double maximum = data.getMaximumBudget();
+
+        double[] costs = new double[graph.size()];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+
+        // Settled nodes, by increasing cost, and number of nodes within each budget.
+        int[] settled = new int[16];
+        int size = 0;
+        int[] counts = new int[nbBudgets];
+        int budget = 0;
+
+        final int origin = data.getOrigin().getId();
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(graph.size())) {
+            IndexedPriorityQueue queue = workspace.getQueue();
+            workspace.visit(origin, 0);
+            workspace.update(origin, 0, -1);
+            queue.insert(origin, 0);
+
+            notifyOriginProcessed(data.getOrigin());
+
+            while (!queue.isEmpty()) {
+                final int node = queue.deleteMin();
+                final double distance = workspace.getDistance(node);
+                for (; budget < nbBudgets && distance > data.getBudget(budget); ++budget) {
+                    counts[budget] = size;
+                    notifyBudgetExhausted(budget, data.getBudget(budget));
+                }
+                if (distance > maximum) {
+                    break;
+                }
+                workspace.settle(node);
+                costs[node] = distance;
+                if (size == settled.length) {
+                    settled = Arrays.copyOf(settled, 2 * size);
+                }
+                settled[size++] = node;
+                notifyNodeMarked(graph.get(node), distance);
+
+                for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                    final int head = adjacency.getHead(a);
+                    if (workspace.isSettled(head)) {
+                        continue;
+                    }
+                    Arc arc = adjacency.getArc(node, a);
+                    if (!data.isAllowed(arc)) {
+                        continue;
+                    }
+                    if (!workspace.isVisited(head)) {
+                        workspace.visit(head, 0);
+                    }
+                    final double newDistance = distance + data.getCost(arc);
+                    if (newDistance <= maximum && newDistance < workspace.getDistance(head)) {
+                        workspace.update(head, newDistance, a);
+                        if (queue.contains(head)) {
+                            queue.decreaseKey(head, newDistance);
+                        }
+                        else {
+                            queue.insert(head, newDistance);
+                        }
+                    }
+                }
+            }
+        }
+        for (; budget < nbBudgets; ++budget) {
+            counts[budget] = size;
+            notifyBudgetExhausted(budget, data.getBudget(budget));
+        }
+
+        // Reachable nodes and boundary of each budget, on a grid covering them all.
+        BitSet[] reachable = new BitSet[nbBudgets];
+        List<List<Point>> boundaries = new ArrayList<>(nbBudgets);
+        Grid grid = null;
+        for (int i = nbBudgets - 1; i >= 0; --i) {
+            reachable[i] = new BitSet(graph.size());
+            for (int k = 0; k < counts[i]; ++k) {
+                reachable[i].set(settled[k]);
+            }
+            List<float[]> roads = collectRoads(data.getBudget(i), counts[i], settled, costs);
+            if (roads.isEmpty()) {
+                boundaries.add(Collections.emptyList());
+                continue;
+            }
+            if (grid == null) {
+                grid = new Grid(roads);
+            }
+            boundaries.add(grid.trace(grid.draw(roads)));
+        }
+        Collections.reverse(boundaries);
+
+        return new IsochroneSolution(data, Status.OPTIMAL, costs, reachable, boundaries);
+    }
+
+}
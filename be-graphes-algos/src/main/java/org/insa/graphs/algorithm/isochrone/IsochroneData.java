@@ -0,0 +1,83 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class IsochroneData extends AbstractInputData {
+
+    // Origin of the search.
+    private final Node origin;
+
+    // Budgets, in increasing order.
+    private final double[] budgets;
+
+    /**
+     * Construct a new instance of IsochroneData with the given parameters.
+     * 
+     * @param graph Graph in which the reachable nodes should be looked for.
+     * @param origin Origin of the search.
+     * @param budgets Maximum costs (in the unit of the inspector) of the paths from
+     *        the origin, one isochrone is computed for each of them. Budgets are
+     *        sorted in increasing order.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     * 
+     * @throws IllegalArgumentException if no budget is given, or if a budget is
+     *         negative or not finite.
+     */
+    public IsochroneData(Graph graph, Node origin, double[] budgets, ArcInspector arcInspector)
+            throws IllegalArgumentException {
+        super(graph, arcInspector);
+        if (budgets.length == 0) {
+            throw new IllegalArgumentException("no budget");
+        }
+        for (double budget: budgets) {
+            if (!(budget >= 0) || budget == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("invalid budget: " + budget);
+            }
+        }
+        this.origin = origin;
+        this.budgets = budgets.clone();
+        Arrays.sort(this.budgets);
+    }
+
+    /**
+     * @return Origin of the search.
+     */
+    public Node getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return Number of budgets (isochrones).
+     */
+    public int getNumberOfBudgets() {
+        return budgets.length;
+    }
+
+    /**
+     * @param index Index of a budget.
+     * 
+     * @return Budget at the given index, budgets being sorted in increasing order.
+     */
+    public double getBudget(int index) {
+        return budgets[index];
+    }
+
+    /**
+     * @return Largest budget, which bounds the search.
+     */
+    public double getMaximumBudget() {
+        return budgets[budgets.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return "Isochrones from #" + origin.getId() + " for " + Arrays.toString(budgets) + " ["
+                + this.arcInspector.toString().toLowerCase() + "]";
+    }
+}
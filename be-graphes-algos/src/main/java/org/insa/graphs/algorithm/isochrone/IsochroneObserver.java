@@ -0,0 +1,31 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import org.insa.graphs.model.Node;
+
+public interface IsochroneObserver {
+
+    /**
+     * Notify the observer that the origin has been processed.
+     * 
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node);
+
+    /**
+     * Notify the observer that a node has been marked, i.e. that its final cost
+     * has been set and is within the largest budget.
+     * 
+     * @param node Node that has been marked.
+     * @param cost Cost of the shortest path from the origin to the node.
+     */
+    public void notifyNodeMarked(Node node, double cost);
+
+    /**
+     * Notify the observer that all the nodes within a budget have been marked.
+     * 
+     * @param index Index of the budget in the input data.
+     * @param budget The budget.
+     */
+    public void notifyBudgetExhausted(int index, double budget);
+
+}
@@ -0,0 +1,100 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+
+public class IsochroneSolution extends AbstractSolution {
+
+    // Cost of each node from the origin, infinite beyond the largest budget.
+    private final double[] costs;
+
+    // Reachable nodes and boundary of each budget.
+    private final BitSet[] reachable;
+    private final List<List<Point>> boundaries;
+
+    /**
+     * Create a new isochrone solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param costs Cost of each node from the origin, or
+     *        {@link Double#POSITIVE_INFINITY} for the nodes beyond the largest
+     *        budget.
+     * @param reachable Reachable nodes of each budget.
+     * @param boundaries Boundary of each budget.
+     */
+    protected IsochroneSolution(IsochroneData data, Status status, double[] costs,
+            BitSet[] reachable, List<List<Point>> boundaries) {
+        super(data, status);
+        this.costs = costs;
+        this.reachable = reachable;
+        this.boundaries = boundaries;
+    }
+
+    @Override
+    public IsochroneData getInputData() {
+        return (IsochroneData) super.getInputData();
+    }
+
+    /**
+     * @return Number of isochrones of this solution, one per budget of the input
+     *         data.
+     */
+    public int getNumberOfIsochrones() {
+        return reachable.length;
+    }
+
+    /**
+     * @param node A node of the graph.
+     * 
+     * @return Cost of the shortest path from the origin to the given node, or
+     *         {@link Double#POSITIVE_INFINITY} if the node cannot be reached within
+     *         the largest budget.
+     */
+    public double getCost(Node node) {
+        return costs[node.getId()];
+    }
+
+    /**
+     * @param index Index of a budget in the input data.
+     * 
+     * @return IDs of the nodes that can be reached within the given budget. The
+     *         returned set must not be modified.
+     */
+    public BitSet getReachable(int index) {
+        return reachable[index];
+    }
+
+    /**
+     * @param index Index of a budget in the input data.
+     * 
+     * @return Boundary of the area that can be reached within the given budget,
+     *         as a counter-clockwise polygon (the last point is not repeated), or
+     *         an empty list if the nodes of the graph have no coordinates.
+     */
+    public List<Point> getBoundary(int index) {
+        return boundaries.get(index);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        IsochroneData data = getInputData();
+        StringBuilder builder = new StringBuilder("Reached");
+        for (int i = 0; i < reachable.length; ++i) {
+            builder.append(i == 0 ? " " : ", ").append(reachable[i].cardinality())
+                    .append(" nodes within ").append(data.getBudget(i));
+        }
+        return builder.append(" in ").append(getSolvingTime().getSeconds()).append(" seconds.")
+                .toString();
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.insa.graphs.algorithm.landmarks;
+
+/**
+ * Strategies used to select the landmarks of {@link LandmarkTables}.
+ *
+ */
+public enum LandmarkSelection {
+
+    /**
+     * Each landmark is the node farthest from the landmarks already selected (the
+     * first one being the node farthest from a random node).
+     */
+    FARTHEST,
+
+    /**
+     * Each landmark is a leaf of a shortest-path tree from a random node, in the
+     * region of the tree where the current landmarks give the worst lower bounds
+     * (the "avoid" strategy of Goldberg and Werneck).
+     */
+    AVOID;
+
+}
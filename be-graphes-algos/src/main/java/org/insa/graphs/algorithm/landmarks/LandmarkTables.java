@@ -0,0 +1,561 @@
+package org.insa.graphs.algorithm.landmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.OneToManySearch;
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Distances between a few nodes of a graph, the landmarks, and all the nodes of
+ * the graph, for a given {@link ArcInspector}. These distances give lower
+ * bounds of the distance between any two nodes through the triangle
+ * inequality (see {@link #getLowerBound(int, int, int)}), which are used by
+ * A* with landmarks (ALT).
+ * </p>
+ * 
+ * <p>
+ * Distances are stored as floats, node by node, i.e., the distances of a node to
+ * and from all the landmarks are contiguous. Tables are written to binary
+ * files (see {@link #write(File)}), and are usually retrieved through
+ * {@link #get(Graph, ArcInspector)}, which keeps them next to the map files.
+ * Files hold the number of arcs of the graph and a fingerprint of the costs of
+ * its arcs (see {@link ArcCosts#fingerprint(Graph, double[])}), so that tables
+ * of another graph or inspector are not read.
+ * </p>
+ *
+ */
+public final class LandmarkTables {
+
+    // Magic number and version of the files.
+    private static final int MAGIC_NUMBER = 0x414c5401;
+    private static final int VERSION = 2;
+
+    /**
+     * Extension of the files containing landmark tables.
+     */
+    public static final String FILE_EXTENSION = "landmarks";
+
+    /**
+     * Default number of landmarks, used by {@link #get(Graph, ArcInspector)}.
+     */
+    public static final int DEFAULT_NUMBER_OF_LANDMARKS = 16;
+
+    // Relative error of a distance stored as a float (twice the unit roundoff).
+    private static final double ROUNDING_ERROR = 1.2e-7;
+
+    // ID of the map, number of nodes and arcs of the graph, and fingerprint of
+    // the graph and of the costs of its arcs.
+    private final String mapId;
+    private final int nbNodes, nbArcs;
+    private final long fingerprint;
+
+    // IDs of the landmarks.
+    private final int[] landmarks;
+
+    // Distances from the landmarks to the nodes and from the nodes to the
+    // landmarks, forward[node * landmarks.length + i] being the distance from the
+    // i-th landmark to the node.
+    private final float[] forward, backward;
+
+    private LandmarkTables(String mapId, int nbNodes, int nbArcs, long fingerprint,
+            int[] landmarks, float[] forward, float[] backward) {
+        this.mapId = mapId;
+        this.nbNodes = nbNodes;
+        this.nbArcs = nbArcs;
+        this.fingerprint = fingerprint;
+        this.landmarks = landmarks;
+        this.forward = forward;
+        this.backward = backward;
+    }
+
+    /**
+     * Retrieve the tables of the given graph and inspector, with the default
+     * number of landmarks selected by {@link LandmarkSelection#AVOID}. Tables are
+     * read from (or written to) the directory of {@link PreprocessingStore}, and
+     * only computed if they have not been computed yet.
+     * 
+     * @param graph Graph of the tables.
+     * @param inspector Inspector of the tables.
+     * 
+     * @return Landmark tables for the given graph and inspector.
+     */
+    public static LandmarkTables get(Graph graph, ArcInspector inspector) {
+        return PreprocessingStore.get(graph, inspector, FILE_EXTENSION,
+                file -> read(file, graph, inspector),
+                () -> compute(graph, inspector, DEFAULT_NUMBER_OF_LANDMARKS,
+                        LandmarkSelection.AVOID),
+                LandmarkTables::write);
+    }
+
+    /**
+     * Select landmarks and compute their tables. Landmarks are selected one at a
+     * time, then the distances from all the nodes to the landmarks are computed
+     * in parallel (one search per landmark).
+     * 
+     * @param graph Graph of the tables.
+     * @param inspector Inspector giving the allowed arcs and their costs.
+     * @param nbLandmarks Number of landmarks (at most the number of nodes).
+     * @param selection Strategy used to select the landmarks.
+     * 
+     * @return Landmark tables for the given graph and inspector.
+     */
+    public static LandmarkTables compute(Graph graph, ArcInspector inspector, int nbLandmarks,
+            LandmarkSelection selection) {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final double[] costs = ArcCosts.compute(graph, inspector);
+        final int nbNodes = graph.size();
+        final int k = Math.min(nbLandmarks, nbNodes);
+
+        // Build the incoming-arc index before starting the parallel searches.
+        if (nbNodes > 0) {
+            adjacency.getFirstIncomingArc(0);
+        }
+
+        int[] landmarks = new int[k];
+        float[] forward = new float[nbNodes * k];
+        float[] backward = new float[nbNodes * k];
+
+        // Selection of the landmarks, the distances from a landmark being needed to
+        // select the next one.
+        Selector selector = new Selector(adjacency, costs, landmarks, forward);
+        for (int i = 0; i < k; ++i) {
+            landmarks[i] = selection == LandmarkSelection.AVOID ? selector.nextAvoid(i)
+                    : selector.nextFarthest(i);
+            selector.add(i);
+        }
+
+        IntStream.range(0, k).parallel().forEach(i -> {
+            double[] distances = new double[nbNodes];
+            search(adjacency, costs, landmarks[i], true, distances, null, null);
+            for (int node = 0; node < nbNodes; ++node) {
+                backward[node * k + i] = (float) distances[node];
+            }
+        });
+
+        return new LandmarkTables(graph.getMapId(), nbNodes, costs.length,
+                ArcCosts.fingerprint(graph, costs), landmarks, forward, backward);
+    }
+
+    /**
+     * Run a one-to-all Dijkstra from (or to) the given source.
+     * 
+     * @param adjacency Adjacency arrays of the graph.
+     * @param costs Costs of the arcs.
+     * @param source ID of the source.
+     * @param backward true to compute the distances to the source.
+     * @param distances Array filled with the distances.
+     * @param parents Array filled with the parent of each reached node in the
+     *        shortest-path tree, or null.
+     * @param order Array filled with the settled nodes in settling order, or null.
+     * 
+     * @return Number of settled nodes.
+     */
+    private static int search(AdjacencyArrays adjacency, double[] costs, int source,
+            boolean backward, double[] distances, int[] parents, int[] order) {
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        if (parents != null) {
+            parents[source] = -1;
+        }
+        final int[] nbSettled = { 0 };
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(distances.length)) {
+            OneToManySearch.run(adjacency, costs, backward, source, workspace,
+                    new OneToManySearch.Listener() {
+
+                        @Override
+                        public boolean nodeSettled(int node, double distance) {
+                            distances[node] = distance;
+                            if (order != null) {
+                                order[nbSettled[0]] = node;
+                            }
+                            ++nbSettled[0];
+                            return true;
+                        }
+
+                        @Override
+                        public void nodeReached(int node, int parent, int arc) {
+                            if (parents != null) {
+                                parents[node] = parent;
+                            }
+                        }
+
+                    });
+        }
+        return nbSettled[0];
+    }
+
+    /**
+     * Selection of the landmarks, based on the distances from the landmarks
+     * already selected.
+     */
+    private static class Selector {
+
+        private final AdjacencyArrays adjacency;
+        private final double[] costs;
+        private final int[] landmarks;
+        private final float[] forward;
+        private final int nbNodes;
+
+        // Same seed for a given graph, so that tables can be computed again.
+        private final Random random;
+
+        // Shortest-path tree from a random node.
+        private final double[] distances;
+        private final int[] parents, order;
+
+        // Minimum distance from the landmarks (farthest), or subtree weights and
+        // best child of each node in the tree (avoid).
+        private final double[] weights;
+        private final int[] bestChild;
+        private final boolean[] isLandmark;
+
+        Selector(AdjacencyArrays adjacency, double[] costs, int[] landmarks, float[] forward) {
+            this.adjacency = adjacency;
+            this.costs = costs;
+            this.landmarks = landmarks;
+            this.forward = forward;
+            this.nbNodes = adjacency.getNumberOfNodes();
+            this.random = new Random(this.nbNodes);
+            this.distances = new double[this.nbNodes];
+            this.parents = new int[this.nbNodes];
+            this.order = new int[this.nbNodes];
+            this.weights = new double[this.nbNodes];
+            this.bestChild = new int[this.nbNodes];
+            this.isLandmark = new boolean[this.nbNodes];
+            Arrays.fill(this.weights, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Compute the distances from the i-th landmark, once selected.
+         */
+        void add(int i) {
+            final int k = this.landmarks.length;
+            this.isLandmark[this.landmarks[i]] = true;
+            search(this.adjacency, this.costs, this.landmarks[i], false, this.distances, null,
+                    null);
+            for (int node = 0; node < this.nbNodes; ++node) {
+                this.forward[node * k + i] = (float) this.distances[node];
+            }
+        }
+
+        /**
+         * @return A node that is not a landmark yet (used when the strategies do not
+         *         give any).
+         */
+        int any() {
+            int node = this.random.nextInt(this.nbNodes);
+            while (this.isLandmark[node]) {
+                node = (node + 1) % this.nbNodes;
+            }
+            return node;
+        }
+
+        /**
+         * @return The node farthest from the i first landmarks.
+         */
+        int nextFarthest(int i) {
+            final int k = this.landmarks.length;
+            if (i == 0) {
+                // Farthest node from a random node.
+                search(this.adjacency, this.costs, any(), false, this.distances, null, null);
+            }
+            else {
+                for (int node = 0; node < this.nbNodes; ++node) {
+                    this.weights[node] = Math.min(this.weights[node],
+                            this.forward[node * k + i - 1]);
+                }
+            }
+            final double[] candidates = i == 0 ? this.distances : this.weights;
+            int best = -1;
+            for (int node = 0; node < this.nbNodes; ++node) {
+                if (!this.isLandmark[node] && candidates[node] != Double.POSITIVE_INFINITY
+                        && (best == -1 || candidates[node] > candidates[best])) {
+                    best = node;
+                }
+            }
+            return best == -1 ? any() : best;
+        }
+
+        /**
+         * @return A leaf of a shortest-path tree from a random node, in the subtree
+         *         without landmark where the i first landmarks give the worst lower
+         *         bounds.
+         */
+        int nextAvoid(int i) {
+            final int k = this.landmarks.length;
+            final int root = any();
+            final int size = search(this.adjacency, this.costs, root, false, this.distances,
+                    this.parents, this.order);
+
+            // The weight of a node is the difference between its distance from the
+            // root and the lower bound given by the landmarks, the weight of a
+            // subtree is 0 if it contains a landmark.
+            Arrays.fill(this.bestChild, -1);
+            for (int j = size - 1; j >= 0; --j) {
+                final int node = this.order[j];
+                double bound = 0;
+                for (int l = 0; l < i; ++l) {
+                    final float from = this.forward[root * k + l],
+                            to = this.forward[node * k + l];
+                    if (from != Float.POSITIVE_INFINITY && to != Float.POSITIVE_INFINITY) {
+                        bound = Math.max(bound, to - from);
+                    }
+                }
+                this.weights[node] = this.distances[node] - bound;
+            }
+            for (int j = size - 1; j >= 0; --j) {
+                final int node = this.order[j];
+                if (this.isLandmark[node]) {
+                    this.weights[node] = -1;
+                }
+                final int parent = this.parents[node];
+                if (parent == -1) {
+                    continue;
+                }
+                if (this.weights[node] < 0) {
+                    this.weights[parent] = -1;
+                }
+                else if (this.weights[parent] >= 0) {
+                    this.weights[parent] += this.weights[node];
+                    if (this.bestChild[parent] == -1
+                            || this.weights[node] > this.weights[this.bestChild[parent]]) {
+                        this.bestChild[parent] = node;
+                    }
+                }
+            }
+
+            // Subtree of maximum weight, then leaf following the heaviest children.
+            int best = -1;
+            for (int j = 0; j < size; ++j) {
+                final int node = this.order[j];
+                if (this.weights[node] > 0
+                        && (best == -1 || this.weights[node] > this.weights[best])) {
+                    best = node;
+                }
+            }
+            if (best == -1) {
+                return any();
+            }
+            while (this.bestChild[best] != -1 && this.weights[this.bestChild[best]] >= 0) {
+                best = this.bestChild[best];
+            }
+            return best;
+        }
+
+    }
+
+    /**
+     * @return ID of the map of these tables.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Number of nodes of the graph of these tables.
+     */
+    public int getNumberOfNodes() {
+        return this.nbNodes;
+    }
+
+    /**
+     * @return Number of arcs of the graph of these tables.
+     */
+    public int getNumberOfArcs() {
+        return this.nbArcs;
+    }
+
+    /**
+     * @return Fingerprint of the graph and of the costs of its arcs for the
+     *         inspector of these tables (see
+     *         {@link ArcCosts#fingerprint(Graph, double[])}).
+     */
+    public long getFingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * @return Number of landmarks.
+     */
+    public int getNumberOfLandmarks() {
+        return this.landmarks.length;
+    }
+
+    /**
+     * @param i Index of a landmark.
+     * 
+     * @return ID of the i-th landmark.
+     */
+    public int getLandmark(int i) {
+        return this.landmarks[i];
+    }
+
+    /**
+     * @param i Index of a landmark.
+     * @param node ID of a node.
+     * 
+     * @return Distance from the i-th landmark to the given node, or infinity if the
+     *         node cannot be reached.
+     */
+    public float getDistanceFrom(int i, int node) {
+        return this.forward[node * this.landmarks.length + i];
+    }
+
+    /**
+     * @param i Index of a landmark.
+     * @param node ID of a node.
+     * 
+     * @return Distance from the given node to the i-th landmark, or infinity if
+     *         the landmark cannot be reached.
+     */
+    public float getDistanceTo(int i, int node) {
+        return this.backward[node * this.landmarks.length + i];
+    }
+
+    /**
+     * Compute a lower bound of the distance between two nodes using the i-th
+     * landmark L, i.e., the maximum of {@code d(L, to) - d(L, from)} and
+     * {@code d(from, L) - d(to, L)}, reduced to account for the rounding of the
+     * distances.
+     * 
+     * @param i Index of a landmark.
+     * @param from ID of a node.
+     * @param to ID of a node.
+     * 
+     * @return Lower bound of the distance from {@code from} to {@code to}, which
+     *         is infinity if {@code to} cannot be reached from {@code from}.
+     */
+    public double getLowerBound(int i, int from, int to) {
+        final int k = this.landmarks.length;
+        final double landmarkFrom = this.forward[from * k + i],
+                landmarkTo = this.forward[to * k + i];
+        final double fromLandmark = this.backward[from * k + i],
+                toLandmark = this.backward[to * k + i];
+
+        double bound = 0;
+        if (landmarkTo != Double.POSITIVE_INFINITY) {
+            if (landmarkFrom != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, landmarkTo - landmarkFrom
+                        - (landmarkTo + landmarkFrom) * ROUNDING_ERROR);
+            }
+        }
+        else if (landmarkFrom != Double.POSITIVE_INFINITY) {
+            // L reaches from but not to, so from does not reach to.
+            return Double.POSITIVE_INFINITY;
+        }
+        if (fromLandmark != Double.POSITIVE_INFINITY) {
+            if (toLandmark != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, fromLandmark - toLandmark
+                        - (fromLandmark + toLandmark) * ROUNDING_ERROR);
+            }
+        }
+        else if (toLandmark != Double.POSITIVE_INFINITY) {
+            // to reaches L but from does not, so from does not reach to.
+            return Double.POSITIVE_INFINITY;
+        }
+        return bound;
+    }
+
+    /**
+     * Write these tables to the given file.
+     * 
+     * @param file File to write.
+     * 
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(File file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(VERSION);
+            output.writeUTF(this.mapId);
+            output.writeInt(this.nbNodes);
+            output.writeInt(this.nbArcs);
+            output.writeLong(this.fingerprint);
+            output.writeInt(this.landmarks.length);
+            for (int landmark: this.landmarks) {
+                output.writeInt(landmark);
+            }
+            for (float distance: this.forward) {
+                output.writeFloat(distance);
+            }
+            for (float distance: this.backward) {
+                output.writeFloat(distance);
+            }
+        }
+    }
+
+    /**
+     * Read tables from the given file.
+     * 
+     * @param file File to read.
+     * @param graph Graph of the tables.
+     * @param inspector Inspector of the tables.
+     * 
+     * @return Tables read from the file.
+     * 
+     * @throws IOException if the file cannot be read or does not contain tables
+     *         of the given graph and inspector.
+     */
+    public static LandmarkTables read(File file, Graph graph, ArcInspector inspector)
+            throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC_NUMBER) {
+                throw new IOException("Not a landmark file.");
+            }
+            final int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version: " + version + ".");
+            }
+            final String mapId = input.readUTF();
+            final int nbNodes = input.readInt();
+            final int nbArcs = input.readInt();
+            if (!mapId.equals(graph.getMapId()) || nbNodes != graph.size()
+                    || nbArcs != graph.getAdjacency().getNumberOfArcs()) {
+                throw new IOException("Landmarks of another map: " + mapId + ".");
+            }
+            final long fingerprint = input.readLong();
+            if (fingerprint != ArcCosts.fingerprint(graph, inspector)) {
+                throw new IOException("Landmarks of another graph or inspector.");
+            }
+            final int k = input.readInt();
+            if (k < 0 || k > nbNodes) {
+                throw new IOException("Invalid number of landmarks: " + k + ".");
+            }
+            int[] landmarks = new int[k];
+            for (int i = 0; i < k; ++i) {
+                landmarks[i] = input.readInt();
+                if (landmarks[i] < 0 || landmarks[i] >= nbNodes) {
+                    throw new IOException("Invalid landmark: " + landmarks[i] + ".");
+                }
+            }
+            float[] forward = new float[nbNodes * k];
+            for (int i = 0; i < forward.length; ++i) {
+                forward[i] = input.readFloat();
+            }
+            float[] backward = new float[nbNodes * k];
+            for (int i = 0; i < backward.length; ++i) {
+                backward[i] = input.readFloat();
+            }
+            return new LandmarkTables(mapId, nbNodes, nbArcs, fingerprint, landmarks, forward,
+                    backward);
+        }
+    }
+
+}
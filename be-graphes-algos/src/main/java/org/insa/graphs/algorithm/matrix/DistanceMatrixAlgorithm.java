@@ -0,0 +1,489 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.contraction.ContractionHierarchy;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.OneToManySearch;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Many-to-many algorithm computing the costs, lengths and travel times of the
+ * shortest paths from a set of sources to a set of targets, in parallel over
+ * the sources. Two methods are available (see {@link Method}):
+ * </p>
+ *
+ * <ul>
+ * <li>{@link Method#BUCKETS} uses the {@link ContractionHierarchy} of the graph
+ * and inspector: a backward upward search from each target stores its distance
+ * in a bucket at each node it settles, then a forward upward search from each
+ * source scans the buckets of the nodes it settles.</li>
+ * <li>{@link Method#TREES} runs one Dijkstra search per source on the graph,
+ * until all the targets are settled, and reads the whole row from its tree. It
+ * needs no preprocessing.</li>
+ * </ul>
+ *
+ * <p>
+ * The lengths and travel times are those of the arcs of the paths found.
+ * Without paths, the buckets method sums the lengths and travel times stored on
+ * the edges of the hierarchy (see {@link ContractionHierarchy#getLength(int)});
+ * otherwise the paths are unpacked into arc indices for each cell, and
+ * {@link Path} objects are created.
+ * </p>
+ *
+ * <p>
+ * Rows are computed in parallel, but observers are notified from the thread
+ * running the algorithm, as rows are completed (see
+ * {@link DistanceMatrixObserver}).
+ * </p>
+ *
+ */
+public class DistanceMatrixAlgorithm extends AbstractAlgorithm<DistanceMatrixObserver> {
+
+    /**
+     * Method used to compute the matrix.
+     */
+    public enum Method {
+        BUCKETS, TREES
+    }
+
+    /**
+     * Buckets of the nodes: for each node, the targets whose backward search has
+     * settled the node, sorted by index, with the distance to the target and the
+     * edge leading towards it (-1 at the target).
+     */
+    private static final class Buckets {
+
+        private final int[] first, targets, edges;
+        private final double[] distances;
+
+        Buckets(int[] first, int[] targets, double[] distances, int[] edges) {
+            this.first = first;
+            this.targets = targets;
+            this.distances = distances;
+            this.edges = edges;
+        }
+
+        /**
+         * @return Position of the given target in the bucket of the given node.
+         */
+        int find(int node, int target) {
+            return Arrays.binarySearch(this.targets, this.first[node], this.first[node + 1],
+                    target);
+        }
+
+    }
+
+    // Method used to compute the matrix.
+    private final Method method;
+
+    // true if the paths of the cells must be created.
+    private final boolean computePaths;
+
+    /**
+     * Create a new algorithm using the {@link Method#BUCKETS} method, without
+     * paths.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public DistanceMatrixAlgorithm(DistanceMatrixData data) {
+        this(data, Method.BUCKETS, false);
+    }
+
+    /**
+     * Create a new algorithm using the given method.
+     *
+     * @param data Input data for the algorithm.
+     * @param method Method used to compute the matrix.
+     * @param computePaths true to create the paths of the cells, false to only
+     *        compute their costs, lengths and travel times.
+     */
+    public DistanceMatrixAlgorithm(DistanceMatrixData data, Method method,
+            boolean computePaths) {
+        super(data);
+        this.method = method;
+        this.computePaths = computePaths;
+    }
+
+    /**
+     * @return Method used by this algorithm.
+     */
+    public Method getMethod() {
+        return this.method;
+    }
+
+    /**
+     * @return true if this algorithm creates the paths of the cells.
+     */
+    public boolean isComputingPaths() {
+        return this.computePaths;
+    }
+
+    @Override
+    public DistanceMatrixSolution run() {
+        return (DistanceMatrixSolution) super.run();
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * Notify all observers that the row of a source has been computed.
+     *
+     * @param index Index of the source.
+     * @param source Source of the row.
+     */
+    public void notifyRowComputed(int index, Node source) {
+        for (DistanceMatrixObserver obs: getObservers()) {
+            obs.notifyRowComputed(index, source);
+        }
+    }
+
+    /**
+     * Run an upward search of the given hierarchy from the given node, settling
+     * all the nodes it can reach. The search is left in the given workspace.
+     *
+     * @return Nodes settled by the search, in order.
+     */
+    private static int[] searchUpward(ContractionHierarchy hierarchy, int root,
+            boolean backward, SearchWorkspace workspace) {
+        final IndexedPriorityQueue queue = workspace.getQueue();
+        int[] settled = new int[16];
+        int size = 0;
+        workspace.visit(root, 0);
+        workspace.update(root, 0, -1);
+        queue.insert(root, 0);
+        while (!queue.isEmpty()) {
+            final int node = queue.deleteMin();
+            workspace.settle(node);
+            if (size == settled.length) {
+                settled = Arrays.copyOf(settled, 2 * size);
+            }
+            settled[size++] = node;
+            final double distance = workspace.getDistance(node);
+            final int first = backward ? hierarchy.getFirstDownwardEdge(node)
+                    : hierarchy.getFirstUpwardEdge(node);
+            final int end = backward ? hierarchy.getEndDownwardEdge(node)
+                    : hierarchy.getEndUpwardEdge(node);
+            for (int i = first; i < end; ++i) {
+                final int e = backward ? hierarchy.getDownwardEdge(i) : hierarchy.getUpwardEdge(i);
+                final int next = backward ? hierarchy.getTail(e) : hierarchy.getHead(e);
+                if (workspace.isSettled(next)) {
+                    continue;
+                }
+                if (!workspace.isVisited(next)) {
+                    workspace.visit(next, 0);
+                }
+                final double newDistance = distance + hierarchy.getWeight(e);
+                if (newDistance < workspace.getDistance(next)) {
+                    workspace.update(next, newDistance, e);
+                    queue.insertOrDecrease(next, newDistance);
+                }
+            }
+        }
+        return Arrays.copyOf(settled, size);
+    }
+
+    /**
+     * Build the buckets of the given targets with backward searches (in
+     * parallel).
+     */
+    private static Buckets buildBuckets(ContractionHierarchy hierarchy, int[] targets) {
+        final int nbNodes = hierarchy.getNumberOfNodes();
+        int[][] settled = new int[targets.length][];
+        double[][] distances = new double[targets.length][];
+        int[][] edges = new int[targets.length][];
+        IntStream.range(0, targets.length).parallel().forEach(j -> {
+            try (SearchWorkspace workspace = SearchWorkspace.acquire(nbNodes)) {
+                settled[j] = searchUpward(hierarchy, targets[j], true, workspace);
+                distances[j] = new double[settled[j].length];
+                edges[j] = new int[settled[j].length];
+                for (int i = 0; i < settled[j].length; ++i) {
+                    distances[j][i] = workspace.getDistance(settled[j][i]);
+                    edges[j][i] = workspace.getPredecessorArc(settled[j][i]);
+                }
+            }
+        });
+
+        // Entries are added by increasing target, so that buckets are sorted.
+        int[] first = new int[nbNodes + 1];
+        for (int[] nodes: settled) {
+            for (int node: nodes) {
+                ++first[node + 1];
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            first[node + 1] += first[node];
+        }
+        int[] next = Arrays.copyOf(first, nbNodes);
+        int[] bucketTargets = new int[first[nbNodes]];
+        double[] bucketDistances = new double[bucketTargets.length];
+        int[] bucketEdges = new int[bucketTargets.length];
+        for (int j = 0; j < targets.length; ++j) {
+            for (int i = 0; i < settled[j].length; ++i) {
+                final int position = next[settled[j][i]]++;
+                bucketTargets[position] = j;
+                bucketDistances[position] = distances[j][i];
+                bucketEdges[position] = edges[j][i];
+            }
+        }
+        return new Buckets(first, bucketTargets, bucketDistances, bucketEdges);
+    }
+
+    /**
+     * Growable list of arc indices.
+     */
+    private static final class ArcList implements IntConsumer {
+
+        private int[] arcs = new int[16];
+        private int size = 0;
+
+        @Override
+        public void accept(int arc) {
+            if (this.size == this.arcs.length) {
+                this.arcs = Arrays.copyOf(this.arcs, 2 * this.size);
+            }
+            this.arcs[this.size++] = arc;
+        }
+
+        void reverse() {
+            for (int i = 0, j = this.size - 1; i < j; ++i, --j) {
+                final int arc = this.arcs[i];
+                this.arcs[i] = this.arcs[j];
+                this.arcs[j] = arc;
+            }
+        }
+
+    }
+
+    /**
+     * Set the length, travel time and path of a cell from the arcs of its path.
+     */
+    private void setPath(int cell, int source, ArcList arcs, double[] lengths, double[] times,
+            Path[] paths) {
+        final Graph graph = getInputData().getGraph();
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        double length = 0, time = 0;
+        for (int i = 0; i < arcs.size; ++i) {
+            length += adjacency.getLength(arcs.arcs[i]);
+            time += adjacency.getArc(arcs.arcs[i]).getMinimumTravelTime();
+        }
+        lengths[cell] = length;
+        times[cell] = time;
+        if (paths != null) {
+            if (arcs.size == 0) {
+                paths[cell] = new Path(graph, graph.get(source));
+            }
+            else {
+                List<Arc> path = new ArrayList<>(arcs.size);
+                for (int i = 0; i < arcs.size; ++i) {
+                    path.add(adjacency.getArc(arcs.arcs[i]));
+                }
+                paths[cell] = new Path(graph, path);
+            }
+        }
+    }
+
+    /**
+     * Compute the cells of the given row with the buckets of the targets.
+     */
+    private void computeRow(ContractionHierarchy hierarchy, Buckets buckets, int row,
+            int source, double[] costs, double[] lengths, double[] times, Path[] paths) {
+        final int nbTargets = getInputData().getTargets().size();
+        final int offset = row * nbTargets;
+        try (SearchWorkspace workspace = SearchWorkspace
+                .acquire(hierarchy.getNumberOfNodes())) {
+            // Node and bucket entry where the best path to each target has been
+            // found.
+            int[] meetingNode = new int[nbTargets], meetingEntry = new int[nbTargets];
+            for (int node: searchUpward(hierarchy, source, false, workspace)) {
+                final double distance = workspace.getDistance(node);
+                for (int i = buckets.first[node]; i < buckets.first[node + 1]; ++i) {
+                    final int j = buckets.targets[i];
+                    final double cost = distance + buckets.distances[i];
+                    if (cost < costs[offset + j]) {
+                        costs[offset + j] = cost;
+                        meetingNode[j] = node;
+                        meetingEntry[j] = i;
+                    }
+                }
+            }
+
+            for (int j = 0; j < nbTargets; ++j) {
+                if (costs[offset + j] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+
+                // Without paths, the lengths and travel times of the edges are summed
+                // without unpacking them.
+                if (paths == null) {
+                    double length = 0, time = 0;
+                    for (int e = workspace.getPredecessorArc(meetingNode[j]); e != -1;) {
+                        length += hierarchy.getLength(e);
+                        time += hierarchy.getMinimumTravelTime(e);
+                        e = workspace.getPredecessorArc(hierarchy.getTail(e));
+                    }
+                    for (int i = meetingEntry[j]; buckets.edges[i] != -1;) {
+                        final int e = buckets.edges[i];
+                        length += hierarchy.getLength(e);
+                        time += hierarchy.getMinimumTravelTime(e);
+                        i = buckets.find(hierarchy.getHead(e), j);
+                    }
+                    lengths[offset + j] = length;
+                    times[offset + j] = time;
+                    continue;
+                }
+
+                // Upward edges from the source to the meeting node, found backward.
+                ArcList edges = new ArcList();
+                for (int e = workspace.getPredecessorArc(meetingNode[j]); e != -1;) {
+                    edges.accept(e);
+                    e = workspace.getPredecessorArc(hierarchy.getTail(e));
+                }
+                edges.reverse();
+                ArcList arcs = new ArcList();
+                for (int i = 0; i < edges.size; ++i) {
+                    hierarchy.unpack(edges.arcs[i], arcs);
+                }
+
+                // Downward edges from the meeting node to the target.
+                for (int i = meetingEntry[j]; buckets.edges[i] != -1;) {
+                    final int e = buckets.edges[i];
+                    hierarchy.unpack(e, arcs);
+                    i = buckets.find(hierarchy.getHead(e), j);
+                }
+                setPath(offset + j, source, arcs, lengths, times, paths);
+            }
+        }
+    }
+
+    /**
+     * Compute the cells of the given row from the shortest path tree of the
+     * source, built until all the targets are settled.
+     */
+    private void computeRow(double[] arcCosts, boolean[] isTarget, int nbTargetNodes, int row,
+            int source, double[] costs, double[] lengths, double[] times, Path[] paths) {
+        final DistanceMatrixData data = getInputData();
+        final AdjacencyArrays adjacency = data.getGraph().getAdjacency();
+        final List<Node> targets = data.getTargets();
+        final int offset = row * targets.size();
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(data.getGraph().size())) {
+            final int[] remaining = { nbTargetNodes };
+            OneToManySearch.run(adjacency, arcCosts, false, source, workspace,
+                    (node, distance) -> !isTarget[node] || --remaining[0] > 0);
+
+            for (int j = 0; j < targets.size(); ++j) {
+                final int target = targets.get(j).getId();
+                if (!workspace.isSettled(target)) {
+                    continue;
+                }
+                costs[offset + j] = workspace.getDistance(target);
+                ArcList arcs = new ArcList();
+                for (int a = workspace.getPredecessorArc(target); a != -1;) {
+                    arcs.accept(a);
+                    a = workspace.getPredecessorArc(adjacency.getArc(a).getOrigin().getId());
+                }
+                arcs.reverse();
+                setPath(offset + j, source, arcs, lengths, times, paths);
+            }
+        }
+    }
+
+    /**
+     * Compute the rows of the matrix in parallel (in the common fork-join pool),
+     * notifying the observers from the calling thread as rows are completed.
+     *
+     * @param row Function computing the row of the given index.
+     */
+    private void computeRows(IntConsumer row) {
+        final List<Node> sources = getInputData().getSources();
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(
+                ForkJoinPool.commonPool());
+        for (int i = 0; i < sources.size(); ++i) {
+            final int index = i;
+            completion.submit(() -> {
+                row.accept(index);
+                return index;
+            });
+        }
+        try {
+            for (int i = 0; i < sources.size(); ++i) {
+                final int index = completion.take().get();
+                notifyRowComputed(index, sources.get(index));
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while computing the matrix",
+                    exception);
+        }
+        catch (ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    protected DistanceMatrixSolution doRun() {
+        final DistanceMatrixData data = getInputData();
+        final Graph graph = data.getGraph();
+        final List<Node> sources = data.getSources(), targets = data.getTargets();
+        final int size = Math.multiplyExact(sources.size(), targets.size());
+        double[] costs = new double[size], lengths = new double[size], times = new double[size];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(lengths, Double.POSITIVE_INFINITY);
+        Arrays.fill(times, Double.POSITIVE_INFINITY);
+        Path[] paths = this.computePaths ? new Path[size] : null;
+
+        if (this.method == Method.BUCKETS) {
+            final ContractionHierarchy hierarchy = ContractionHierarchy.get(graph,
+                    data.getArcInspector());
+            final Buckets buckets = buildBuckets(hierarchy,
+                    targets.stream().mapToInt(Node::getId).toArray());
+            computeRows(i -> computeRow(hierarchy, buckets, i, sources.get(i).getId(), costs,
+                    lengths, times, paths));
+        }
+        else {
+            final double[] arcCosts = ArcCosts.compute(graph, data.getArcInspector());
+            boolean[] isTarget = new boolean[graph.size()];
+            int nbTargetNodes = 0;
+            for (Node target: targets) {
+                if (!isTarget[target.getId()]) {
+                    isTarget[target.getId()] = true;
+                    ++nbTargetNodes;
+                }
+            }
+            final int remaining = nbTargetNodes;
+            computeRows(i -> computeRow(arcCosts, isTarget, remaining, i,
+                    sources.get(i).getId(), costs, lengths, times, paths));
+        }
+
+        return new DistanceMatrixSolution(data, Status.OPTIMAL, costs, lengths, times, paths);
+    }
+
+}
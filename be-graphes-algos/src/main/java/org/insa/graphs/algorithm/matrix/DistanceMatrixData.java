@@ -0,0 +1,58 @@
+package org.insa.graphs.algorithm.matrix;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class DistanceMatrixData extends AbstractInputData {
+
+    // Sources (rows) and targets (columns) of the matrix.
+    private final List<Node> sources, targets;
+
+    /**
+     * Construct a new instance of DistanceMatrixData with the given parameters.
+     * 
+     * @param graph Graph in which the paths should be looked for.
+     * @param sources Origins of the paths, one per row of the matrix.
+     * @param targets Destinations of the paths, one per column of the matrix.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     * 
+     * @throws IllegalArgumentException if the matrix has more than
+     *         {@link Integer#MAX_VALUE} cells.
+     */
+    public DistanceMatrixData(Graph graph, List<Node> sources, List<Node> targets,
+            ArcInspector arcInspector) throws IllegalArgumentException {
+        super(graph, arcInspector);
+        if ((long) sources.size() * targets.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "matrix too large: " + sources.size() + "x" + targets.size());
+        }
+        this.sources = Collections.unmodifiableList(sources);
+        this.targets = Collections.unmodifiableList(targets);
+    }
+
+    /**
+     * @return Sources of the matrix, one per row.
+     */
+    public List<Node> getSources() {
+        return sources;
+    }
+
+    /**
+     * @return Targets of the matrix, one per column.
+     */
+    public List<Node> getTargets() {
+        return targets;
+    }
+
+    @Override
+    public String toString() {
+        return "Distance matrix from " + sources.size() + " sources to " + targets.size()
+                + " targets [" + this.arcInspector.toString().toLowerCase() + "]";
+    }
+}
@@ -0,0 +1,17 @@
+package org.insa.graphs.algorithm.matrix;
+
+import org.insa.graphs.model.Node;
+
+public interface DistanceMatrixObserver {
+
+    /**
+     * Notify the observer that the row of a source has been computed. Rows are
+     * computed in parallel and notified in the order they are completed, but
+     * always from the thread running the algorithm, one at a time.
+     * 
+     * @param index Index of the source (row) in the input data.
+     * @param source Source of the row.
+     */
+    public void notifyRowComputed(int index, Node source);
+
+}
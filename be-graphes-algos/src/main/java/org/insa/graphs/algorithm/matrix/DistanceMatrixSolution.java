@@ -0,0 +1,122 @@
+package org.insa.graphs.algorithm.matrix;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Path;
+
+public class DistanceMatrixSolution extends AbstractSolution {
+
+    // Size of the matrix.
+    private final int nbSources, nbTargets;
+
+    // Cost, length and minimum travel time of each cell, row by row.
+    private final double[] costs, lengths, times;
+
+    // Path of each cell, or null if paths have not been computed.
+    private final Path[] paths;
+
+    /**
+     * Create a new matrix solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution.
+     * @param costs Cost of each cell, row by row.
+     * @param lengths Length of the path of each cell, row by row.
+     * @param times Minimum travel time of the path of each cell, row by row.
+     * @param paths Path of each cell, row by row, or null.
+     */
+    protected DistanceMatrixSolution(DistanceMatrixData data, Status status, double[] costs,
+            double[] lengths, double[] times, Path[] paths) {
+        super(data, status);
+        this.nbSources = data.getSources().size();
+        this.nbTargets = data.getTargets().size();
+        this.costs = costs;
+        this.lengths = lengths;
+        this.times = times;
+        this.paths = paths;
+    }
+
+    @Override
+    public DistanceMatrixData getInputData() {
+        return (DistanceMatrixData) super.getInputData();
+    }
+
+    /**
+     * @return Number of rows (sources) of the matrix.
+     */
+    public int getNumberOfSources() {
+        return nbSources;
+    }
+
+    /**
+     * @return Number of columns (targets) of the matrix.
+     */
+    public int getNumberOfTargets() {
+        return nbTargets;
+    }
+
+    /**
+     * @param source Index of a source (row).
+     * @param target Index of a target (column).
+     * 
+     * @return Cost of the shortest path from the given source to the given target,
+     *         or {@link Double#POSITIVE_INFINITY} if the target cannot be reached.
+     */
+    public double getCost(int source, int target) {
+        return costs[source * nbTargets + target];
+    }
+
+    /**
+     * @param source Index of a source (row).
+     * @param target Index of a target (column).
+     * 
+     * @return Length (in meters) of the shortest path from the given source to the
+     *         given target, or {@link Double#POSITIVE_INFINITY} if the target
+     *         cannot be reached.
+     */
+    public double getLength(int source, int target) {
+        return lengths[source * nbTargets + target];
+    }
+
+    /**
+     * @param source Index of a source (row).
+     * @param target Index of a target (column).
+     * 
+     * @return Minimum travel time (in seconds) of the shortest path from the given
+     *         source to the given target, or {@link Double#POSITIVE_INFINITY} if
+     *         the target cannot be reached.
+     */
+    public double getMinimumTravelTime(int source, int target) {
+        return times[source * nbTargets + target];
+    }
+
+    /**
+     * @return true if this solution contains the paths of its cells.
+     */
+    public boolean hasPaths() {
+        return paths != null;
+    }
+
+    /**
+     * @param source Index of a source (row).
+     * @param target Index of a target (column).
+     * 
+     * @return Shortest path from the given source to the given target, or null if
+     *         the target cannot be reached or if paths have not been computed.
+     */
+    public Path getPath(int source, int target) {
+        return paths == null ? null : paths[source * nbTargets + target];
+    }
+
+    @Override
+    public String toString() {
+        int reachable = 0;
+        for (double cost: costs) {
+            if (cost != Double.POSITIVE_INFINITY) {
+                ++reachable;
+            }
+        }
+        return "Computed a " + nbSources + "x" + nbTargets + " matrix (" + reachable
+                + " reachable pairs) in " + getSolvingTime().getSeconds() + " seconds.";
+    }
+
+}
@@ -0,0 +1,519 @@
+package org.insa.graphs.algorithm.overlay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.partition.MultiLevelPartition;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Multi-level overlay of a graph (as in customizable route planning), built on
+ * a {@link MultiLevelPartition}. The boundary nodes of a cell are its nodes
+ * linked by an arc to a node of another cell of the same level, and the overlay
+ * of a level links the boundary nodes of each cell by a clique, whose weights
+ * are the distances inside the cell.
+ * </p>
+ *
+ * <p>
+ * The structure of the overlay only depends on the partition. The weights of
+ * the cliques are computed for a given {@link ArcInspector} by
+ * {@link #customize(Graph, ArcInspector)}, level by level (the cliques of a
+ * level being computed from the cliques of the level below), in parallel for
+ * the cells of a level. When the costs of a few arcs change (e.g., a closed
+ * road), only the cells containing these arcs need to be customized again, see
+ * {@link #customize(Graph, ArcInspector, OverlayCustomization, Collection)}.
+ * </p>
+ *
+ * <p>
+ * Inside a search, an edge of a clique is identified by its tail: the search
+ * predecessor of a node reached through a clique is {@code -2 - tail}, and the
+ * arcs of the edge are retrieved by
+ * {@link #unpack(Graph, OverlayCustomization, int, int, int, IntConsumer)}. A
+ * node reached through a clique does not need to follow the same clique.
+ * </p>
+ *
+ * <p>
+ * An overlay does not keep a reference to its graph, so that it can be cached
+ * for as long as the graph is reachable (see {@link PreprocessingStore}): the
+ * graph is given to the methods that need it, and checked against the map ID,
+ * number of nodes and number of arcs of the overlay.
+ * </p>
+ *
+ */
+public final class MultiLevelOverlay {
+
+    // Partition of the overlay.
+    private final MultiLevelPartition partition;
+
+    // Map ID, number of nodes and number of arcs of the graph of the overlay.
+    private final String mapId;
+    private final int nbNodes, nbArcs;
+
+    // Boundary nodes of each cell, for each level, and position of each node
+    // among the boundary nodes of its cell (-1 if the node is not a boundary
+    // node).
+    private final int[][] boundaryFirst, boundaryNodes, boundaryIndex;
+
+    // Index of the clique of each cell, for each level.
+    private final int[][] cliqueFirst;
+
+    // Customizations, by inspector.
+    private final Map<String, OverlayCustomization> customizations = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new overlay for the given graph and partition.
+     *
+     * @param graph Graph of the overlay.
+     * @param partition Partition of the given graph.
+     *
+     * @throws IllegalArgumentException if the partition is not a partition of the
+     *         given graph.
+     */
+    public MultiLevelOverlay(Graph graph, MultiLevelPartition partition)
+            throws IllegalArgumentException {
+        if (!graph.getMapId().equals(partition.getMapId())
+                || (partition.getNumberOfLevels() > 0 && partition.getNumberOfNodes() != graph.size())) {
+            throw new IllegalArgumentException("not a partition of this graph: " + partition.getMapId());
+        }
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int nbNodes = graph.size();
+        final int nbLevels = partition.getNumberOfLevels();
+        this.mapId = graph.getMapId();
+        this.nbNodes = nbNodes;
+        this.nbArcs = adjacency.getNumberOfArcs();
+        this.partition = partition;
+        this.boundaryFirst = new int[nbLevels][];
+        this.boundaryNodes = new int[nbLevels][];
+        this.boundaryIndex = new int[nbLevels][];
+        this.cliqueFirst = new int[nbLevels][];
+
+        for (int level = 0; level < nbLevels; ++level) {
+            final int nbCells = partition.getNumberOfCells(level);
+            boolean[] isBoundary = new boolean[nbNodes];
+            for (int node = 0; node < nbNodes; ++node) {
+                final int cell = partition.getCell(level, node);
+                for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                    final int head = adjacency.getHead(a);
+                    if (partition.getCell(level, head) != cell) {
+                        isBoundary[node] = isBoundary[head] = true;
+                    }
+                }
+            }
+
+            // Boundary nodes of each cell, by increasing ID.
+            int[] first = new int[nbCells + 1];
+            for (int node = 0; node < nbNodes; ++node) {
+                if (isBoundary[node]) {
+                    ++first[partition.getCell(level, node) + 1];
+                }
+            }
+            for (int cell = 0; cell < nbCells; ++cell) {
+                first[cell + 1] += first[cell];
+            }
+            int[] nodes = new int[first[nbCells]];
+            int[] index = new int[nbNodes];
+            int[] next = Arrays.copyOf(first, nbCells);
+            for (int node = 0; node < nbNodes; ++node) {
+                final int cell = partition.getCell(level, node);
+                if (isBoundary[node]) {
+                    index[node] = next[cell] - first[cell];
+                    nodes[next[cell]++] = node;
+                }
+                else {
+                    index[node] = -1;
+                }
+            }
+
+            int[] cliques = new int[nbCells + 1];
+            for (int cell = 0; cell < nbCells; ++cell) {
+                final int size = first[cell + 1] - first[cell];
+                cliques[cell + 1] = Math.addExact(cliques[cell], Math.multiplyExact(size, size));
+            }
+
+            this.boundaryFirst[level] = first;
+            this.boundaryNodes[level] = nodes;
+            this.boundaryIndex[level] = index;
+            this.cliqueFirst[level] = cliques;
+        }
+    }
+
+    /**
+     * Retrieve the overlay of the given graph, built on the partition of
+     * {@link MultiLevelPartition#get(Graph)}.
+     *
+     * @param graph Graph of the overlay.
+     *
+     * @return Overlay of the given graph.
+     */
+    public static MultiLevelOverlay get(Graph graph) {
+        return PreprocessingStore.get(graph, "overlay",
+                () -> new MultiLevelOverlay(graph, MultiLevelPartition.get(graph)));
+    }
+
+    /**
+     * @return Partition of this overlay.
+     */
+    public MultiLevelPartition getPartition() {
+        return this.partition;
+    }
+
+    /**
+     * @return Number of levels of this overlay.
+     */
+    public int getNumberOfLevels() {
+        return this.partition.getNumberOfLevels();
+    }
+
+    /**
+     * @param level A level of this overlay.
+     * @param node ID of a node.
+     *
+     * @return Cell of the given node at the given level.
+     */
+    public int getCell(int level, int node) {
+        return this.partition.getCell(level, node);
+    }
+
+    /**
+     * @param level A level of this overlay.
+     * @param cell A cell of the given level.
+     *
+     * @return Number of boundary nodes of the given cell.
+     */
+    public int getNumberOfBoundaryNodes(int level, int cell) {
+        return this.boundaryFirst[level][cell + 1] - this.boundaryFirst[level][cell];
+    }
+
+    /**
+     * @param level A level of this overlay.
+     * @param cell A cell of the given level.
+     * @param index Position of a boundary node of the given cell.
+     *
+     * @return ID of the boundary node at the given position in the given cell.
+     */
+    public int getBoundaryNode(int level, int cell, int index) {
+        return this.boundaryNodes[level][this.boundaryFirst[level][cell] + index];
+    }
+
+    /**
+     * @param level A level of this overlay.
+     * @param node ID of a node.
+     *
+     * @return Position of the given node among the boundary nodes of its cell at
+     *         the given level, or {@code -1} if it is not a boundary node.
+     */
+    public int getBoundaryIndex(int level, int node) {
+        return this.boundaryIndex[level][node];
+    }
+
+    /**
+     * @return Index of the distance between two boundary nodes in the array of the
+     *         cliques of the given level.
+     */
+    int getMatrixIndex(int level, int cell, int from, int to) {
+        return this.cliqueFirst[level][cell] + from * getNumberOfBoundaryNodes(level, cell) + to;
+    }
+
+    /**
+     * Check that the given graph is the graph of this overlay.
+     */
+    private void checkGraph(Graph graph) throws IllegalArgumentException {
+        if (!graph.getMapId().equals(this.mapId) || graph.size() != this.nbNodes
+                || graph.getAdjacency().getNumberOfArcs() != this.nbArcs) {
+            throw new IllegalArgumentException("not the graph of this overlay: " + graph.getMapId());
+        }
+    }
+
+    /**
+     * Retrieve the customization of this overlay for the given inspector, which
+     * is computed on the first call for an inspector (see
+     * {@link PreprocessingStore#getInspectorKey(ArcInspector)}).
+     *
+     * @param graph Graph of this overlay.
+     * @param inspector An arc inspector.
+     *
+     * @return Customization for the given inspector.
+     */
+    public OverlayCustomization getCustomization(Graph graph, ArcInspector inspector) {
+        return this.customizations.computeIfAbsent(PreprocessingStore.getInspectorKey(inspector),
+                key -> customize(graph, inspector));
+    }
+
+    /**
+     * Compute the cliques of all the cells for the given inspector.
+     *
+     * @param graph Graph of this overlay.
+     * @param inspector An arc inspector.
+     *
+     * @return Customization for the given inspector.
+     *
+     * @throws IllegalArgumentException if the graph is not the graph of this
+     *         overlay.
+     */
+    public OverlayCustomization customize(Graph graph, ArcInspector inspector)
+            throws IllegalArgumentException {
+        checkGraph(graph);
+        final int nbLevels = getNumberOfLevels();
+        double[][] cliques = new double[nbLevels][];
+        for (int level = 0; level < nbLevels; ++level) {
+            cliques[level] = new double[this.cliqueFirst[level][this.partition
+                    .getNumberOfCells(level)]];
+        }
+        OverlayCustomization customization = new OverlayCustomization(this,
+                ArcCosts.compute(graph, inspector), cliques);
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        for (int level = 0; level < nbLevels; ++level) {
+            final int l = level;
+            IntStream.range(0, this.partition.getNumberOfCells(level)).parallel()
+                    .forEach(cell -> customizeCell(adjacency, customization, l, cell));
+        }
+        return customization;
+    }
+
+    /**
+     * Update a customization after the costs of some arcs have changed: the costs
+     * of the given arcs are retrieved from the given inspector, and only the
+     * cliques of the cells containing these arcs are computed again. The costs of
+     * the other arcs must be the same for the given inspector and for the
+     * inspector of the previous customization.
+     *
+     * @param graph Graph of this overlay.
+     * @param inspector Inspector giving the new costs of the arcs.
+     * @param previous Customization of this overlay for the previous costs.
+     * @param changedArcs Arcs whose cost (or access) has changed.
+     *
+     * @return New customization, the previous one being left unchanged.
+     *
+     * @throws IllegalArgumentException if the graph is not the graph of this
+     *         overlay, or if the previous customization is not a customization of
+     *         this overlay.
+     */
+    public OverlayCustomization customize(Graph graph, ArcInspector inspector,
+            OverlayCustomization previous, Collection<Arc> changedArcs)
+            throws IllegalArgumentException {
+        checkGraph(graph);
+        if (previous.getOverlay() != this) {
+            throw new IllegalArgumentException("not a customization of this overlay");
+        }
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int nbLevels = getNumberOfLevels();
+
+        // New costs of the arcs, and cells that contain both ends of a changed arc.
+        double[] costs = previous.costs.clone();
+        boolean[][] changed = new boolean[nbLevels][];
+        for (int level = 0; level < nbLevels; ++level) {
+            changed[level] = new boolean[this.partition.getNumberOfCells(level)];
+        }
+        for (Arc arc: changedArcs) {
+            final int tail = arc.getOrigin().getId(), head = arc.getDestination().getId();
+            boolean found = false;
+            for (int a = adjacency.getFirstArc(tail), end = adjacency.getEndArc(tail); a < end; ++a) {
+                if (adjacency.getArc(a) == arc) {
+                    costs[a] = inspector.isAllowed(arc) ? inspector.getCost(arc)
+                            : Double.POSITIVE_INFINITY;
+                    found = true;
+                }
+            }
+            if (!found) {
+                throw new IllegalArgumentException("not an arc of this overlay: " + arc);
+            }
+            for (int level = 0; level < nbLevels; ++level) {
+                final int cell = this.partition.getCell(level, tail);
+                if (this.partition.getCell(level, head) == cell) {
+                    changed[level][cell] = true;
+                }
+            }
+        }
+
+        double[][] cliques = new double[nbLevels][];
+        for (int level = 0; level < nbLevels; ++level) {
+            cliques[level] = previous.cliques[level].clone();
+        }
+        OverlayCustomization customization = new OverlayCustomization(this, costs, cliques);
+        for (int level = 0; level < nbLevels; ++level) {
+            final int l = level;
+            final boolean[] cells = changed[level];
+            IntStream.range(0, cells.length).parallel().filter(cell -> cells[cell])
+                    .forEach(cell -> customizeCell(adjacency, customization, l, cell));
+        }
+        return customization;
+    }
+
+    /**
+     * Compute the clique of the given cell, from the cliques of the level below.
+     */
+    private void customizeCell(AdjacencyArrays adjacency, OverlayCustomization customization,
+            int level, int cell) {
+        final int size = getNumberOfBoundaryNodes(level, cell);
+        final double[] clique = customization.cliques[level];
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(this.nbNodes)) {
+            for (int i = 0; i < size; ++i) {
+                workspace.reset();
+                searchCell(adjacency, customization, level, getBoundaryNode(level, cell, i), -1,
+                        workspace);
+                for (int j = 0; j < size; ++j) {
+                    clique[getMatrixIndex(level, cell, i, j)] = workspace
+                            .getDistance(getBoundaryNode(level, cell, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a search from the given node, restricted to its cell at the given level:
+     * at level 0, the search follows the arcs of the cell; at other levels, it
+     * follows the cliques of the cells of the level below, and the arcs between
+     * these cells. The search stops when the target is settled, or when all the
+     * boundary nodes of the cell are settled if there is no target.
+     *
+     * @param adjacency Adjacency arrays of the graph of the overlay.
+     * @param customization Weights of the overlay.
+     * @param level Level of the cell.
+     * @param source Node where the search starts, which must be a boundary node
+     *        at the level below (if any).
+     * @param target Node where the search stops, or {@code -1}.
+     * @param workspace Workspace of the search, which must have been reset.
+     */
+    private void searchCell(AdjacencyArrays adjacency, OverlayCustomization customization,
+            int level, int source, int target, SearchWorkspace workspace) {
+        final IndexedPriorityQueue queue = workspace.getQueue();
+        final int cell = this.partition.getCell(level, source);
+        int remaining = getNumberOfBoundaryNodes(level, cell);
+
+        workspace.visit(source, 0);
+        workspace.update(source, 0, -1);
+        queue.insert(source, 0);
+        while (!queue.isEmpty()) {
+            final int node = queue.deleteMin();
+            workspace.settle(node);
+            if (node == target
+                    || (target == -1 && this.boundaryIndex[level][node] != -1 && --remaining == 0)) {
+                break;
+            }
+            final double distance = workspace.getDistance(node);
+
+            // Clique of the cell of the node at the level below, unless the node has
+            // been reached through this clique (the distances of the clique being
+            // shortest distances, the clique would not give shorter paths).
+            final int sub = level - 1;
+            final int subCell = sub >= 0 ? this.partition.getCell(sub, node) : -1;
+            if (sub >= 0 && workspace.getPredecessorArc(node) >= -1) {
+                final int i = this.boundaryIndex[sub][node];
+                final int size = getNumberOfBoundaryNodes(sub, subCell);
+                final double[] clique = customization.cliques[sub];
+                for (int j = 0, k = getMatrixIndex(sub, subCell, i, 0); j < size; ++j, ++k) {
+                    relax(workspace, getBoundaryNode(sub, subCell, j), distance + clique[k],
+                            -2 - node);
+                }
+            }
+
+            // Arcs to the cell, or to other cells of the level below.
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                final int head = adjacency.getHead(a);
+                if (this.partition.getCell(level, head) == cell
+                        && (sub < 0 || this.partition.getCell(sub, head) != subCell)) {
+                    relax(workspace, head, distance + customization.costs[a], a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Update the distance of the given node in the given workspace, if the given
+     * distance is smaller.
+     */
+    private static void relax(SearchWorkspace workspace, int node, double distance,
+            int predecessor) {
+        if (workspace.isSettled(node) || distance == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        if (!workspace.isVisited(node)) {
+            workspace.visit(node, 0);
+        }
+        if (distance < workspace.getDistance(node)) {
+            workspace.update(node, distance, predecessor);
+            final IndexedPriorityQueue queue = workspace.getQueue();
+            if (queue.contains(node)) {
+                queue.decreaseKey(node, distance);
+            }
+            else {
+                queue.insert(node, distance);
+            }
+        }
+    }
+
+    /**
+     * Retrieve the arcs of a shortest path between two boundary nodes of a cell,
+     * inside the cell, i.e., the arcs of an edge of a clique.
+     *
+     * @param graph Graph of this overlay.
+     * @param customization Weights of the overlay.
+     * @param level Level of the cell.
+     * @param from Boundary node of the cell where the path starts.
+     * @param to Boundary node of the same cell where the path ends.
+     * @param consumer Function called with the index of each arc of the path, in
+     *        order.
+     *
+     * @throws IllegalArgumentException if the graph is not the graph of this
+     *         overlay.
+     */
+    public void unpack(Graph graph, OverlayCustomization customization, int level, int from,
+            int to, IntConsumer consumer) throws IllegalArgumentException {
+        checkGraph(graph);
+        unpack(graph.getAdjacency(), customization, level, from, to, consumer);
+    }
+
+    /**
+     * Retrieve the arcs of an edge of a clique, as
+     * {@link #unpack(Graph, OverlayCustomization, int, int, int, IntConsumer)}.
+     */
+    private void unpack(AdjacencyArrays adjacency, OverlayCustomization customization,
+            int level, int from, int to, IntConsumer consumer) {
+        // Steps of the path at this level, from the end: an arc, or the tail of a
+        // clique edge of the level below.
+        List<Integer> steps = new ArrayList<>();
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(this.nbNodes)) {
+            searchCell(adjacency, customization, level, from, to, workspace);
+            for (int node = to; node != from;) {
+                final int predecessor = workspace.getPredecessorArc(node);
+                if (predecessor == -1) {
+                    throw new IllegalArgumentException("no path from " + from + " to " + to);
+                }
+                steps.add(predecessor);
+                node = predecessor >= 0 ? adjacency.getArc(predecessor).getOrigin().getId()
+                        : -2 - predecessor;
+            }
+        }
+
+        int node = from;
+        for (int i = steps.size() - 1; i >= 0; --i) {
+            final int step = steps.get(i);
+            if (step >= 0) {
+                consumer.accept(step);
+                node = adjacency.getHead(step);
+            }
+            else {
+                final int next = i > 0 ? (steps.get(i - 1) >= 0
+                        ? adjacency.getArc(steps.get(i - 1)).getOrigin().getId()
+                        : -2 - steps.get(i - 1)) : to;
+                unpack(adjacency, customization, level - 1, node, next, consumer);
+                node = next;
+            }
+        }
+    }
+
+}
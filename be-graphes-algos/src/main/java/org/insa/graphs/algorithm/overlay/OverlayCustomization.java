@@ -0,0 +1,62 @@
+package org.insa.graphs.algorithm.overlay;
+
+/**
+ * Weights of a {@link MultiLevelOverlay} for a given
+ * {@link org.insa.graphs.algorithm.ArcInspector}: the cost of each arc of the
+ * graph, and the distances between the boundary nodes of each cell (the clique
+ * of the cell), inside the cell.
+ *
+ */
+public final class OverlayCustomization {
+
+    // Overlay of this customization.
+    private final MultiLevelOverlay overlay;
+
+    // Cost of each arc (infinite if the arc is not allowed).
+    final double[] costs;
+
+    // Distances between the boundary nodes of each cell, row by row, for each
+    // level.
+    final double[][] cliques;
+
+    OverlayCustomization(MultiLevelOverlay overlay, double[] costs, double[][] cliques) {
+        this.overlay = overlay;
+        this.costs = costs;
+        this.cliques = cliques;
+    }
+
+    /**
+     * @return Overlay of this customization.
+     */
+    public MultiLevelOverlay getOverlay() {
+        return this.overlay;
+    }
+
+    /**
+     * @param arc Index of an arc of the graph (see
+     *        {@link org.insa.graphs.model.AdjacencyArrays}).
+     *
+     * @return Cost of the given arc, or infinity if the arc is not allowed.
+     */
+    public double getCost(int arc) {
+        return this.costs[arc];
+    }
+
+    /**
+     * Retrieve the distance between two boundary nodes of a cell, using only
+     * nodes of the cell.
+     *
+     * @param level A level of the overlay.
+     * @param cell A cell of the given level.
+     * @param from Position of the first node among the boundary nodes of the
+     *        cell (see {@link MultiLevelOverlay#getBoundaryIndex(int, int)}).
+     * @param to Position of the second node among the boundary nodes of the cell.
+     *
+     * @return Distance between the given nodes inside the cell, or infinity if
+     *         there is no path inside the cell.
+     */
+    public double getDistance(int level, int cell, int from, int to) {
+        return this.cliques[level][this.overlay.getMatrixIndex(level, cell, from, to)];
+    }
+
+}
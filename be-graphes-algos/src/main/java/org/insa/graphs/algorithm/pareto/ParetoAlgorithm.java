@@ -0,0 +1,242 @@
+package org.insa.graphs.algorithm.pareto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.LabelPool;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Bi-criteria label-setting search computing the Pareto front of the paths
+ * between two nodes for their length and their travel time, i.e., the paths
+ * such that no other path is both shorter and faster.
+ * </p>
+ *
+ * <p>
+ * A label is a path from the origin to a node, represented by its length, its
+ * travel time and the label it extends. Labels are kept in primitive arrays,
+ * and settled by lexicographic order of their length and travel time plus the
+ * exact lengths and travel times to the destination, computed by two backward
+ * Dijkstra searches. A label is discarded when another label of its node is
+ * both shorter and faster, or when a path of the front is both shorter and
+ * faster than the best path the label could lead to (target bound).
+ * </p>
+ *
+ * <p>
+ * The front can be approximated with an epsilon: a label is also discarded if a
+ * path of the front is at most {@code 1 + epsilon} times longer and slower than
+ * the best path the label could lead to. Every Pareto-optimal path is then
+ * within {@code 1 + epsilon} of a path of the front on both criteria, and the
+ * size of the front and of the search are bounded, even on long queries.
+ * </p>
+ *
+ */
+public class ParetoAlgorithm extends AbstractAlgorithm<ParetoObserver> {
+
+    /**
+     * Default epsilon, for an exact front.
+     */
+    public static final double DEFAULT_EPSILON = 0;
+
+    // Epsilon of the front.
+    private final double epsilon;
+
+    public ParetoAlgorithm(ParetoData data) {
+        this(data, DEFAULT_EPSILON);
+    }
+
+    /**
+     * Create a new algorithm with the given epsilon.
+     *
+     * @param data Input data for the algorithm.
+     * @param epsilon Approximation of the front (0 for an exact front): every
+     *        Pareto-optimal path is at most {@code 1 + epsilon} times longer and
+     *        slower than a path of the front.
+     *
+     * @throws IllegalArgumentException if epsilon is negative or not finite.
+     */
+    public ParetoAlgorithm(ParetoData data, double epsilon) throws IllegalArgumentException {
+        super(data);
+        if (!(epsilon >= 0) || epsilon == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("invalid epsilon: " + epsilon);
+        }
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * @return Approximation of the front (0 for an exact front).
+     */
+    public double getEpsilon() {
+        return this.epsilon;
+    }
+
+    @Override
+    public ParetoSolution run() {
+        return (ParetoSolution) super.run();
+    }
+
+    @Override
+    public ParetoData getInputData() {
+        return (ParetoData) super.getInputData();
+    }
+
+    @Override
+    protected ParetoSolution doRun() {
+        final ParetoData data = getInputData();
+        final Graph graph = data.getGraph();
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        List<Path> paths = new ArrayList<>();
+        if (ShortestPathAlgorithm.isTrivial(data.getOrigin(), data.getDestination())) {
+            return new ParetoSolution(data, Status.INFEASIBLE, paths);
+        }
+
+        final int nbArcs = adjacency.getNumberOfArcs();
+        double[] lengths = new double[nbArcs], times = new double[nbArcs];
+        for (int node = 0; node < graph.size(); ++node) {
+            for (int a = adjacency.getFirstArc(node); a < adjacency.getEndArc(node); ++a) {
+                final Arc arc = adjacency.getArc(node, a);
+                if (data.isAllowed(arc)) {
+                    lengths[a] = data.getLength(arc);
+                    times[a] = data.getTravelTime(arc);
+                }
+                else {
+                    lengths[a] = times[a] = Double.POSITIVE_INFINITY;
+                }
+            }
+        }
+        final double[] lengthBounds = ArcCosts.computeDistancesTo(graph, lengths, destination);
+        final double[] timeBounds = ArcCosts.computeDistancesTo(graph, times, destination);
+        if (lengthBounds[origin] == Double.POSITIVE_INFINITY) {
+            return new ParetoSolution(data, Status.INFEASIBLE, paths);
+        }
+
+        // Labels, and front, by increasing length and decreasing travel time.
+        final LabelPool labels = new LabelPool(graph.size(), graph.size() / 4);
+        double[] frontLengths = new double[16], frontTimes = new double[16];
+        int frontSize = 0;
+
+        labels.add(origin, -1, -1, 0, 0, lengthBounds[origin], timeBounds[origin]);
+        notifyOriginProcessed(data.getOrigin());
+
+        final double factor = 1 + this.epsilon;
+        for (int label = labels.poll(); label != -1; label = labels.poll()) {
+            if (isCovered(frontLengths, frontTimes, frontSize,
+                    factor * labels.getFirstKey(label), factor * labels.getSecondKey(label))) {
+                continue;
+            }
+            final int node = labels.getNode(label);
+            final double length = labels.getFirstCost(label), time = labels.getSecondCost(label);
+            notifyLabelSettled(graph.get(node), length, time);
+
+            // Labels of the destination are settled by increasing length, and each
+            // of them is faster than the previous ones, otherwise it is covered.
+            if (node == destination) {
+                if (frontSize == frontLengths.length) {
+                    frontLengths = Arrays.copyOf(frontLengths, 2 * frontSize);
+                    frontTimes = Arrays.copyOf(frontTimes, 2 * frontSize);
+                }
+                frontLengths[frontSize] = length;
+                frontTimes[frontSize] = time;
+                ++frontSize;
+                paths.add(Path.createFromArcIndices(graph, labels.getArcs(label)));
+                notifyPathFound(paths.size() - 1, paths.get(paths.size() - 1));
+                continue;
+            }
+
+            // Only labels not settled yet can be dominated by the new labels, since
+            // labels are settled in lexicographic order.
+            for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end;
+                    ++a) {
+                final int head = adjacency.getHead(a);
+                if (lengths[a] == Double.POSITIVE_INFINITY
+                        || lengthBounds[head] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                final double newLength = length + lengths[a], newTime = time + times[a];
+                final double keyLength = newLength + lengthBounds[head],
+                        keyTime = newTime + timeBounds[head];
+                if (!isCovered(frontLengths, frontTimes, frontSize, factor * keyLength,
+                        factor * keyTime)) {
+                    labels.add(head, label, a, newLength, newTime, keyLength, keyTime);
+                }
+            }
+        }
+
+        if (paths.isEmpty()) {
+            return new ParetoSolution(data, Status.INFEASIBLE, paths);
+        }
+        return new ParetoSolution(data, this.epsilon == 0 ? Status.OPTIMAL : Status.FEASIBLE,
+                paths);
+    }
+
+    /**
+     * @return true if a path of the front is at most as long and as slow as the
+     *         given length and travel time.
+     */
+    private static boolean isCovered(double[] frontLengths, double[] frontTimes, int frontSize,
+            double length, double time) {
+        // The fastest path of the front that is not longer than the given length is
+        // the last one.
+        int low = 0, high = frontSize;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (frontLengths[middle] <= length) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low > 0 && frontTimes[low - 1] <= time;
+    }
+
+    /**
+     * Notify all observers that the origin has been processed.
+     *
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node) {
+        for (ParetoObserver obs: getObservers()) {
+            obs.notifyOriginProcessed(node);
+        }
+    }
+
+    /**
+     * Notify all observers that a label has been settled.
+     *
+     * @param node Node of the label.
+     * @param length Length of the path of the label.
+     * @param travelTime Travel time of the path of the label.
+     */
+    public void notifyLabelSettled(Node node, double length, double travelTime) {
+        for (ParetoObserver obs: getObservers()) {
+            obs.notifyLabelSettled(node, length, travelTime);
+        }
+    }
+
+    /**
+     * Notify all observers that a path has been added to the front.
+     *
+     * @param index Index of the path in the front.
+     * @param path The path.
+     */
+    public void notifyPathFound(int index, Path path) {
+        for (ParetoObserver obs: getObservers()) {
+            obs.notifyPathFound(index, path);
+        }
+    }
+
+}
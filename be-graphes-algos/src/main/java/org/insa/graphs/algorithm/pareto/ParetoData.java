@@ -0,0 +1,69 @@
+package org.insa.graphs.algorithm.pareto;
+
+import org.insa.graphs.algorithm.AbstractInputData;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class ParetoData extends AbstractInputData {
+
+    // Origin and destination nodes.
+    private final Node origin, destination;
+
+    /**
+     * Construct a new instance of ParetoData with the given parameters. Paths are
+     * compared by length and by travel time: the travel time of an arc is its cost
+     * for the given inspector in TIME mode, and its travel time at the maximum
+     * speed of its road in LENGTH mode.
+     * 
+     * @param graph Graph in which the paths should be looked for.
+     * @param origin Origin node of the paths.
+     * @param destination Destination node of the paths.
+     * @param arcInspector Filter for arcs (used to allow only a specific set of
+     *        arcs in the graph to be used).
+     */
+    public ParetoData(Graph graph, Node origin, Node destination, ArcInspector arcInspector) {
+        super(graph, arcInspector);
+        this.origin = origin;
+        this.destination = destination;
+    }
+
+    /**
+     * @return Origin node for the paths.
+     */
+    public Node getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return Destination node for the paths.
+     */
+    public Node getDestination() {
+        return destination;
+    }
+
+    /**
+     * @param arc Arc of the graph.
+     * 
+     * @return Length of the given arc, in meters.
+     */
+    public double getLength(Arc arc) {
+        return arc.getLength();
+    }
+
+    /**
+     * @param arc Arc of the graph.
+     * 
+     * @return Travel time of the given arc, in seconds.
+     */
+    public double getTravelTime(Arc arc) {
+        return getMode() == Mode.TIME ? getCost(arc) : arc.getMinimumTravelTime();
+    }
+
+    @Override
+    public String toString() {
+        return "Pareto paths (length, time) from #" + origin.getId() + " to #"
+                + destination.getId() + " [" + this.arcInspector.toString().toLowerCase() + "]";
+    }
+}
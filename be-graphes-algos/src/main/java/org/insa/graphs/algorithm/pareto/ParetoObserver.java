@@ -0,0 +1,34 @@
+package org.insa.graphs.algorithm.pareto;
+
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+public interface ParetoObserver {
+
+    /**
+     * Notify the observer that the origin has been processed.
+     * 
+     * @param node Origin.
+     */
+    public void notifyOriginProcessed(Node node);
+
+    /**
+     * Notify the observer that a label of a node has been settled, i.e., that a
+     * Pareto-optimal path to the node has been found.
+     * 
+     * @param node Node of the label.
+     * @param length Length of the path of the label.
+     * @param travelTime Travel time of the path of the label.
+     */
+    public void notifyLabelSettled(Node node, double length, double travelTime);
+
+    /**
+     * Notify the observer that a path has been added to the front.
+     * 
+     * @param index Index of the path in the front (paths are found by increasing
+     *        length).
+     * @param path The path.
+     */
+    public void notifyPathFound(int index, Path path);
+
+}
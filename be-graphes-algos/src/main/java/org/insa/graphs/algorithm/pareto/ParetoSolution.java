@@ -0,0 +1,95 @@
+package org.insa.graphs.algorithm.pareto;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Path;
+
+public class ParetoSolution extends AbstractSolution {
+
+    // Paths of the front, by increasing length (and decreasing travel time).
+    private final List<Path> paths;
+
+    /**
+     * Create a new Pareto solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution: OPTIMAL if the paths are the exact
+     *        front, FEASIBLE if it has been approximated, INFEASIBLE if there is no
+     *        path.
+     * @param paths Paths of the front, by increasing length.
+     */
+    protected ParetoSolution(ParetoData data, Status status, List<Path> paths) {
+        super(data, status);
+        this.paths = Collections.unmodifiableList(paths);
+    }
+
+    @Override
+    public ParetoData getInputData() {
+        return (ParetoData) super.getInputData();
+    }
+
+    /**
+     * @return Paths of the front, by increasing length (and decreasing travel
+     *         time).
+     */
+    public List<Path> getPaths() {
+        return paths;
+    }
+
+    /**
+     * @param index Index of a path of the front.
+     * 
+     * @return Length of the path at the given index, in meters.
+     */
+    public double getLength(int index) {
+        double length = 0;
+        for (Arc arc: paths.get(index).getArcs()) {
+            length += getInputData().getLength(arc);
+        }
+        return length;
+    }
+
+    /**
+     * @param index Index of a path of the front.
+     * 
+     * @return Travel time of the path at the given index, in seconds.
+     */
+    public double getTravelTime(int index) {
+        double time = 0;
+        for (Arc arc: paths.get(index).getArcs()) {
+            time += getInputData().getTravelTime(arc);
+        }
+        return time;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        ParetoData data = getInputData();
+        String info = null;
+        if (!isFeasible()) {
+            info = String.format("No path found from node #%d to node #%d",
+                    data.getOrigin().getId(), data.getDestination().getId());
+        }
+        else {
+            StringBuilder front = new StringBuilder();
+            for (int i = 0; i < paths.size(); ++i) {
+                front.append(i == 0 ? "" : ", ").append(String.format("(%.4f km, %.4f min)",
+                        getLength(i) / 1000.0, getTravelTime(i) / 60.0));
+            }
+            info = String.format("Found %d Pareto path(s) from node #%d to node #%d%s: %s",
+                    paths.size(), data.getOrigin().getId(), data.getDestination().getId(),
+                    getStatus() == Status.FEASIBLE ? " (approximate front)" : "", front);
+        }
+        info += " in " + getSolvingTime().getSeconds() + " seconds.";
+        return info;
+    }
+
+}
@@ -0,0 +1,591 @@
+package org.insa.graphs.algorithm.partition;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Point;
+
+/**
+ * <p>
+ * Partitioner computing balanced cells with few boundary arcs by recursive
+ * bisection, each bisection being computed by inertial flow: the nodes of a
+ * cell are sorted along a few directions (by their position, see
+ * {@link org.insa.graphs.model.Node#getPoint()}), and for each direction, the
+ * first nodes are used as sources and the last ones as sinks of a maximum flow.
+ * The minimum cut of the flow gives a bisection whose sides contain at least
+ * the sources or the sinks, and the smallest cut of all the directions is kept.
+ * </p>
+ *
+ * <p>
+ * Arcs are considered in both directions, and each pair of adjacent nodes has a
+ * capacity of 1, so the cut is the number of pairs of adjacent nodes that are
+ * split. If some nodes of a cell have no position, the nodes are sorted by
+ * breadth-first search order instead, from a node far from the others.
+ * </p>
+ *
+ * <p>
+ * Both halves of a large cell are split in parallel. The resulting partition
+ * does not depend on the scheduling of the threads.
+ * </p>
+ *
+ */
+public final class InertialFlowPartitioner {
+
+    /**
+     * Default fraction of the nodes of a cell used as sources (and as sinks).
+     */
+    public static final double DEFAULT_BALANCE = 0.25;
+
+    /**
+     * Default number of directions used to sort the nodes.
+     */
+    public static final int DEFAULT_NUMBER_OF_DIRECTIONS = 4;
+
+    // Minimum number of nodes to split both halves of a cell in parallel.
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    // Fraction of the nodes used as sources, and number of directions.
+    private final double balance;
+    private final int nbDirections;
+
+    /**
+     * Create a new partitioner with the default balance and number of
+     * directions.
+     */
+    public InertialFlowPartitioner() {
+        this(DEFAULT_BALANCE, DEFAULT_NUMBER_OF_DIRECTIONS);
+    }
+
+    /**
+     * Create a new partitioner.
+     *
+     * @param balance Fraction of the nodes of a cell used as sources (and as
+     *        sinks), i.e., the minimum fraction of the nodes of a cell in each of
+     *        its halves (if the cell is connected).
+     * @param nbDirections Number of directions used to sort the nodes, evenly
+     *        spread.
+     *
+     * @throws IllegalArgumentException if the balance is not in ]0, 0.5], or if
+     *         the number of directions is not positive.
+     */
+    public InertialFlowPartitioner(double balance, int nbDirections)
+            throws IllegalArgumentException {
+        if (!(balance > 0 && balance <= 0.5)) {
+            throw new IllegalArgumentException("Invalid balance: " + balance + ".");
+        }
+        if (nbDirections <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid number of directions: " + nbDirections + ".");
+        }
+        this.balance = balance;
+        this.nbDirections = nbDirections;
+    }
+
+    /**
+     * Partition the given graph: cells are split until they fit in the cells of
+     * level 0, and each level gets the cells of the bisection tree that fit in
+     * its maximum size. Levels whose cells would contain the whole graph are
+     * dropped.
+     *
+     * @param graph Graph to partition.
+     * @param maxCellSizes Maximum number of nodes of the cells of each level, in
+     *        increasing order.
+     *
+     * @return Partition of the given graph.
+     *
+     * @throws IllegalArgumentException if the cell sizes are not positive and
+     *         increasing.
+     */
+    public MultiLevelPartition partition(Graph graph, int... maxCellSizes)
+            throws IllegalArgumentException {
+        int nbLevels = 0;
+        for (int level = 0; level < maxCellSizes.length; ++level) {
+            if (maxCellSizes[level] <= 0
+                    || (level > 0 && maxCellSizes[level] <= maxCellSizes[level - 1])) {
+                throw new IllegalArgumentException(
+                        "Invalid cell sizes: " + Arrays.toString(maxCellSizes) + ".");
+            }
+            if (maxCellSizes[level] < graph.size()) {
+                nbLevels = level + 1;
+            }
+        }
+
+        Bisection bisection = new Bisection(graph, Arrays.copyOf(maxCellSizes, nbLevels));
+        int[] nodes = new int[graph.size()];
+        for (int node = 0; node < nodes.length; ++node) {
+            nodes[node] = node;
+        }
+        ForkJoinPool.commonPool().invoke(bisection.new Split(nodes, nbLevels));
+
+        // Cells are numbered by the order of their first node, so that the result
+        // does not depend on the order of the splits.
+        int[][] cells = bisection.cells;
+        for (int level = 0; level < nbLevels; ++level) {
+            int[] numbers = new int[bisection.nextCell[level].get()];
+            Arrays.fill(numbers, -1);
+            int nbCells = 0;
+            for (int node = 0; node < nodes.length; ++node) {
+                final int cell = cells[level][node];
+                if (numbers[cell] == -1) {
+                    numbers[cell] = nbCells++;
+                }
+                cells[level][node] = numbers[cell];
+            }
+        }
+        return new MultiLevelPartition(graph.getMapId(), cells);
+    }
+
+    /**
+     * Recursive bisection of a graph.
+     */
+    private class Bisection {
+
+        private final Graph graph;
+        private final int[] maxCellSizes;
+
+        // Neighbors of each node, whatever the direction of the arcs, without
+        // duplicates.
+        private final int[] neighborsFirst, neighbors;
+
+        // Cell being split that contains each node, and position of each node in
+        // this cell. Cells that are split at the same time are disjoint.
+        private final int[] owner, position;
+        private final AtomicInteger nextOwner = new AtomicInteger(0);
+
+        // Cells of the nodes (numbered in any order), and number of cells of each
+        // level.
+        private final int[][] cells;
+        private final AtomicInteger[] nextCell;
+
+        Bisection(Graph graph, int[] maxCellSizes) {
+            final AdjacencyArrays adjacency = graph.getAdjacency();
+            final int nbNodes = graph.size();
+            this.graph = graph;
+            this.maxCellSizes = maxCellSizes;
+
+            int[] first = new int[nbNodes + 1];
+            for (int a = 0; a < adjacency.getNumberOfArcs(); ++a) {
+                ++first[adjacency.getHead(a) + 1];
+            }
+            for (int node = 0; node < nbNodes; ++node) {
+                first[node + 1] += first[node] + adjacency.getEndArc(node)
+                        - adjacency.getFirstArc(node);
+            }
+            int[] all = new int[first[nbNodes]];
+            int[] next = Arrays.copyOf(first, nbNodes);
+            for (int node = 0; node < nbNodes; ++node) {
+                for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                    all[next[node]++] = adjacency.getHead(a);
+                    all[next[adjacency.getHead(a)]++] = node;
+                }
+            }
+
+            // Remove loops and duplicates.
+            this.neighborsFirst = new int[nbNodes + 1];
+            int size = 0;
+            for (int node = 0; node < nbNodes; ++node) {
+                Arrays.sort(all, first[node], first[node + 1]);
+                for (int i = first[node]; i < first[node + 1]; ++i) {
+                    if (all[i] != node && (i == first[node] || all[i] != all[i - 1])) {
+                        all[size++] = all[i];
+                    }
+                }
+                this.neighborsFirst[node + 1] = size;
+            }
+            this.neighbors = Arrays.copyOf(all, size);
+
+            this.owner = new int[nbNodes];
+            Arrays.fill(this.owner, -1);
+            this.position = new int[nbNodes];
+            this.cells = new int[maxCellSizes.length][nbNodes];
+            this.nextCell = new AtomicInteger[maxCellSizes.length];
+            for (int level = 0; level < maxCellSizes.length; ++level) {
+                this.nextCell[level] = new AtomicInteger(0);
+            }
+        }
+
+        /**
+         * Assignment of nodes to new cells of the levels below a given one, and
+         * split of the nodes until they fit in the cells of level 0.
+         */
+        private class Split extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int[] nodes;
+            private final int level;
+
+            Split(int[] nodes, int level) {
+                this.nodes = nodes;
+                this.level = level;
+            }
+
+            @Override
+            protected void compute() {
+                int level = this.level;
+                while (level > 0 && this.nodes.length <= maxCellSizes[level - 1]) {
+                    --level;
+                    final int cell = nextCell[level].getAndIncrement();
+                    for (int node: this.nodes) {
+                        cells[level][node] = cell;
+                    }
+                }
+                if (level == 0) {
+                    return;
+                }
+                int[][] halves = bisect(this.nodes);
+                Split first = new Split(halves[0], level), second = new Split(halves[1], level);
+                if (this.nodes.length >= PARALLEL_THRESHOLD) {
+                    invokeAll(first, second);
+                }
+                else {
+                    first.compute();
+                    second.compute();
+                }
+            }
+
+        }
+
+        /**
+         * Split the given nodes in two halves with a small cut.
+         *
+         * @return The two halves.
+         */
+        int[][] bisect(int[] nodes) {
+            final int size = nodes.length;
+            final int id = nextOwner.getAndIncrement();
+            for (int i = 0; i < size; ++i) {
+                this.owner[nodes[i]] = id;
+                this.position[nodes[i]] = i;
+            }
+            Network network = new Network(nodes, id);
+            final int nbTerminals = Math.max(1, (int) (balance * size));
+
+            // Keep the smallest cut, and the most balanced one among equal cuts.
+            boolean[] best = null;
+            int bestCut = Integer.MAX_VALUE, bestImbalance = Integer.MAX_VALUE, bestSourceSize = 0;
+            int[][] orders = orderByPosition(nodes);
+            if (orders == null) {
+                orders = new int[][] { orderBySearch(nodes, id) };
+            }
+            for (int[] order: orders) {
+                final int cut = network.maxFlow(order, nbTerminals, bestCut);
+                if (cut > bestCut) {
+                    continue;
+                }
+                boolean[] side = network.getSourceSide();
+                int sourceSize = 0;
+                for (boolean inSource: side) {
+                    sourceSize += inSource ? 1 : 0;
+                }
+                final int imbalance = Math.abs(size - 2 * sourceSize);
+                if (cut < bestCut || imbalance < bestImbalance) {
+                    best = side;
+                    bestCut = cut;
+                    bestImbalance = imbalance;
+                    bestSourceSize = sourceSize;
+                }
+            }
+
+            // Nodes reachable from the sources, then the other nodes.
+            int[][] halves = { new int[bestSourceSize], new int[size - bestSourceSize] };
+            int firstSize = 0, secondSize = 0;
+            for (int i = 0; i < size; ++i) {
+                if (best[i]) {
+                    halves[0][firstSize++] = nodes[i];
+                }
+                else {
+                    halves[1][secondSize++] = nodes[i];
+                }
+            }
+            return halves;
+        }
+
+        /**
+         * Sort the given nodes along each direction.
+         *
+         * @return The orders of the nodes (as positions in the given array), or null
+         *         if some nodes have no position.
+         */
+        private int[][] orderByPosition(int[] nodes) {
+            double meanLatitude = 0;
+            for (int node: nodes) {
+                final Point point = this.graph.get(node).getPoint();
+                if (point == null) {
+                    return null;
+                }
+                meanLatitude += point.getLatitude() / nodes.length;
+            }
+            final double scale = Math.cos(Math.toRadians(meanLatitude));
+
+            int[][] orders = new int[nbDirections][];
+            long[] keys = new long[nodes.length];
+            for (int d = 0; d < nbDirections; ++d) {
+                final double angle = Math.PI * d / nbDirections;
+                final double cos = Math.cos(angle), sin = Math.sin(angle);
+
+                // Keys are the sortable bits of the projections, followed by the
+                // positions.
+                for (int i = 0; i < nodes.length; ++i) {
+                    final Point point = this.graph.get(nodes[i]).getPoint();
+                    final int bits = Float.floatToIntBits(
+                            (float) (point.getLongitude() * scale * cos
+                                    + point.getLatitude() * sin));
+                    keys[i] = ((long) (bits ^ ((bits >> 31) & 0x7fffffff)) << 32) | i;
+                }
+                Arrays.sort(keys);
+                orders[d] = new int[nodes.length];
+                for (int i = 0; i < nodes.length; ++i) {
+                    orders[d][i] = (int) keys[i];
+                }
+            }
+            return orders;
+        }
+
+        /**
+         * Sort the given nodes by breadth-first search from a node far from the
+         * others (one search per connected component).
+         *
+         * @return The order of the nodes, as positions in the given array.
+         */
+        private int[] orderBySearch(int[] nodes, int id) {
+            int[] order = new int[nodes.length];
+            boolean[] reached = new boolean[nodes.length];
+            int size = 0;
+            for (int start = 0; start < nodes.length; ++start) {
+                if (reached[start]) {
+                    continue;
+                }
+
+                // A first search finds a node far from the start, the second one
+                // orders the component from this node.
+                final int componentSize = search(start, nodes, id, reached, order, size);
+                final int last = order[size + componentSize - 1];
+                for (int i = size; i < size + componentSize; ++i) {
+                    reached[order[i]] = false;
+                }
+                search(last, nodes, id, reached, order, size);
+                size += componentSize;
+            }
+            return order;
+        }
+
+        /**
+         * Run a breadth-first search among the nodes owned by the given cell.
+         *
+         * @return Number of nodes reached, stored in order from the given offset.
+         */
+        private int search(int start, int[] nodes, int id, boolean[] reached, int[] order,
+                int offset) {
+            int head = offset, tail = offset;
+            order[tail++] = start;
+            reached[start] = true;
+            while (head < tail) {
+                final int node = nodes[order[head++]];
+                for (int i = this.neighborsFirst[node]; i < this.neighborsFirst[node + 1]; ++i) {
+                    final int next = this.neighbors[i];
+                    if (this.owner[next] == id && !reached[this.position[next]]) {
+                        reached[this.position[next]] = true;
+                        order[tail++] = this.position[next];
+                    }
+                }
+            }
+            return tail - offset;
+        }
+
+        /**
+         * Unit-capacity flow network of the nodes of a cell, whose nodes are the
+         * positions of the nodes in the cell.
+         */
+        private class Network {
+
+            // Arcs of each node: arcs 2 * e and 2 * e + 1 are the two directions of
+            // the e-th pair of adjacent nodes.
+            private final int[] arcsFirst, arcs, heads;
+
+            // Flow on each arc (-1, 0 or 1), opposite on the reverse arc.
+            private final int[] flow;
+
+            // Role of each node (0, SOURCE or SINK), and levels of the last search.
+            private static final int SOURCE = 1, SINK = 2;
+            private final int[] role, levels;
+
+            // Next arc of each node in the current phase, and path being built.
+            private final int[] current, pathNodes, pathArcs;
+
+            Network(int[] nodes, int id) {
+                final int size = nodes.length;
+                this.arcsFirst = new int[size + 1];
+                int nbPairs = 0;
+                for (int i = 0; i < size; ++i) {
+                    final int node = nodes[i];
+                    for (int j = neighborsFirst[node]; j < neighborsFirst[node + 1]; ++j) {
+                        if (owner[neighbors[j]] == id) {
+                            ++this.arcsFirst[i + 1];
+                            if (node < neighbors[j]) {
+                                ++nbPairs;
+                            }
+                        }
+                    }
+                }
+                for (int i = 0; i < size; ++i) {
+                    this.arcsFirst[i + 1] += this.arcsFirst[i];
+                }
+                this.arcs = new int[2 * nbPairs];
+                this.heads = new int[2 * nbPairs];
+                int[] next = Arrays.copyOf(this.arcsFirst, size);
+                int e = 0;
+                for (int i = 0; i < size; ++i) {
+                    final int node = nodes[i];
+                    for (int j = neighborsFirst[node]; j < neighborsFirst[node + 1]; ++j) {
+                        final int neighbor = neighbors[j];
+                        if (owner[neighbor] == id && node < neighbor) {
+                            final int k = position[neighbor];
+                            this.heads[2 * e] = k;
+                            this.heads[2 * e + 1] = i;
+                            this.arcs[next[i]++] = 2 * e;
+                            this.arcs[next[k]++] = 2 * e + 1;
+                            ++e;
+                        }
+                    }
+                }
+                this.flow = new int[2 * nbPairs];
+                this.role = new int[size];
+                this.levels = new int[size];
+                this.current = new int[size];
+                this.pathNodes = new int[size + 1];
+                this.pathArcs = new int[size];
+            }
+
+            /**
+             * Compute a maximum flow from the first nodes of the given order to the
+             * last ones.
+             *
+             * @param order Order of the nodes.
+             * @param nbTerminals Number of sources, and of sinks.
+             * @param limit Value above which the computation can stop.
+             *
+             * @return Value of the flow, i.e., size of the cut, or a value greater than
+             *         the limit.
+             */
+            int maxFlow(int[] order, int nbTerminals, int limit) {
+                final int size = order.length;
+                Arrays.fill(this.flow, 0);
+                Arrays.fill(this.role, 0);
+                for (int i = 0; i < nbTerminals; ++i) {
+                    this.role[order[i]] = SOURCE;
+                    this.role[order[size - 1 - i]] = SINK;
+                }
+
+                // Dinic's algorithm: augmenting paths along the levels of a search
+                // from the sources, until the sinks cannot be reached.
+                int value = 0;
+                while (computeLevels()) {
+                    System.arraycopy(this.arcsFirst, 0, this.current, 0, size);
+                    for (int i = 0; i < nbTerminals; ++i) {
+                        final int source = order[i];
+                        while (augment(source)) {
+                            if (++value > limit) {
+                                return value;
+                            }
+                        }
+                    }
+                }
+                return value;
+            }
+
+            /**
+             * Compute the levels of the nodes by a breadth-first search from the
+             * sources in the residual network.
+             *
+             * @return true if a sink has been reached.
+             */
+            private boolean computeLevels() {
+                Arrays.fill(this.levels, -1);
+                int head = 0, tail = 0;
+                for (int i = 0; i < this.role.length; ++i) {
+                    if (this.role[i] == SOURCE) {
+                        this.levels[i] = 0;
+                        this.pathNodes[tail++] = i;
+                    }
+                }
+                boolean reached = false;
+                while (head < tail) {
+                    final int node = this.pathNodes[head++];
+                    if (this.role[node] == SINK) {
+                        reached = true;
+                        continue;
+                    }
+                    for (int i = this.arcsFirst[node]; i < this.arcsFirst[node + 1]; ++i) {
+                        final int arc = this.arcs[i], next = this.heads[arc];
+                        if (this.flow[arc] < 1 && this.levels[next] == -1) {
+                            this.levels[next] = this.levels[node] + 1;
+                            this.pathNodes[tail++] = next;
+                        }
+                    }
+                }
+                return reached;
+            }
+
+            /**
+             * Find a path from the given source to a sink along increasing levels,
+             * and push one unit of flow along it.
+             *
+             * @return true if a path has been found.
+             */
+            private boolean augment(int source) {
+                int depth = 0;
+                this.pathNodes[0] = source;
+                while (depth >= 0) {
+                    final int node = this.pathNodes[depth];
+                    if (this.role[node] == SINK) {
+                        for (int i = 0; i < depth; ++i) {
+                            final int arc = this.pathArcs[i];
+                            ++this.flow[arc];
+                            --this.flow[arc ^ 1];
+                        }
+                        return true;
+                    }
+                    boolean advanced = false;
+                    for (; this.current[node] < this.arcsFirst[node + 1]; ++this.current[node]) {
+                        final int arc = this.arcs[this.current[node]], next = this.heads[arc];
+                        if (this.flow[arc] < 1 && this.levels[next] == this.levels[node] + 1) {
+                            this.pathArcs[depth] = arc;
+                            this.pathNodes[++depth] = next;
+                            advanced = true;
+                            break;
+                        }
+                    }
+                    if (!advanced) {
+                        // Dead end, the node is removed from this phase.
+                        this.levels[node] = -1;
+                        if (--depth >= 0) {
+                            ++this.current[this.pathNodes[depth]];
+                        }
+                    }
+                }
+                return false;
+            }
+
+            /**
+             * @return Array indicating, for each node, whether it can be reached from
+             *         the sources in the residual network of the last maximum flow.
+             */
+            boolean[] getSourceSide() {
+                computeLevels();
+                boolean[] side = new boolean[this.levels.length];
+                for (int i = 0; i < side.length; ++i) {
+                    side[i] = this.levels[i] != -1;
+                }
+                return side;
+            }
+
+        }
+
+    }
+
+}
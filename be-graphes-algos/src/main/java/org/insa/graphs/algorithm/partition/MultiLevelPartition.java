@@ -0,0 +1,262 @@
+package org.insa.graphs.algorithm.partition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Multi-level partition of the nodes of a graph into cells. Level 0 is the
+ * finest level, and the cells of a level are unions of cells of the level below,
+ * i.e., two nodes in the same cell at some level are in the same cell at all
+ * the levels above. Cells of a level are numbered from 0.
+ * </p>
+ *
+ * <p>
+ * Partitions are computed by an {@link InertialFlowPartitioner}, and are
+ * usually retrieved through {@link #get(Graph)}, which keeps them next to the
+ * map files so that they can be shared by the algorithms that need them.
+ * </p>
+ *
+ */
+public final class MultiLevelPartition {
+
+    // Magic number and version of the files.
+    private static final int MAGIC_NUMBER = 0x4d4c5001;
+    private static final int VERSION = 1;
+
+    /**
+     * Extension of the files containing partitions.
+     */
+    public static final String FILE_EXTENSION = "partition";
+
+    /**
+     * Default maximum number of nodes of the cells of each level, used by
+     * {@link #get(Graph)}.
+     */
+    public static final int[] DEFAULT_CELL_SIZES = { 1 << 8, 1 << 12, 1 << 16, 1 << 20 };
+
+    // Minimum number of cells of the levels of the partitions retrieved by get().
+    private static final int MIN_NUMBER_OF_CELLS = 16;
+
+    // ID of the map.
+    private final String mapId;
+
+    // Cell of each node at each level, and number of cells of each level.
+    private final int[][] cells;
+    private final int[] nbCells;
+
+    /**
+     * Create a new partition from the cells of the nodes.
+     *
+     * @param mapId ID of the map of the partition.
+     * @param cells Array containing, for each level, the cell of each node.
+     *
+     * @throws IllegalArgumentException if the cells of a level are not numbered
+     *         from 0 or are not unions of cells of the level below.
+     */
+    public MultiLevelPartition(String mapId, int[][] cells) throws IllegalArgumentException {
+        this.mapId = mapId;
+        this.cells = cells;
+        this.nbCells = new int[cells.length];
+        for (int level = 0; level < cells.length; ++level) {
+            if (level > 0 && cells[level].length != cells[0].length) {
+                throw new IllegalArgumentException("Invalid number of nodes at level " + level + ".");
+            }
+            for (int cell: cells[level]) {
+                if (cell < 0) {
+                    throw new IllegalArgumentException("Invalid cell: " + cell + ".");
+                }
+                this.nbCells[level] = Math.max(this.nbCells[level], cell + 1);
+            }
+            boolean[] used = new boolean[this.nbCells[level]];
+            for (int cell: cells[level]) {
+                used[cell] = true;
+            }
+            for (int cell = 0; cell < used.length; ++cell) {
+                if (!used[cell]) {
+                    throw new IllegalArgumentException("Empty cell " + cell + " at level " + level + ".");
+                }
+            }
+            if (level > 0) {
+                int[] parent = new int[this.nbCells[level - 1]];
+                Arrays.fill(parent, -1);
+                for (int node = 0; node < cells[level].length; ++node) {
+                    final int child = cells[level - 1][node];
+                    if (parent[child] == -1) {
+                        parent[child] = cells[level][node];
+                    }
+                    else if (parent[child] != cells[level][node]) {
+                        throw new IllegalArgumentException(
+                                "Cell " + child + " of level " + (level - 1) + " is split.");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieve the partition of the given graph, with the default cell sizes. The
+     * partition is read from (or written to) the directory of
+     * {@link PreprocessingStore}, and only computed if it has not been computed
+     * yet.
+     *
+     * <p>
+     * Levels whose cells would contain more than 1/16 of the graph are dropped: a
+     * level made of a few large cells costs a lot to customize and hardly speeds
+     * up the searches.
+     * </p>
+     *
+     * @param graph Graph to partition.
+     *
+     * @return Partition of the given graph.
+     */
+    public static MultiLevelPartition get(Graph graph) {
+        return PreprocessingStore.get(graph, FILE_EXTENSION, file -> read(file, graph), () -> {
+            int nbLevels = 0;
+            while (nbLevels < DEFAULT_CELL_SIZES.length && (long) DEFAULT_CELL_SIZES[nbLevels]
+                    * MIN_NUMBER_OF_CELLS <= graph.size()) {
+                ++nbLevels;
+            }
+            return compute(graph, Arrays.copyOf(DEFAULT_CELL_SIZES, nbLevels));
+        }, MultiLevelPartition::write);
+    }
+
+    /**
+     * Compute a partition of the given graph with an
+     * {@link InertialFlowPartitioner} with default parameters.
+     *
+     * @param graph Graph to partition.
+     * @param maxCellSizes Maximum number of nodes of the cells of each level, in
+     *        increasing order.
+     *
+     * @return Partition of the given graph.
+     *
+     * @throws IllegalArgumentException if the cell sizes are not positive and
+     *         increasing.
+     *
+     * @see InertialFlowPartitioner#partition(Graph, int...)
+     */
+    public static MultiLevelPartition compute(Graph graph, int... maxCellSizes)
+            throws IllegalArgumentException {
+        return new InertialFlowPartitioner().partition(graph, maxCellSizes);
+    }
+
+    /**
+     * @return ID of the map of this partition.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return Number of levels of this partition.
+     */
+    public int getNumberOfLevels() {
+        return this.cells.length;
+    }
+
+    /**
+     * @return Number of nodes of this partition.
+     */
+    public int getNumberOfNodes() {
+        return this.cells.length == 0 ? 0 : this.cells[0].length;
+    }
+
+    /**
+     * @param level A level of this partition.
+     *
+     * @return Number of cells of the given level.
+     */
+    public int getNumberOfCells(int level) {
+        return this.nbCells[level];
+    }
+
+    /**
+     * @param level A level of this partition.
+     * @param node ID of a node.
+     *
+     * @return Cell of the given node at the given level.
+     */
+    public int getCell(int level, int node) {
+        return this.cells[level][node];
+    }
+
+    /**
+     * Write this partition to the given file.
+     *
+     * @param file File to write.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(File file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(VERSION);
+            output.writeUTF(this.mapId);
+            output.writeInt(getNumberOfNodes());
+            output.writeInt(this.cells.length);
+            for (int[] levelCells: this.cells) {
+                for (int cell: levelCells) {
+                    output.writeInt(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a partition from the given file.
+     *
+     * @param file File to read.
+     * @param graph Graph of the partition.
+     *
+     * @return Partition read from the file.
+     *
+     * @throws IOException if the file cannot be read or does not contain a
+     *         partition of the given graph.
+     */
+    public static MultiLevelPartition read(File file, Graph graph) throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC_NUMBER) {
+                throw new IOException("Not a partition file.");
+            }
+            final int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version: " + version + ".");
+            }
+            final String mapId = input.readUTF();
+            final int nbNodes = input.readInt();
+            if (!mapId.equals(graph.getMapId()) || nbNodes != graph.size()) {
+                throw new IOException("Partition of another map: " + mapId + ".");
+            }
+            final int nbLevels = input.readInt();
+            if (nbLevels < 0 || nbLevels > 32) {
+                throw new IOException("Invalid number of levels: " + nbLevels + ".");
+            }
+            int[][] cells = new int[nbLevels][nbNodes];
+            for (int level = 0; level < nbLevels; ++level) {
+                for (int node = 0; node < nbNodes; ++node) {
+                    cells[level][node] = input.readInt();
+                }
+            }
+            try {
+                return new MultiLevelPartition(mapId, cells);
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage());
+            }
+        }
+    }
+
+}
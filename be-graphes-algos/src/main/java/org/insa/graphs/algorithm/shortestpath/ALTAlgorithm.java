@@ -0,0 +1,114 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.Arrays;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.landmarks.LandmarkTables;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+
+/**
+ * <p>
+ * A* with landmarks (ALT): the lower bound of the cost from a node to the
+ * destination is given by the triangle inequality on the distances to and from
+ * a few landmarks (see {@link LandmarkTables}), which is much tighter than the
+ * straight-line distance, in particular in TIME mode.
+ * </p>
+ * 
+ * <p>
+ * For each query, only the landmarks giving the best bounds between the origin
+ * and the destination are used, so that the bound remains cheap to compute.
+ * </p>
+ *
+ */
+public class ALTAlgorithm extends DijkstraAlgorithm {
+
+    /**
+     * Maximum number of landmarks used by a query.
+     */
+    public static final int NUMBER_OF_ACTIVE_LANDMARKS = 6;
+
+    // Tables of the landmarks, retrieved on the first run if not given.
+    private LandmarkTables tables;
+
+    // Landmarks used by the current query.
+    private int[] active;
+
+    /**
+     * Create a new ALT algorithm using the landmark tables of the graph and
+     * inspector of the given data, which are computed (or read from the directory
+     * of {@link org.insa.graphs.algorithm.utils.PreprocessingStore}) on the first
+     * run.
+     * 
+     * @param data Input data for the algorithm.
+     */
+    public ALTAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new ALT algorithm using the given landmark tables, which must have
+     * been computed for the graph and inspector of the given data.
+     * 
+     * @param data Input data for the algorithm.
+     * @param tables Landmark tables.
+     */
+    public ALTAlgorithm(ShortestPathData data, LandmarkTables tables) {
+        super(data, QueueType.BINARY_HEAP);
+        this.tables = tables;
+    }
+
+    /**
+     * @return Landmark tables used by this algorithm, or null if they have not been
+     *         retrieved yet.
+     */
+    public LandmarkTables getTables() {
+        return this.tables;
+    }
+
+    @Override
+    protected double getLowerBound(int node) {
+        final int destination = getInputData().getDestination().getId();
+        double bound = 0;
+        for (int i: this.active) {
+            bound = Math.max(bound, this.tables.getLowerBound(i, node, destination));
+        }
+        return bound;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        if (this.tables == null) {
+            this.tables = LandmarkTables.get(data.getGraph(), data.getArcInspector());
+        }
+
+        // Select the landmarks giving the best bounds from the origin to the
+        // destination (insertion sort, since there are few landmarks).
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+        final int k = this.tables.getNumberOfLandmarks();
+        int[] landmarks = new int[k];
+        double[] bounds = new double[k];
+        for (int i = 0; i < k; ++i) {
+            final double bound = this.tables.getLowerBound(i, origin, destination);
+            int j = i;
+            for (; j > 0 && bounds[j - 1] < bound; --j) {
+                landmarks[j] = landmarks[j - 1];
+                bounds[j] = bounds[j - 1];
+            }
+            landmarks[j] = i;
+            bounds[j] = bound;
+        }
+        this.active = Arrays.copyOf(landmarks,
+                Math.min(k, NUMBER_OF_ACTIVE_LANDMARKS));
+
+        // The landmarks show that the destination cannot be reached.
+        if (k > 0 && bounds[0] == Double.POSITIVE_INFINITY) {
+            notifyOriginProcessed(data.getOrigin());
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        return super.doRun();
+    }
+
+}
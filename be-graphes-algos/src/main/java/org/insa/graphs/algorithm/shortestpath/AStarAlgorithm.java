@@ -2,8 +2,7 @@ package org.insa.graphs.algorithm.shortestpath;
 
 
 import org.insa.graphs.algorithm.AbstractInputData.Mode;
-import org.insa.graphs.algorithm.utils.BinaryHeap;
-
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
 import org.insa.graphs.model.Graph;
 
 
@@ -13,39 +12,36 @@ public class AStarAlgorithm extends DijkstraAlgorithm {
         super(data);
     }
 
-    @Override
-    //LabelStar : Label (noeud + distance parcourue jusqu'a ce noeud + arc par lequel on est arrive a ce noeud) + cout estime
-    //retourne un tableau de LabelStar initialises comme tel :
-    //noeud -> de meme que dans Label ;
-    //distance parcourue jusqu'a ce noeud -> de meme que dans Label ;
-    //arc par lequel on est arrive a ce noeud -> de meme que dans Label ;
-    //cout estime -> distance a vol d'oiseau (donnee qui est soit en kilometres, soit en secondes. Si elle est en secondes, division par la vitesse maximale du graphe) jusqu'a la destination.
-    protected LabelStar[] setUpLabels(Graph graph, ShortestPathData data){
-        final int nbNodes = graph.size();
-        LabelStar[] labels = new LabelStar[nbNodes];
-        if (data.getMode() == Mode.LENGTH){
-            graph.getNodes().forEach(node -> labels[node.getId()] = new LabelStar(node, Double.POSITIVE_INFINITY, null, node.getPoint().distanceTo(data.getDestination().getPoint())));
-        } else {
-            if (graph.getGraphInformation().getMaximumSpeed() == -1){
-                graph.getNodes().forEach(node -> labels[node.getId()] = new LabelStar(node, Double.POSITIVE_INFINITY, null, node.getPoint().distanceTo(data.getDestination().getPoint())*3.6/120));
-            } else {
-                graph.getNodes().forEach(node -> labels[node.getId()] = new LabelStar(node, Double.POSITIVE_INFINITY, null, node.getPoint().distanceTo(data.getDestination().getPoint())*3.6/graph.getGraphInformation().getMaximumSpeed()));
-            }
-        }
-        labels[data.getOrigin().getId()].setCost(0);
-        return labels;
+    public AStarAlgorithm(ShortestPathData data, QueueType queueType) {
+        super(data, queueType);
     }
 
     @Override
-    //meme chose que BinaryHeap avec des Label dans DijkstraAlgorithm.java, mais avec des LabelStar a la place des Label
-    protected BinaryHeap<Label> setUpHeap(Label current){
-        BinaryHeap<Label> sommets = new BinaryHeap<Label>();
-
-        LabelStar new_current = new LabelStar(current, 0);
-
-        sommets.insert(new_current);
+    //cout estime -> distance a vol d'oiseau (donnee qui est soit en kilometres, soit en secondes. Si elle est en secondes, division par la vitesse maximale du graphe) jusqu'a la destination.
+    protected double getLowerBound(int node) {
+        return getLowerBound(getInputData(), node);
+    }
 
-        return sommets;
+    /**
+     * Lower bound of the cost from the given node to the destination of the given
+     * data: the distance as the crow flies, or in TIME mode the time to cover it
+     * at the maximum speed of the graph (120 km/h if unknown).
+     *
+     * @param data Input data of the search.
+     * @param node ID of the node.
+     *
+     * @return Lower bound of the cost from the node to the destination.
+     */
+    static double getLowerBound(ShortestPathData data, int node) {
+        final Graph graph = data.getGraph();
+        double distance = graph.get(node).getPoint().distanceTo(data.getDestination().getPoint());
+        if (data.getMode() == Mode.LENGTH) {
+            return distance;
+        }
+        if (graph.getGraphInformation().getMaximumSpeed() == -1) {
+            return distance * 3.6 / 120;
+        }
+        return distance * 3.6 / graph.getGraphInformation().getMaximumSpeed();
     }
 
 }
@@ -0,0 +1,68 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.arcflags.ArcFlags;
+import org.insa.graphs.model.Arc;
+
+/**
+ * <p>
+ * Dijkstra with arc flags: the search only follows the arcs whose flag is set
+ * for the region of the destination (see {@link ArcFlags}), which prunes most
+ * of the graph once the search has left the region of the origin.
+ * </p>
+ *
+ */
+public class ArcFlagsAlgorithm extends DijkstraAlgorithm {
+
+    // Arc flags, retrieved on the first run if not given.
+    private ArcFlags flags;
+
+    // Region of the destination of the current query.
+    private int region;
+
+    /**
+     * Create a new algorithm using the arc flags of the graph and inspector of the
+     * given data, which are computed (or read from the directory of
+     * {@link org.insa.graphs.algorithm.utils.PreprocessingStore}) on the first run.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public ArcFlagsAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new algorithm using the given arc flags, which must have been
+     * computed for the graph and inspector of the given data.
+     *
+     * @param data Input data for the algorithm.
+     * @param flags Arc flags.
+     */
+    public ArcFlagsAlgorithm(ShortestPathData data, ArcFlags flags) {
+        super(data);
+        this.flags = flags;
+    }
+
+    /**
+     * @return Arc flags used by this algorithm, or null if they have not been
+     *         retrieved yet.
+     */
+    public ArcFlags getFlags() {
+        return this.flags;
+    }
+
+    @Override
+    protected boolean isAllowed(int index, Arc arc) {
+        return this.flags.isSet(index, this.region) && super.isAllowed(index, arc);
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        if (this.flags == null) {
+            this.flags = ArcFlags.get(data.getGraph(), data.getArcInspector());
+        }
+        this.region = this.flags.getRegion(data.getDestination().getId());
+        return super.doRun();
+    }
+
+}
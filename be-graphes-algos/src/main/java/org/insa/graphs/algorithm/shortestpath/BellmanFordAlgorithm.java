@@ -1,13 +1,13 @@
 package org.insa.graphs.algorithm.shortestpath;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 
 import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
-import org.insa.graphs.model.Node;
 import org.insa.graphs.model.Path;
 
 public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
@@ -22,79 +22,88 @@ public class BellmanFordAlgorithm extends ShortestPathAlgorithm {
         // Retrieve the graph.
         ShortestPathData data = getInputData();
         Graph graph = data.getGraph();
+        AdjacencyArrays adjacency = graph.getAdjacency();
 
         final int nbNodes = graph.size();
 
-        // Initialize array of distances.
-        double[] distances = new double[nbNodes];
-        Arrays.fill(distances, Double.POSITIVE_INFINITY);
-        distances[data.getOrigin().getId()] = 0;
+        // Distances and predecessors are kept in a pooled workspace.
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(nbNodes)) {
 
-        // Notify observers about the first event (origin processed).
-        notifyOriginProcessed(data.getOrigin());
-
-        // Initialize array of predecessors.
-        Arc[] predecessorArcs = new Arc[nbNodes];
-
-        // Actual algorithm, we will assume the graph does not contain negative
-        // cycle...
-        boolean found = false;
-        for (int i = 0; !found && i < nbNodes; ++i) {
-            found = true;
-            for (Node node: graph.getNodes()) {
-                for (Arc arc: node.getSuccessors()) {
-
-                    // Small test to check allowed roads...
-                    if (!data.isAllowed(arc)) {
+            // Initialize array of distances.
+            for (int node = 0; node < nbNodes; ++node) {
+                workspace.visit(node, 0);
+            }
+            workspace.update(data.getOrigin().getId(), 0, -1);
+
+            // Notify observers about the first event (origin processed).
+            notifyOriginProcessed(data.getOrigin());
+
+            // Actual algorithm, we will assume the graph does not contain negative
+            // cycle...
+            boolean found = false;
+            for (int i = 0; !found && i < nbNodes; ++i) {
+                found = true;
+                for (int node = 0; node < nbNodes; ++node) {
+                    final double distance = workspace.getDistance(node);
+                    if (Double.isInfinite(distance)) {
                         continue;
                     }
-
-                    // Retrieve weight of the arc.
-                    double w = data.getCost(arc);
-                    double oldDistance = distances[arc.getDestination().getId()];
-                    double newDistance = distances[node.getId()] + w;
-
-                    if (Double.isInfinite(oldDistance) && Double.isFinite(newDistance)) {
-                        notifyNodeReached(arc.getDestination());
-                    }
-
-                    // Check if new distances would be better, if so update...
-                    if (newDistance < oldDistance) {
-                        found = false;
-                        distances[arc.getDestination().getId()] = distances[node.getId()] + w;
-                        predecessorArcs[arc.getDestination().getId()] = arc;
+                    for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                        Arc arc = adjacency.getArc(node, a);
+
+                        // Small test to check allowed roads...
+                        if (!data.isAllowed(arc)) {
+                            continue;
+                        }
+
+                        // Retrieve weight of the arc.
+                        final int dest = adjacency.getHead(a);
+                        double w = data.getCost(arc);
+                        double oldDistance = workspace.getDistance(dest);
+                        double newDistance = distance + w;
+
+                        if (Double.isInfinite(oldDistance) && Double.isFinite(newDistance)) {
+                            notifyNodeReached(arc.getDestination());
+                        }
+
+                        // Check if new distances would be better, if so update...
+                        if (newDistance < oldDistance) {
+                            found = false;
+                            workspace.update(dest, newDistance, a);
+                        }
                     }
                 }
             }
-        }
 
-        ShortestPathSolution solution = null;
+            ShortestPathSolution solution = null;
 
-        // Destination has no predecessor, the solution is infeasible...
-        if (predecessorArcs[data.getDestination().getId()] == null) {
-            solution = new ShortestPathSolution(data, Status.INFEASIBLE);
-        }
-        else {
+            // Destination has no predecessor, the solution is infeasible...
+            if (workspace.getPredecessorArc(data.getDestination().getId()) == -1) {
+                solution = new ShortestPathSolution(data, Status.INFEASIBLE);
+            }
+            else {
+
+                // The destination has been found, notify the observers.
+                notifyDestinationReached(data.getDestination());
+
+                // Create the path from the array of predecessors...
+                ArrayList<Arc> arcs = new ArrayList<>();
+                int a = workspace.getPredecessorArc(data.getDestination().getId());
+                while (a != -1) {
+                    Arc arc = adjacency.getArc(a);
+                    arcs.add(arc);
+                    a = workspace.getPredecessorArc(arc.getOrigin().getId());
+                }
 
-            // The destination has been found, notify the observers.
-            notifyDestinationReached(data.getDestination());
+                // Reverse the path...
+                Collections.reverse(arcs);
 
-            // Create the path from the array of predecessors...
-            ArrayList<Arc> arcs = new ArrayList<>();
-            Arc arc = predecessorArcs[data.getDestination().getId()];
-            while (arc != null) {
-                arcs.add(arc);
-                arc = predecessorArcs[arc.getOrigin().getId()];
+                // Create the final solution.
+                solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
             }
 
-            // Reverse the path...
-            Collections.reverse(arcs);
-
-            // Create the final solution.
-            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+            return solution;
         }
-
-        return solution;
     }
 
 }
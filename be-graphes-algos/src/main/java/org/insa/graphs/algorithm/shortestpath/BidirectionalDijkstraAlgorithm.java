@@ -0,0 +1,360 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Bidirectional Dijkstra: a forward search from the origin and a backward
+ * search from the destination (following the incoming arcs of the nodes, see
+ * {@link AdjacencyArrays#getFirstIncomingArc(int)}) are run until they meet.
+ * </p>
+ *
+ * <p>
+ * Each time a search reaches a node already reached by the other one, a path
+ * going through this node is found, and the best one is kept. The searches stop
+ * as soon as the sum of the minimum keys of their queues is not smaller than the
+ * length of the best path found, since any other path would then be longer.
+ * </p>
+ *
+ * <p>
+ * In parallel mode, the backward search is run by another thread (from the
+ * common fork-join pool). The searches share the length of the best path
+ * through an atomic variable, and each search publishes its minimum key so that
+ * the other one can check the stopping criterion. Since the searches may see
+ * outdated distances of each other, the best path is computed again once both
+ * searches are done. Observers are notified one at a time.
+ * </p>
+ *
+ */
+public class BidirectionalDijkstraAlgorithm extends ShortestPathAlgorithm {
+
+    // Type of priority queue used by the searches.
+    private final QueueType queueType;
+
+    // Run the backward search in another thread.
+    private final boolean parallel;
+
+    // Length of the best path found so far, in parallel mode (bits of a double).
+    private final AtomicLong sharedBest = new AtomicLong(
+            Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+
+    // Lock used to notify observers in parallel mode.
+    private final Object notifyLock = new Object();
+
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data) {
+        this(data, QueueType.BINARY_HEAP, false);
+    }
+
+    /**
+     * Create a new bidirectional algorithm.
+     *
+     * @param data Input data for the algorithm.
+     * @param queueType Type of priority queue used by both searches.
+     * @param parallel true to run the forward and backward searches on two
+     *        threads.
+     */
+    public BidirectionalDijkstraAlgorithm(ShortestPathData data, QueueType queueType,
+            boolean parallel) {
+        super(data);
+        this.queueType = queueType;
+        this.parallel = parallel;
+    }
+
+    /**
+     * @return true if the searches of this algorithm are run on two threads.
+     */
+    public boolean isParallel() {
+        return this.parallel;
+    }
+
+    /**
+     * One direction of the search.
+     */
+    private class Search {
+
+        // Forward or backward.
+        private final boolean backward;
+
+        private final SearchWorkspace workspace;
+        private final IndexedPriorityQueue queue;
+
+        // Minimum key of the queue, as seen by the other search (only increases).
+        private volatile double publishedMin = 0;
+
+        // Nodes reached by this search (only for the forward search in parallel
+        // mode).
+        private int[] reached = new int[64];
+        private int nbReached = 0;
+
+        Search(boolean backward, SearchWorkspace workspace, int source) {
+            this.backward = backward;
+            this.workspace = workspace;
+            this.queue = workspace.getQueue();
+            visit(source);
+            workspace.update(source, 0, -1);
+            this.queue.insert(source, 0);
+        }
+
+        /**
+         * @return Minimum key of the queue, or infinity if the queue is empty.
+         */
+        double getMinKey() {
+            return this.queue.isEmpty() ? Double.POSITIVE_INFINITY
+                    : this.queue.getKey(this.queue.findMin());
+        }
+
+        void visit(int node) {
+            this.workspace.visit(node, 0);
+            if (parallel && !this.backward) {
+                if (this.nbReached == this.reached.length) {
+                    this.reached = Arrays.copyOf(this.reached, 2 * this.nbReached);
+                }
+                this.reached[this.nbReached++] = node;
+            }
+        }
+
+        /**
+         * Settle the minimum node of the queue and relax its arcs (incoming arcs for
+         * the backward search).
+         *
+         * @param other The search in the other direction.
+         * @param best Best path found so far, updated when a shorter path is found
+         *        (only in sequential mode).
+         */
+        void settleNext(Search other, Meeting best) {
+            final ShortestPathData data = getInputData();
+            final Graph graph = data.getGraph();
+            final AdjacencyArrays adjacency = graph.getAdjacency();
+
+            final int node = this.queue.deleteMin();
+            this.workspace.settle(node);
+            final double distance = this.workspace.getDistance(node);
+
+            final int first, end;
+            if (this.backward) {
+                first = adjacency.getFirstIncomingArc(node);
+                end = adjacency.getEndIncomingArc(node);
+            }
+            else {
+                first = adjacency.getFirstArc(node);
+                end = adjacency.getEndArc(node);
+            }
+            for (int i = first; i < end; ++i) {
+                final int a = this.backward ? adjacency.getIncomingArc(i) : i;
+                final int next = this.backward ? adjacency.getIncomingTail(i) : adjacency.getHead(a);
+                if (this.workspace.isSettled(next)) {
+                    continue;
+                }
+                Arc arc = adjacency.getArc(this.backward ? next : node, a);
+                if (!data.isAllowed(arc)) {
+                    continue;
+                }
+
+                if (!this.workspace.isVisited(next)) {
+                    visit(next);
+                }
+
+                double oldDistance = this.workspace.getDistance(next);
+                double newDistance = distance + data.getCost(arc);
+
+                if (Double.isInfinite(oldDistance) && Double.isFinite(newDistance)) {
+                    notifyReached(graph.get(next));
+                }
+
+                if (newDistance < oldDistance) {
+                    this.workspace.update(next, newDistance, a);
+                    if (this.queue.contains(next)) {
+                        this.queue.decreaseKey(next, newDistance);
+                    }
+                    else {
+                        this.queue.insert(next, newDistance);
+                    }
+
+                    // Check if the other search has reached this node.
+                    if (parallel) {
+                        final double length = newDistance
+                                + other.workspace.getPublishedDistance(next);
+                        if (length < Double.longBitsToDouble(sharedBest.get())) {
+                            sharedBest.accumulateAndGet(Double.doubleToLongBits(length),
+                                    (x, y) -> Double.longBitsToDouble(x) <= Double
+                                            .longBitsToDouble(y) ? x : y);
+                        }
+                    }
+                    else {
+                        best.update(next, newDistance + other.workspace.getDistance(next));
+                    }
+                }
+            }
+            notifyMarked(graph.get(node));
+        }
+
+        /**
+         * Run this search until the stopping criterion holds, in parallel mode.
+         */
+        void runParallel(Search other) {
+            while (!this.queue.isEmpty()) {
+                final double min = getMinKey();
+                if (min + other.publishedMin >= Double.longBitsToDouble(sharedBest.get())) {
+                    break;
+                }
+                this.publishedMin = min;
+                settleNext(other, null);
+            }
+
+            // Once one search stops, the other one can stop as well.
+            this.publishedMin = Double.POSITIVE_INFINITY;
+        }
+
+    }
+
+    /**
+     * Best path found by the searches, given by its length and the node where the
+     * searches meet.
+     */
+    private static class Meeting {
+
+        private double length = Double.POSITIVE_INFINITY;
+        private int node = -1;
+
+        void update(int node, double length) {
+            if (length < this.length) {
+                this.length = length;
+                this.node = node;
+            }
+        }
+
+    }
+
+    private void notifyReached(Node node) {
+        if (this.parallel) {
+            synchronized (this.notifyLock) {
+                notifyNodeReached(node);
+            }
+        }
+        else {
+            notifyNodeReached(node);
+        }
+    }
+
+    private void notifyMarked(Node node) {
+        if (this.parallel) {
+            synchronized (this.notifyLock) {
+                notifyNodeMarked(node);
+            }
+        }
+        else {
+            notifyNodeMarked(node);
+        }
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        if (isTrivial(data.getOrigin(), data.getDestination())) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        try (SearchWorkspace forwardWorkspace = SearchWorkspace.acquire(graph.size(),
+                this.queueType);
+                SearchWorkspace backwardWorkspace = SearchWorkspace.acquire(graph.size(),
+                        this.queueType)) {
+
+            // Build the incoming-arc index before starting the searches.
+            adjacency.getFirstIncomingArc(destination);
+
+            Search forward = new Search(false, forwardWorkspace, origin);
+            Search backward = new Search(true, backwardWorkspace, destination);
+
+            Meeting best = new Meeting();
+            if (this.parallel) {
+                this.sharedBest.set(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+                CompletableFuture<Void> backwardTask = CompletableFuture
+                        .runAsync(() -> backward.runParallel(forward));
+                forward.runParallel(backward);
+                try {
+                    backwardTask.join();
+                }
+                catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw e;
+                }
+
+                // Both searches are done, so the final distances are visible here.
+                for (int i = 0; i < forward.nbReached; ++i) {
+                    final int node = forward.reached[i];
+                    best.update(node, forwardWorkspace.getDistance(node)
+                            + backwardWorkspace.getDistance(node));
+                }
+            }
+            else {
+                while (!forward.queue.isEmpty() && !backward.queue.isEmpty()) {
+                    final double forwardMin = forward.getMinKey(),
+                            backwardMin = backward.getMinKey();
+                    if (forwardMin + backwardMin >= best.length) {
+                        break;
+                    }
+                    if (forwardMin <= backwardMin) {
+                        forward.settleNext(backward, best);
+                    }
+                    else {
+                        backward.settleNext(forward, best);
+                    }
+                }
+            }
+
+            // The searches did not meet, the solution is infeasible...
+            if (best.node == -1) {
+                return new ShortestPathSolution(data, Status.INFEASIBLE);
+            }
+
+            // The destination has been found, notify the observers.
+            notifyDestinationReached(data.getDestination());
+
+            // Create the path from the predecessors of the forward search...
+            ArrayList<Arc> arcs = new ArrayList<>();
+            for (int a = forwardWorkspace.getPredecessorArc(best.node); a != -1;) {
+                Arc arc = adjacency.getArc(a);
+                arcs.add(arc);
+                a = forwardWorkspace.getPredecessorArc(arc.getOrigin().getId());
+            }
+            Collections.reverse(arcs);
+
+            // ...and from the successors of the backward search.
+            for (int a = backwardWorkspace.getPredecessorArc(best.node); a != -1;) {
+                Arc arc = adjacency.getArc(a);
+                arcs.add(arc);
+                a = backwardWorkspace.getPredecessorArc(arc.getDestination().getId());
+            }
+
+            // Create the final solution.
+            return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+        }
+    }
+
+}
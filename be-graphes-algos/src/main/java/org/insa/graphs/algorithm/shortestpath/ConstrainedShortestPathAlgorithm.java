@@ -0,0 +1,311 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.time.Duration;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.LabelPool;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Resource-constrained shortest path: the path of minimum cost among the paths
+ * whose resource does not exceed the maximum resource of the input data, e.g.,
+ * the fastest path of at most 50 kilometers.
+ * </p>
+ *
+ * <p>
+ * The search first solves the Lagrangian relaxation of the constraint, i.e.,
+ * finds the multiplier {@code lambda} maximizing the cost of the shortest path
+ * for the costs {@code cost + lambda * resource}, minus
+ * {@code lambda * maximum resource}. Each value of {@code lambda} is computed
+ * from the best feasible and infeasible paths found so far, and requires a
+ * single A* search. This gives a lower bound of the optimal cost and, most of
+ * the time, a feasible path close to it.
+ * </p>
+ *
+ * <p>
+ * The gap between the two is then closed by a bi-criteria label-setting
+ * search, settling labels by cost plus the exact cost to the destination, and
+ * discarding the labels that are dominated, that cannot reach the destination
+ * within the maximum resource, or whose Lagrangian bound is not lower than the
+ * best feasible path.
+ * </p>
+ *
+ * <p>
+ * If the time limit of the input data is reached, the best feasible path found
+ * so far is returned as a FEASIBLE solution, together with the best lower bound
+ * known.
+ * </p>
+ *
+ */
+public class ConstrainedShortestPathAlgorithm extends ShortestPathAlgorithm {
+
+    // Number of labels settled between two checks of the time limit.
+    private static final int TIME_LIMIT_CHECK_PERIOD = 1024;
+
+    // State of the current run: adjacency arrays, costs and resources of the arcs,
+    // and their lower bounds to the destination.
+    private AdjacencyArrays adjacency;
+    private double[] costs, resources, costBounds, resourceBounds;
+
+    public ConstrainedShortestPathAlgorithm(ConstrainedShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    public ConstrainedShortestPathData getInputData() {
+        return (ConstrainedShortestPathData) super.getInputData();
+    }
+
+    @Override
+    public ConstrainedShortestPathSolution run() {
+        return (ConstrainedShortestPathSolution) super.run();
+    }
+
+    @Override
+    protected Duration getTimeLimit() {
+        return getInputData().getTimeLimit();
+    }
+
+    /**
+     * Find a shortest path for the costs {@code costWeight * cost +
+     * resourceWeight * resource} with A*.
+     *
+     * @return Arcs of the path.
+     */
+    private int[] findPath(double costWeight, double resourceWeight) {
+        final ConstrainedShortestPathData data = getInputData();
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(
+                this.adjacency.getNumberOfNodes())) {
+            final IndexedPriorityQueue queue = workspace.getQueue();
+            workspace.visit(origin, costWeight * this.costBounds[origin]
+                    + resourceWeight * this.resourceBounds[origin]);
+            workspace.update(origin, 0, -1);
+            queue.insert(origin, workspace.getPotential(origin));
+            while (!queue.isEmpty()) {
+                final int node = queue.deleteMin();
+                if (node == destination) {
+                    break;
+                }
+                workspace.settle(node);
+                final double distance = workspace.getDistance(node);
+                for (int a = this.adjacency.getFirstArc(node), end = this.adjacency
+                        .getEndArc(node); a < end; ++a) {
+                    final int head = this.adjacency.getHead(a);
+                    if (workspace.isSettled(head) || this.costs[a] == Double.POSITIVE_INFINITY
+                            || this.costBounds[head] == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    if (!workspace.isVisited(head)) {
+                        workspace.visit(head, costWeight * this.costBounds[head]
+                                + resourceWeight * this.resourceBounds[head]);
+                    }
+                    final double newDistance = distance + costWeight * this.costs[a]
+                            + resourceWeight * this.resources[a];
+                    if (newDistance < workspace.getDistance(head)) {
+                        workspace.update(head, newDistance, a);
+                        final double key = newDistance + workspace.getPotential(head);
+                        if (queue.contains(head)) {
+                            queue.decreaseKey(head, key);
+                        }
+                        else {
+                            queue.insert(head, key);
+                        }
+                    }
+                }
+            }
+
+            int nbArcs = 0;
+            for (int a = workspace.getPredecessorArc(destination); a != -1; a = workspace
+                    .getPredecessorArc(this.adjacency.getArc(a).getOrigin().getId())) {
+                ++nbArcs;
+            }
+            int[] arcs = new int[nbArcs];
+            for (int a = workspace.getPredecessorArc(destination); a != -1; a = workspace
+                    .getPredecessorArc(this.adjacency.getArc(a).getOrigin().getId())) {
+                arcs[--nbArcs] = a;
+            }
+            return arcs;
+        }
+    }
+
+    /**
+     * @return Sum of the given values over the given arcs.
+     */
+    private static double sum(double[] values, int[] arcs) {
+        double sum = 0;
+        for (int a: arcs) {
+            sum += values[a];
+        }
+        return sum;
+    }
+
+    @Override
+    protected ConstrainedShortestPathSolution doRun() {
+        final ConstrainedShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+        final double maximumResource = data.getMaximumResource();
+
+        if (isTrivial(data.getOrigin(), data.getDestination())) {
+            return new ConstrainedShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        this.adjacency = graph.getAdjacency();
+        this.costs = ArcCosts.compute(graph, data.getArcInspector());
+        this.resources = ArcCosts.compute(graph, data.getResourceInspector());
+        for (int a = 0; a < this.costs.length; ++a) {
+            if (this.costs[a] == Double.POSITIVE_INFINITY
+                    || this.resources[a] == Double.POSITIVE_INFINITY) {
+                this.costs[a] = this.resources[a] = Double.POSITIVE_INFINITY;
+            }
+        }
+        this.costBounds = ArcCosts.computeDistancesTo(graph, this.costs, destination);
+        this.resourceBounds = ArcCosts.computeDistancesTo(graph, this.resources, destination);
+        try {
+            if (this.resourceBounds[origin] == Double.POSITIVE_INFINITY
+                    || this.resourceBounds[origin] > maximumResource) {
+                return new ConstrainedShortestPathSolution(data, Status.INFEASIBLE);
+            }
+            notifyOriginProcessed(data.getOrigin());
+            return solve(data, origin, destination, maximumResource);
+        }
+        finally {
+            this.costs = this.resources = this.costBounds = this.resourceBounds = null;
+        }
+    }
+
+    /**
+     * Solve the constrained problem for a reachable destination, knowing that a
+     * path within the maximum resource exists.
+     */
+    private ConstrainedShortestPathSolution solve(ConstrainedShortestPathData data, int origin,
+            int destination, double maximumResource) {
+
+        // Shortest path for the cost: optimal if it is feasible.
+        int[] infeasible = findPath(1, 0);
+        double infeasibleCost = sum(this.costs, infeasible),
+                infeasibleResource = sum(this.resources, infeasible);
+        if (infeasibleResource <= maximumResource) {
+            notifyDestinationReached(data.getDestination());
+            return new ConstrainedShortestPathSolution(data, Status.OPTIMAL,
+                    Path.createFromArcIndices(data.getGraph(), infeasible), infeasibleCost);
+        }
+        double lowerBound = infeasibleCost;
+
+        // Shortest path for the resource: feasible.
+        int[] feasible = findPath(0, 1);
+        double feasibleCost = sum(this.costs, feasible),
+                feasibleResource = sum(this.resources, feasible);
+        int[] best = feasible;
+        double upperBound = feasibleCost;
+
+        // Lagrangian relaxation: each multiplier is the one for which the best
+        // feasible and infeasible paths have the same Lagrangian cost, and the
+        // search stops when no path has a lower Lagrangian cost.
+        final double tolerance = 1e-9 * Math.max(1, upperBound);
+        double lambda = 0;
+        while (upperBound - lowerBound > tolerance && !isTimeLimitReached()) {
+            lambda = (feasibleCost - infeasibleCost) / (infeasibleResource - feasibleResource);
+            int[] arcs = findPath(1, lambda);
+            final double cost = sum(this.costs, arcs), resource = sum(this.resources, arcs);
+            lowerBound = Math.max(lowerBound, cost + lambda * (resource - maximumResource));
+            if (cost + lambda * resource >= infeasibleCost + lambda * infeasibleResource
+                    - tolerance) {
+                break;
+            }
+            if (resource <= maximumResource) {
+                feasible = arcs;
+                feasibleCost = cost;
+                feasibleResource = resource;
+                if (cost < upperBound) {
+                    best = arcs;
+                    upperBound = cost;
+                }
+            }
+            else {
+                infeasible = arcs;
+                infeasibleCost = cost;
+                infeasibleResource = resource;
+            }
+        }
+
+        // Label-setting search closing the gap, with the exact Lagrangian costs to
+        // the destination for the final multiplier.
+        if (upperBound - lowerBound > tolerance && !isTimeLimitReached()) {
+            final double[] lagrangianCosts = new double[this.costs.length];
+            for (int a = 0; a < lagrangianCosts.length; ++a) {
+                lagrangianCosts[a] = this.costs[a] + lambda * this.resources[a];
+            }
+            final double[] lagrangianBounds = ArcCosts.computeDistancesTo(data.getGraph(),
+                    lagrangianCosts, destination);
+
+            final LabelPool labels = new LabelPool(this.adjacency.getNumberOfNodes(),
+                    this.adjacency.getNumberOfNodes() / 4);
+            labels.add(origin, -1, -1, 0, 0, this.costBounds[origin],
+                    this.resourceBounds[origin]);
+            int nbSettled = 0;
+            boolean complete = true;
+            for (int label = labels.poll(); label != -1; label = labels.poll()) {
+                if (++nbSettled % TIME_LIMIT_CHECK_PERIOD == 0 && isTimeLimitReached()) {
+                    lowerBound = Math.max(lowerBound,
+                            Math.min(labels.getFirstKey(label), upperBound));
+                    complete = false;
+                    break;
+                }
+
+                // Labels are settled by increasing cost lower bound: the first label
+                // of the destination is optimal, and no label can improve the best
+                // path once this bound reaches its cost.
+                if (labels.getFirstKey(label) >= upperBound - tolerance) {
+                    break;
+                }
+                final int node = labels.getNode(label);
+                notifyNodeMarked(data.getGraph().get(node));
+                if (node == destination) {
+                    best = labels.getArcs(label);
+                    upperBound = labels.getFirstCost(label);
+                    break;
+                }
+
+                final double cost = labels.getFirstCost(label),
+                        resource = labels.getSecondCost(label);
+                for (int a = this.adjacency.getFirstArc(node), end = this.adjacency
+                        .getEndArc(node); a < end; ++a) {
+                    final int head = this.adjacency.getHead(a);
+                    if (this.costs[a] == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    final double newCost = cost + this.costs[a],
+                            newResource = resource + this.resources[a];
+                    if (!(newResource + this.resourceBounds[head] <= maximumResource)
+                            || newCost + this.costBounds[head] >= upperBound - tolerance
+                            || newCost + lambda * (newResource - maximumResource)
+                                    + lagrangianBounds[head] >= upperBound - tolerance) {
+                        continue;
+                    }
+                    labels.add(head, label, a, newCost, newResource,
+                            newCost + this.costBounds[head],
+                            newResource + this.resourceBounds[head]);
+                }
+            }
+            if (complete) {
+                lowerBound = upperBound;
+            }
+        }
+
+        notifyDestinationReached(data.getDestination());
+        return new ConstrainedShortestPathSolution(data,
+                upperBound - lowerBound <= tolerance ? Status.OPTIMAL : Status.FEASIBLE,
+                Path.createFromArcIndices(data.getGraph(), best), lowerBound);
+    }
+
+}
@@ -0,0 +1,133 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.time.Duration;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+
+public class ConstrainedShortestPathData extends ShortestPathData {
+
+    // Inspector giving the resource consumed by the arcs, and maximum resource of
+    // the path.
+    private final ArcInspector resourceInspector;
+    private final double maximumResource;
+
+    // Maximum duration of the search, or null.
+    private final Duration timeLimit;
+
+    /**
+     * Construct a new instance of ConstrainedShortestPathData without time limit.
+     * 
+     * @param graph Graph in which the path should be looked for.
+     * @param origin Origin node of the path.
+     * @param destination Destination node of the path.
+     * @param arcInspector Filter for arcs, giving the cost to minimize.
+     * @param resourceInspector Filter for arcs, giving the resource consumed by
+     *        the arcs (e.g., the length of the arcs for a fastest path under a
+     *        length cap).
+     * @param maximumResource Maximum resource consumed by the path.
+     * 
+     * @throws IllegalArgumentException if the maximum resource is negative or not
+     *         a number.
+     */
+    public ConstrainedShortestPathData(Graph graph, Node origin, Node destination,
+            ArcInspector arcInspector, ArcInspector resourceInspector, double maximumResource)
+            throws IllegalArgumentException {
+        this(graph, origin, destination, arcInspector, resourceInspector, maximumResource, null);
+    }
+
+    /**
+     * Construct a new instance of ConstrainedShortestPathData with the given
+     * parameters.
+     * 
+     * @param graph Graph in which the path should be looked for.
+     * @param origin Origin node of the path.
+     * @param destination Destination node of the path.
+     * @param arcInspector Filter for arcs, giving the cost to minimize.
+     * @param resourceInspector Filter for arcs, giving the resource consumed by
+     *        the arcs (e.g., the length of the arcs for a fastest path under a
+     *        length cap).
+     * @param maximumResource Maximum resource consumed by the path.
+     * @param timeLimit Maximum duration of the search, or null for no limit. Once
+     *        the limit is reached, the best path found so far is returned.
+     * 
+     * @throws IllegalArgumentException if the maximum resource is negative or not
+     *         a number, or if the time limit is negative.
+     */
+    public ConstrainedShortestPathData(Graph graph, Node origin, Node destination,
+            ArcInspector arcInspector, ArcInspector resourceInspector, double maximumResource,
+            Duration timeLimit) throws IllegalArgumentException {
+        super(graph, origin, destination, arcInspector);
+        if (!(maximumResource >= 0)) {
+            throw new IllegalArgumentException("invalid maximum resource: " + maximumResource);
+        }
+        if (timeLimit != null && timeLimit.isNegative()) {
+            throw new IllegalArgumentException("invalid time limit: " + timeLimit);
+        }
+        this.resourceInspector = resourceInspector;
+        this.maximumResource = maximumResource;
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * @return Inspector giving the resource consumed by the arcs.
+     */
+    public ArcInspector getResourceInspector() {
+        return resourceInspector;
+    }
+
+    /**
+     * @return Maximum resource consumed by the path.
+     */
+    public double getMaximumResource() {
+        return maximumResource;
+    }
+
+    /**
+     * @return Maximum duration of the search, or null if the search is not
+     *         limited.
+     */
+    public Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * Retrieve the resource consumed by the given arc according to the resource
+     * inspector.
+     * 
+     * @param arc Arc for which the resource should be retrieved.
+     * 
+     * @return Resource consumed by the given arc.
+     */
+    public double getResource(Arc arc) {
+        return this.resourceInspector.getCost(arc);
+    }
+
+    /**
+     * Check if the given arc is allowed by both the arc inspector and the resource
+     * inspector.
+     * 
+     * @param arc Arc to check.
+     * 
+     * @return true if the given arc is allowed.
+     */
+    @Override
+    public boolean isAllowed(Arc arc) {
+        return super.isAllowed(arc) && this.resourceInspector.isAllowed(arc);
+    }
+
+    @Override
+    public boolean usesInspectorCostsOnly() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "Constrained shortest-path from #" + getOrigin().getId() + " to #"
+                + getDestination().getId() + ", " + this.resourceInspector.getMode()
+                .toString().toLowerCase() + " at most " + this.maximumResource + " ["
+                + this.arcInspector.toString().toLowerCase() + "]";
+    }
+}
@@ -0,0 +1,100 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Path;
+
+public class ConstrainedShortestPathSolution extends ShortestPathSolution {
+
+    // Lower bound of the cost of the optimal path.
+    private final double lowerBound;
+
+    /**
+     * Create a new infeasible constrained shortest-path solution for the given
+     * input and status.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution (UNKNOWN / INFEASIBLE).
+     */
+    public ConstrainedShortestPathSolution(ConstrainedShortestPathData data, Status status) {
+        super(data, status);
+        this.lowerBound = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Create a new constrained shortest-path solution.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution: OPTIMAL if the path is proven optimal,
+     *        FEASIBLE if the search has been stopped by the time limit.
+     * @param path Path corresponding to the solution, within the maximum
+     *        resource.
+     * @param lowerBound Lower bound of the cost of an optimal path.
+     */
+    public ConstrainedShortestPathSolution(ConstrainedShortestPathData data, Status status,
+            Path path, double lowerBound) {
+        super(data, status, path);
+        this.lowerBound = lowerBound;
+    }
+
+    @Override
+    public ConstrainedShortestPathData getInputData() {
+        return (ConstrainedShortestPathData) super.getInputData();
+    }
+
+    /**
+     * @return The resource consumed by the path of this solution, or
+     *         {@link Double#POSITIVE_INFINITY} if it is not feasible.
+     */
+    public double getResource() {
+        if (!isFeasible()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double resource = 0;
+        for (Arc arc: getPath().getArcs()) {
+            resource += getInputData().getResource(arc);
+        }
+        return resource;
+    }
+
+    /**
+     * @return Lower bound of the cost of an optimal path, equal to the cost of this
+     *         solution if it is optimal, or {@link Double#POSITIVE_INFINITY} if it
+     *         is not feasible.
+     */
+    public double getLowerBound() {
+        return getStatus() == Status.OPTIMAL ? getCost() : lowerBound;
+    }
+
+    @Override
+    public String toString() {
+        ConstrainedShortestPathData data = getInputData();
+        String info = null;
+        if (!isFeasible()) {
+            info = String.format("No path found from node #%d to node #%d within the limit",
+                    data.getOrigin().getId(), data.getDestination().getId());
+        }
+        else {
+            info = String.format("Found a path from node #%d to node #%d, %s, using %s",
+                    data.getOrigin().getId(), data.getDestination().getId(),
+                    format(data.getMode(), getCost()),
+                    format(data.getResourceInspector().getMode(), getResource()));
+            if (getStatus() == Status.FEASIBLE) {
+                info += String.format(" (search stopped by the time limit, at least %s)",
+                        format(data.getMode(), getLowerBound()));
+            }
+        }
+        info += " in " + getSolvingTime().getSeconds() + " seconds.";
+        return info;
+    }
+
+    /**
+     * @return The given value formatted in kilometers or minutes depending on the
+     *         given mode.
+     */
+    private static String format(Mode mode, double value) {
+        return mode == Mode.LENGTH ? String.format("%.4f kilometers", value / 1000.0)
+                : String.format("%.4f minutes", value / 60.0);
+    }
+
+}
@@ -0,0 +1,205 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.contraction.ContractionHierarchy;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Query of a {@link ContractionHierarchy}: a forward search from the origin
+ * following upward edges, and a backward search from the destination following
+ * downward edges, both only going up the ranks. Each search stops when its
+ * minimum key is not smaller than the best path found through a node reached by
+ * both searches.
+ * </p>
+ * 
+ * <p>
+ * The shortcuts of the best path are then unpacked into arcs of the graph.
+ * Observers are notified of the nodes reached and marked by both searches.
+ * </p>
+ *
+ */
+public class ContractionHierarchiesAlgorithm extends ShortestPathAlgorithm {
+
+    // Hierarchy, retrieved on the first run if not given.
+    private ContractionHierarchy hierarchy;
+
+    /**
+     * Create a new algorithm using the contraction hierarchy of the graph and
+     * inspector of the given data, which is computed (or read from the directory
+     * of {@link org.insa.graphs.algorithm.utils.PreprocessingStore}) on the first
+     * run.
+     * 
+     * @param data Input data for the algorithm.
+     */
+    public ContractionHierarchiesAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new algorithm using the given hierarchy, which must have been
+     * computed for the graph and inspector of the given data.
+     * 
+     * @param data Input data for the algorithm.
+     * @param hierarchy Contraction hierarchy.
+     */
+    public ContractionHierarchiesAlgorithm(ShortestPathData data,
+            ContractionHierarchy hierarchy) {
+        super(data);
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * @return Hierarchy used by this algorithm, or null if it has not been
+     *         retrieved yet.
+     */
+    public ContractionHierarchy getHierarchy() {
+        return this.hierarchy;
+    }
+
+    /**
+     * Retrieve the hierarchy of the graph and inspector of the input data, when
+     * none has been given to the constructor.
+     * 
+     * @return Contraction hierarchy to use.
+     */
+    protected ContractionHierarchy loadHierarchy() {
+        final ShortestPathData data = getInputData();
+        return ContractionHierarchy.get(data.getGraph(), data.getArcInspector());
+    }
+
+    /**
+     * Settle the minimum node of the queue of the given workspace and relax its
+     * upward (or downward) edges.
+     * 
+     * @return The settled node.
+     */
+    private int settleNext(SearchWorkspace workspace, boolean backward) {
+        final Graph graph = getInputData().getGraph();
+        final ContractionHierarchy hierarchy = this.hierarchy;
+        final IndexedPriorityQueue queue = workspace.getQueue();
+
+        final int node = queue.deleteMin();
+        workspace.settle(node);
+        final double distance = workspace.getDistance(node);
+
+        final int first = backward ? hierarchy.getFirstDownwardEdge(node)
+                : hierarchy.getFirstUpwardEdge(node);
+        final int end = backward ? hierarchy.getEndDownwardEdge(node)
+                : hierarchy.getEndUpwardEdge(node);
+        for (int i = first; i < end; ++i) {
+            final int e = backward ? hierarchy.getDownwardEdge(i) : hierarchy.getUpwardEdge(i);
+            final int next = backward ? hierarchy.getTail(e) : hierarchy.getHead(e);
+            if (workspace.isSettled(next)) {
+                continue;
+            }
+            if (!workspace.isVisited(next)) {
+                workspace.visit(next, 0);
+                notifyNodeReached(graph.get(next));
+            }
+            final double newDistance = distance + hierarchy.getWeight(e);
+            if (newDistance < workspace.getDistance(next)) {
+                workspace.update(next, newDistance, e);
+                if (queue.contains(next)) {
+                    queue.decreaseKey(next, newDistance);
+                }
+                else {
+                    queue.insert(next, newDistance);
+                }
+            }
+        }
+        notifyNodeMarked(graph.get(node));
+        return node;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        if (this.hierarchy == null) {
+            this.hierarchy = loadHierarchy();
+        }
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        if (isTrivial(data.getOrigin(), data.getDestination())) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        try (SearchWorkspace forward = SearchWorkspace.acquire(graph.size());
+                SearchWorkspace backward = SearchWorkspace.acquire(graph.size())) {
+            forward.visit(origin, 0);
+            forward.update(origin, 0, -1);
+            forward.getQueue().insert(origin, 0);
+            backward.visit(destination, 0);
+            backward.update(destination, 0, -1);
+            backward.getQueue().insert(destination, 0);
+
+            double best = Double.POSITIVE_INFINITY;
+            int meeting = -1;
+            while (true) {
+                final IndexedPriorityQueue forwardQueue = forward.getQueue(),
+                        backwardQueue = backward.getQueue();
+                final double forwardMin = forwardQueue.isEmpty() ? Double.POSITIVE_INFINITY
+                        : forwardQueue.getKey(forwardQueue.findMin());
+                final double backwardMin = backwardQueue.isEmpty() ? Double.POSITIVE_INFINITY
+                        : backwardQueue.getKey(backwardQueue.findMin());
+                if (forwardMin >= best && backwardMin >= best) {
+                    break;
+                }
+
+                // Both searches go up, so they are stopped separately.
+                final boolean isBackward = backwardMin < forwardMin;
+                final int node = isBackward ? settleNext(backward, true)
+                        : settleNext(forward, false);
+                final double length = forward.getDistance(node) + backward.getDistance(node);
+                if (length < best) {
+                    best = length;
+                    meeting = node;
+                }
+            }
+
+            // The searches did not meet, the solution is infeasible...
+            if (meeting == -1) {
+                return new ShortestPathSolution(data, Status.INFEASIBLE);
+            }
+
+            // The destination has been found, notify the observers.
+            notifyDestinationReached(data.getDestination());
+
+            // Edges from the origin to the meeting node, then to the destination.
+            List<Integer> edges = new ArrayList<>();
+            for (int e = forward.getPredecessorArc(meeting); e != -1;) {
+                edges.add(0, e);
+                e = forward.getPredecessorArc(this.hierarchy.getTail(e));
+            }
+            for (int e = backward.getPredecessorArc(meeting); e != -1;) {
+                edges.add(e);
+                e = backward.getPredecessorArc(this.hierarchy.getHead(e));
+            }
+
+            // Unpack the shortcuts into arcs of the graph.
+            ArrayList<Arc> arcs = new ArrayList<>();
+            for (int e: edges) {
+                this.hierarchy.unpack(e, a -> arcs.add(adjacency.getArc(a)));
+            }
+
+            // Create the final solution.
+            return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.contraction.ContractionHierarchy;
+import org.insa.graphs.algorithm.contraction.CustomizableContractionHierarchy;
+
+/**
+ * Query of a {@link CustomizableContractionHierarchy}: the hierarchy of the
+ * graph, whose ordering is computed once, is customized for the inspector of
+ * the input data on the first query with this inspector, and the query itself
+ * is the query of a regular contraction hierarchy.
+ *
+ */
+public class CustomizableContractionHierarchiesAlgorithm extends ContractionHierarchiesAlgorithm {
+
+    public CustomizableContractionHierarchiesAlgorithm(ShortestPathData data) {
+        super(data);
+    }
+
+    @Override
+    protected ContractionHierarchy loadHierarchy() {
+        final ShortestPathData data = getInputData();
+        return CustomizableContractionHierarchy.get(data.getGraph())
+                .getCustomization(data.getGraph(), data.getArcInspector());
+    }
+
+}
@@ -4,131 +4,203 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import org.insa.graphs.algorithm.AbstractSolution.Status;
-import org.insa.graphs.algorithm.utils.BinaryHeap;
-import org.insa.graphs.algorithm.utils.ElementNotFoundException;
+import org.insa.graphs.algorithm.utils.ArcCosts;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 
 public class DijkstraAlgorithm extends ShortestPathAlgorithm {
 
+    // Type of priority queue used by the search.
+    private final QueueType queueType;
+
+    // Cost of each arc for the input data (infinite if the arc is not allowed),
+    // or null if the input data do not only use the costs of their inspector.
+    private double[] arcCosts;
+
     public DijkstraAlgorithm(ShortestPathData data) {
+        this(data, QueueType.BINARY_HEAP);
+    }
+
+    /**
+     * Create a new algorithm using the given type of priority queue. Monotone
+     * queues (radix heap, bucket queue) require non-negative costs and, for A*, a
+     * consistent lower bound.
+     *
+     * @param data Input data for the algorithm.
+     * @param queueType Type of priority queue to use.
+     */
+    public DijkstraAlgorithm(ShortestPathData data, QueueType queueType) {
         super(data);
+        this.queueType = queueType;
+    }
+
+    /**
+     * @return Type of priority queue used by this algorithm.
+     */
+    public QueueType getQueueType() {
+        return this.queueType;
+    }
+
+    /**
+     * Estimate the cost from the given node to the destination. The estimate is
+     * added to the cost of the node to order the queue, it must never exceed the
+     * actual cost (0 for Dijkstra).
+     *
+     * @param node ID of a node.
+     *
+     * @return Lower bound of the cost from the given node to the destination.
+     */
+    protected double getLowerBound(int node) {
+        return 0;
     }
 
-    //Label : noeud + distance parcourue jusqu'a ce noeud + arc par lequel on est arrive a ce noeud
-    //retourne un tableau de Label initialises comme tel :
-    //noeud -> un noeud du graphe rentre en parametre de la fonction (initialisation pour tous les noeuds du graphe) ;
-    //distance parcourue jusqu'a ce noeud -> infini ;
-    //arc par lequel on est arrive a ce noeud -> null.
-    protected Label[] setUpLabels(Graph graph, ShortestPathData data){
-        final int nbNodes = graph.size();
-
-        Label[] labels = new Label[nbNodes];
-        graph.getNodes().forEach(node -> labels[node.getId()] = new Label(node, Double.POSITIVE_INFINITY, null));
-        labels[data.getOrigin().getId()].setCost(0);
-        return labels;
+    /**
+     * Check if the arc objects should be passed to {@link #isAllowed(int, Arc)}
+     * and {@link #getCost(int, Arc, double)}. By default, they are only needed
+     * when the costs of the arcs cannot be read by index, so the search does not
+     * retrieve the arc objects while scanning the successors. Subclasses whose
+     * {@code isAllowed} or {@code getCost} read the arc object must override this
+     * method to return true.
+     *
+     * @return true if the search should retrieve the arc objects.
+     */
+    protected boolean usesArcObjects() {
+        return this.arcCosts == null;
     }
 
-    //retourne un tas binaire (classe contenant des Label) auquel on associe un Label
-    protected BinaryHeap<Label> setUpHeap(Label current){
-        BinaryHeap<Label> sommets = new BinaryHeap<Label>();
-        sommets.insert(current);
+    /**
+     * Check if the search may follow the given arc (by default, if it is allowed
+     * by the input data, read by index from the costs of the arcs when the input
+     * data only use the costs of their inspector, see
+     * {@link ShortestPathData#usesInspectorCostsOnly()} and {@link ArcCosts#get}).
+     *
+     * @param index Index of the arc in the adjacency arrays of the graph.
+     * @param arc The arc, or null if {@link #usesArcObjects()} is false.
+     *
+     * @return true if the search may follow the given arc.
+     */
+    protected boolean isAllowed(int index, Arc arc) {
+        if (this.arcCosts != null) {
+            return this.arcCosts[index] != Double.POSITIVE_INFINITY;
+        }
+        return getInputData().isAllowed(arc);
+    }
 
-        return sommets;
+    /**
+     * Compute the cost of the given arc (by default, its cost for the input
+     * data, read by index as in {@link #isAllowed(int, Arc)}).
+     *
+     * @param index Index of the arc in the adjacency arrays of the graph.
+     * @param arc The arc, or null if {@link #usesArcObjects()} is false.
+     * @param distance Cost of the path to the origin of the arc.
+     *
+     * @return Cost of the given arc when reached with the given cost.
+     */
+    protected double getCost(int index, Arc arc, double distance) {
+        if (this.arcCosts != null) {
+            return this.arcCosts[index];
+        }
+        return getInputData().getCost(arc);
     }
 
     @Override
     protected ShortestPathSolution doRun() {
         final ShortestPathData data = getInputData();
-        ShortestPathSolution solution = null;
 
         // Retrieve the graph.
         Graph graph = data.getGraph();
+        AdjacencyArrays adjacency = graph.getAdjacency();
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // The costs are evaluated for all the arcs by the first search on this graph
+        // with this inspector (in O(|A|)), and shared by the following searches.
+        this.arcCosts = data.usesInspectorCostsOnly()
+                ? ArcCosts.get(graph, data.getArcInspector())
+                : null;
+        final boolean arcObjects = usesArcObjects();
+
+        // Distances, predecessors and queue are kept in a pooled workspace, so that
+        // nothing is allocated per node.
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(graph.size(), this.queueType)) {
+            IndexedPriorityQueue queue = workspace.getQueue();
+            workspace.visit(origin, getLowerBound(origin));
+            workspace.update(origin, 0, -1);
+            queue.insert(origin, workspace.getPotential(origin));
+
+            // Notify observers about the first event (origin processed).
+            notifyOriginProcessed(data.getOrigin());
+
+            int node = origin;
+            while (node != destination && !queue.isEmpty()) {
+                node = queue.deleteMin();
+                workspace.settle(node);
+                final double distance = workspace.getDistance(node);
+
+                // Successors are scanned in the flat adjacency arrays of the graph.
+                for (int a = adjacency.getFirstArc(node), end = adjacency
+                        .getEndArc(node); a < end; ++a) {
+                    final int head = adjacency.getHead(a);
+                    if (workspace.isSettled(head)) {
+                        continue;
+                    }
+                    final Arc arc = arcObjects ? adjacency.getArc(node, a) : null;
+                    if (!isAllowed(a, arc)) {
+                        continue;
+                    }
 
-        // Initialize array of distances.
-        Label[] labels = setUpLabels(graph, data);
-
-        // Notify observers about the first event (origin processed).
-        notifyOriginProcessed(data.getOrigin());
-
-
-        Label current = new Label(data.getOrigin(), 0, null);
-
-        BinaryHeap<Label> sommets = setUpHeap(current);
-
-        // boolean found = false;
-
+                    if (!workspace.isVisited(head)) {
+                        workspace.visit(head, getLowerBound(head));
+                    }
 
-        while (current.getNode() != data.getDestination() && !sommets.isEmpty()) {
-            current = sommets.deleteMin();
+                    double oldDistance = workspace.getDistance(head);
+                    double newDistance = distance + getCost(a, arc, distance);
 
-            
-            // System.out.println(current.getNode().toString());
-            if (current.getNode().hasSuccessors()) {
-                for (Arc arc : current.getNode().getSuccessors()) {
-                    
-                    // System.out.println(arc.toString());
-                    if (!labels[arc.getDestination().getId()].isMarked() && data.isAllowed(arc)) {
-                        double w = data.getCost(arc);
-                        Label next_label = labels[arc.getDestination().getId()];
-                        double oldDistance = next_label.getCurrentCost();
-                        //distance jusqu'au noeud du tableau de Label actuellement considere comme optimal
-                        
-                        double newDistance = labels[current.getNode().getId()].getCurrentCost() + w;
-                        //longueur d'un chemin passant par current menant jusqu'au noeud : longueur de l'origine jusqu'a current + longueur de current jusqu'au noeud
+                    if (Double.isInfinite(oldDistance) && Double.isFinite(newDistance)) {
+                        notifyNodeReached(graph.get(head));
+                    }
 
-                        if (Double.isInfinite(oldDistance) && Double.isFinite(newDistance)) {
-                            notifyNodeReached(arc.getDestination());
+                    if (newDistance < oldDistance) {
+                        workspace.update(head, newDistance, a);
+                        if (queue.contains(head)) {
+                            queue.decreaseKey(head, newDistance + workspace.getPotential(head));
                         }
-
-                        if (newDistance < oldDistance) {
-                            // found = false;
-                            if (Double.isFinite(oldDistance)) {
-                                try {
-                                    sommets.remove(next_label);
-                                } catch (ElementNotFoundException e) {
-                                    System.err.println("Element not found in the heap");
-                                }
-                            }
-                            next_label.setCost(newDistance);
-                            next_label.setPere(arc);
-                            sommets.insert(next_label);
+                        else {
+                            queue.insert(head, newDistance + workspace.getPotential(head));
                         }
                     }
-
                 }
-                labels[current.getNode().getId()].mark();
-                notifyNodeMarked(current.getNode());
-
+                notifyNodeMarked(graph.get(node));
             }
-        }
 
-        // Destination has no predecessor, the solution is infeasible...
-        if (labels[data.getDestination().getId()].getPere() == null) {
-            solution = new ShortestPathSolution(data, Status.INFEASIBLE);
-        } else {
+            // Destination has no predecessor, the solution is infeasible...
+            if (workspace.getPredecessorArc(destination) == -1) {
+                return new ShortestPathSolution(data, Status.INFEASIBLE);
+            }
 
             // The destination has been found, notify the observers.
             notifyDestinationReached(data.getDestination());
 
             // Create the path from the array of predecessors...
             ArrayList<Arc> arcs = new ArrayList<>();
-            Arc arc = labels[data.getDestination().getId()].getPere();
-            while (arc != null) {
+            for (int a = workspace.getPredecessorArc(destination); a != -1;) {
+                Arc arc = adjacency.getArc(a);
                 arcs.add(arc);
-                arc = labels[arc.getOrigin().getId()].getPere();
+                a = workspace.getPredecessorArc(arc.getOrigin().getId());
             }
 
             // Reverse the path...
             Collections.reverse(arcs);
 
             // Create the final solution.
-            solution = new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+            return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
         }
-
-        return solution;
-
     }
 
 }
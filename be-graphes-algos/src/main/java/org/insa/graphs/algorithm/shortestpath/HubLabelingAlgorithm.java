@@ -0,0 +1,117 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.contraction.ContractionHierarchy;
+import org.insa.graphs.algorithm.hublabels.HubLabels;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Query of {@link HubLabels}: the cost of the shortest path is found by merging
+ * the forward label of the origin with the backward label of the destination,
+ * without any search.
+ * </p>
+ *
+ * <p>
+ * The path is then unpacked with the contraction hierarchy the labels have been
+ * built from, unless the algorithm has been created to compute costs only, in
+ * which case the solution has no path (see
+ * {@link ShortestPathSolution#getCost()}).
+ * </p>
+ *
+ */
+public class HubLabelingAlgorithm extends ShortestPathAlgorithm {
+
+    // Labels, retrieved on the first run if not given.
+    private HubLabels labels;
+
+    // true if the path of the solution must be computed.
+    private final boolean computePath;
+
+    /**
+     * Create a new algorithm using the hub labels of the graph and inspector of the
+     * given data, which are computed (or read from the directory of
+     * {@link org.insa.graphs.algorithm.utils.PreprocessingStore}) on the first run.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public HubLabelingAlgorithm(ShortestPathData data) {
+        this(data, null, true);
+    }
+
+    /**
+     * Create a new algorithm using the given hub labels, which must have been
+     * computed for the graph and inspector of the given data.
+     *
+     * @param data Input data for the algorithm.
+     * @param labels Hub labels, or null to retrieve the labels of the graph and
+     *        inspector of the data on the first run.
+     * @param computePath true to compute the path of the solution, false to only
+     *        compute its cost.
+     */
+    public HubLabelingAlgorithm(ShortestPathData data, HubLabels labels, boolean computePath) {
+        super(data);
+        this.labels = labels;
+        this.computePath = computePath;
+    }
+
+    /**
+     * @return Labels used by this algorithm, or null if they have not been
+     *         retrieved yet.
+     */
+    public HubLabels getLabels() {
+        return this.labels;
+    }
+
+    /**
+     * @return true if this algorithm computes the path of its solutions, false if
+     *         it only computes their cost.
+     */
+    public boolean isComputingPath() {
+        return this.computePath;
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        if (this.labels == null) {
+            this.labels = HubLabels.get(graph, data.getArcInspector());
+        }
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        if (isTrivial(data.getOrigin(), data.getDestination())) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        final double cost = this.labels.getDistance(origin, destination);
+        if (cost == Double.POSITIVE_INFINITY) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        if (!this.computePath) {
+            return new ShortestPathSolution(data, Status.OPTIMAL, cost);
+        }
+
+        // Unpack the path with the hierarchy of the labels.
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        ArrayList<Arc> arcs = new ArrayList<>();
+        this.labels.unpack(ContractionHierarchy.get(graph, data.getArcInspector()), origin,
+                destination, a -> arcs.add(adjacency.getArc(a)));
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
@@ -0,0 +1,203 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.overlay.MultiLevelOverlay;
+import org.insa.graphs.algorithm.overlay.OverlayCustomization;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueue;
+import org.insa.graphs.algorithm.utils.SearchWorkspace;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Path;
+
+/**
+ * <p>
+ * Query of a {@link MultiLevelOverlay}: a Dijkstra search from the origin that
+ * follows the arcs of the graph inside the cells of level 0 containing the
+ * origin or the destination, and elsewhere uses the highest level whose cell
+ * contains neither the origin nor the destination. At such a level, the search
+ * follows the clique of the cell of the node (unless the node has been reached
+ * through this clique), and the arcs leaving the cell.
+ * </p>
+ *
+ * <p>
+ * The clique edges of the path are then unpacked into arcs of the graph.
+ * Observers are notified of the nodes reached and marked by the search, which
+ * are mostly boundary nodes of the cells.
+ * </p>
+ *
+ */
+public class MultiLevelOverlayAlgorithm extends ShortestPathAlgorithm {
+
+    // Customization of the overlay, retrieved on the first run if not given.
+    private OverlayCustomization customization;
+
+    /**
+     * Create a new algorithm using the overlay of the graph of the given data,
+     * customized for its inspector on the first run.
+     *
+     * @param data Input data for the algorithm.
+     */
+    public MultiLevelOverlayAlgorithm(ShortestPathData data) {
+        this(data, null);
+    }
+
+    /**
+     * Create a new algorithm using the given customization, which must have been
+     * computed for the graph and inspector of the given data.
+     *
+     * @param data Input data for the algorithm.
+     * @param customization Customization of an overlay.
+     */
+    public MultiLevelOverlayAlgorithm(ShortestPathData data,
+            OverlayCustomization customization) {
+        super(data);
+        this.customization = customization;
+    }
+
+    /**
+     * @return Customization used by this algorithm, or null if it has not been
+     *         retrieved yet.
+     */
+    public OverlayCustomization getCustomization() {
+        return this.customization;
+    }
+
+    /**
+     * @return Highest level at which the cell of the given node contains neither
+     *         the origin nor the destination, or {@code -1}.
+     */
+    private static int getSearchLevel(MultiLevelOverlay overlay, int node, int origin,
+            int destination) {
+        int level = -1;
+        while (level + 1 < overlay.getNumberOfLevels()
+                && overlay.getCell(level + 1, node) != overlay.getCell(level + 1, origin)
+                && overlay.getCell(level + 1, node) != overlay.getCell(level + 1, destination)) {
+            ++level;
+        }
+        return level;
+    }
+
+    /**
+     * Update the distance of the given node, notifying observers when the node is
+     * reached for the first time.
+     */
+    private void relax(SearchWorkspace workspace, int node, double distance, int predecessor) {
+        if (workspace.isSettled(node) || distance == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        if (!workspace.isVisited(node)) {
+            workspace.visit(node, 0);
+            notifyNodeReached(getInputData().getGraph().get(node));
+        }
+        if (distance < workspace.getDistance(node)) {
+            workspace.update(node, distance, predecessor);
+            final IndexedPriorityQueue queue = workspace.getQueue();
+            if (queue.contains(node)) {
+                queue.decreaseKey(node, distance);
+            }
+            else {
+                queue.insert(node, distance);
+            }
+        }
+    }
+
+    @Override
+    protected ShortestPathSolution doRun() {
+        final ShortestPathData data = getInputData();
+        final Graph graph = data.getGraph();
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        if (this.customization == null) {
+            this.customization = MultiLevelOverlay.get(graph).getCustomization(graph,
+                    data.getArcInspector());
+        }
+        final OverlayCustomization customization = this.customization;
+        final MultiLevelOverlay overlay = customization.getOverlay();
+
+        final int origin = data.getOrigin().getId();
+        final int destination = data.getDestination().getId();
+
+        // Notify observers about the first event (origin processed).
+        notifyOriginProcessed(data.getOrigin());
+
+        if (isTrivial(data.getOrigin(), data.getDestination())) {
+            return new ShortestPathSolution(data, Status.INFEASIBLE);
+        }
+
+        // Steps of the path, from the destination: an arc, or the tail of a clique
+        // edge (see MultiLevelOverlay).
+        List<Integer> steps = new ArrayList<>();
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(graph.size())) {
+            final IndexedPriorityQueue queue = workspace.getQueue();
+            workspace.visit(origin, 0);
+            workspace.update(origin, 0, -1);
+            queue.insert(origin, 0);
+
+            while (!queue.isEmpty() && !workspace.isSettled(destination)) {
+                final int node = queue.deleteMin();
+                workspace.settle(node);
+                final double distance = workspace.getDistance(node);
+
+                final int level = getSearchLevel(overlay, node, origin, destination);
+                final int cell = level >= 0 ? overlay.getCell(level, node) : -1;
+                if (level >= 0 && workspace.getPredecessorArc(node) >= -1) {
+                    final int i = overlay.getBoundaryIndex(level, node);
+                    for (int j = 0; j < overlay.getNumberOfBoundaryNodes(level, cell); ++j) {
+                        relax(workspace, overlay.getBoundaryNode(level, cell, j),
+                                distance + customization.getDistance(level, cell, i, j),
+                                -2 - node);
+                    }
+                }
+                for (int a = adjacency.getFirstArc(node), end = adjacency.getEndArc(node); a < end; ++a) {
+                    final int head = adjacency.getHead(a);
+                    if (level < 0 || overlay.getCell(level, head) != cell) {
+                        relax(workspace, head, distance + customization.getCost(a), a);
+                    }
+                }
+                notifyNodeMarked(graph.get(node));
+            }
+
+            // The destination has not been reached, the solution is infeasible...
+            if (!workspace.isSettled(destination)) {
+                return new ShortestPathSolution(data, Status.INFEASIBLE);
+            }
+            for (int node = destination; node != origin;) {
+                final int predecessor = workspace.getPredecessorArc(node);
+                steps.add(predecessor);
+                node = predecessor >= 0 ? adjacency.getArc(predecessor).getOrigin().getId()
+                        : -2 - predecessor;
+            }
+        }
+
+        // The destination has been found, notify the observers.
+        notifyDestinationReached(data.getDestination());
+
+        // Unpack the clique edges into arcs of the graph.
+        ArrayList<Arc> arcs = new ArrayList<>();
+        int node = origin;
+        for (int i = steps.size() - 1; i >= 0; --i) {
+            final int step = steps.get(i);
+            if (step >= 0) {
+                arcs.add(adjacency.getArc(step));
+                node = adjacency.getHead(step);
+            }
+            else {
+                final int next = i == 0 ? destination
+                        : steps.get(i - 1) >= 0
+                                ? adjacency.getArc(steps.get(i - 1)).getOrigin().getId()
+                                : -2 - steps.get(i - 1);
+                overlay.unpack(graph, customization,
+                        getSearchLevel(overlay, node, origin, destination), node, next,
+                        a -> arcs.add(adjacency.getArc(a)));
+                node = next;
+            }
+        }
+
+        // Create the final solution.
+        return new ShortestPathSolution(data, Status.OPTIMAL, new Path(graph, arcs));
+    }
+
+}
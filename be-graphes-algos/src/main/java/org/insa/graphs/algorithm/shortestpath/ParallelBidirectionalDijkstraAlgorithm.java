@@ -0,0 +1,17 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+
+/**
+ * Bidirectional Dijkstra in parallel mode: the backward search is run by
+ * another thread than the forward search (see
+ * {@link BidirectionalDijkstraAlgorithm}).
+ *
+ */
+public class ParallelBidirectionalDijkstraAlgorithm extends BidirectionalDijkstraAlgorithm {
+
+    public ParallelBidirectionalDijkstraAlgorithm(ShortestPathData data) {
+        super(data, QueueType.BINARY_HEAP, true);
+    }
+
+}
@@ -9,6 +9,21 @@ public abstract class ShortestPathAlgorithm extends AbstractAlgorithm<ShortestPa
         super(data);
     }
 
+    /**
+     * A path from a node to itself is not a solution: as {@link DijkstraAlgorithm},
+     * the algorithms searching paths between an origin and a destination return an
+     * infeasible solution when both are the same node.
+     * 
+     * @param origin Origin of the query.
+     * @param destination Destination of the query.
+     * 
+     * @return true if the query has no solution because its origin is its
+     *         destination.
+     */
+    public static boolean isTrivial(Node origin, Node destination) {
+        return origin.equals(destination);
+    }
+
     @Override
     public ShortestPathSolution run() {
         return (ShortestPathSolution) super.run();
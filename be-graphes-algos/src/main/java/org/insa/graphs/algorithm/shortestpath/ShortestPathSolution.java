@@ -10,6 +10,9 @@ public class ShortestPathSolution extends AbstractSolution {
     // Optimal solution.
     private final Path path;
 
+    // Cost of the solution, for solutions without path.
+    private final double cost;
+
     /**
      * Create a new infeasible shortest-path solution for the given input and
      * status.
@@ -20,6 +23,7 @@ public class ShortestPathSolution extends AbstractSolution {
     public ShortestPathSolution(ShortestPathData data, Status status) {
         super(data, status);
         this.path = null;
+        this.cost = Double.POSITIVE_INFINITY;
     }
 
     /**
@@ -32,6 +36,21 @@ public class ShortestPathSolution extends AbstractSolution {
     public ShortestPathSolution(ShortestPathData data, Status status, Path path) {
         super(data, status);
         this.path = path;
+        this.cost = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Create a new shortest-path solution without path, for algorithms that can
+     * compute the cost of a shortest path much faster than the path itself.
+     * 
+     * @param data Original input data for this solution.
+     * @param status Status of the solution (FEASIBLE / OPTIMAL).
+     * @param cost Cost of the path corresponding to the solution.
+     */
+    public ShortestPathSolution(ShortestPathData data, Status status, double cost) {
+        super(data, status);
+        this.path = null;
+        this.cost = cost;
     }
 
     @Override
@@ -40,12 +59,40 @@ public class ShortestPathSolution extends AbstractSolution {
     }
 
     /**
-     * @return The path of this solution, if any.
+     * @return true if this solution has a path, false if it is not feasible or
+     *         has been created without path.
+     */
+    public boolean hasPath() {
+        return path != null;
+    }
+
+    /**
+     * @return The path of this solution, or null if it has none (see
+     *         {@link #hasPath()}).
      */
     public Path getPath() {
         return path;
     }
 
+    /**
+     * @return The cost of this solution for the input data, i.e., the cost of its
+     *         path or the cost it has been created with, or
+     *         {@link Double#POSITIVE_INFINITY} if it is not feasible.
+     */
+    public double getCost() {
+        if (!isFeasible()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (path == null) {
+            return cost;
+        }
+        double cost = 0;
+        for (Arc arc: path.getArcs()) {
+            cost += getInputData().getCost(arc);
+        }
+        return cost;
+    }
+
     @Override
     public String toString() {
         String info = null;
@@ -54,10 +101,7 @@ public class ShortestPathSolution extends AbstractSolution {
                     getInputData().getOrigin().getId(), getInputData().getDestination().getId());
         }
         else {
-            double cost = 0;
-            for (Arc arc: getPath().getArcs()) {
-                cost += getInputData().getCost(arc);
-            }
+            double cost = getCost();
             info = String.format("Found a path from node #%d to node #%d",
                     getInputData().getOrigin().getId(), getInputData().getDestination().getId());
             if (getInputData().getMode() == Mode.LENGTH) {
@@ -0,0 +1,27 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+
+/**
+ * Time-dependent A*: the lower bound of {@link AStarAlgorithm} (travel time at
+ * the maximum speed of the graph) scaled by the minimum factor of the profiles,
+ * which never exceeds the travel time at any departure time.
+ *
+ */
+public class TimeDependentAStarAlgorithm extends TimeDependentDijkstraAlgorithm {
+
+    public TimeDependentAStarAlgorithm(TimeDependentShortestPathData data) {
+        super(data);
+    }
+
+    public TimeDependentAStarAlgorithm(TimeDependentShortestPathData data, QueueType queueType) {
+        super(data, queueType);
+    }
+
+    @Override
+    protected double getLowerBound(int node) {
+        final TimeDependentShortestPathData data = getInputData();
+        return AStarAlgorithm.getLowerBound(data, node) * data.getProfiles().getMinimumFactor();
+    }
+
+}
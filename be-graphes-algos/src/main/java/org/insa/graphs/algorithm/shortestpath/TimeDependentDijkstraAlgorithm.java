@@ -0,0 +1,56 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+import org.insa.graphs.model.Arc;
+
+/**
+ * <p>
+ * Time-dependent Dijkstra: the cost of an arc is its travel time when it is
+ * entered, i.e., at the departure time plus the cost of the path to its origin.
+ * </p>
+ *
+ * <p>
+ * Settling nodes by arrival time is exact as long as the travel time functions
+ * are FIFO (see {@link org.insa.graphs.model.TravelTimeFunction}), since a
+ * later arrival at a node can then never lead to an earlier arrival further.
+ * </p>
+ *
+ */
+public class TimeDependentDijkstraAlgorithm extends DijkstraAlgorithm {
+
+    public TimeDependentDijkstraAlgorithm(TimeDependentShortestPathData data) {
+        super(data);
+    }
+
+    public TimeDependentDijkstraAlgorithm(TimeDependentShortestPathData data,
+            QueueType queueType) {
+        super(data, queueType);
+    }
+
+    @Override
+    public TimeDependentShortestPathData getInputData() {
+        return (TimeDependentShortestPathData) super.getInputData();
+    }
+
+    @Override
+    protected double getCost(int index, Arc arc, double distance) {
+        final TimeDependentShortestPathData data = getInputData();
+        return data.getCost(arc, data.getDepartureTime() + distance);
+    }
+
+    @Override
+    public TimeDependentShortestPathSolution run() {
+        return (TimeDependentShortestPathSolution) super.run();
+    }
+
+    @Override
+    protected TimeDependentShortestPathSolution doRun() {
+        ShortestPathSolution solution = super.doRun();
+        if (!solution.isFeasible()) {
+            return new TimeDependentShortestPathSolution(getInputData(), solution.getStatus());
+        }
+        return new TimeDependentShortestPathSolution(getInputData(), solution.getStatus(),
+                solution.getPath());
+    }
+
+}
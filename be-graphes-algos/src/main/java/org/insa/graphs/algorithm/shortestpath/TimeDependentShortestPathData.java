@@ -0,0 +1,96 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.TravelTimeProfiles;
+
+public class TimeDependentShortestPathData extends ShortestPathData {
+
+    // Travel time profiles of the graph.
+    private final TravelTimeProfiles profiles;
+
+    // Time of departure from the origin, in seconds.
+    private final double departureTime;
+
+    /**
+     * Construct a new instance of TimeDependentShortestPathData with the given
+     * parameters.
+     *
+     * @param graph Graph in which the path should be looked for.
+     * @param origin Origin node of the path.
+     * @param destination Destination node of the path.
+     * @param arcInspector Filter for arcs, must be in TIME mode (its travel times
+     *        are scaled by the profiles).
+     * @param profiles Travel time profiles of the graph.
+     * @param departureTime Time of departure from the origin, in seconds (in the
+     *        period of the profiles, e.g., since midnight).
+     *
+     * @throws IllegalArgumentException if the inspector is not in TIME mode, if
+     *         the profiles override arcs of another map, or if the departure time
+     *         is not finite.
+     */
+    public TimeDependentShortestPathData(Graph graph, Node origin, Node destination,
+            ArcInspector arcInspector, TravelTimeProfiles profiles, double departureTime)
+            throws IllegalArgumentException {
+        super(graph, origin, destination, arcInspector);
+        if (getMode() != Mode.TIME) {
+            throw new IllegalArgumentException("time-dependent costs require the TIME mode");
+        }
+        if (profiles.hasArcOverrides() && !profiles.getMapId().equals(graph.getMapId())) {
+            throw new IllegalArgumentException(
+                    "profiles of map " + profiles.getMapId() + " for map " + graph.getMapId());
+        }
+        if (!Double.isFinite(departureTime)) {
+            throw new IllegalArgumentException("invalid departure time: " + departureTime);
+        }
+        this.profiles = profiles;
+        this.departureTime = departureTime;
+    }
+
+    /**
+     * @return Travel time profiles of the graph.
+     */
+    public TravelTimeProfiles getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * @return Time of departure from the origin, in seconds.
+     */
+    public double getDepartureTime() {
+        return departureTime;
+    }
+
+    /**
+     * Retrieve the cost associated with the given arc when leaving at the given
+     * time, i.e., its static cost scaled by its travel time function.
+     *
+     * @param arc Arc for which cost should be retrieved.
+     * @param time Time of departure from the origin of the arc, in seconds.
+     *
+     * @return Cost for the given arc when leaving at the given time.
+     */
+    public double getCost(Arc arc, double time) {
+        return getCost(arc) * this.profiles.getFactor(arc, time);
+    }
+
+    /**
+     * @return false, since the costs of the arcs depend on the time they are
+     *         reached.
+     */
+    @Override
+    public boolean usesInspectorCostsOnly() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        final long minutes = (long) Math.floor(this.departureTime / 60);
+        return String.format("Time-dependent shortest-path from #%d to #%d at %02d:%02d [%s]",
+                getOrigin().getId(), getDestination().getId(), Math.floorMod(minutes / 60, 24),
+                Math.floorMod(minutes, 60), this.arcInspector.toString().toLowerCase());
+    }
+}
@@ -0,0 +1,69 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Path;
+
+public class TimeDependentShortestPathSolution extends ShortestPathSolution {
+
+    /**
+     * Create a new infeasible time-dependent shortest-path solution for the given
+     * input and status.
+     *
+     * @param data Original input data for this solution.
+     * @param status Status of the solution (UNKNOWN / INFEASIBLE).
+     */
+    public TimeDependentShortestPathSolution(TimeDependentShortestPathData data, Status status) {
+        super(data, status);
+    }
+
+    /**
+     * Create a new time-dependent shortest-path solution.
+     *
+     * @param data Original input data for this solution.
+     * @param status Status of the solution (FEASIBLE / OPTIMAL).
+     * @param path Path corresponding to the solution.
+     */
+    public TimeDependentShortestPathSolution(TimeDependentShortestPathData data, Status status,
+            Path path) {
+        super(data, status, path);
+    }
+
+    @Override
+    public TimeDependentShortestPathData getInputData() {
+        return (TimeDependentShortestPathData) super.getInputData();
+    }
+
+    /**
+     * @return Time of departure from the origin, in seconds.
+     */
+    public double getDepartureTime() {
+        return getInputData().getDepartureTime();
+    }
+
+    /**
+     * @return Time of arrival at the destination, in seconds, or
+     *         {@link Double#POSITIVE_INFINITY} if this solution is not feasible.
+     */
+    public double getArrivalTime() {
+        return getDepartureTime() + getCost();
+    }
+
+    /**
+     * @return The travel time of the path of this solution when leaving at the
+     *         departure time, or {@link Double#POSITIVE_INFINITY} if it is not
+     *         feasible.
+     */
+    @Override
+    public double getCost() {
+        if (!isFeasible()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        final TimeDependentShortestPathData data = getInputData();
+        double time = data.getDepartureTime();
+        for (Arc arc: getPath().getArcs()) {
+            time += data.getCost(arc, time);
+        }
+        return time - data.getDepartureTime();
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+
+/**
+ * Utility class to evaluate an {@link ArcInspector} once for all the arcs of a
+ * graph, e.g., before a preprocessing that runs many searches with the same
+ * inspector, so that searches read the cost of an arc by its index instead of
+ * calling the inspector on the arc object.
+ *
+ */
+public final class ArcCosts {
+
+    // Costs in memory, by graph and by inspector (as long as both are reachable),
+    // softly referenced so that they can be reclaimed when memory runs low.
+    private static final Map<Graph, Map<ArcInspector, SoftReference<double[]>>> CACHE =
+            new WeakHashMap<>();
+
+    private ArcCosts() {
+    }
+
+    /**
+     * Retrieve the cost of every arc of the given graph for the given inspector,
+     * as {@link #compute(Graph, ArcInspector)}, computing them only once for a
+     * given graph and inspector as long as memory allows it (the array takes 8
+     * bytes per arc). The inspector must always give the same costs for the same
+     * arcs. The returned array must not be modified.
+     * 
+     * @param graph Graph whose arcs should be evaluated.
+     * @param inspector Inspector giving the costs of the arcs.
+     * 
+     * @return Array containing the cost of each arc.
+     */
+    public static double[] get(Graph graph, ArcInspector inspector) {
+        Map<ArcInspector, SoftReference<double[]>> graphCache;
+        synchronized (CACHE) {
+            graphCache = CACHE.computeIfAbsent(graph, g -> new WeakHashMap<>());
+        }
+        synchronized (graphCache) {
+            SoftReference<double[]> reference = graphCache.get(inspector);
+            double[] costs = reference == null ? null : reference.get();
+            if (costs == null) {
+                costs = compute(graph, inspector);
+                graphCache.put(inspector, new SoftReference<>(costs));
+            }
+            return costs;
+        }
+    }
+
+    /**
+     * Compute the cost of every arc of the given graph (in parallel), indexed as
+     * in {@link Graph#getAdjacency()}. Arcs that are not allowed by the inspector
+     * have an infinite cost.
+     * 
+     * @param graph Graph whose arcs should be evaluated.
+     * @param inspector Inspector giving the costs of the arcs.
+     * 
+     * @return Array containing the cost of each arc.
+     */
+    public static double[] compute(Graph graph, ArcInspector inspector) {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        double[] costs = new double[adjacency.getNumberOfArcs()];
+        IntStream.range(0, graph.size()).parallel().forEach(node -> {
+            for (int a = adjacency.getFirstArc(node); a < adjacency.getEndArc(node); ++a) {
+                Arc arc = adjacency.getArc(node, a);
+                costs[a] = inspector.isAllowed(arc) ? inspector.getCost(arc)
+                        : Double.POSITIVE_INFINITY;
+            }
+        });
+        return costs;
+    }
+
+    /**
+     * Compute a fingerprint of the given graph and costs, made of the number of
+     * nodes, the head and the cost of each arc, so that preprocessing files can
+     * be checked against the graph and the inspector they are read for.
+     * 
+     * @param graph A graph.
+     * @param costs Cost of each arc of the graph (infinite for forbidden arcs).
+     * 
+     * @return Fingerprint of the given graph and costs.
+     */
+    public static long fingerprint(Graph graph, double[] costs) {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        long hash = 31L * graph.size() + costs.length;
+        for (int node = 0; node < graph.size(); ++node) {
+            final int end = adjacency.getEndArc(node);
+            hash = 31 * hash + end;
+            for (int a = adjacency.getFirstArc(node); a < end; ++a) {
+                hash = 31 * hash + adjacency.getHead(a);
+                hash = 31 * hash + Double.hashCode(costs[a]);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @param graph A graph.
+     * @param inspector An arc inspector.
+     * 
+     * @return Fingerprint of the given graph and of the costs of its arcs for the
+     *         given inspector (see {@link #fingerprint(Graph, double[])}).
+     */
+    public static long fingerprint(Graph graph, ArcInspector inspector) {
+        return fingerprint(graph, get(graph, inspector));
+    }
+
+    /**
+     * Compute the cost of the shortest paths from every node of the given graph to
+     * the given target, with a backward Dijkstra search. These costs are exact and
+     * consistent lower bounds for searches towards the target.
+     * 
+     * @param graph Graph whose arcs have the given costs.
+     * @param costs Cost of each arc (infinite for forbidden arcs), e.g., computed
+     *        by {@link #compute(Graph, ArcInspector)}.
+     * @param target ID of the target node.
+     * 
+     * @return Array containing the cost from each node to the target, infinite if
+     *         there is no path.
+     */
+    public static double[] computeDistancesTo(Graph graph, double[] costs, int target) {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int nbNodes = graph.size();
+        double[] distances = new double[nbNodes];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(nbNodes)) {
+            OneToManySearch.run(adjacency, costs, true, target, workspace, (node, distance) -> {
+                distances[node] = distance;
+                return true;
+            });
+        }
+        return distances;
+    }
+
+}
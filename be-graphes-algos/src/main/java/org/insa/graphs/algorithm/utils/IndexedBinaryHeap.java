@@ -0,0 +1,29 @@
+package org.insa.graphs.algorithm.utils;
+
+/**
+ * Implements a binary heap of integer elements with {@code double} keys, see
+ * {@link IndexedDaryHeap}.
+ * 
+ */
+public class IndexedBinaryHeap extends IndexedDaryHeap {
+
+    /**
+     * Construct a new empty binary heap for elements in {@code [0, capacity)}.
+     * The heap grows if larger elements are inserted.
+     * 
+     * @param capacity Expected upper bound (exclusive) of the elements.
+     */
+    public IndexedBinaryHeap(int capacity) {
+        super(capacity, 2);
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     * 
+     * @param heap Heap to copy.
+     */
+    public IndexedBinaryHeap(IndexedBinaryHeap heap) {
+        super(heap);
+    }
+
+}
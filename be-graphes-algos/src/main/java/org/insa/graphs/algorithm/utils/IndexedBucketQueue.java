@@ -0,0 +1,280 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements a bucket queue (Dial's algorithm) of integer elements with
+ * {@code double} keys.
+ * </p>
+ * 
+ * <p>
+ * Keys are rounded down to a multiple of a bucket width, and elements are put
+ * in a circular array of buckets indexed by rounded key. As in a radix heap,
+ * keys are expected to be monotone, and the keys in the queue are expected to
+ * span a small number of buckets (for Dijkstra, the maximum cost of an arc
+ * divided by the bucket width): {@link #insert(int, double)} and
+ * {@link #decreaseKey(int, double)} are then <i>O(1)</i>, and
+ * {@link #deleteMin()} scans the buckets from the last removed key. This works
+ * best with integer costs (e.g., lengths in meters) and a width of 1.
+ * </p>
+ * 
+ * <p>
+ * Elements of the same bucket are searched for the minimum key, so the queue is
+ * exact whatever the width (the cost of a search being proportional to the
+ * size of the bucket). The array of buckets grows when a key is too far from
+ * the current bucket, and keys smaller than the current bucket are put in the
+ * current bucket.
+ * </p>
+ * 
+ */
+public class IndexedBucketQueue implements IndexedPriorityQueue {
+
+    // Value of bucket for elements that are not in the queue.
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    // Width of the buckets.
+    private final double width;
+
+    // Number of elements in queue.
+    private int currentSize;
+
+    // Index of the current bucket (the bucket of the last removed key).
+    private long current;
+
+    // First element of each bucket (the bucket of index i being at position i &
+    // mask), or -1.
+    private int[] first;
+    private int mask;
+
+    // Key, bucket, and next and previous elements in the bucket of each element.
+    private double[] keys;
+    private long[] bucket;
+    private int[] next, prev;
+
+    /**
+     * Construct a new empty queue for elements in {@code [0, capacity)}. The queue
+     * grows if larger elements are inserted.
+     * 
+     * @param capacity Expected upper bound (exclusive) of the elements.
+     * @param width Width of the buckets (strictly positive).
+     * 
+     * @throws IllegalArgumentException if the width is not strictly positive.
+     */
+    public IndexedBucketQueue(int capacity, double width) throws IllegalArgumentException {
+        if (!(width > 0) || Double.isInfinite(width)) {
+            throw new IllegalArgumentException("invalid bucket width: " + width);
+        }
+        this.width = width;
+        this.currentSize = 0;
+        this.current = 0;
+        this.first = new int[64];
+        Arrays.fill(this.first, -1);
+        this.mask = this.first.length - 1;
+        this.keys = new double[capacity];
+        this.bucket = new long[capacity];
+        Arrays.fill(this.bucket, ABSENT);
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+    }
+
+    /**
+     * Construct a copy of the given queue.
+     * 
+     * @param queue Queue to copy.
+     */
+    public IndexedBucketQueue(IndexedBucketQueue queue) {
+        this.width = queue.width;
+        this.currentSize = queue.currentSize;
+        this.current = queue.current;
+        this.first = queue.first.clone();
+        this.mask = queue.mask;
+        this.keys = queue.keys.clone();
+        this.bucket = queue.bucket.clone();
+        this.next = queue.next.clone();
+        this.prev = queue.prev.clone();
+    }
+
+    /**
+     * @return Width of the buckets of this queue.
+     */
+    public double getBucketWidth() {
+        return this.width;
+    }
+
+    /**
+     * Add the given element to the bucket corresponding to its key, growing the
+     * array of buckets if needed.
+     */
+    private void push(int element) {
+        long b = (long) Math.floor(this.keys[element] / this.width);
+        if (this.currentSize == 0 || b < this.current) {
+            // An empty queue restarts from the bucket of the new key.
+            this.current = this.currentSize == 0 ? b : this.current;
+            b = Math.max(b, this.current);
+        }
+        if (b - this.current > this.mask) {
+            grow(b - this.current + 1);
+        }
+        link(element, b);
+    }
+
+    /**
+     * Put the given element at the head of the given bucket.
+     */
+    private void link(int element, long b) {
+        final int slot = (int) (b & this.mask);
+        this.bucket[element] = b;
+        this.prev[element] = -1;
+        this.next[element] = this.first[slot];
+        if (this.first[slot] != -1) {
+            this.prev[this.first[slot]] = element;
+        }
+        this.first[slot] = element;
+    }
+
+    /**
+     * Remove the given element from its bucket.
+     */
+    private void unlink(int element) {
+        final int p = this.prev[element], n = this.next[element];
+        if (p == -1) {
+            this.first[(int) (this.bucket[element] & this.mask)] = n;
+        }
+        else {
+            this.next[p] = n;
+        }
+        if (n != -1) {
+            this.prev[n] = p;
+        }
+    }
+
+    /**
+     * Grow the array of buckets so that it contains at least the given number of
+     * buckets.
+     */
+    private void grow(long nbBuckets) {
+        if (nbBuckets > (1 << 30)) {
+            throw new IllegalArgumentException("keys are too far apart for a bucket width of "
+                    + this.width + ", use a larger width");
+        }
+        final int[] oldFirst = this.first;
+        int length = oldFirst.length;
+        while (length < nbBuckets) {
+            length *= 2;
+        }
+        this.first = new int[length];
+        Arrays.fill(this.first, -1);
+        this.mask = length - 1;
+        for (int slot = 0; slot < oldFirst.length; ++slot) {
+            int e = oldFirst[slot];
+            while (e != -1) {
+                final int n = this.next[e];
+                link(e, this.bucket[e]);
+                e = n;
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(int element) {
+        return element >= 0 && element < this.bucket.length && this.bucket[element] != ABSENT;
+    }
+
+    @Override
+    public double getKey(int element) throws ElementNotFoundException {
+        if (!contains(element)) {
+            throw new ElementNotFoundException(element);
+        }
+        return this.keys[element];
+    }
+
+    @Override
+    public void insert(int element, double key) throws IllegalArgumentException {
+        if (contains(element)) {
+            throw new IllegalArgumentException("element already in the queue: " + element);
+        }
+        if (element >= this.bucket.length) {
+            final int oldLength = this.bucket.length;
+            final int length = Math.max(element + 1, 2 * oldLength);
+            this.keys = Arrays.copyOf(this.keys, length);
+            this.bucket = Arrays.copyOf(this.bucket, length);
+            Arrays.fill(this.bucket, oldLength, length, ABSENT);
+            this.next = Arrays.copyOf(this.next, length);
+            this.prev = Arrays.copyOf(this.prev, length);
+        }
+        this.keys[element] = key;
+        push(element);
+        ++this.currentSize;
+    }
+
+    @Override
+    public void decreaseKey(int element, double key)
+            throws ElementNotFoundException, IllegalArgumentException {
+        if (key > getKey(element)) {
+            throw new IllegalArgumentException("cannot increase key of " + element + " from "
+                    + this.keys[element] + " to " + key);
+        }
+        unlink(element);
+        this.keys[element] = key;
+        push(element);
+    }
+
+    @Override
+    public void remove(int element) throws ElementNotFoundException {
+        if (!contains(element)) {
+            throw new ElementNotFoundException(element);
+        }
+        unlink(element);
+        this.bucket[element] = ABSENT;
+        --this.currentSize;
+    }
+
+    @Override
+    public int findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        int slot = (int) (this.current & this.mask);
+        while (this.first[slot] == -1) {
+            ++this.current;
+            slot = (int) (this.current & this.mask);
+        }
+        int min = this.first[slot];
+        for (int e = this.next[min]; e != -1; e = this.next[e]) {
+            if (this.keys[e] < this.keys[min]) {
+                min = e;
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public int deleteMin() throws EmptyPriorityQueueException {
+        final int min = findMin();
+        remove(min);
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        for (int slot = 0; slot < this.first.length; ++slot) {
+            for (int e = this.first[slot]; e != -1; e = this.next[e]) {
+                this.bucket[e] = ABSENT;
+            }
+            this.first[slot] = -1;
+        }
+        this.currentSize = 0;
+    }
+
+}
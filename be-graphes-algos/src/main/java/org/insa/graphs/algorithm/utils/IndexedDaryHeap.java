@@ -0,0 +1,268 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements a d-ary heap of integer elements with {@code double} keys, i.e., a
+ * heap whose nodes have {@code d} children instead of 2.
+ * </p>
+ * 
+ * <p>
+ * A larger arity makes the heap shallower, so {@link #insert(int, double)} and
+ * {@link #decreaseKey(int, double)} are faster while
+ * {@link #deleteMin()} compares more children per level. Since the children of
+ * a node are contiguous in memory, 4-ary and 8-ary heaps usually behave better
+ * than binary heaps on large queues.
+ * </p>
+ * 
+ * <p>
+ * Elements and keys are stored in primitive arrays, and the position of each
+ * element in the heap is kept in an array indexed by element, so that
+ * {@link #contains(int)} is <i>O(1)</i> and {@link #decreaseKey(int, double)}
+ * and {@link #remove(int)} are <i>O(log n)</i>.
+ * </p>
+ * 
+ */
+public class IndexedDaryHeap implements IndexedPriorityQueue {
+
+    // Number of children of each node.
+    private final int arity;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // Elements and keys, by position in the heap.
+    private int[] elements;
+    private double[] keys;
+
+    // Position of each element in the heap, or -1 if the element is not in the
+    // heap.
+    private int[] positions;
+
+    /**
+     * Construct a new empty heap for elements in {@code [0, capacity)}. The heap
+     * grows if larger elements are inserted.
+     * 
+     * @param capacity Expected upper bound (exclusive) of the elements.
+     * @param arity Number of children of each node of the heap (at least 2).
+     * 
+     * @throws IllegalArgumentException if the arity is less than 2.
+     */
+    public IndexedDaryHeap(int capacity, int arity) throws IllegalArgumentException {
+        if (arity < 2) {
+            throw new IllegalArgumentException("invalid arity: " + arity);
+        }
+        this.arity = arity;
+        this.currentSize = 0;
+        this.elements = new int[16];
+        this.keys = new double[16];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, -1);
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     * 
+     * @param heap Heap to copy.
+     */
+    public IndexedDaryHeap(IndexedDaryHeap heap) {
+        this.arity = heap.arity;
+        this.currentSize = heap.currentSize;
+        this.elements = heap.elements.clone();
+        this.keys = heap.keys.clone();
+        this.positions = heap.positions.clone();
+    }
+
+    /**
+     * @return Number of children of each node of this heap.
+     */
+    public int getArity() {
+        return this.arity;
+    }
+
+    /**
+     * @return Index of the parent of the given index.
+     */
+    private int indexParent(int index) {
+        return (index - 1) / this.arity;
+    }
+
+    /**
+     * @return Index of the first child of the given index.
+     */
+    private int indexFirstChild(int index) {
+        return index * this.arity + 1;
+    }
+
+    /**
+     * Put the given element at the given index.
+     */
+    private void place(int index, int element, double key) {
+        this.elements[index] = element;
+        this.keys[index] = key;
+        this.positions[element] = index;
+    }
+
+    /**
+     * Internal method to percolate up in the heap.
+     * 
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateUp(int index) {
+        final int element = this.elements[index];
+        final double key = this.keys[index];
+        while (index > 0 && key < this.keys[indexParent(index)]) {
+            final int parent = indexParent(index);
+            place(index, this.elements[parent], this.keys[parent]);
+            index = parent;
+        }
+        place(index, element, key);
+    }
+
+    /**
+     * Internal method to percolate down in the heap.
+     * 
+     * @param index Index at which the percolate begins.
+     */
+    private void percolateDown(int index) {
+        final int element = this.elements[index];
+        final double key = this.keys[index];
+        for (int first = indexFirstChild(index); first < this.currentSize; first = indexFirstChild(
+                index)) {
+            // Find the smallest child.
+            int child = first;
+            for (int c = first + 1, end = Math.min(first + this.arity, this.currentSize); c < end; ++c) {
+                if (this.keys[c] < this.keys[child]) {
+                    child = c;
+                }
+            }
+            if (this.keys[child] >= key) {
+                break;
+            }
+            place(index, this.elements[child], this.keys[child]);
+            index = child;
+        }
+        place(index, element, key);
+    }
+
+    /**
+     * @return Position of the given element in the heap.
+     * 
+     * @throws ElementNotFoundException if the element is not in the heap.
+     */
+    private int positionOf(int element) throws ElementNotFoundException {
+        if (!contains(element)) {
+            throw new ElementNotFoundException(element);
+        }
+        return this.positions[element];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(int element) {
+        return element >= 0 && element < this.positions.length && this.positions[element] != -1;
+    }
+
+    @Override
+    public double getKey(int element) throws ElementNotFoundException {
+        return this.keys[positionOf(element)];
+    }
+
+    @Override
+    public void insert(int element, double key) throws IllegalArgumentException {
+        if (contains(element)) {
+            throw new IllegalArgumentException("element already in the heap: " + element);
+        }
+        if (element >= this.positions.length) {
+            final int oldLength = this.positions.length;
+            this.positions = Arrays.copyOf(this.positions, Math.max(element + 1, 2 * oldLength));
+            Arrays.fill(this.positions, oldLength, this.positions.length, -1);
+        }
+        if (this.currentSize == this.elements.length) {
+            this.elements = Arrays.copyOf(this.elements, 2 * this.currentSize);
+            this.keys = Arrays.copyOf(this.keys, 2 * this.currentSize);
+        }
+        place(this.currentSize, element, key);
+        percolateUp(this.currentSize++);
+    }
+
+    @Override
+    public void decreaseKey(int element, double key)
+            throws ElementNotFoundException, IllegalArgumentException {
+        final int index = positionOf(element);
+        if (key > this.keys[index]) {
+            throw new IllegalArgumentException(
+                    "cannot increase key of " + element + " from " + this.keys[index] + " to " + key);
+        }
+        this.keys[index] = key;
+        percolateUp(index);
+    }
+
+    @Override
+    public void remove(int element) throws ElementNotFoundException {
+        final int index = positionOf(element);
+        this.positions[element] = -1;
+        if (index == --this.currentSize) {
+            return;
+        }
+
+        // Move the last element in place of the removed one, and restore the heap
+        // property in the right direction.
+        final double key = this.keys[this.currentSize];
+        place(index, this.elements[this.currentSize], key);
+        if (index > 0 && key < this.keys[indexParent(index)]) {
+            percolateUp(index);
+        }
+        else {
+            percolateDown(index);
+        }
+    }
+
+    @Override
+    public int findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.elements[0];
+    }
+
+    @Override
+    public int deleteMin() throws EmptyPriorityQueueException {
+        final int min = findMin();
+        this.positions[min] = -1;
+        if (--this.currentSize > 0) {
+            place(0, this.elements[this.currentSize], this.keys[this.currentSize]);
+            percolateDown(0);
+        }
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.currentSize; ++i) {
+            this.positions[this.elements[i]] = -1;
+        }
+        this.currentSize = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.currentSize; ++i) {
+            builder.append(i == 0 ? "" : ", ").append(this.elements[i]).append('=')
+                    .append(this.keys[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+}
@@ -0,0 +1,266 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements a pairing heap of integer elements with {@code double} keys.
+ * </p>
+ * 
+ * <p>
+ * A pairing heap is a heap-ordered multi-way tree: {@link #insert(int, double)}
+ * and {@link #decreaseKey(int, double)} only link a tree to the root in
+ * <i>O(1)</i>, and the work is done by {@link #deleteMin()}, which merges the
+ * children of the root in two passes in <i>O(log n)</i> amortized time. This
+ * makes it a good fit for searches with many key decreases.
+ * </p>
+ * 
+ * <p>
+ * Trees are stored in primitive arrays indexed by element (first child, next
+ * sibling and previous sibling or parent), so that no node object is allocated.
+ * </p>
+ * 
+ */
+public class IndexedPairingHeap implements IndexedPriorityQueue {
+
+    // Value of prev for elements that are not in the heap.
+    private static final int ABSENT = -2;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // Root of the heap, or -1 if the heap is empty.
+    private int root;
+
+    // Key, first child, next sibling, and previous sibling (or parent for the first
+    // child, -1 for the root, ABSENT if not in the heap) of each element.
+    private double[] keys;
+    private int[] child, next, prev;
+
+    // Buffer used to merge trees.
+    private int[] buffer;
+
+    /**
+     * Construct a new empty heap for elements in {@code [0, capacity)}. The heap
+     * grows if larger elements are inserted.
+     * 
+     * @param capacity Expected upper bound (exclusive) of the elements.
+     */
+    public IndexedPairingHeap(int capacity) {
+        this.currentSize = 0;
+        this.root = -1;
+        this.keys = new double[capacity];
+        this.child = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        Arrays.fill(this.prev, ABSENT);
+        this.buffer = new int[16];
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     * 
+     * @param heap Heap to copy.
+     */
+    public IndexedPairingHeap(IndexedPairingHeap heap) {
+        this.currentSize = heap.currentSize;
+        this.root = heap.root;
+        this.keys = heap.keys.clone();
+        this.child = heap.child.clone();
+        this.next = heap.next.clone();
+        this.prev = heap.prev.clone();
+        this.buffer = new int[16];
+    }
+
+    /**
+     * Make the root of the tree with the larger key the first child of the other
+     * root.
+     * 
+     * @return New root.
+     */
+    private int link(int a, int b) {
+        if (this.keys[b] < this.keys[a]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        final int first = this.child[a];
+        this.next[b] = first;
+        if (first != -1) {
+            this.prev[first] = b;
+        }
+        this.prev[b] = a;
+        this.child[a] = b;
+        return a;
+    }
+
+    /**
+     * Detach the tree rooted at the given element from its parent.
+     */
+    private void detach(int element) {
+        final int p = this.prev[element], n = this.next[element];
+        if (this.child[p] == element) {
+            this.child[p] = n;
+        }
+        else {
+            this.next[p] = n;
+        }
+        if (n != -1) {
+            this.prev[n] = p;
+        }
+        this.next[element] = -1;
+        this.prev[element] = -1;
+    }
+
+    /**
+     * Merge the given list of siblings in two passes: pairs of trees are linked
+     * from left to right, then the resulting trees are linked from right to left.
+     * 
+     * @return Root of the merged tree, or -1 if the list is empty.
+     */
+    private int mergePairs(int first) {
+        int count = 0;
+        while (first != -1) {
+            int a = first, b = this.next[a];
+            if (b == -1) {
+                first = -1;
+            }
+            else {
+                first = this.next[b];
+                this.next[b] = -1;
+                a = link(a, b);
+            }
+            this.next[a] = -1;
+            if (count == this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, 2 * count);
+            }
+            this.buffer[count++] = a;
+        }
+        if (count == 0) {
+            return -1;
+        }
+        int merged = this.buffer[--count];
+        while (count > 0) {
+            merged = link(this.buffer[--count], merged);
+        }
+        this.prev[merged] = -1;
+        this.next[merged] = -1;
+        return merged;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(int element) {
+        return element >= 0 && element < this.prev.length && this.prev[element] != ABSENT;
+    }
+
+    @Override
+    public double getKey(int element) throws ElementNotFoundException {
+        if (!contains(element)) {
+            throw new ElementNotFoundException(element);
+        }
+        return this.keys[element];
+    }
+
+    @Override
+    public void insert(int element, double key) throws IllegalArgumentException {
+        if (contains(element)) {
+            throw new IllegalArgumentException("element already in the heap: " + element);
+        }
+        if (element >= this.prev.length) {
+            final int oldLength = this.prev.length;
+            final int length = Math.max(element + 1, 2 * oldLength);
+            this.keys = Arrays.copyOf(this.keys, length);
+            this.child = Arrays.copyOf(this.child, length);
+            this.next = Arrays.copyOf(this.next, length);
+            this.prev = Arrays.copyOf(this.prev, length);
+            Arrays.fill(this.prev, oldLength, length, ABSENT);
+        }
+        this.keys[element] = key;
+        this.child[element] = -1;
+        this.next[element] = -1;
+        this.prev[element] = -1;
+        this.root = this.root == -1 ? element : link(this.root, element);
+        ++this.currentSize;
+    }
+
+    @Override
+    public void decreaseKey(int element, double key)
+            throws ElementNotFoundException, IllegalArgumentException {
+        if (key > getKey(element)) {
+            throw new IllegalArgumentException("cannot increase key of " + element + " from "
+                    + this.keys[element] + " to " + key);
+        }
+        this.keys[element] = key;
+        if (element != this.root) {
+            detach(element);
+            this.root = link(this.root, element);
+        }
+    }
+
+    @Override
+    public void remove(int element) throws ElementNotFoundException {
+        if (!contains(element)) {
+            throw new ElementNotFoundException(element);
+        }
+        if (element == this.root) {
+            deleteMin();
+            return;
+        }
+        detach(element);
+        final int merged = mergePairs(this.child[element]);
+        if (merged != -1) {
+            this.root = link(this.root, merged);
+        }
+        this.prev[element] = ABSENT;
+        --this.currentSize;
+    }
+
+    @Override
+    public int findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return this.root;
+    }
+
+    @Override
+    public int deleteMin() throws EmptyPriorityQueueException {
+        final int min = findMin();
+        this.root = mergePairs(this.child[min]);
+        this.prev[min] = ABSENT;
+        --this.currentSize;
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        // Walk the trees to mark their elements as absent.
+        int count = 0;
+        if (this.root != -1) {
+            this.buffer[count++] = this.root;
+        }
+        while (count > 0) {
+            final int element = this.buffer[--count];
+            for (int c = this.child[element]; c != -1; c = this.next[c]) {
+                if (count == this.buffer.length) {
+                    this.buffer = Arrays.copyOf(this.buffer, 2 * count);
+                }
+                this.buffer[count++] = c;
+            }
+            this.prev[element] = ABSENT;
+        }
+        this.root = -1;
+        this.currentSize = 0;
+    }
+
+}
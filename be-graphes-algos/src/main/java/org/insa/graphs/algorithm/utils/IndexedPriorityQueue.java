@@ -0,0 +1,175 @@
+package org.insa.graphs.algorithm.utils;
+
+/**
+ * <p>
+ * Interface representing a priority queue of integer elements (e.g., node IDs)
+ * with {@code double} keys.
+ * </p>
+ * 
+ * <p>
+ * Unlike {@link PriorityQueue}, elements are not compared, each element is
+ * associated with an explicit key that can be decreased while the element is in
+ * the queue. Elements are expected to be small non-negative integers, since
+ * implementations index their internal structures by element.
+ * </p>
+ * 
+ * Implementation should enforce the required complexity of each method.
+ * 
+ */
+public interface IndexedPriorityQueue {
+
+    /**
+     * Check if the priority queue is empty.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     * 
+     * @return true if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty();
+
+    /**
+     * Get the number of elements in this queue.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     * 
+     * @return Current size (number of elements) of this queue.
+     */
+    public int size();
+
+    /**
+     * Check if the given element is in this queue.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     * 
+     * @param element Element to look for.
+     * 
+     * @return true if the element is in this queue, false otherwise.
+     */
+    public boolean contains(int element);
+
+    /**
+     * Retrieve the key of the given element.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     * 
+     * @param element Element of this queue.
+     * 
+     * @return Key of the element.
+     * 
+     * @throws ElementNotFoundException if the element is not in this queue.
+     */
+    public double getKey(int element) throws ElementNotFoundException;
+
+    /**
+     * Insert the given element into the queue.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     * 
+     * @param element Element to insert.
+     * @param key Key of the element.
+     * 
+     * @throws IllegalArgumentException if the element is already in this queue.
+     */
+    public void insert(int element, double key) throws IllegalArgumentException;
+
+    /**
+     * Decrease the key of the given element.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     * 
+     * @param element Element of this queue.
+     * @param key New key of the element, not greater than its current key.
+     * 
+     * @throws ElementNotFoundException if the element is not in this queue.
+     * @throws IllegalArgumentException if the new key is greater than the current
+     *         key of the element.
+     */
+    public void decreaseKey(int element, double key)
+            throws ElementNotFoundException, IllegalArgumentException;
+
+    /**
+     * Insert the given element into the queue, or decrease its key if it is
+     * already in the queue, e.g., when a search finds a shorter path to a node.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     * 
+     * @param element Element to insert or update.
+     * @param key Key of the element, not greater than its current key if it is
+     *        already in this queue.
+     * 
+     * @throws IllegalArgumentException if the element is in this queue with a
+     *         smaller key.
+     */
+    public default void insertOrDecrease(int element, double key)
+            throws IllegalArgumentException {
+        if (contains(element)) {
+            decreaseKey(element, key);
+        }
+        else {
+            insert(element, key);
+        }
+    }
+
+    /**
+     * Remove the given element from the priority queue.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     * 
+     * @param element Element to remove.
+     * 
+     * @throws ElementNotFoundException if the element is not in this queue.
+     */
+    public void remove(int element) throws ElementNotFoundException;
+
+    /**
+     * Retrieve (but not remove) the element with the smallest key in the queue.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(1)</i>
+     * </p>
+     * 
+     * @return The element with the smallest key.
+     * 
+     * @throws EmptyPriorityQueueException if this queue is empty.
+     */
+    public int findMin() throws EmptyPriorityQueueException;
+
+    /**
+     * Remove and return the element with the smallest key in the queue.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(log n)</i>
+     * </p>
+     * 
+     * @return The element with the smallest key.
+     * 
+     * @throws EmptyPriorityQueueException if this queue is empty.
+     */
+    public int deleteMin() throws EmptyPriorityQueueException;
+
+    /**
+     * Remove all the elements from this queue.
+     * 
+     * <p>
+     * <b>Complexity:</b> <i>O(n)</i>
+     * </p>
+     */
+    public void clear();
+
+}
@@ -0,0 +1,88 @@
+package org.insa.graphs.algorithm.utils;
+
+/**
+ * Factory class used to create the various implementations of
+ * {@link IndexedPriorityQueue}.
+ *
+ */
+public class IndexedPriorityQueueFactory {
+
+    /**
+     * Available implementations of indexed priority queues.
+     */
+    public enum QueueType {
+
+        /**
+         * Binary heap, see {@link IndexedBinaryHeap}.
+         */
+        BINARY_HEAP("Binary heap"),
+
+        /**
+         * 4-ary heap, see {@link IndexedDaryHeap}.
+         */
+        FOUR_ARY_HEAP("4-ary heap"),
+
+        /**
+         * 8-ary heap, see {@link IndexedDaryHeap}.
+         */
+        EIGHT_ARY_HEAP("8-ary heap"),
+
+        /**
+         * Pairing heap, see {@link IndexedPairingHeap}.
+         */
+        PAIRING_HEAP("Pairing heap"),
+
+        /**
+         * Monotone radix heap, see {@link IndexedRadixHeap}.
+         */
+        RADIX_HEAP("Radix heap"),
+
+        /**
+         * Monotone bucket queue (Dial) with buckets of width 1, see
+         * {@link IndexedBucketQueue}.
+         */
+        BUCKET_QUEUE("Bucket queue (Dial)");
+
+        // Name of the queue type.
+        private final String name;
+
+        private QueueType(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+
+    }
+
+    /**
+     * Create a new empty queue of the given type.
+     * 
+     * @param type Type of the queue.
+     * @param capacity Expected upper bound (exclusive) of the elements of the
+     *        queue.
+     * 
+     * @return A new empty queue of the given type.
+     */
+    public static IndexedPriorityQueue createQueue(QueueType type, int capacity) {
+        switch (type) {
+        case BINARY_HEAP:
+            return new IndexedBinaryHeap(capacity);
+        case FOUR_ARY_HEAP:
+            return new IndexedDaryHeap(capacity, 4);
+        case EIGHT_ARY_HEAP:
+            return new IndexedDaryHeap(capacity, 8);
+        case PAIRING_HEAP:
+            return new IndexedPairingHeap(capacity);
+        case RADIX_HEAP:
+            return new IndexedRadixHeap(capacity);
+        case BUCKET_QUEUE:
+            return new IndexedBucketQueue(capacity, 1.0);
+        default:
+            throw new IllegalArgumentException("unknown queue type: " + type);
+        }
+    }
+
+}
@@ -0,0 +1,283 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Implements a monotone radix heap of integer elements with {@code double}
+ * keys.
+ * </p>
+ * 
+ * <p>
+ * A radix heap relies on the keys being monotone, which is the case in
+ * Dijkstra's algorithm: a key inserted (or decreased) is never smaller than the
+ * last key removed by {@link #deleteMin()}. Elements are put in 65 buckets
+ * according to the highest bit in which their key differs from the last removed
+ * key, so {@link #insert(int, double)} and {@link #decreaseKey(int, double)}
+ * are <i>O(1)</i>. {@link #deleteMin()} empties the first non-empty bucket into
+ * lower buckets, each element moving down at most 64 times.
+ * </p>
+ * 
+ * <p>
+ * Keys are compared through their IEEE 754 representation, so any
+ * {@code double} key is accepted. Keys smaller than the last removed key are
+ * tolerated (the queue remains correct) but lose the complexity guarantees.
+ * </p>
+ * 
+ */
+public class IndexedRadixHeap implements IndexedPriorityQueue {
+
+    // Number of buckets (one per bit, plus one for keys equal to the last removed
+    // key).
+    private static final int NB_BUCKETS = 65;
+
+    // Value of bucket for elements that are not in the heap.
+    private static final int ABSENT = -1;
+
+    // Number of elements in heap.
+    private int currentSize;
+
+    // Last removed key, as an unsigned comparable integer (see toBits).
+    private long last;
+
+    // Number of elements in bucket 0 whose key is smaller than the last removed
+    // key (in a monotone usage, this is always 0).
+    private int nbBelowLast;
+
+    // First element of each bucket, or -1.
+    private final int[] first;
+
+    // Key (as given and as bits), bucket, and next and previous elements in the
+    // bucket of each element.
+    private double[] keys;
+    private long[] bits;
+    private int[] bucket, next, prev;
+
+    /**
+     * Construct a new empty heap for elements in {@code [0, capacity)}. The heap
+     * grows if larger elements are inserted.
+     * 
+     * @param capacity Expected upper bound (exclusive) of the elements.
+     */
+    public IndexedRadixHeap(int capacity) {
+        this.currentSize = 0;
+        this.last = 0;
+        this.nbBelowLast = 0;
+        this.first = new int[NB_BUCKETS];
+        Arrays.fill(this.first, -1);
+        this.keys = new double[capacity];
+        this.bits = new long[capacity];
+        this.bucket = new int[capacity];
+        Arrays.fill(this.bucket, ABSENT);
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+    }
+
+    /**
+     * Construct a copy of the given heap.
+     * 
+     * @param heap Heap to copy.
+     */
+    public IndexedRadixHeap(IndexedRadixHeap heap) {
+        this.currentSize = heap.currentSize;
+        this.last = heap.last;
+        this.nbBelowLast = heap.nbBelowLast;
+        this.first = heap.first.clone();
+        this.keys = heap.keys.clone();
+        this.bits = heap.bits.clone();
+        this.bucket = heap.bucket.clone();
+        this.next = heap.next.clone();
+        this.prev = heap.prev.clone();
+    }
+
+    /**
+     * @return Representation of the given key as a long whose unsigned order is
+     *         the order of the keys.
+     */
+    private static long toBits(double key) {
+        final long bits = Double.doubleToLongBits(key);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /**
+     * @return Bucket of the given key, relative to the last removed key.
+     */
+    private int bucketOf(long bits) {
+        if (Long.compareUnsigned(bits, this.last) <= 0) {
+            return 0;
+        }
+        return 64 - Long.numberOfLeadingZeros(bits ^ this.last);
+    }
+
+    /**
+     * Add the given element to the bucket corresponding to its key.
+     */
+    private void push(int element) {
+        final int b = bucketOf(this.bits[element]);
+        if (this.bits[element] != this.last && b == 0) {
+            ++this.nbBelowLast;
+        }
+        this.bucket[element] = b;
+        this.prev[element] = -1;
+        this.next[element] = this.first[b];
+        if (this.first[b] != -1) {
+            this.prev[this.first[b]] = element;
+        }
+        this.first[b] = element;
+    }
+
+    /**
+     * Remove the given element from its bucket.
+     */
+    private void unlink(int element) {
+        final int p = this.prev[element], n = this.next[element];
+        if (this.bits[element] != this.last && this.bucket[element] == 0) {
+            --this.nbBelowLast;
+        }
+        if (p == -1) {
+            this.first[this.bucket[element]] = n;
+        }
+        else {
+            this.next[p] = n;
+        }
+        if (n != -1) {
+            this.prev[n] = p;
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.currentSize == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize;
+    }
+
+    @Override
+    public boolean contains(int element) {
+        return element >= 0 && element < this.bucket.length && this.bucket[element] != ABSENT;
+    }
+
+    @Override
+    public double getKey(int element) throws ElementNotFoundException {
+        if (!contains(element)) {
+            throw new ElementNotFoundException(element);
+        }
+        return this.keys[element];
+    }
+
+    @Override
+    public void insert(int element, double key) throws IllegalArgumentException {
+        if (contains(element)) {
+            throw new IllegalArgumentException("element already in the heap: " + element);
+        }
+        if (element >= this.bucket.length) {
+            final int oldLength = this.bucket.length;
+            final int length = Math.max(element + 1, 2 * oldLength);
+            this.keys = Arrays.copyOf(this.keys, length);
+            this.bits = Arrays.copyOf(this.bits, length);
+            this.bucket = Arrays.copyOf(this.bucket, length);
+            Arrays.fill(this.bucket, oldLength, length, ABSENT);
+            this.next = Arrays.copyOf(this.next, length);
+            this.prev = Arrays.copyOf(this.prev, length);
+        }
+        this.keys[element] = key;
+        this.bits[element] = toBits(key);
+        push(element);
+        ++this.currentSize;
+    }
+
+    @Override
+    public void decreaseKey(int element, double key)
+            throws ElementNotFoundException, IllegalArgumentException {
+        if (key > getKey(element)) {
+            throw new IllegalArgumentException("cannot increase key of " + element + " from "
+                    + this.keys[element] + " to " + key);
+        }
+        unlink(element);
+        this.keys[element] = key;
+        this.bits[element] = toBits(key);
+        push(element);
+    }
+
+    @Override
+    public void remove(int element) throws ElementNotFoundException {
+        if (!contains(element)) {
+            throw new ElementNotFoundException(element);
+        }
+        unlink(element);
+        this.bucket[element] = ABSENT;
+        --this.currentSize;
+    }
+
+    /**
+     * Move the elements of the first non-empty bucket to lower buckets, so that
+     * the minimum element ends up in bucket 0.
+     * 
+     * @return The element with the smallest key.
+     */
+    private int redistribute() {
+        int b = 0;
+        while (this.first[b] == -1) {
+            ++b;
+        }
+
+        // Find the minimum of the bucket. Bucket 0 only needs to be searched if it
+        // contains keys smaller than the last removed key.
+        int min = this.first[b];
+        if (b == 0 && this.nbBelowLast == 0) {
+            return min;
+        }
+        for (int e = this.next[min]; e != -1; e = this.next[e]) {
+            if (Long.compareUnsigned(this.bits[e], this.bits[min]) < 0) {
+                min = e;
+            }
+        }
+        if (b == 0) {
+            return min;
+        }
+
+        // Use the minimum as the new reference, and move all the elements of the
+        // bucket to lower buckets.
+        this.last = this.bits[min];
+        int e = this.first[b];
+        this.first[b] = -1;
+        while (e != -1) {
+            final int n = this.next[e];
+            push(e);
+            e = n;
+        }
+        return min;
+    }
+
+    @Override
+    public int findMin() throws EmptyPriorityQueueException {
+        if (isEmpty()) {
+            throw new EmptyPriorityQueueException();
+        }
+        return redistribute();
+    }
+
+    @Override
+    public int deleteMin() throws EmptyPriorityQueueException {
+        final int min = findMin();
+        remove(min);
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        for (int b = 0; b < NB_BUCKETS; ++b) {
+            for (int e = this.first[b]; e != -1; e = this.next[e]) {
+                this.bucket[e] = ABSENT;
+            }
+            this.first[b] = -1;
+        }
+        this.currentSize = 0;
+        this.last = 0;
+        this.nbBelowLast = 0;
+    }
+
+}
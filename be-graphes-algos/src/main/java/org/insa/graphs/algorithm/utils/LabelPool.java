@@ -0,0 +1,286 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Labels of a bi-criteria label-setting search (e.g., Pareto or
+ * resource-constrained shortest paths), stored in primitive arrays.
+ * </p>
+ *
+ * <p>
+ * A label is a path from the origin of the search to a node, represented by
+ * its two costs and the label it extends. Each label also has a key made of
+ * two values (typically its costs plus bounds of the costs to the destination),
+ * and the labels that have not been polled yet are kept in a binary heap
+ * ordered by lexicographic order of their keys.
+ * </p>
+ *
+ * <p>
+ * The labels of each node form a set of non-dominated labels: a new label is
+ * only added if no label of its node has both costs lower or equal, and it
+ * discards the labels of its node that it dominates. Discarded labels stay in
+ * the heap but are skipped by {@link #poll()}. Labels are never freed, a pool is
+ * meant for a single search.
+ * </p>
+ *
+ */
+public final class LabelPool {
+
+    // Node, parent label, arc from the parent and next label of the same node.
+    private int[] nodes, parents, arcs, next;
+
+    // Whether the label has been discarded.
+    private boolean[] discarded;
+
+    // Costs and keys of the labels.
+    private double[] firstCosts, secondCosts, firstKeys, secondKeys;
+
+    // Number of labels.
+    private int size;
+
+    // First label of each node.
+    private final int[] firstLabels;
+
+    // Heap of labels.
+    private int[] heap;
+    private int heapSize;
+
+    /**
+     * Create a new empty pool of labels.
+     *
+     * @param nbNodes Number of nodes of the graph to search.
+     * @param capacity Initial number of labels.
+     */
+    public LabelPool(int nbNodes, int capacity) {
+        capacity = Math.max(capacity, 16);
+        this.nodes = new int[capacity];
+        this.parents = new int[capacity];
+        this.arcs = new int[capacity];
+        this.next = new int[capacity];
+        this.discarded = new boolean[capacity];
+        this.firstCosts = new double[capacity];
+        this.secondCosts = new double[capacity];
+        this.firstKeys = new double[capacity];
+        this.secondKeys = new double[capacity];
+        this.heap = new int[capacity];
+        this.firstLabels = new int[nbNodes];
+        Arrays.fill(this.firstLabels, -1);
+    }
+
+    /**
+     * @return Number of labels created.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return true if there is no label to poll.
+     */
+    public boolean isEmpty() {
+        return this.heapSize == 0;
+    }
+
+    /**
+     * Add a new label, unless a label of the same node dominates it.
+     *
+     * @param node ID of the node of the label.
+     * @param parent Label extended by the new label, or {@code -1}.
+     * @param arc Index of the arc from the node of the parent, or {@code -1}.
+     * @param firstCost First cost of the label.
+     * @param secondCost Second cost of the label.
+     * @param firstKey First value of the key of the label.
+     * @param secondKey Second value of the key of the label.
+     *
+     * @return Index of the new label, or {@code -1} if it is dominated.
+     */
+    public int add(int node, int parent, int arc, double firstCost, double secondCost,
+            double firstKey, double secondKey) {
+        for (int other = this.firstLabels[node]; other != -1; other = this.next[other]) {
+            if (this.firstCosts[other] <= firstCost && this.secondCosts[other] <= secondCost) {
+                return -1;
+            }
+        }
+        for (int other = this.firstLabels[node], previous = -1; other != -1;
+                other = this.next[other]) {
+            if (firstCost <= this.firstCosts[other] && secondCost <= this.secondCosts[other]) {
+                this.discarded[other] = true;
+                if (previous == -1) {
+                    this.firstLabels[node] = this.next[other];
+                }
+                else {
+                    this.next[previous] = this.next[other];
+                }
+            }
+            else {
+                previous = other;
+            }
+        }
+
+        if (this.size == this.nodes.length) {
+            final int capacity = 2 * this.size;
+            this.nodes = Arrays.copyOf(this.nodes, capacity);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.arcs = Arrays.copyOf(this.arcs, capacity);
+            this.next = Arrays.copyOf(this.next, capacity);
+            this.discarded = Arrays.copyOf(this.discarded, capacity);
+            this.firstCosts = Arrays.copyOf(this.firstCosts, capacity);
+            this.secondCosts = Arrays.copyOf(this.secondCosts, capacity);
+            this.firstKeys = Arrays.copyOf(this.firstKeys, capacity);
+            this.secondKeys = Arrays.copyOf(this.secondKeys, capacity);
+            this.heap = Arrays.copyOf(this.heap, capacity);
+        }
+        final int label = this.size++;
+        this.nodes[label] = node;
+        this.parents[label] = parent;
+        this.arcs[label] = arc;
+        this.next[label] = this.firstLabels[node];
+        this.firstLabels[node] = label;
+        this.firstCosts[label] = firstCost;
+        this.secondCosts[label] = secondCost;
+        this.firstKeys[label] = firstKey;
+        this.secondKeys[label] = secondKey;
+
+        // Sift up.
+        int i = this.heapSize++;
+        while (i > 0 && isLess(label, this.heap[(i - 1) / 2])) {
+            this.heap[i] = this.heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        this.heap[i] = label;
+        return label;
+    }
+
+    /**
+     * Remove the label with the smallest key that has not been discarded.
+     *
+     * @return Index of the label, or {@code -1} if there is no such label.
+     */
+    public int poll() {
+        while (this.heapSize > 0) {
+            final int min = this.heap[0];
+            final int last = this.heap[--this.heapSize];
+
+            // Sift down.
+            int i = 0;
+            while (2 * i + 1 < this.heapSize) {
+                int child = 2 * i + 1;
+                if (child + 1 < this.heapSize && isLess(this.heap[child + 1], this.heap[child])) {
+                    ++child;
+                }
+                if (!isLess(this.heap[child], last)) {
+                    break;
+                }
+                this.heap[i] = this.heap[child];
+                i = child;
+            }
+            this.heap[i] = last;
+
+            if (!this.discarded[min]) {
+                return min;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return First value of the smallest key of the labels to poll (possibly of a
+     *         discarded label), or infinity if there is none.
+     */
+    public double peekFirstKey() {
+        return this.heapSize == 0 ? Double.POSITIVE_INFINITY : this.firstKeys[this.heap[0]];
+    }
+
+    /**
+     * @param label Index of a label.
+     *
+     * @return ID of the node of the given label.
+     */
+    public int getNode(int label) {
+        return this.nodes[label];
+    }
+
+    /**
+     * @param label Index of a label.
+     *
+     * @return Label extended by the given label, or {@code -1}.
+     */
+    public int getParent(int label) {
+        return this.parents[label];
+    }
+
+    /**
+     * @param label Index of a label.
+     *
+     * @return Index of the arc from the node of the parent of the given label, or
+     *         {@code -1}.
+     */
+    public int getArc(int label) {
+        return this.arcs[label];
+    }
+
+    /**
+     * @param label Index of a label.
+     *
+     * @return First cost of the given label.
+     */
+    public double getFirstCost(int label) {
+        return this.firstCosts[label];
+    }
+
+    /**
+     * @param label Index of a label.
+     *
+     * @return Second cost of the given label.
+     */
+    public double getSecondCost(int label) {
+        return this.secondCosts[label];
+    }
+
+    /**
+     * @param label Index of a label.
+     *
+     * @return First value of the key of the given label.
+     */
+    public double getFirstKey(int label) {
+        return this.firstKeys[label];
+    }
+
+    /**
+     * @param label Index of a label.
+     *
+     * @return Second value of the key of the given label.
+     */
+    public double getSecondKey(int label) {
+        return this.secondKeys[label];
+    }
+
+    /**
+     * @param label Index of a label.
+     *
+     * @return Indices of the arcs of the path of the given label, from the origin.
+     */
+    public int[] getArcs(int label) {
+        int nbArcs = 0;
+        for (int l = label; this.parents[l] != -1; l = this.parents[l]) {
+            ++nbArcs;
+        }
+        int[] arcs = new int[nbArcs];
+        for (int l = label; this.parents[l] != -1; l = this.parents[l]) {
+            arcs[--nbArcs] = this.arcs[l];
+        }
+        return arcs;
+    }
+
+    /**
+     * @return true if the key of the first label is lexicographically smaller
+     *         than the key of the second one.
+     */
+    private boolean isLess(int a, int b) {
+        return this.firstKeys[a] < this.firstKeys[b]
+                || (this.firstKeys[a] == this.firstKeys[b]
+                        && this.secondKeys[a] < this.secondKeys[b]);
+    }
+
+}
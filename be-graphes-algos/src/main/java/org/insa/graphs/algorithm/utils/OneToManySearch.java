@@ -0,0 +1,104 @@
+package org.insa.graphs.algorithm.utils;
+
+import org.insa.graphs.model.AdjacencyArrays;
+
+/**
+ * <p>
+ * Dijkstra search from one node towards many nodes (or from many nodes to one
+ * node), on the costs of the arcs of a graph (see {@link ArcCosts}), run in a
+ * {@link SearchWorkspace}.
+ * </p>
+ *
+ * <p>
+ * The search settles the nodes by increasing distance from the source and
+ * reports them to a {@link Listener}, which decides when the search stops
+ * (e.g., once all the targets are settled). After the search, the distance and
+ * predecessor arc of the reached nodes are those of the workspace: the arc
+ * entering the node for a forward search, the arc leaving it for a backward
+ * search.
+ * </p>
+ *
+ */
+public final class OneToManySearch {
+
+    /**
+     * Listener of the nodes reached and settled by a search.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Notify that a node has been settled, before its arcs are relaxed.
+         *
+         * @param node ID of the settled node.
+         * @param distance Distance of the node from the source.
+         *
+         * @return true to continue the search, false to stop it.
+         */
+        boolean nodeSettled(int node, double distance);
+
+        /**
+         * Notify that a shorter path to a node has been found.
+         *
+         * @param node ID of the reached node.
+         * @param parent ID of the settled node the node has been reached from.
+         * @param arc Index of the arc between both nodes.
+         */
+        default void nodeReached(int node, int parent, int arc) {
+        }
+
+    }
+
+    private OneToManySearch() {
+    }
+
+    /**
+     * Run a search from (or to) the given source in the given workspace, which
+     * must have been reset, until the listener stops it or all the nodes that
+     * can be reached are settled.
+     *
+     * @param adjacency Adjacency arrays of the graph.
+     * @param costs Cost of each arc (infinite for the arcs that are not allowed).
+     * @param backward true to follow the arcs backward, i.e., to compute the
+     *        distances to the source.
+     * @param source ID of the source.
+     * @param workspace Workspace of the search.
+     * @param listener Listener of the search.
+     */
+    public static void run(AdjacencyArrays adjacency, double[] costs, boolean backward,
+            int source, SearchWorkspace workspace, Listener listener) {
+        final IndexedPriorityQueue queue = workspace.getQueue();
+        workspace.visit(source, 0);
+        workspace.update(source, 0, -1);
+        queue.insert(source, 0);
+        while (!queue.isEmpty()) {
+            final int node = queue.deleteMin();
+            workspace.settle(node);
+            final double distance = workspace.getDistance(node);
+            if (!listener.nodeSettled(node, distance)) {
+                return;
+            }
+
+            final int end = backward ? adjacency.getEndIncomingArc(node)
+                    : adjacency.getEndArc(node);
+            for (int i = backward ? adjacency.getFirstIncomingArc(node)
+                    : adjacency.getFirstArc(node); i < end; ++i) {
+                final int a = backward ? adjacency.getIncomingArc(i) : i;
+                final int next = backward ? adjacency.getIncomingTail(i) : adjacency.getHead(i);
+                final double newDistance = distance + costs[a];
+                if (workspace.isSettled(next) || newDistance == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                if (!workspace.isVisited(next)) {
+                    workspace.visit(next, 0);
+                }
+                if (newDistance < workspace.getDistance(next)) {
+                    workspace.update(next, newDistance, a);
+                    listener.nodeReached(next, node, a);
+                    queue.insertOrDecrease(next, newDistance);
+                }
+            }
+        }
+    }
+
+}
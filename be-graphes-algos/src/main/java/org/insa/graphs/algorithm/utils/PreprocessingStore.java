@@ -0,0 +1,288 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.model.Graph;
+
+/**
+ * <p>
+ * Store for the data computed by the preprocessing of speed-up techniques
+ * (e.g., landmark distances), which depend on a graph and an
+ * {@link ArcInspector}.
+ * </p>
+ * 
+ * <p>
+ * Data are kept in memory for each graph (as long as the graph is reachable),
+ * and read from files in a directory if one is set (see
+ * {@link #setDirectory(File)}), usually the directory of the map files. Data
+ * computed in memory are only written to this directory if writing has been
+ * enabled (see {@link #setDirectory(File, boolean)}). Files are named after the
+ * ID of the map, the inspector (see {@link #getInspectorKey(ArcInspector)}) and
+ * the kind of data.
+ * </p>
+ * 
+ * <p>
+ * Errors while reading or writing files are logged (see {@link Logger}), and
+ * the data are computed (or kept in memory only) instead.
+ * </p>
+ *
+ */
+public final class PreprocessingStore {
+
+    /**
+     * Function reading data from a file.
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+
+        /**
+         * @param file File to read.
+         * 
+         * @return Data read from the file.
+         * 
+         * @throws IOException if the file cannot be read or does not match the graph.
+         */
+        public T read(File file) throws IOException;
+
+    }
+
+    /**
+     * Function writing data to a file.
+     */
+    @FunctionalInterface
+    public interface Writer<T> {
+
+        /**
+         * @param data Data to write.
+         * @param file File to write.
+         * 
+         * @throws IOException if the file cannot be written.
+         */
+        public void write(T data, File file) throws IOException;
+
+    }
+
+    // Logger used to report errors on files.
+    private static final Logger LOGGER = Logger.getLogger(PreprocessingStore.class.getName());
+
+    // Directory of the files, or null, and whether files may be written to it.
+    private static volatile File directory = null;
+    private static volatile boolean writable = false;
+
+    // Data in memory, by graph and by file name.
+    private static final Map<Graph, Map<String, Object>> CACHE = new WeakHashMap<>();
+
+    private PreprocessingStore() {
+    }
+
+    /**
+     * Set the directory where preprocessing files are read, without writing new
+     * files to it.
+     * 
+     * @param directory Directory of the files, or null to keep data in memory
+     *        only.
+     */
+    public static void setDirectory(File directory) {
+        setDirectory(directory, false);
+    }
+
+    /**
+     * Set the directory where preprocessing files are read, and whether data
+     * computed in memory are written to it.
+     * 
+     * @param directory Directory of the files, or null to keep data in memory
+     *        only.
+     * @param writable true to write the data computed in memory to the
+     *        directory.
+     */
+    public static void setDirectory(File directory, boolean writable) {
+        PreprocessingStore.directory = directory;
+        PreprocessingStore.writable = writable;
+    }
+
+    /**
+     * @return Directory where preprocessing files are read, or null if data are
+     *         kept in memory only.
+     */
+    public static File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return true if the data computed in memory are written to the directory of
+     *         the files.
+     */
+    public static boolean isWritable() {
+        return directory != null && writable;
+    }
+
+    /**
+     * @return The given name, with characters that are not safe in file names
+     *         replaced.
+     */
+    private static String sanitize(String name) {
+        return name.toLowerCase().replaceAll("[^a-z0-9_-]+", "-").replaceAll("^-|-$", "");
+    }
+
+    /**
+     * Compute a key identifying the given inspector, made of its description (see
+     * {@link ArcInspector}'s {@code toString()}) and its mode.
+     * 
+     * @param inspector An arc inspector.
+     * 
+     * @return Key of the inspector, safe to use in file names.
+     */
+    public static String getInspectorKey(ArcInspector inspector) {
+        return sanitize(inspector.getMode() + "-" + inspector.toString());
+    }
+
+    /**
+     * @param graph A graph.
+     * @param inspector An arc inspector.
+     * @param extension Extension of the file, identifying the kind of data.
+     * 
+     * @return Name of the file containing the given kind of data for the given
+     *         graph and inspector.
+     */
+    public static String getFileName(Graph graph, ArcInspector inspector, String extension) {
+        return sanitize(graph.getMapId()) + "." + getInspectorKey(inspector) + "." + extension;
+    }
+
+    /**
+     * @param graph A graph.
+     * @param extension Extension of the file, identifying the kind of data.
+     * 
+     * @return Name of the file containing the given kind of data for the given
+     *         graph, for data that do not depend on an inspector.
+     */
+    public static String getFileName(Graph graph, String extension) {
+        return sanitize(graph.getMapId()) + "." + extension;
+    }
+
+    /**
+     * Retrieve data for the given graph and inspector: from memory if they have
+     * already been used, otherwise from a file of the directory if it exists,
+     * otherwise by computing them (and writing them to the directory if writing
+     * is enabled).
+     * 
+     * @param graph Graph of the data.
+     * @param inspector Inspector of the data.
+     * @param extension Extension of the file, identifying the kind of data.
+     * @param reader Function reading the data from a file.
+     * @param compute Function computing the data.
+     * @param writer Function writing the data to a file.
+     * 
+     * @return Data for the given graph and inspector.
+     */
+    public static <T> T get(Graph graph, ArcInspector inspector, String extension,
+            Reader<T> reader, Supplier<T> compute, Writer<T> writer) {
+        return load(graph, getFileName(graph, inspector, extension), reader, compute, writer);
+    }
+
+    /**
+     * Retrieve data for the given graph that do not depend on an inspector (e.g.,
+     * a node ordering), as {@link #get(Graph, ArcInspector, String, Reader,
+     * Supplier, Writer)}.
+     * 
+     * @param graph Graph of the data.
+     * @param extension Extension of the file, identifying the kind of data.
+     * @param reader Function reading the data from a file.
+     * @param compute Function computing the data.
+     * @param writer Function writing the data to a file.
+     * 
+     * @return Data for the given graph.
+     */
+    public static <T> T get(Graph graph, String extension, Reader<T> reader,
+            Supplier<T> compute, Writer<T> writer) {
+        return load(graph, getFileName(graph, extension), reader, compute, writer);
+    }
+
+    /**
+     * Retrieve data for the given graph that are only kept in memory, e.g., data
+     * that are quickly built from data stored in files.
+     * 
+     * @param graph Graph of the data.
+     * @param key Key identifying the kind of data.
+     * @param compute Function computing the data.
+     * 
+     * @return Data for the given graph.
+     */
+    public static <T> T get(Graph graph, String key, Supplier<T> compute) {
+        return load(graph, getFileName(graph, key), null, compute, null);
+    }
+
+    /**
+     * Retrieve the data stored under the given file name, without using files if
+     * the reader and the writer are null.
+     */
+    private static <T> T load(Graph graph, String name, Reader<T> reader, Supplier<T> compute,
+            Writer<T> writer) {
+        Map<String, Object> graphCache;
+        synchronized (CACHE) {
+            graphCache = CACHE.computeIfAbsent(graph, g -> new HashMap<>());
+        }
+
+        // Data are computed at most once, and one at a time for a given graph.
+        synchronized (graphCache) {
+            @SuppressWarnings("unchecked")
+            T data = (T) graphCache.get(name);
+            if (data != null) {
+                return data;
+            }
+
+            final File dir = directory;
+            final boolean write = writable;
+            final File file = dir == null || reader == null ? null : new File(dir, name);
+            if (file != null && file.exists()) {
+                try {
+                    data = reader.read(file);
+                }
+                catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Cannot read " + file + ", computing the data.", e);
+                }
+            }
+            if (data == null) {
+                data = compute.get();
+                if (file != null && write) {
+                    try {
+                        writer.write(data, file);
+                    }
+                    catch (IOException e) {
+                        LOGGER.log(Level.WARNING, "Cannot write " + file + ".", e);
+                    }
+                }
+            }
+            graphCache.put(name, data);
+            return data;
+        }
+    }
+
+    /**
+     * Register the given data for the given graph and inspector, e.g., data
+     * computed with non-default parameters, so that they are returned by
+     * {@link #get}.
+     * 
+     * @param graph Graph of the data.
+     * @param inspector Inspector of the data.
+     * @param extension Extension of the file, identifying the kind of data.
+     * @param data Data to register.
+     */
+    public static <T> void put(Graph graph, ArcInspector inspector, String extension, T data) {
+        Map<String, Object> graphCache;
+        synchronized (CACHE) {
+            graphCache = CACHE.computeIfAbsent(graph, g -> new HashMap<>());
+        }
+        synchronized (graphCache) {
+            graphCache.put(getFileName(graph, inspector, extension), data);
+        }
+    }
+
+}
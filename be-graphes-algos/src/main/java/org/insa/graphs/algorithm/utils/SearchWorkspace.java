@@ -0,0 +1,293 @@
+package org.insa.graphs.algorithm.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+
+/**
+ * <p>
+ * Reusable state of a graph search (e.g., Dijkstra), stored in primitive
+ * arrays indexed by node ID.
+ * </p>
+ *
+ * <p>
+ * A workspace holds, for each node, its distance from the origin of the search,
+ * the index of the arc used to reach it (see
+ * {@link org.insa.graphs.model.AdjacencyArrays}), a potential (e.g., the
+ * heuristic of A*) and whether it has been settled, together with an
+ * {@link IndexedPriorityQueue} of nodes. Instead of being cleared, the per-node
+ * arrays are stamped with a generation number: {@link #reset()} only increments
+ * the generation, so starting a new search is <i>O(1)</i>, and a search only
+ * touches the nodes it visits.
+ * </p>
+ *
+ * <p>
+ * Workspaces are pooled: a workspace is obtained with {@link #acquire(int)} and
+ * given back with {@link #close()}, typically using a try-with-resources block,
+ * so that the arrays are allocated once per thread (and grown if needed) rather
+ * than once per search. A workspace must not be used by several threads at the
+ * same time, except for {@link #getPublishedDistance(int)}.
+ * </p>
+ *
+ * <p>
+ * The pool keeps at most two workspaces per available processor (a
+ * bidirectional search uses two of them), further workspaces are left to the
+ * garbage collector when closed. A workspace taken from the pool for a graph
+ * much smaller than the one it was last used for is reallocated, so that
+ * searches on small graphs do not keep the memory of a large one.
+ * </p>
+ *
+ */
+public final class SearchWorkspace implements AutoCloseable {
+
+    // Release/acquire accesses to the stamps and distances, used to publish
+    // distances to other threads.
+    private static final VarHandle INT_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle DOUBLE_ARRAY = MethodHandles
+            .arrayElementVarHandle(double[].class);
+
+    // Workspaces that are not in use.
+    private static final ArrayBlockingQueue<SearchWorkspace> POOL = new ArrayBlockingQueue<>(
+            2 * Runtime.getRuntime().availableProcessors());
+
+    // A pooled workspace is reallocated if it can hold more than this factor
+    // times the requested number of nodes (and more than the minimum capacity).
+    private static final int OVERSIZE_FACTOR = 4;
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * Retrieve a workspace from the pool (or create a new one), able to hold the
+     * given number of nodes and ready for a new search, with a binary heap as
+     * queue.
+     *
+     * @param nbNodes Number of nodes of the graph to search.
+     *
+     * @return A workspace, to be closed when the search is done.
+     */
+    public static SearchWorkspace acquire(int nbNodes) {
+        return acquire(nbNodes, QueueType.BINARY_HEAP);
+    }
+
+    /**
+     * Retrieve a workspace from the pool (or create a new one), able to hold the
+     * given number of nodes and ready for a new search, with a queue of the given
+     * type.
+     *
+     * @param nbNodes Number of nodes of the graph to search.
+     * @param queueType Type of the queue of the workspace.
+     *
+     * @return A workspace, to be closed when the search is done.
+     */
+    public static SearchWorkspace acquire(int nbNodes, QueueType queueType) {
+        SearchWorkspace workspace = POOL.poll();
+        if (workspace == null) {
+            workspace = new SearchWorkspace();
+        }
+        workspace.closed = false;
+        if (workspace.ensureCapacity(nbNodes) || workspace.queueType != queueType) {
+            workspace.queueType = queueType;
+            workspace.queue = IndexedPriorityQueueFactory.createQueue(queueType, nbNodes);
+        }
+        workspace.reset();
+        return workspace;
+    }
+
+    // Current generation, a node has been visited during the current search if
+    // its stamp is equal to the generation.
+    private int generation;
+
+    // Generation of the last visit and of the settling of each node.
+    private int[] visited, settled;
+
+    // Distance, predecessor arc and potential of each node, only valid if the
+    // node has been visited.
+    private double[] distance;
+    private int[] predecessorArc;
+    private double[] potential;
+
+    // Queue of nodes, cleared on reset, and its type.
+    private IndexedPriorityQueue queue;
+    private QueueType queueType;
+
+    // true if this workspace has been given back to the pool.
+    private boolean closed;
+
+    /**
+     * Create a new workspace, outside of the pool.
+     */
+    private SearchWorkspace() {
+        this.generation = 0;
+        this.visited = new int[0];
+        this.settled = new int[0];
+        this.distance = new double[0];
+        this.predecessorArc = new int[0];
+        this.potential = new double[0];
+        this.queue = new IndexedBinaryHeap(0);
+        this.queueType = QueueType.BINARY_HEAP;
+    }
+
+    /**
+     * Ensure that this workspace can hold the given number of nodes, and that it
+     * is not much larger than needed.
+     *
+     * @return true if the arrays of this workspace have been reallocated.
+     */
+    private boolean ensureCapacity(int nbNodes) {
+        final int capacity = this.visited.length;
+        if (capacity < nbNodes || (capacity > MIN_CAPACITY
+                && capacity / OVERSIZE_FACTOR > nbNodes)) {
+            this.visited = new int[nbNodes];
+            this.settled = new int[nbNodes];
+            this.distance = new double[nbNodes];
+            this.predecessorArc = new int[nbNodes];
+            this.potential = new double[nbNodes];
+            this.generation = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Number of nodes that this workspace can hold without growing.
+     */
+    int getCapacity() {
+        return this.visited.length;
+    }
+
+    /**
+     * Forget the current search, in <i>O(1)</i> (amortized).
+     */
+    public void reset() {
+        if (this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.visited, 0);
+            Arrays.fill(this.settled, 0);
+            this.generation = 0;
+        }
+        ++this.generation;
+        this.queue.clear();
+    }
+
+    /**
+     * Give this workspace back to the pool (if the pool is not full). The
+     * workspace must not be used afterwards, closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        POOL.offer(this);
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return true if the given node has been visited during the current search.
+     */
+    public boolean isVisited(int node) {
+        return this.visited[node] == this.generation;
+    }
+
+    /**
+     * Visit the given node: its distance is set to infinity, its predecessor to
+     * {@code -1} and its potential to the given value.
+     *
+     * @param node ID of a node that has not been visited yet.
+     * @param potential Potential of the node.
+     */
+    public void visit(int node, double potential) {
+        this.distance[node] = Double.POSITIVE_INFINITY;
+        this.predecessorArc[node] = -1;
+        this.potential[node] = potential;
+        INT_ARRAY.setRelease(this.visited, node, this.generation);
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Distance of the given node, or infinity if it has not been visited.
+     */
+    public double getDistance(int node) {
+        return isVisited(node) ? this.distance[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Index of the arc used to reach the given node, or {@code -1} if the
+     *         node has not been reached.
+     */
+    public int getPredecessorArc(int node) {
+        return isVisited(node) ? this.predecessorArc[node] : -1;
+    }
+
+    /**
+     * @param node ID of a visited node.
+     *
+     * @return Potential of the given node.
+     */
+    public double getPotential(int node) {
+        return this.potential[node];
+    }
+
+    /**
+     * Update the distance and the predecessor of the given node.
+     *
+     * @param node ID of a visited node.
+     * @param distance New distance of the node.
+     * @param predecessorArc Index of the arc used to reach the node, or
+     *        {@code -1}.
+     */
+    public void update(int node, double distance, int predecessorArc) {
+        DOUBLE_ARRAY.setRelease(this.distance, node, distance);
+        this.predecessorArc[node] = predecessorArc;
+    }
+
+    /**
+     * Retrieve the distance of the given node while the search is run by another
+     * thread, e.g., by the other direction of a parallel bidirectional search.
+     * The returned distance may be outdated, but it is either infinity or a
+     * distance that the node had during the current search, i.e., the length of
+     * an actual path.
+     *
+     * @param node ID of a node.
+     *
+     * @return Distance of the given node, as seen by the calling thread.
+     */
+    public double getPublishedDistance(int node) {
+        if ((int) INT_ARRAY.getAcquire(this.visited, node) != this.generation) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (double) DOUBLE_ARRAY.getAcquire(this.distance, node);
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return true if the given node has been settled during the current search.
+     */
+    public boolean isSettled(int node) {
+        return this.settled[node] == this.generation;
+    }
+
+    /**
+     * Mark the given node as settled.
+     *
+     * @param node ID of a node.
+     */
+    public void settle(int node) {
+        this.settled[node] = this.generation;
+    }
+
+    /**
+     * @return Queue of nodes of this workspace, which is empty after a reset.
+     */
+    public IndexedPriorityQueue getQueue() {
+        return this.queue;
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.insa.graphs.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Random;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * Random graphs shared by the tests of the algorithms: random roads between
+ * random nodes, with a quarter of one-way roads, half of the roads forbidden to
+ * cars, and random speeds.
+ *
+ * The nodes are placed at random in a small box and the length of each road is
+ * an integer at least equal to the distance between its nodes, so that the
+ * graphs can be used by A* and by the algorithms that rely on positions, and
+ * that the lengths of the paths are computed exactly. The graphs created with and
+ * without positions from the same seed only differ by the positions of their
+ * nodes.
+ *
+ */
+public final class RandomGraphs {
+
+    // Maximum speed of the roads, in kilometers per hour.
+    public static final int MAXIMUM_SPEED = 129;
+
+    // Bounding box of the positions of the nodes.
+    private static final BoundingBox BOUNDING_BOX =
+            new BoundingBox(new Point(1, 43.1f), new Point(1.1f, 43));
+
+    // Accesses of the roads: allowed to all, and forbidden to cars.
+    private static final AccessRestrictions[] ACCESSES = new AccessRestrictions[2];
+
+    static {
+        for (int i = 0; i < ACCESSES.length; ++i) {
+            EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+            for (AccessMode mode: AccessMode.values()) {
+                restrictions.put(mode,
+                        i == 1 && mode == AccessMode.MOTORCAR ? AccessRestriction.FORBIDDEN
+                                : AccessRestriction.ALLOWED);
+            }
+            ACCESSES[i] = new AccessRestrictions(restrictions);
+        }
+    }
+
+    private RandomGraphs() {
+    }
+
+    /**
+     * Create a random graph whose nodes have no position.
+     *
+     * @param random Random generator to use.
+     * @param mapId Map ID of the graph.
+     * @param nbNodes Number of nodes of the graph.
+     * @param nbRoads Number of roads of the graph.
+     *
+     * @return A new random graph.
+     */
+    public static Graph create(Random random, String mapId, int nbNodes, int nbRoads) {
+        return create(random, mapId, nbNodes, nbRoads, false);
+    }
+
+    /**
+     * Create a random graph.
+     *
+     * @param random Random generator to use.
+     * @param mapId Map ID of the graph.
+     * @param nbNodes Number of nodes of the graph.
+     * @param nbRoads Number of roads of the graph.
+     * @param withPoints true if the nodes should have positions.
+     *
+     * @return A new random graph.
+     */
+    public static Graph create(Random random, String mapId, int nbNodes, int nbRoads,
+            boolean withPoints) {
+        Point[] points = new Point[nbNodes];
+        Node[] nodes = new Node[nbNodes];
+        for (int i = 0; i < nodes.length; ++i) {
+            points[i] = new Point(1 + random.nextFloat() / 10, 43 + random.nextFloat() / 10);
+            nodes[i] = new Node(i, withPoints ? points[i] : null);
+        }
+        for (int i = 0; i < nbRoads; ++i) {
+            final int origin = random.nextInt(nodes.length),
+                    destination = random.nextInt(nodes.length);
+            Node.linkNodes(nodes[origin], nodes[destination],
+                    1 + (int) (points[origin].distanceTo(points[destination])
+                            * (1 + random.nextFloat())),
+                    new RoadInformation(RoadType.UNCLASSIFIED, ACCESSES[random.nextInt(2)],
+                            random.nextInt(4) == 0, 10 + random.nextInt(MAXIMUM_SPEED - 9),
+                            null),
+                    new ArrayList<>());
+        }
+        return new Graph(mapId, "", Arrays.asList(nodes),
+                new GraphStatistics(BOUNDING_BOX, 0, nbRoads, MAXIMUM_SPEED, 0));
+    }
+
+}
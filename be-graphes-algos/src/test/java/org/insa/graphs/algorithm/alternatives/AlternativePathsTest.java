@@ -0,0 +1,232 @@
+package org.insa.graphs.algorithm.alternatives;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AlternativePathsTest {
+
+    // Graphs of 9 nodes with forbidden and one-way roads, see enumerate().
+    private static List<Graph> graphs;
+
+    // Filters used by the tests.
+    private static List<ArcInspector> inspectors;
+
+    @BeforeClass
+    public static void initAll() {
+        Random random = new Random(23);
+        AccessRestrictions[] accesses = new AccessRestrictions[2];
+        for (int i = 0; i < accesses.length; ++i) {
+            EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+            for (AccessMode mode: AccessMode.values()) {
+                restrictions.put(mode,
+                        i == 1 && mode == AccessMode.MOTORCAR ? AccessRestriction.FORBIDDEN
+                                : AccessRestriction.ALLOWED);
+            }
+            accesses[i] = new AccessRestrictions(restrictions);
+        }
+        graphs = new ArrayList<>();
+        for (int g = 0; g < 20; ++g) {
+            Node[] nodes = new Node[9];
+            for (int i = 0; i < nodes.length; ++i) {
+                nodes[i] = new Node(i, null);
+            }
+            for (int i = 0; i < 22; ++i) {
+                Node.linkNodes(nodes[random.nextInt(nodes.length)],
+                        nodes[random.nextInt(nodes.length)], 1 + random.nextInt(50),
+                        new RoadInformation(RoadType.UNCLASSIFIED, accesses[random.nextInt(2)],
+                                random.nextInt(3) == 0, 10 + random.nextInt(120), null),
+                        new ArrayList<>());
+            }
+            graphs.add(new Graph("ALTERNATIVES-" + g, "", Arrays.asList(nodes), null));
+        }
+        inspectors = ArcInspectorFactory.getAllFilters();
+    }
+
+    /**
+     * Add the costs of all the loopless paths from the given node to the given
+     * destination to the given list.
+     */
+    private static void enumerate(Node node, Node destination, ArcInspector inspector,
+            boolean[] visited, double cost, List<Double> costs) {
+        if (node == destination) {
+            costs.add(cost);
+            return;
+        }
+        visited[node.getId()] = true;
+        for (Arc arc: node.getSuccessors()) {
+            if (inspector.isAllowed(arc) && !visited[arc.getDestination().getId()]) {
+                enumerate(arc.getDestination(), destination, inspector, visited,
+                        cost + inspector.getCost(arc), costs);
+            }
+        }
+        visited[node.getId()] = false;
+    }
+
+    /**
+     * Check that the paths of the given solution are valid, loopless, distinct and
+     * allowed, from the origin to the destination of the data.
+     */
+    private static void checkPaths(AlternativePathsSolution solution) {
+        AlternativePathsData data = solution.getInputData();
+        Set<List<Arc>> distinct = new HashSet<>();
+        for (Path path: solution.getPaths()) {
+            assertTrue(path.isValid());
+            assertEquals(data.getOrigin(), path.getOrigin());
+            assertEquals(data.getDestination(), path.getDestination());
+            assertTrue(distinct.add(path.getArcs()));
+            Set<Node> nodes = new HashSet<>();
+            nodes.add(path.getOrigin());
+            for (Arc arc: path.getArcs()) {
+                assertTrue(data.isAllowed(arc));
+                assertTrue(nodes.add(arc.getDestination()));
+            }
+        }
+    }
+
+    @Test
+    public void testKShortestPaths() {
+        Random random = new Random(29);
+        for (Graph graph: graphs) {
+            for (ArcInspector inspector: inspectors) {
+                Node origin = graph.get(random.nextInt(graph.size()));
+                Node destination = graph.get(random.nextInt(graph.size()));
+                if (origin == destination) {
+                    continue;
+                }
+                List<Double> costs = new ArrayList<>();
+                enumerate(origin, destination, inspector, new boolean[graph.size()], 0, costs);
+                Collections.sort(costs);
+
+                AlternativePathsSolution solution = new KShortestPathsAlgorithm(
+                        new AlternativePathsData(graph, origin, destination, 6, inspector))
+                                .run();
+                if (costs.isEmpty()) {
+                    assertEquals(Status.INFEASIBLE, solution.getStatus());
+                    continue;
+                }
+                assertEquals(Status.OPTIMAL, solution.getStatus());
+                assertEquals(Math.min(6, costs.size()), solution.getPaths().size());
+                checkPaths(solution);
+                for (int i = 0; i < solution.getPaths().size(); ++i) {
+                    assertEquals(costs.get(i), solution.getCost(i), 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testViaNodeAlternatives() {
+        Random random = new Random(31);
+        for (Graph graph: graphs) {
+            for (ArcInspector inspector: inspectors) {
+                Node origin = graph.get(random.nextInt(graph.size()));
+                Node destination = graph.get(random.nextInt(graph.size()));
+                if (origin == destination) {
+                    continue;
+                }
+                List<Double> costs = new ArrayList<>();
+                enumerate(origin, destination, inspector, new boolean[graph.size()], 0, costs);
+                Collections.sort(costs);
+
+                AlternativePathsSolution solution = new ViaNodeAlternativesAlgorithm(
+                        new AlternativePathsData(graph, origin, destination, 4, inspector), 1.5,
+                        0.7, 0.1).run();
+                if (costs.isEmpty()) {
+                    assertEquals(Status.INFEASIBLE, solution.getStatus());
+                    continue;
+                }
+                assertTrue(solution.getPaths().size() <= 4);
+                checkPaths(solution);
+
+                // Shortest path first, then alternatives by cost, within the limits.
+                final double optimum = costs.get(0);
+                assertEquals(optimum, solution.getCost(0), 1e-6);
+                Set<Arc> used = new HashSet<>(solution.getPaths().get(0).getArcs());
+                for (int i = 1; i < solution.getPaths().size(); ++i) {
+                    assertTrue(solution.getCost(i) >= solution.getCost(i - 1) - 1e-6);
+                    assertTrue(solution.getCost(i) <= 1.5 * optimum + 1e-6);
+                    double shared = 0;
+                    for (Arc arc: solution.getPaths().get(i).getArcs()) {
+                        if (used.contains(arc)) {
+                            shared += inspector.getCost(arc);
+                        }
+                    }
+                    assertTrue(shared <= 0.7 * optimum + 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTimeLimit() {
+        for (Graph graph: graphs) {
+            Node origin = graph.get(0), destination = graph.get(graph.size() - 1);
+            AlternativePathsData data = new AlternativePathsData(graph, origin, destination, 6,
+                    Duration.ZERO, inspectors.get(0));
+            for (AlternativePathsSolution solution: new AlternativePathsSolution[] {
+                    new KShortestPathsAlgorithm(data).run(),
+                    new ViaNodeAlternativesAlgorithm(data).run() }) {
+                if (solution.isFeasible()) {
+                    assertEquals(1, solution.getPaths().size());
+                    checkPaths(solution);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameOriginAndDestination() {
+        Graph graph = graphs.get(0);
+        AlternativePathsData data = new AlternativePathsData(graph, graph.get(0), graph.get(0),
+                3, inspectors.get(0));
+        assertEquals(Status.INFEASIBLE, new KShortestPathsAlgorithm(data).run().getStatus());
+        assertEquals(Status.INFEASIBLE,
+                new ViaNodeAlternativesAlgorithm(data).run().getStatus());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumberOfPaths() {
+        Graph graph = graphs.get(0);
+        new AlternativePathsData(graph, graph.get(0), graph.get(1), 0, inspectors.get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTimeLimit() {
+        Graph graph = graphs.get(0);
+        new AlternativePathsData(graph, graph.get(0), graph.get(1), 2, Duration.ofSeconds(-1),
+                inspectors.get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStretch() {
+        Graph graph = graphs.get(0);
+        new ViaNodeAlternativesAlgorithm(new AlternativePathsData(graph, graph.get(0),
+                graph.get(1), 2, inspectors.get(0)), 0.5, 0.5, 0.5);
+    }
+
+}
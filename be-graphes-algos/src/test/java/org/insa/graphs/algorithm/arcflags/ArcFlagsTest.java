@@ -0,0 +1,210 @@
+package org.insa.graphs.algorithm.arcflags;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.partition.MultiLevelPartition;
+import org.insa.graphs.algorithm.shortestpath.ArcFlagsAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArcFlagsTest {
+
+    // Random graphs, with and without positions.
+    private static Graph graphWithPoints, graphWithoutPoints;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() {
+        graphWithPoints = RandomGraphs.create(new Random(11), "POINTS", 80, 220, true);
+        graphWithoutPoints = RandomGraphs.create(new Random(11), "NOPOINTS", 80, 220);
+    }
+
+    /**
+     * Check that the given flags give the same path lengths as Dijkstra.
+     */
+    private void checkQueries(Graph graph, ArcFlags flags, ArcInspector inspector) {
+        for (Node origin: graph.getNodes()) {
+            for (Node destination: graph.getNodes()) {
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                ShortestPathSolution actual = new ArcFlagsAlgorithm(data, flags).run();
+                assertEquals(expected.isFeasible(), actual.isFeasible());
+                if (expected.isFeasible()) {
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(destination, actual.getPath().getDestination());
+                    double cost = 0, expectedCost = 0;
+                    for (Arc arc: actual.getPath().getArcs()) {
+                        assertTrue(inspector.isAllowed(arc));
+                        cost += inspector.getCost(arc);
+                    }
+                    for (Arc arc: expected.getPath().getArcs()) {
+                        expectedCost += inspector.getCost(arc);
+                    }
+                    assertEquals(expectedCost, cost, 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQueries() {
+        for (Graph graph: Arrays.asList(graphWithPoints, graphWithoutPoints)) {
+            MultiLevelPartition partition = MultiLevelPartition.compute(graph, 8, 24);
+            for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+                for (int level = -1; level < partition.getNumberOfLevels(); ++level) {
+                    checkQueries(graph, ArcFlags.compute(graph, inspector, partition, level),
+                            inspector);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQueriesManyRegions() {
+        // One region per node, so that the flags of an arc span several words.
+        int[] cells = new int[graphWithPoints.size()];
+        for (int node = 0; node < cells.length; ++node) {
+            cells[node] = node;
+        }
+        MultiLevelPartition partition = new MultiLevelPartition("POINTS", new int[][] { cells });
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            ArcFlags flags = ArcFlags.compute(graphWithPoints, inspector, partition, 0);
+            assertEquals(cells.length, flags.getNumberOfRegions());
+            checkQueries(graphWithPoints, flags, inspector);
+        }
+    }
+
+    @Test
+    public void testInnerArcs() {
+        MultiLevelPartition partition = MultiLevelPartition.compute(graphWithPoints, 8);
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ArcFlags flags = ArcFlags.compute(graphWithPoints, inspector, partition, 0);
+        AdjacencyArrays adjacency = graphWithPoints.getAdjacency();
+        for (Node node: graphWithPoints.getNodes()) {
+            for (int a = adjacency.getFirstArc(node.getId()); a < adjacency
+                    .getEndArc(node.getId()); ++a) {
+                final int region = flags.getRegion(node.getId());
+                if (flags.getRegion(adjacency.getHead(a)) == region) {
+                    assertTrue(flags.isSet(a, region));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFlagsOnShortestPaths() {
+        // The flag of a region is only set for allowed arcs that are inside the
+        // region or on a shortest path to a node of the region.
+        final Graph graph = graphWithPoints;
+        MultiLevelPartition partition = MultiLevelPartition.compute(graph, 8);
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            ArcFlags flags = ArcFlags.compute(graph, inspector, partition, 0);
+            double[][] distances = new double[graph.size()][graph.size()];
+            for (Node origin: graph.getNodes()) {
+                for (Node destination: graph.getNodes()) {
+                    ShortestPathSolution solution = new DijkstraAlgorithm(
+                            new ShortestPathData(graph, origin, destination, inspector)).run();
+                    double distance = origin == destination ? 0 : Double.POSITIVE_INFINITY;
+                    if (solution.isFeasible()) {
+                        distance = 0;
+                        for (Arc arc: solution.getPath().getArcs()) {
+                            distance += inspector.getCost(arc);
+                        }
+                    }
+                    distances[origin.getId()][destination.getId()] = distance;
+                }
+            }
+
+            AdjacencyArrays adjacency = graph.getAdjacency();
+            int nbSet = 0;
+            for (int u = 0; u < graph.size(); ++u) {
+                for (int a = adjacency.getFirstArc(u); a < adjacency.getEndArc(u); ++a) {
+                    final Arc arc = adjacency.getArc(u, a);
+                    final int v = adjacency.getHead(a);
+                    for (int region = 0; region < flags.getNumberOfRegions(); ++region) {
+                        if (!flags.isSet(a, region)) {
+                            continue;
+                        }
+                        ++nbSet;
+                        assertTrue(inspector.isAllowed(arc));
+                        boolean shortest = flags.getRegion(u) == region
+                                && flags.getRegion(v) == region;
+                        for (int t = 0; t < graph.size() && !shortest; ++t) {
+                            shortest = flags.getRegion(t) == region
+                                    && distances[v][t] != Double.POSITIVE_INFINITY
+                                    && Math.abs(distances[u][t] - inspector.getCost(arc)
+                                            - distances[v][t]) < 1e-6;
+                        }
+                        assertTrue(shortest);
+                    }
+                }
+            }
+            assertTrue(nbSet < adjacency.getNumberOfArcs() * flags.getNumberOfRegions());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testComputeOtherGraph() {
+        ArcFlags.compute(graphWithoutPoints, ArcInspectorFactory.getAllFilters().get(0),
+                MultiLevelPartition.compute(graphWithPoints, 8), 0);
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        ArcFlags flags = ArcFlags.compute(graphWithPoints,
+                ArcInspectorFactory.getAllFilters().get(0),
+                MultiLevelPartition.compute(graphWithPoints, 8), 0);
+        File file = folder.newFile();
+        flags.write(file);
+        ArcFlags read = ArcFlags.read(file, graphWithPoints,
+                ArcInspectorFactory.getAllFilters().get(0));
+        assertEquals(flags.getFingerprint(), read.getFingerprint());
+        assertEquals(flags.getNumberOfRegions(), read.getNumberOfRegions());
+        for (Node node: graphWithPoints.getNodes()) {
+            assertEquals(flags.getRegion(node.getId()), read.getRegion(node.getId()));
+        }
+        for (int a = 0; a < graphWithPoints.getAdjacency().getNumberOfArcs(); ++a) {
+            for (int region = 0; region < flags.getNumberOfRegions(); ++region) {
+                assertEquals(flags.isSet(a, region), read.isSet(a, region));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherMap() throws IOException {
+        File file = folder.newFile();
+        ArcFlags.compute(graphWithPoints, ArcInspectorFactory.getAllFilters().get(0),
+                MultiLevelPartition.compute(graphWithPoints, 8), 0).write(file);
+        ArcFlags.read(file, graphWithoutPoints, ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherInspector() throws IOException {
+        File file = folder.newFile();
+        ArcFlags.compute(graphWithPoints, ArcInspectorFactory.getAllFilters().get(0),
+                MultiLevelPartition.compute(graphWithPoints, 8), 0).write(file);
+        ArcFlags.read(file, graphWithPoints, ArcInspectorFactory.getAllFilters().get(2));
+    }
+
+}
@@ -0,0 +1,180 @@
+package org.insa.graphs.algorithm.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.shortestpath.AStarAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchShortestPathExecutorTest {
+
+    // Random graph.
+    private static Graph graph;
+
+    // Random queries on the graph, with all the filters.
+    private static List<ShortestPathData> queries;
+
+    @BeforeClass
+    public static void initAll() {
+        Random random = new Random(79);
+        graph = RandomGraphs.create(random, "BATCH", 500, 2000, true);
+        queries = new ArrayList<>();
+        final List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        for (int i = 0; i < 400; ++i) {
+            queries.add(new ShortestPathData(graph, graph.get(random.nextInt(graph.size())),
+                    graph.get(random.nextInt(graph.size())),
+                    inspectors.get(random.nextInt(inspectors.size()))));
+        }
+    }
+
+    @Test
+    public void testSolveAll() throws InterruptedException {
+        try (BatchShortestPathExecutor executor = new BatchShortestPathExecutor(graph, 4)) {
+            BatchResult result = executor.solveAll(queries);
+            assertEquals(queries.size(), result.getSolutions().size());
+            int nbFeasible = 0;
+            for (int i = 0; i < queries.size(); ++i) {
+                ShortestPathSolution expected = new DijkstraAlgorithm(queries.get(i)).run();
+                ShortestPathSolution solution = result.getSolution(i);
+                assertTrue(solution.getInputData() == queries.get(i));
+                assertEquals(expected.getStatus(), solution.getStatus());
+                assertEquals(expected.getCost(), solution.getCost(), 1e-6);
+                if (solution.isFeasible()) {
+                    ++nbFeasible;
+                }
+            }
+
+            BatchStatistics statistics = result.getStatistics();
+            assertEquals(queries.size(), statistics.getNumberOfQueries());
+            assertEquals(nbFeasible, statistics.getNumberOfFeasibleQueries());
+            assertTrue(statistics.getThroughput() > 0);
+            assertTrue(statistics.getLatency(0).compareTo(statistics.getLatency(50)) <= 0);
+            assertTrue(statistics.getLatency(50).compareTo(statistics.getLatency(99)) <= 0);
+            assertTrue(statistics.getLatency(99).compareTo(statistics.getLatency(100)) <= 0);
+        }
+    }
+
+    @Test
+    public void testStream() throws InterruptedException {
+        try (BatchShortestPathExecutor executor = new BatchShortestPathExecutor(graph, 3,
+                AStarAlgorithm::new)) {
+            final ShortestPathSolution[] solutions = new ShortestPathSolution[queries.size()];
+            BatchStatistics statistics = executor.solve(queries.stream(), (solution, index) -> {
+                assertTrue(solutions[index] == null);
+                solutions[index] = solution;
+            });
+            assertEquals(queries.size(), statistics.getNumberOfQueries());
+            for (int i = 0; i < queries.size(); ++i) {
+                assertNotNull(solutions[i]);
+                assertTrue(solutions[i].getInputData() == queries.get(i));
+                assertEquals(new DijkstraAlgorithm(queries.get(i)).run().getCost(),
+                        solutions[i].getCost(), 1e-6);
+            }
+
+            // The executor can be reused, and an empty batch has empty statistics.
+            statistics = executor.solve(new ArrayList<ShortestPathData>().iterator(),
+                    (solution, index) -> {
+                    });
+            assertEquals(0, statistics.getNumberOfQueries());
+            assertEquals(0, statistics.getLatency(50).toNanos());
+        }
+    }
+
+    @Test
+    public void testGroupByOrigin() throws InterruptedException {
+        // A few depots, each with many customers (including the depot itself), in
+        // both modes, in a stream longer than a grouping window.
+        Random random = new Random(89);
+        final List<ArcInspector> inspectors = ArcInspectorFactory.getAllFilters();
+        List<ShortestPathData> depotQueries = new ArrayList<>();
+        for (int i = 0; i < 5000; ++i) {
+            final Node depot = graph.get(random.nextInt(3));
+            depotQueries.add(new ShortestPathData(graph, depot,
+                    i % 100 == 0 ? depot : graph.get(random.nextInt(graph.size())),
+                    inspectors.get(random.nextInt(2) * 2)));
+        }
+        try (BatchShortestPathExecutor executor = new BatchShortestPathExecutor(graph, 2)) {
+            assertTrue(executor.isGroupingByOrigin());
+            BatchResult result = executor.solveAll(depotQueries);
+            assertTrue(result.getStatistics().getNumberOfSearches() <= 2 * 3 * 2);
+            for (int i = 0; i < depotQueries.size(); ++i) {
+                final ShortestPathData query = depotQueries.get(i);
+                ShortestPathSolution expected = new DijkstraAlgorithm(query).run();
+                ShortestPathSolution solution = result.getSolution(i);
+                assertTrue(solution.getInputData() == query);
+                assertEquals(expected.getStatus(), solution.getStatus());
+                if (!solution.isFeasible()) {
+                    continue;
+                }
+                Path path = solution.getPath();
+                assertTrue(path.isValid());
+                assertEquals(query.getOrigin(), path.getOrigin());
+                assertEquals(query.getDestination(), path.getDestination());
+                assertEquals(expected.getCost(), solution.getCost(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testGroupByCapability() throws InterruptedException {
+        // Subclasses of the input data are grouped as long as they only use the costs
+        // of their inspector.
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        List<ShortestPathData> depotQueries = new ArrayList<>();
+        for (Node node: graph.getNodes()) {
+            depotQueries.add(new ShortestPathData(graph, graph.get(0), node, inspector) {
+            });
+            depotQueries.add(new ShortestPathData(graph, graph.get(1), node, inspector) {
+                @Override
+                public double getCost(Arc arc) {
+                    return 2 * super.getCost(arc);
+                }
+
+                @Override
+                public boolean usesInspectorCostsOnly() {
+                    return false;
+                }
+            });
+        }
+        try (BatchShortestPathExecutor executor = new BatchShortestPathExecutor(graph, 2)) {
+            BatchResult result = executor.solveAll(depotQueries);
+            assertEquals(1 + graph.size(), result.getStatistics().getNumberOfSearches());
+            for (int i = 0; i < depotQueries.size(); ++i) {
+                assertEquals(new DijkstraAlgorithm(depotQueries.get(i)).run().getCost(),
+                        result.getSolution(i).getCost(), 1e-6);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherGraph() throws InterruptedException {
+        Graph other = RandomGraphs.create(new Random(83), "OTHER", 10, 20);
+        try (BatchShortestPathExecutor executor = new BatchShortestPathExecutor(graph, 2)) {
+            executor.solveAll(Arrays.asList(queries.get(0), new ShortestPathData(other,
+                    other.get(0), other.get(1), ArcInspectorFactory.getAllFilters().get(0))));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoThread() {
+        new BatchShortestPathExecutor(graph, 0);
+    }
+
+}
@@ -0,0 +1,167 @@
+package org.insa.graphs.algorithm.contraction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchiesAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ContractionHierarchyTest {
+
+    // Random graph with one-way roads, and all-roads inspector.
+    private static Graph graph;
+    private static ArcInspector inspector;
+
+    // Hierarchy of the graph.
+    private static ContractionHierarchy hierarchy;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(new Random(42), "ID", 60, 150);
+        inspector = ArcInspectorFactory.getAllFilters().get(0);
+        hierarchy = ContractionHierarchy.compute(graph, inspector);
+    }
+
+    /**
+     * Check that the given hierarchy gives the same paths lengths as Dijkstra.
+     */
+    private void checkQueries(ContractionHierarchy hierarchy) {
+        for (Node origin: graph.getNodes()) {
+            for (Node destination: graph.getNodes()) {
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                ShortestPathSolution actual = new ContractionHierarchiesAlgorithm(data,
+                        hierarchy).run();
+                assertEquals(expected.isFeasible(), actual.isFeasible());
+                if (expected.isFeasible()) {
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(origin, actual.getPath().getOrigin());
+                    assertEquals(destination, actual.getPath().getDestination());
+                    assertEquals(expected.getPath().getLength(), actual.getPath().getLength(),
+                            1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRanks() {
+        Set<Integer> ranks = new HashSet<>();
+        for (int node = 0; node < graph.size(); ++node) {
+            ranks.add(hierarchy.getRank(node));
+        }
+        assertEquals(graph.size(), ranks.size());
+        for (int rank: ranks) {
+            assertTrue(rank >= 0 && rank < graph.size());
+        }
+    }
+
+    @Test
+    public void testUpwardDownward() {
+        for (int node = 0; node < graph.size(); ++node) {
+            for (int i = hierarchy.getFirstUpwardEdge(node); i < hierarchy
+                    .getEndUpwardEdge(node); ++i) {
+                final int e = hierarchy.getUpwardEdge(i);
+                assertEquals(node, hierarchy.getTail(e));
+                assertTrue(hierarchy.getRank(hierarchy.getHead(e)) > hierarchy.getRank(node));
+            }
+            for (int i = hierarchy.getFirstDownwardEdge(node); i < hierarchy
+                    .getEndDownwardEdge(node); ++i) {
+                final int e = hierarchy.getDownwardEdge(i);
+                assertEquals(node, hierarchy.getHead(e));
+                assertTrue(hierarchy.getRank(hierarchy.getTail(e)) > hierarchy.getRank(node));
+            }
+        }
+    }
+
+    @Test
+    public void testUnpack() {
+        for (int e = 0; e < hierarchy.getNumberOfEdges(); ++e) {
+            final double[] length = { 0 }, time = { 0 };
+            final int[] last = { hierarchy.getTail(e) };
+            hierarchy.unpack(e, a -> {
+                assertEquals(last[0], graph.getAdjacency().getArc(a).getOrigin().getId());
+                last[0] = graph.getAdjacency().getArc(a).getDestination().getId();
+                length[0] += graph.getAdjacency().getLength(a);
+                time[0] += graph.getAdjacency().getArc(a).getMinimumTravelTime();
+            });
+            assertEquals(hierarchy.getHead(e), last[0]);
+            assertEquals(hierarchy.getWeight(e), length[0], 1e-6);
+            assertEquals(length[0], hierarchy.getLength(e), 1e-6);
+            assertEquals(time[0], hierarchy.getMinimumTravelTime(e), 1e-6);
+        }
+    }
+
+    @Test
+    public void testQueries() {
+        checkQueries(hierarchy);
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        File file = folder.newFile();
+        hierarchy.write(file);
+        ContractionHierarchy read = ContractionHierarchy.read(file, graph, inspector);
+        assertEquals(hierarchy.getMapId(), read.getMapId());
+        assertEquals(hierarchy.getNumberOfArcs(), read.getNumberOfArcs());
+        assertEquals(hierarchy.getFingerprint(), read.getFingerprint());
+        assertEquals(hierarchy.getNumberOfEdges(), read.getNumberOfEdges());
+        checkQueries(read);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherMap() throws IOException {
+        File file = folder.newFile();
+        hierarchy.write(file);
+        ContractionHierarchy.read(file,
+                new Graph("OTHER", "", Arrays.asList(new Node(0, null)), null), inspector);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherGraph() throws IOException {
+        // Same map ID and number of nodes, but other roads.
+        File file = folder.newFile();
+        hierarchy.write(file);
+        ContractionHierarchy.read(file, RandomGraphs.create(new Random(43), "ID", 60, 150),
+                inspector);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherInspector() throws IOException {
+        File file = folder.newFile();
+        hierarchy.write(file);
+        ContractionHierarchy.read(file, graph, ArcInspectorFactory.getAllFilters().get(2));
+    }
+
+    @Test
+    public void testSameNode() {
+        Node node = graph.get(0);
+        assertFalse(new ContractionHierarchiesAlgorithm(
+                new ShortestPathData(graph, node, node, inspector), hierarchy).run()
+                        .isFeasible());
+    }
+
+}
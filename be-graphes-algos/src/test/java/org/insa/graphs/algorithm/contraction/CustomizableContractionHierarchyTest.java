@@ -0,0 +1,199 @@
+package org.insa.graphs.algorithm.contraction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.shortestpath.ContractionHierarchiesAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CustomizableContractionHierarchyTest {
+
+    // Random graphs, with and without positions.
+    private static Graph graphWithPoints, graphWithoutPoints;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() {
+        graphWithPoints = RandomGraphs.create(new Random(42), "POINTS", 60, 150, true);
+        graphWithoutPoints = RandomGraphs.create(new Random(42), "NOPOINTS", 60, 150);
+    }
+
+    /**
+     * Check that the given hierarchy customized for each inspector gives the same
+     * path lengths as Dijkstra.
+     */
+    private void checkQueries(Graph graph, CustomizableContractionHierarchy cch) {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            ContractionHierarchy hierarchy = cch.customize(graph, inspector);
+            for (Node origin: graph.getNodes()) {
+                for (Node destination: graph.getNodes()) {
+                    ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                            inspector);
+                    ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                    ShortestPathSolution actual = new ContractionHierarchiesAlgorithm(data,
+                            hierarchy).run();
+                    assertEquals(expected.isFeasible(), actual.isFeasible());
+                    if (expected.isFeasible()) {
+                        assertTrue(actual.getPath().isValid());
+                        assertEquals(destination, actual.getPath().getDestination());
+                        double cost = 0;
+                        for (Arc arc: actual.getPath().getArcs()) {
+                            assertTrue(inspector.isAllowed(arc));
+                            cost += inspector.getCost(arc);
+                        }
+                        double expectedCost = 0;
+                        for (Arc arc: expected.getPath().getArcs()) {
+                            expectedCost += inspector.getCost(arc);
+                        }
+                        assertEquals(expectedCost, cost, 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQueriesWithPoints() {
+        checkQueries(graphWithPoints, CustomizableContractionHierarchy.compute(graphWithPoints));
+    }
+
+    @Test
+    public void testQueriesWithoutPoints() {
+        checkQueries(graphWithoutPoints,
+                CustomizableContractionHierarchy.compute(graphWithoutPoints));
+    }
+
+    @Test
+    public void testRanks() {
+        CustomizableContractionHierarchy cch = CustomizableContractionHierarchy
+                .compute(graphWithPoints);
+        List<Integer> ranks = new ArrayList<>();
+        for (int node = 0; node < graphWithPoints.size(); ++node) {
+            ranks.add(cch.getRank(node));
+        }
+        ranks.sort(null);
+        for (int i = 0; i < ranks.size(); ++i) {
+            assertEquals(i, (int) ranks.get(i));
+        }
+    }
+
+    @Test
+    public void testLowerTriangles() {
+        // Customizations share the edges of the ordering, which closes every
+        // lower triangle, and the weight of each edge is at most the weight of
+        // its lower triangles and is the cost of its unpacked arcs.
+        final Graph graph = graphWithPoints;
+        final CustomizableContractionHierarchy cch = CustomizableContractionHierarchy
+                .compute(graph);
+        final int n = graph.size();
+        ContractionHierarchy previous = null;
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            ContractionHierarchy hierarchy = cch.customize(graph, inspector);
+            Map<Long, Double> weights = new HashMap<>();
+            List<List<Integer>> higher = new ArrayList<>();
+            for (int node = 0; node < n; ++node) {
+                higher.add(new ArrayList<>());
+            }
+            for (int e = 0; e < hierarchy.getNumberOfEdges(); ++e) {
+                final int tail = hierarchy.getTail(e), head = hierarchy.getHead(e);
+                assertEquals(cch.getRank(tail), hierarchy.getRank(tail));
+                if (previous != null) {
+                    assertEquals(previous.getTail(e), tail);
+                    assertEquals(previous.getHead(e), head);
+                }
+                weights.put((long) tail * n + head, hierarchy.getWeight(e));
+                if (hierarchy.getRank(head) > hierarchy.getRank(tail)) {
+                    higher.get(tail).add(head);
+                }
+                if (hierarchy.getWeight(e) != Double.POSITIVE_INFINITY) {
+                    final double[] cost = { 0 };
+                    hierarchy.unpack(e, a -> {
+                        Arc arc = graph.getAdjacency().getArc(a);
+                        assertTrue(inspector.isAllowed(arc));
+                        cost[0] += inspector.getCost(arc);
+                    });
+                    assertEquals(hierarchy.getWeight(e), cost[0], 1e-6);
+                }
+            }
+            for (int v = 0; v < n; ++v) {
+                for (int x: higher.get(v)) {
+                    for (int y: higher.get(v)) {
+                        if (x != y) {
+                            final Double weight = weights.get((long) x * n + y);
+                            assertNotNull(weight);
+                            assertTrue(weight <= weights.get((long) x * n + v)
+                                    + weights.get((long) v * n + y) + 1e-6);
+                        }
+                    }
+                }
+            }
+            previous = hierarchy;
+        }
+    }
+
+    @Test
+    public void testCustomizationCache() {
+        CustomizableContractionHierarchy cch = CustomizableContractionHierarchy
+                .compute(graphWithPoints);
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        assertSame(cch.getCustomization(graphWithPoints, inspector),
+                cch.getCustomization(graphWithPoints, inspector));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCustomizeOtherGraph() {
+        CustomizableContractionHierarchy.compute(graphWithPoints).customize(graphWithoutPoints,
+                ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        CustomizableContractionHierarchy cch = CustomizableContractionHierarchy
+                .compute(graphWithPoints);
+        File file = folder.newFile();
+        cch.write(file);
+        CustomizableContractionHierarchy read = CustomizableContractionHierarchy.read(file,
+                graphWithPoints);
+        assertEquals(cch.getNumberOfEdges(), read.getNumberOfEdges());
+        for (int node = 0; node < graphWithPoints.size(); ++node) {
+            assertEquals(cch.getRank(node), read.getRank(node));
+        }
+        checkQueries(graphWithPoints, read);
+    }
+
+    @Test
+    public void testWriteReadCustomization() throws IOException {
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(2);
+        ContractionHierarchy hierarchy = CustomizableContractionHierarchy
+                .compute(graphWithPoints).customize(graphWithPoints, inspector);
+        File file = folder.newFile();
+        hierarchy.write(file);
+        assertEquals(hierarchy.getNumberOfEdges(),
+                ContractionHierarchy.read(file, graphWithPoints, inspector).getNumberOfEdges());
+    }
+
+}
@@ -0,0 +1,155 @@
+package org.insa.graphs.algorithm.hublabels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.contraction.ContractionHierarchy;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.HubLabelingAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HubLabelsTest {
+
+    // Random graphs.
+    private static Graph graph, otherGraph;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(new Random(5), "LABELS", 60, 150);
+        otherGraph = RandomGraphs.create(new Random(6), "OTHER", 60, 150);
+    }
+
+    /**
+     * Check that the given labels give the same costs as Dijkstra, with and
+     * without paths.
+     */
+    private void checkQueries(HubLabels labels, ArcInspector inspector) {
+        for (Node origin: graph.getNodes()) {
+            for (Node destination: graph.getNodes()) {
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                ShortestPathSolution costOnly = new HubLabelingAlgorithm(data, labels, false)
+                        .run();
+                ShortestPathSolution actual = new HubLabelingAlgorithm(data, labels, true).run();
+                assertEquals(expected.isFeasible(), costOnly.isFeasible());
+                assertEquals(expected.isFeasible(), actual.isFeasible());
+                if (expected.isFeasible()) {
+                    assertFalse(costOnly.hasPath());
+                    assertNull(costOnly.getPath());
+                    assertEquals(expected.getCost(), costOnly.getCost(), 1e-6);
+                    assertEquals(expected.getCost(),
+                            labels.getDistance(origin.getId(), destination.getId()), 1e-6);
+                    assertTrue(actual.hasPath());
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(origin, actual.getPath().getOrigin());
+                    assertEquals(destination, actual.getPath().getDestination());
+                    for (Arc arc: actual.getPath().getArcs()) {
+                        assertTrue(inspector.isAllowed(arc));
+                    }
+                    assertEquals(expected.getCost(), actual.getCost(), 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQueries() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            ContractionHierarchy hierarchy = ContractionHierarchy.compute(graph, inspector);
+            PreprocessingStore.put(graph, inspector, ContractionHierarchy.FILE_EXTENSION,
+                    hierarchy);
+            checkQueries(HubLabels.compute(hierarchy), inspector);
+        }
+    }
+
+    @Test
+    public void testLabelSizes() {
+        // Each node is a hub of its own labels, at distance 0, and the other hubs
+        // of its labels have a higher rank in the hierarchy, so the labels of the
+        // node of highest rank only hold this node.
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ContractionHierarchy hierarchy = ContractionHierarchy.compute(graph, inspector);
+        HubLabels labels = HubLabels.compute(hierarchy);
+        long nbEntries = 0;
+        for (Node node: graph.getNodes()) {
+            final int id = node.getId(), higher = graph.size() - hierarchy.getRank(id);
+            assertEquals(0, labels.getDistance(id, id), 0);
+            for (boolean backward: new boolean[] { false, true }) {
+                final int size = labels.getLabelSize(id, backward);
+                assertTrue(size >= 1 && size <= higher);
+                if (higher == 1) {
+                    assertEquals(1, size);
+                }
+                nbEntries += size;
+            }
+        }
+        assertEquals(labels.getNumberOfEntries(), nbEntries);
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        ContractionHierarchy hierarchy = ContractionHierarchy.compute(graph, inspector);
+        PreprocessingStore.put(graph, inspector, ContractionHierarchy.FILE_EXTENSION, hierarchy);
+        HubLabels labels = HubLabels.compute(hierarchy);
+        File file = folder.newFile();
+        labels.write(file);
+        HubLabels read = HubLabels.read(file, graph, inspector);
+        assertEquals(labels.getFingerprint(), read.getFingerprint());
+        assertEquals(labels.getNumberOfEntries(), read.getNumberOfEntries());
+        for (Node node: graph.getNodes()) {
+            assertEquals(labels.getLabelSize(node.getId(), false),
+                    read.getLabelSize(node.getId(), false));
+            assertEquals(labels.getLabelSize(node.getId(), true),
+                    read.getLabelSize(node.getId(), true));
+        }
+        checkQueries(read, inspector);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherMap() throws IOException {
+        File file = folder.newFile();
+        HubLabels.compute(ContractionHierarchy.compute(graph,
+                ArcInspectorFactory.getAllFilters().get(0))).write(file);
+        HubLabels.read(file, otherGraph, ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherInspector() throws IOException {
+        File file = folder.newFile();
+        HubLabels.compute(ContractionHierarchy.compute(graph,
+                ArcInspectorFactory.getAllFilters().get(0))).write(file);
+        HubLabels.read(file, graph, ArcInspectorFactory.getAllFilters().get(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnpackOtherHierarchy() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        HubLabels labels = HubLabels.compute(ContractionHierarchy.compute(graph, inspector));
+        labels.unpack(ContractionHierarchy.compute(otherGraph, inspector), 0, 1, a -> {
+        });
+    }
+
+}
@@ -0,0 +1,236 @@
+package org.insa.graphs.algorithm.isochrone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class IsochroneAlgorithmTest {
+
+    // Side of the grid of nodes.
+    private static final int SIDE = 12;
+
+    // Grid-like graph with coordinates, and a copy without coordinates.
+    private static Graph graph, graphWithoutPoints;
+
+    // Filter used by the tests (all roads allowed, shortest length).
+    private static ArcInspector inspector;
+
+    /**
+     * Create a graph with the given nodes, linking neighbors of the grid (with a
+     * few one-way roads and a few missing roads).
+     */
+    private static Graph createGraph(Node[] nodes, Random random) {
+        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+        for (AccessMode mode: AccessMode.values()) {
+            restrictions.put(mode, AccessRestriction.ALLOWED);
+        }
+        AccessRestrictions access = new AccessRestrictions(restrictions);
+        for (int i = 0; i < nodes.length; ++i) {
+            for (int j: new int[] { i + 1, i + SIDE }) {
+                if ((j == i + 1 && j % SIDE == 0) || j >= nodes.length
+                        || random.nextInt(10) == 0) {
+                    continue;
+                }
+                Node.linkNodes(nodes[i], nodes[j], 100 + random.nextInt(100),
+                        new RoadInformation(RoadType.UNCLASSIFIED, access,
+                                random.nextInt(5) == 0, 50, null),
+                        new ArrayList<>());
+            }
+        }
+        return new Graph("ISOCHRONE", "", Arrays.asList(nodes), null);
+    }
+
+    @BeforeClass
+    public static void initAll() {
+        Node[] nodes = new Node[SIDE * SIDE], bare = new Node[SIDE * SIDE];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(1.4f + 0.001f * (i % SIDE), 43.6f + 0.001f * (i / SIDE)));
+            bare[i] = new Node(i, null);
+        }
+        graph = createGraph(nodes, new Random(7));
+        graphWithoutPoints = createGraph(bare, new Random(7));
+        inspector = ArcInspectorFactory.getAllFilters().get(0);
+    }
+
+    /**
+     * @return Cost of the shortest path from the given origin to each node, using
+     *         Dijkstra.
+     */
+    private static double[] computeCosts(Node origin) {
+        double[] costs = new double[graph.size()];
+        for (Node node: graph.getNodes()) {
+            if (node == origin) {
+                continue;
+            }
+            ShortestPathSolution solution = new DijkstraAlgorithm(
+                    new ShortestPathData(graph, origin, node, inspector)).run();
+            costs[node.getId()] = solution.isFeasible() ? solution.getCost()
+                    : Double.POSITIVE_INFINITY;
+        }
+        return costs;
+    }
+
+    /**
+     * @return true if the given point is inside the given polygon.
+     */
+    private static boolean isInside(List<Point> polygon, Point point) {
+        boolean inside = false;
+        for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i++) {
+            Point a = polygon.get(i), b = polygon.get(j);
+            if ((a.getLatitude() > point.getLatitude()) != (b.getLatitude() > point
+                    .getLatitude())
+                    && point.getLongitude() < a.getLongitude()
+                            + (b.getLongitude() - a.getLongitude())
+                                    * (point.getLatitude() - a.getLatitude())
+                                    / (b.getLatitude() - a.getLatitude())) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * @return Minimum longitude and latitude, and maximum longitude and latitude of
+     *         the given points.
+     */
+    private static float[] getBounds(List<Point> points) {
+        float[] bounds = { Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE,
+                -Float.MAX_VALUE };
+        for (Point point: points) {
+            bounds[0] = Math.min(bounds[0], point.getLongitude());
+            bounds[1] = Math.min(bounds[1], point.getLatitude());
+            bounds[2] = Math.max(bounds[2], point.getLongitude());
+            bounds[3] = Math.max(bounds[3], point.getLatitude());
+        }
+        return bounds;
+    }
+
+    @Test
+    public void testReachableNodes() {
+        Random random = new Random(11);
+        for (int q = 0; q < 5; ++q) {
+            Node origin = graph.get(random.nextInt(graph.size()));
+            double[] costs = computeCosts(origin);
+            double[] budgets = { 1500, 300, 800 };
+            IsochroneData data = new IsochroneData(graph, origin, budgets, inspector);
+            IsochroneSolution solution = new IsochroneAlgorithm(data).run();
+            assertTrue(solution.isFeasible());
+            assertEquals(3, solution.getNumberOfIsochrones());
+
+            // Budgets are sorted.
+            assertEquals(300, data.getBudget(0), 0);
+            assertEquals(1500, data.getMaximumBudget(), 0);
+
+            for (int i = 0; i < data.getNumberOfBudgets(); ++i) {
+                BitSet reachable = solution.getReachable(i);
+                for (Node node: graph.getNodes()) {
+                    final double cost = costs[node.getId()];
+                    assertEquals(cost <= data.getBudget(i), reachable.get(node.getId()));
+                    if (cost <= data.getMaximumBudget()) {
+                        assertEquals(cost, solution.getCost(node), 1e-6);
+                    }
+                    else {
+                        assertEquals(Double.POSITIVE_INFINITY, solution.getCost(node), 0);
+                    }
+                }
+                if (i > 0) {
+                    BitSet previous = (BitSet) solution.getReachable(i - 1).clone();
+                    previous.andNot(reachable);
+                    assertTrue(previous.isEmpty());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBoundaries() {
+        Random random = new Random(17);
+        for (int q = 0; q < 5; ++q) {
+            Node origin = graph.get(random.nextInt(graph.size()));
+            IsochroneData data = new IsochroneData(graph, origin, new double[] { 400, 1200 },
+                    inspector);
+            IsochroneSolution solution = new IsochroneAlgorithm(data, 32).run();
+            for (int i = 0; i < data.getNumberOfBudgets(); ++i) {
+                List<Point> boundary = solution.getBoundary(i);
+                assertTrue(boundary.size() >= 4);
+                BitSet reachable = solution.getReachable(i);
+                for (int node = reachable.nextSetBit(0); node >= 0; node = reachable
+                        .nextSetBit(node + 1)) {
+                    assertTrue(isInside(boundary, graph.get(node).getPoint()));
+                }
+            }
+
+            // The boundary of the smaller budget is within the larger one.
+            float[] inner = getBounds(solution.getBoundary(0)),
+                    outer = getBounds(solution.getBoundary(1));
+            assertTrue(outer[0] <= inner[0] && outer[1] <= inner[1]);
+            assertTrue(outer[2] >= inner[2] && outer[3] >= inner[3]);
+        }
+    }
+
+    @Test
+    public void testZeroBudget() {
+        Node origin = graph.get(SIDE + 1);
+        IsochroneSolution solution = new IsochroneAlgorithm(
+                new IsochroneData(graph, origin, new double[] { 0 }, inspector)).run();
+        assertEquals(1, solution.getReachable(0).cardinality());
+        assertTrue(solution.getReachable(0).get(origin.getId()));
+        assertEquals(0, solution.getCost(origin), 0);
+        assertTrue(isInside(solution.getBoundary(0), origin.getPoint()));
+    }
+
+    @Test
+    public void testWithoutPoints() {
+        Node origin = graphWithoutPoints.get(0);
+        IsochroneSolution solution = new IsochroneAlgorithm(
+                new IsochroneData(graphWithoutPoints, origin, new double[] { 500 }, inspector))
+                        .run();
+        assertTrue(solution.getReachable(0).cardinality() > 1);
+        assertTrue(solution.getBoundary(0).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoBudget() {
+        new IsochroneData(graph, graph.get(0), new double[0], inspector);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBudget() {
+        new IsochroneData(graph, graph.get(0), new double[] { 100, -1 }, inspector);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInfiniteBudget() {
+        new IsochroneData(graph, graph.get(0), new double[] { Double.POSITIVE_INFINITY },
+                inspector);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResolution() {
+        new IsochroneAlgorithm(new IsochroneData(graph, graph.get(0), new double[] { 100 },
+                inspector), 0);
+    }
+
+}
@@ -0,0 +1,228 @@
+package org.insa.graphs.algorithm.landmarks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.shortestpath.ALTAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LandmarkTablesTest {
+
+    // Random graph with one-way roads, and all-roads inspector.
+    private static Graph graph;
+    private static ArcInspector inspector;
+
+    // Distances between all pairs of nodes.
+    private static double[][] distances;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(new Random(42), "ID", 40, 100);
+        inspector = ArcInspectorFactory.getAllFilters().get(0);
+
+        distances = new double[graph.size()][graph.size()];
+        for (Node origin: graph.getNodes()) {
+            for (Node destination: graph.getNodes()) {
+                ShortestPathSolution solution = new DijkstraAlgorithm(
+                        new ShortestPathData(graph, origin, destination, inspector)).run();
+                distances[origin.getId()][destination.getId()] = origin == destination ? 0
+                        : solution.isFeasible() ? solution.getPath().getLength()
+                                : Double.POSITIVE_INFINITY;
+            }
+        }
+    }
+
+    /**
+     * Check the distances and lower bounds of the given tables.
+     */
+    private void checkTables(LandmarkTables tables) {
+        for (int i = 0; i < tables.getNumberOfLandmarks(); ++i) {
+            final int landmark = tables.getLandmark(i);
+            for (int u = 0; u < graph.size(); ++u) {
+                assertEquals(distances[landmark][u], tables.getDistanceFrom(i, u), 1e-6);
+                assertEquals(distances[u][landmark], tables.getDistanceTo(i, u), 1e-6);
+                for (int v = 0; v < graph.size(); ++v) {
+                    double bound = tables.getLowerBound(i, u, v);
+                    assertTrue(bound >= 0);
+                    assertTrue(bound <= distances[u][v]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAvoid() {
+        LandmarkTables tables = LandmarkTables.compute(graph, inspector, 4,
+                LandmarkSelection.AVOID);
+        assertEquals(4, tables.getNumberOfLandmarks());
+        checkTables(tables);
+    }
+
+    @Test
+    public void testFarthest() {
+        LandmarkTables tables = LandmarkTables.compute(graph, inspector, 4,
+                LandmarkSelection.FARTHEST);
+        assertEquals(4, tables.getNumberOfLandmarks());
+        checkTables(tables);
+    }
+
+    @Test
+    public void testMoreLandmarksThanNodes() {
+        LandmarkTables tables = LandmarkTables.compute(graph, inspector, 100,
+                LandmarkSelection.AVOID);
+        assertEquals(graph.size(), tables.getNumberOfLandmarks());
+        checkTables(tables);
+    }
+
+    @Test
+    public void testExactBoundsToLandmarks() {
+        // The bounds to and from a landmark are its exact distances, up to the
+        // rounding of the distances.
+        LandmarkTables tables = LandmarkTables.compute(graph, inspector, 4,
+                LandmarkSelection.AVOID);
+        for (int i = 0; i < tables.getNumberOfLandmarks(); ++i) {
+            final int landmark = tables.getLandmark(i);
+            for (int u = 0; u < graph.size(); ++u) {
+                assertEquals(distances[u][landmark], tables.getLowerBound(i, u, landmark),
+                        1e-4 * distances[u][landmark]);
+                assertEquals(distances[landmark][u], tables.getLowerBound(i, landmark, u),
+                        1e-4 * distances[landmark][u]);
+            }
+        }
+    }
+
+    @Test
+    public void testConsistentBounds() {
+        // The bounds satisfy the triangle inequality along each arc, so that A*
+        // does not settle a node twice.
+        LandmarkTables tables = LandmarkTables.compute(graph, inspector, 4,
+                LandmarkSelection.FARTHEST);
+        for (int i = 0; i < tables.getNumberOfLandmarks(); ++i) {
+            for (Node node: graph.getNodes()) {
+                for (Arc arc: node.getSuccessors()) {
+                    if (!inspector.isAllowed(arc)) {
+                        continue;
+                    }
+                    final int u = arc.getOrigin().getId(), v = arc.getDestination().getId();
+                    for (int t = 0; t < graph.size(); ++t) {
+                        final double bound = tables.getLowerBound(i, v, t);
+                        assertTrue(tables.getLowerBound(i, u, t) <= inspector.getCost(arc)
+                                + bound + 1e-4 * (Double.isInfinite(bound) ? 0 : bound));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        LandmarkTables tables = LandmarkTables.compute(graph, inspector, 4,
+                LandmarkSelection.AVOID);
+        File file = folder.newFile();
+        tables.write(file);
+        LandmarkTables read = LandmarkTables.read(file, graph, inspector);
+        assertEquals(tables.getMapId(), read.getMapId());
+        assertEquals(tables.getNumberOfArcs(), read.getNumberOfArcs());
+        assertEquals(tables.getFingerprint(), read.getFingerprint());
+        assertEquals(tables.getNumberOfLandmarks(), read.getNumberOfLandmarks());
+        for (int i = 0; i < tables.getNumberOfLandmarks(); ++i) {
+            assertEquals(tables.getLandmark(i), read.getLandmark(i));
+            for (int u = 0; u < graph.size(); ++u) {
+                assertEquals(tables.getDistanceFrom(i, u), read.getDistanceFrom(i, u), 0);
+                assertEquals(tables.getDistanceTo(i, u), read.getDistanceTo(i, u), 0);
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherMap() throws IOException {
+        File file = folder.newFile();
+        LandmarkTables.compute(graph, inspector, 4, LandmarkSelection.AVOID).write(file);
+        LandmarkTables.read(file,
+                new Graph("OTHER", "", Arrays.asList(new Node(0, null)), null), inspector);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherGraph() throws IOException {
+        // Same map ID and number of nodes, but other roads.
+        File file = folder.newFile();
+        LandmarkTables.compute(graph, inspector, 4, LandmarkSelection.AVOID).write(file);
+        LandmarkTables.read(file, RandomGraphs.create(new Random(43), "ID", 40, 100), inspector);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadOtherInspector() throws IOException {
+        File file = folder.newFile();
+        LandmarkTables.compute(graph, inspector, 4, LandmarkSelection.AVOID).write(file);
+        LandmarkTables.read(file, graph, ArcInspectorFactory.getAllFilters().get(2));
+    }
+
+    @Test
+    public void testStoreWritable() throws IOException {
+        File directory = folder.newFolder();
+        try {
+            // Files are only written to the directory once enabled.
+            PreprocessingStore.setDirectory(directory);
+            LandmarkTables.get(RandomGraphs.create(new Random(42), "ID", 40, 100), inspector);
+            assertEquals(0, directory.listFiles().length);
+
+            PreprocessingStore.setDirectory(directory, true);
+            LandmarkTables tables = LandmarkTables
+                    .get(RandomGraphs.create(new Random(42), "ID", 40, 100), inspector);
+            assertEquals(1, directory.listFiles().length);
+
+            // The file is read for an identical graph, and not for another one.
+            Graph same = RandomGraphs.create(new Random(42), "ID", 40, 100);
+            assertEquals(tables.getFingerprint(),
+                    LandmarkTables.read(directory.listFiles()[0], same, inspector)
+                            .getFingerprint());
+        }
+        finally {
+            PreprocessingStore.setDirectory(null);
+        }
+    }
+
+    @Test
+    public void testALT() {
+        LandmarkTables tables = LandmarkTables.compute(graph, inspector, 4,
+                LandmarkSelection.AVOID);
+        for (Node origin: graph.getNodes()) {
+            for (Node destination: graph.getNodes()) {
+                if (origin == destination) {
+                    continue;
+                }
+                ShortestPathSolution solution = new ALTAlgorithm(
+                        new ShortestPathData(graph, origin, destination, inspector), tables).run();
+                double expected = distances[origin.getId()][destination.getId()];
+                if (Double.isInfinite(expected)) {
+                    assertTrue(!solution.isFeasible());
+                }
+                else {
+                    assertEquals(expected, solution.getPath().getLength(), 1e-6);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+package org.insa.graphs.algorithm.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.matrix.DistanceMatrixAlgorithm.Method;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DistanceMatrixAlgorithmTest {
+
+    // Random graph, sources and targets (with duplicates and a source).
+    private static Graph graph;
+    private static List<Node> sources, targets;
+
+    @BeforeClass
+    public static void initAll() {
+        Random random = new Random(13);
+        graph = RandomGraphs.create(random, "MATRIX", 70, 170);
+        sources = new ArrayList<>();
+        targets = new ArrayList<>();
+        for (int i = 0; i < 15; ++i) {
+            sources.add(graph.get(random.nextInt(graph.size())));
+            targets.add(graph.get(random.nextInt(graph.size())));
+        }
+        targets.add(targets.get(0));
+        targets.add(sources.get(0));
+    }
+
+    /**
+     * Check the given solution against Dijkstra.
+     */
+    private void checkSolution(DistanceMatrixSolution solution, ArcInspector inspector,
+            boolean withPaths) {
+        assertEquals(sources.size(), solution.getNumberOfSources());
+        assertEquals(targets.size(), solution.getNumberOfTargets());
+        assertEquals(withPaths, solution.hasPaths());
+        for (int i = 0; i < sources.size(); ++i) {
+            for (int j = 0; j < targets.size(); ++j) {
+                final Node source = sources.get(i), target = targets.get(j);
+                final Path path = solution.getPath(i, j);
+                if (source == target) {
+                    assertEquals(0, solution.getCost(i, j), 0);
+                    assertEquals(0, solution.getLength(i, j), 0);
+                    if (withPaths) {
+                        assertEquals(source, path.getOrigin());
+                        assertTrue(path.getArcs().isEmpty());
+                    }
+                    continue;
+                }
+                ShortestPathSolution expected = new DijkstraAlgorithm(
+                        new ShortestPathData(graph, source, target, inspector)).run();
+                assertEquals(expected.getCost(), solution.getCost(i, j), 1e-6);
+                if (!expected.isFeasible()) {
+                    assertEquals(Double.POSITIVE_INFINITY, solution.getLength(i, j), 0);
+                    assertNull(path);
+                    continue;
+                }
+                if (withPaths) {
+                    assertTrue(path.isValid());
+                    assertEquals(source, path.getOrigin());
+                    assertEquals(target, path.getDestination());
+                    assertEquals(path.getLength(), solution.getLength(i, j), 1e-3);
+                    assertEquals(path.getMinimumTravelTime(),
+                            solution.getMinimumTravelTime(i, j), 1e-6);
+                }
+                else {
+                    assertNull(path);
+                    if (inspector.getMode() == Mode.LENGTH) {
+                        assertEquals(solution.getCost(i, j), solution.getLength(i, j), 1e-3);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMethods() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            DistanceMatrixData data = new DistanceMatrixData(graph, sources, targets, inspector);
+            for (Method method: Method.values()) {
+                checkSolution(new DistanceMatrixAlgorithm(data, method, false).run(), inspector,
+                        false);
+                checkSolution(new DistanceMatrixAlgorithm(data, method, true).run(), inspector,
+                        true);
+            }
+        }
+    }
+
+    @Test
+    public void testSameLengths() {
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        DistanceMatrixData data = new DistanceMatrixData(graph, sources, targets, inspector);
+        DistanceMatrixSolution buckets = new DistanceMatrixAlgorithm(data).run();
+        DistanceMatrixSolution trees = new DistanceMatrixAlgorithm(data, Method.TREES, false)
+                .run();
+        assertFalse(buckets.hasPaths());
+        for (int i = 0; i < sources.size(); ++i) {
+            for (int j = 0; j < targets.size(); ++j) {
+                // Shortest paths in LENGTH mode have the same length.
+                assertEquals(trees.getLength(i, j), buckets.getLength(i, j), 1e-3);
+            }
+        }
+    }
+
+    @Test
+    public void testBucketsWithoutPaths() {
+        // The lengths and times summed on the edges of the hierarchy are those of the
+        // unpacked paths.
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            DistanceMatrixData data = new DistanceMatrixData(graph, sources, targets, inspector);
+            DistanceMatrixSolution summed = new DistanceMatrixAlgorithm(data).run();
+            DistanceMatrixSolution unpacked = new DistanceMatrixAlgorithm(data, Method.BUCKETS,
+                    true).run();
+            for (int i = 0; i < sources.size(); ++i) {
+                for (int j = 0; j < targets.size(); ++j) {
+                    assertEquals(unpacked.getLength(i, j), summed.getLength(i, j), 1e-6);
+                    assertEquals(unpacked.getMinimumTravelTime(i, j),
+                            summed.getMinimumTravelTime(i, j), 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRowsAndColumns() {
+        // The columns of the same target are equal, and no cost is above the cost
+        // through the first source, which is also the last target.
+        final int first = targets.size() - 1, duplicate = sources.size();
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            DistanceMatrixData data = new DistanceMatrixData(graph, sources, targets, inspector);
+            for (Method method: Method.values()) {
+                DistanceMatrixSolution solution = new DistanceMatrixAlgorithm(data, method,
+                        false).run();
+                for (int i = 0; i < sources.size(); ++i) {
+                    assertEquals(solution.getCost(i, 0), solution.getCost(i, duplicate), 0);
+                    for (int j = 0; j < targets.size(); ++j) {
+                        assertTrue(solution.getCost(i, j) <= solution.getCost(i, first)
+                                + solution.getCost(0, j) + 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testObserver() {
+        final Thread thread = Thread.currentThread();
+        for (Method method: Method.values()) {
+            DistanceMatrixAlgorithm algorithm = new DistanceMatrixAlgorithm(
+                    new DistanceMatrixData(graph, sources, targets,
+                            ArcInspectorFactory.getAllFilters().get(0)),
+                    method, false);
+            final boolean[] notified = new boolean[sources.size()];
+            algorithm.addObserver((index, source) -> {
+                assertSame(thread, Thread.currentThread());
+                assertFalse(notified[index]);
+                assertSame(sources.get(index), source);
+                notified[index] = true;
+            });
+            algorithm.run();
+            for (boolean row: notified) {
+                assertTrue(row);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLarge() {
+        List<Node> nodes = Collections.nCopies(1 << 16, graph.get(0));
+        new DistanceMatrixData(graph, nodes, nodes, ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+}
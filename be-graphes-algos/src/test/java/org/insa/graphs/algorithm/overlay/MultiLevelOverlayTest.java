@@ -0,0 +1,341 @@
+package org.insa.graphs.algorithm.overlay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.partition.MultiLevelPartition;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.MultiLevelOverlayAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MultiLevelOverlayTest {
+
+    // Maximum sizes of the cells of the test partitions.
+    private static final int[] CELL_SIZES = { 4, 12, 30 };
+
+    // Random graphs, with and without positions.
+    private static Graph graphWithPoints, graphWithoutPoints;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void initAll() {
+        graphWithPoints = RandomGraphs.create(new Random(7), "POINTS", 60, 160, true);
+        graphWithoutPoints = RandomGraphs.create(new Random(7), "NOPOINTS", 60, 160);
+    }
+
+    /**
+     * Inspector forbidding some arcs, and delegating to another inspector for the
+     * other arcs.
+     */
+    private static class ClosedArcs implements ArcInspector {
+
+        private final ArcInspector inspector;
+        private final Set<Arc> closed;
+
+        ClosedArcs(ArcInspector inspector, Set<Arc> closed) {
+            this.inspector = inspector;
+            this.closed = closed;
+        }
+
+        @Override
+        public boolean isAllowed(Arc arc) {
+            return !this.closed.contains(arc) && this.inspector.isAllowed(arc);
+        }
+
+        @Override
+        public double getCost(Arc arc) {
+            return this.inspector.getCost(arc);
+        }
+
+        @Override
+        public Mode getMode() {
+            return this.inspector.getMode();
+        }
+
+    }
+
+    /**
+     * Check that the given customization gives the same path lengths as Dijkstra.
+     */
+    private void checkQueries(Graph graph, OverlayCustomization customization,
+            ArcInspector inspector) {
+        for (Node origin: graph.getNodes()) {
+            for (Node destination: graph.getNodes()) {
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                ShortestPathSolution actual = new MultiLevelOverlayAlgorithm(data, customization)
+                        .run();
+                assertEquals(expected.isFeasible(), actual.isFeasible());
+                if (expected.isFeasible()) {
+                    assertTrue(actual.getPath().isValid());
+                    assertEquals(origin, actual.getPath().getOrigin());
+                    assertEquals(destination, actual.getPath().getDestination());
+                    double cost = 0, expectedCost = 0;
+                    for (Arc arc: actual.getPath().getArcs()) {
+                        assertTrue(inspector.isAllowed(arc));
+                        cost += inspector.getCost(arc);
+                    }
+                    for (Arc arc: expected.getPath().getArcs()) {
+                        expectedCost += inspector.getCost(arc);
+                    }
+                    assertEquals(expectedCost, cost, 1e-6);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that the given partition is nested, with cells of the expected sizes.
+     */
+    private void checkPartition(MultiLevelPartition partition, Graph graph) {
+        assertEquals(CELL_SIZES.length, partition.getNumberOfLevels());
+        for (int level = 0; level < partition.getNumberOfLevels(); ++level) {
+            int[] sizes = new int[partition.getNumberOfCells(level)];
+            for (Node node: graph.getNodes()) {
+                ++sizes[partition.getCell(level, node.getId())];
+            }
+            for (int size: sizes) {
+                assertTrue(size > 0 && size <= CELL_SIZES[level]);
+            }
+            for (Node node: graph.getNodes()) {
+                for (Node other: graph.getNodes()) {
+                    if (level > 0 && partition.getCell(level - 1, node.getId()) == partition
+                            .getCell(level - 1, other.getId())) {
+                        assertEquals(partition.getCell(level, node.getId()),
+                                partition.getCell(level, other.getId()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPartition() {
+        checkPartition(MultiLevelPartition.compute(graphWithPoints, CELL_SIZES), graphWithPoints);
+        checkPartition(MultiLevelPartition.compute(graphWithoutPoints, CELL_SIZES),
+                graphWithoutPoints);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPartition() {
+        new MultiLevelPartition("POINTS", new int[][] { { 0, 0, 1, 1 }, { 0, 1, 1, 1 } });
+    }
+
+    @Test
+    public void testBoundaryNodes() {
+        MultiLevelOverlay overlay = new MultiLevelOverlay(graphWithPoints,
+                MultiLevelPartition.compute(graphWithPoints, CELL_SIZES));
+        for (int level = 0; level < overlay.getNumberOfLevels(); ++level) {
+            for (Node node: graphWithPoints.getNodes()) {
+                boolean boundary = false;
+                for (Arc arc: node.getSuccessors()) {
+                    boundary |= overlay.getCell(level, arc.getDestination().getId()) != overlay
+                            .getCell(level, node.getId());
+                }
+                for (Node other: graphWithPoints.getNodes()) {
+                    for (Arc arc: other.getSuccessors()) {
+                        boundary |= arc.getDestination() == node && overlay.getCell(level,
+                                other.getId()) != overlay.getCell(level, node.getId());
+                    }
+                }
+                final int index = overlay.getBoundaryIndex(level, node.getId());
+                assertEquals(boundary, index != -1);
+                if (boundary) {
+                    assertEquals(node.getId(), overlay.getBoundaryNode(level,
+                            overlay.getCell(level, node.getId()), index));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQueries() {
+        for (Graph graph: Arrays.asList(graphWithPoints, graphWithoutPoints)) {
+            MultiLevelOverlay overlay = new MultiLevelOverlay(graph,
+                    MultiLevelPartition.compute(graph, CELL_SIZES));
+            for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+                checkQueries(graph, overlay.customize(graph, inspector), inspector);
+            }
+        }
+    }
+
+    @Test
+    public void testCustomizationCache() {
+        MultiLevelOverlay overlay = new MultiLevelOverlay(graphWithPoints,
+                MultiLevelPartition.compute(graphWithPoints, CELL_SIZES));
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        assertSame(overlay.getCustomization(graphWithPoints, inspector),
+                overlay.getCustomization(graphWithPoints, inspector));
+    }
+
+    @Test
+    public void testUpdate() {
+        MultiLevelOverlay overlay = new MultiLevelOverlay(graphWithPoints,
+                MultiLevelPartition.compute(graphWithPoints, CELL_SIZES));
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(2);
+        OverlayCustomization previous = overlay.customize(graphWithPoints, inspector);
+
+        // Close all the arcs of a few nodes.
+        Random random = new Random(3);
+        Set<Arc> closed = new HashSet<>();
+        for (int i = 0; i < 4; ++i) {
+            closed.addAll(graphWithPoints.get(random.nextInt(graphWithPoints.size()))
+                    .getSuccessors());
+        }
+        ArcInspector closedInspector = new ClosedArcs(inspector, closed);
+        OverlayCustomization updated = overlay.customize(graphWithPoints, closedInspector,
+                previous, new ArrayList<>(closed));
+        OverlayCustomization expected = overlay.customize(graphWithPoints, closedInspector);
+        for (int level = 0; level < overlay.getNumberOfLevels(); ++level) {
+            for (int cell = 0; cell < overlay.getPartition().getNumberOfCells(level); ++cell) {
+                final int size = overlay.getNumberOfBoundaryNodes(level, cell);
+                for (int i = 0; i < size; ++i) {
+                    for (int j = 0; j < size; ++j) {
+                        assertEquals(expected.getDistance(level, cell, i, j),
+                                updated.getDistance(level, cell, i, j), 1e-6);
+                    }
+                }
+            }
+        }
+        checkQueries(graphWithPoints, updated, closedInspector);
+
+        // The previous customization is left unchanged.
+        checkQueries(graphWithPoints, previous, inspector);
+    }
+
+    @Test
+    public void testUpdateOnlyChangedCells() {
+        MultiLevelOverlay overlay = new MultiLevelOverlay(graphWithPoints,
+                MultiLevelPartition.compute(graphWithPoints, CELL_SIZES));
+        MultiLevelPartition partition = overlay.getPartition();
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        OverlayCustomization previous = overlay.customize(graphWithPoints, inspector);
+
+        // Close the arcs of one node.
+        Set<Arc> closed = new HashSet<>(graphWithPoints.get(11).getSuccessors());
+        ArcInspector closedInspector = new ClosedArcs(inspector, closed);
+        OverlayCustomization expected = overlay.customize(graphWithPoints, closedInspector);
+
+        for (int level = 0; level < overlay.getNumberOfLevels(); ++level) {
+            boolean[] changed = new boolean[partition.getNumberOfCells(level)];
+            for (Arc arc: closed) {
+                final int cell = partition.getCell(level, arc.getOrigin().getId());
+                changed[cell] |= partition.getCell(level, arc.getDestination().getId()) == cell;
+            }
+
+            // The cliques of the other cells of the level are set to NaN in the
+            // previous customization: the update must keep them as they are.
+            double[][] cliques = new double[overlay.getNumberOfLevels()][];
+            for (int l = 0; l < cliques.length; ++l) {
+                cliques[l] = previous.cliques[l].clone();
+            }
+            int nbChanged = 0;
+            for (int cell = 0; cell < changed.length; ++cell) {
+                final int size = overlay.getNumberOfBoundaryNodes(level, cell);
+                for (int i = 0; i < size && !changed[cell]; ++i) {
+                    for (int j = 0; j < size; ++j) {
+                        cliques[level][overlay.getMatrixIndex(level, cell, i, j)] = Double.NaN;
+                    }
+                }
+                nbChanged += changed[cell] ? 1 : 0;
+            }
+            assertTrue(nbChanged > 0 && (level > 0 || nbChanged < changed.length));
+            OverlayCustomization updated = overlay.customize(graphWithPoints, closedInspector,
+                    new OverlayCustomization(overlay, previous.costs, cliques),
+                    new ArrayList<>(closed));
+            for (int cell = 0; cell < changed.length; ++cell) {
+                final int size = overlay.getNumberOfBoundaryNodes(level, cell);
+                for (int i = 0; i < size; ++i) {
+                    for (int j = 0; j < size; ++j) {
+                        final double distance = updated.getDistance(level, cell, i, j);
+                        if (changed[cell]) {
+                            assertEquals(expected.getDistance(level, cell, i, j), distance,
+                                    1e-6);
+                        }
+                        else {
+                            assertTrue(Double.isNaN(distance));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCustomizeOtherGraph() {
+        new MultiLevelOverlay(graphWithPoints,
+                MultiLevelPartition.compute(graphWithPoints, CELL_SIZES))
+                        .customize(graphWithoutPoints, ArcInspectorFactory.getAllFilters().get(0));
+    }
+
+    /**
+     * @return Reference to a new graph whose overlay and customization have been
+     *         cached.
+     */
+    private static WeakReference<Graph> createCachedOverlay() {
+        Graph graph = RandomGraphs.create(new Random(9), "RELEASED", 60, 160, true);
+        MultiLevelOverlay.get(graph).getCustomization(graph,
+                ArcInspectorFactory.getAllFilters().get(0));
+        return new WeakReference<>(graph);
+    }
+
+    @Test
+    public void testCachedOverlayReleasesGraph() throws InterruptedException {
+        // The overlay cached for a graph does not keep the graph reachable.
+        WeakReference<Graph> reference = createCachedOverlay();
+        for (int i = 0; i < 50 && reference.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testWriteReadPartition() throws IOException {
+        MultiLevelPartition partition = MultiLevelPartition.compute(graphWithPoints, CELL_SIZES);
+        File file = folder.newFile();
+        partition.write(file);
+        MultiLevelPartition read = MultiLevelPartition.read(file, graphWithPoints);
+        assertEquals(partition.getNumberOfLevels(), read.getNumberOfLevels());
+        for (int level = 0; level < partition.getNumberOfLevels(); ++level) {
+            for (Node node: graphWithPoints.getNodes()) {
+                assertEquals(partition.getCell(level, node.getId()),
+                        read.getCell(level, node.getId()));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadPartitionOtherMap() throws IOException {
+        File file = folder.newFile();
+        MultiLevelPartition.compute(graphWithPoints, CELL_SIZES).write(file);
+        MultiLevelPartition.read(file, graphWithoutPoints);
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.insa.graphs.algorithm.pareto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParetoAlgorithmTest {
+
+    // Graphs of 9 nodes, whose exact fronts are computed by enumerate().
+    private static List<Graph> graphs;
+
+    // Larger random graph, with a large front.
+    private static Graph largeGraph;
+
+    @BeforeClass
+    public static void initAll() {
+        Random random = new Random(47);
+        graphs = new ArrayList<>();
+        for (int g = 0; g < 20; ++g) {
+            graphs.add(RandomGraphs.create(random, "PARETO-" + g, 9, 24));
+        }
+        largeGraph = RandomGraphs.create(random, "PARETO-LARGE", 400, 2000);
+    }
+
+    /**
+     * Add the (length, travel time) of all the loopless paths from the given node
+     * to the given destination to the given list.
+     */
+    private static void enumerate(ParetoData data, Node node, boolean[] visited, double length,
+            double time, List<double[]> costs) {
+        if (node == data.getDestination()) {
+            costs.add(new double[] { length, time });
+            return;
+        }
+        visited[node.getId()] = true;
+        for (Arc arc: node.getSuccessors()) {
+            if (data.isAllowed(arc) && !visited[arc.getDestination().getId()]) {
+                enumerate(data, arc.getDestination(), visited, length + data.getLength(arc),
+                        time + data.getTravelTime(arc), costs);
+            }
+        }
+        visited[node.getId()] = false;
+    }
+
+    /**
+     * @return Distinct non-dominated costs of the given list, by increasing length.
+     */
+    private static List<double[]> front(List<double[]> costs) {
+        costs.sort((a, b) -> a[0] != b[0] ? Double.compare(a[0], b[0])
+                : Double.compare(a[1], b[1]));
+        List<double[]> front = new ArrayList<>();
+        for (double[] cost: costs) {
+            if (front.isEmpty() || cost[1] < front.get(front.size() - 1)[1] - 1e-9) {
+                front.add(cost);
+            }
+        }
+        return front;
+    }
+
+    /**
+     * Check that the paths of the given solution are valid, allowed, from the
+     * origin to the destination of the data, and sorted by increasing length and
+     * decreasing travel time.
+     */
+    private static void checkPaths(ParetoSolution solution) {
+        ParetoData data = solution.getInputData();
+        for (int i = 0; i < solution.getPaths().size(); ++i) {
+            Path path = solution.getPaths().get(i);
+            assertTrue(path.isValid());
+            assertEquals(data.getOrigin(), path.getOrigin());
+            assertEquals(data.getDestination(), path.getDestination());
+            for (Arc arc: path.getArcs()) {
+                assertTrue(data.isAllowed(arc));
+            }
+            if (i > 0) {
+                assertTrue(solution.getLength(i) >= solution.getLength(i - 1));
+                assertTrue(solution.getTravelTime(i) < solution.getTravelTime(i - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testExactFront() {
+        Random random = new Random(53);
+        for (Graph graph: graphs) {
+            for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+                Node origin = graph.get(random.nextInt(graph.size()));
+                Node destination = graph.get(random.nextInt(graph.size()));
+                if (origin == destination) {
+                    continue;
+                }
+                ParetoData data = new ParetoData(graph, origin, destination, inspector);
+                List<double[]> costs = new ArrayList<>();
+                enumerate(data, origin, new boolean[graph.size()], 0, 0, costs);
+                List<double[]> expected = front(costs);
+
+                ParetoSolution solution = new ParetoAlgorithm(data).run();
+                if (expected.isEmpty()) {
+                    assertEquals(Status.INFEASIBLE, solution.getStatus());
+                    continue;
+                }
+                assertEquals(Status.OPTIMAL, solution.getStatus());
+                checkPaths(solution);
+                assertEquals(expected.size(), solution.getPaths().size());
+                for (int i = 0; i < expected.size(); ++i) {
+                    assertEquals(expected.get(i)[0], solution.getLength(i), 1e-3);
+                    assertEquals(expected.get(i)[1], solution.getTravelTime(i), 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testApproximateFront() {
+        Random random = new Random(59);
+        final ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        int exactSize = 0, approximateSize = 0;
+        for (int i = 0; i < 10; ++i) {
+            Node origin = largeGraph.get(random.nextInt(largeGraph.size()));
+            Node destination = largeGraph.get(random.nextInt(largeGraph.size()));
+            ParetoData data = new ParetoData(largeGraph, origin, destination, inspector);
+            ParetoSolution exact = new ParetoAlgorithm(data).run();
+            ParetoSolution approximate = new ParetoAlgorithm(data, 0.05).run();
+            assertEquals(exact.isFeasible(), approximate.isFeasible());
+            if (!exact.isFeasible()) {
+                continue;
+            }
+            assertEquals(Status.FEASIBLE, approximate.getStatus());
+            checkPaths(exact);
+            checkPaths(approximate);
+
+            // Every path of the exact front is covered by a path of the approximate
+            // one, and the extreme paths are the same.
+            for (int j = 0; j < exact.getPaths().size(); ++j) {
+                boolean covered = false;
+                for (int k = 0; k < approximate.getPaths().size() && !covered; ++k) {
+                    covered = approximate.getLength(k) <= 1.05 * exact.getLength(j) + 1e-6
+                            && approximate.getTravelTime(k) <= 1.05 * exact.getTravelTime(j)
+                                    + 1e-6;
+                }
+                assertTrue(covered);
+            }
+            assertEquals(exact.getLength(0), approximate.getLength(0), 1e-3);
+            exactSize += exact.getPaths().size();
+            approximateSize += approximate.getPaths().size();
+        }
+        assertTrue(approximateSize < exactSize);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeEpsilon() {
+        new ParetoAlgorithm(new ParetoData(largeGraph, largeGraph.get(0), largeGraph.get(1),
+                ArcInspectorFactory.getAllFilters().get(0)), -0.1);
+    }
+
+}
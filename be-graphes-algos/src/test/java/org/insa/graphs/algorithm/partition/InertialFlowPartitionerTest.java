@@ -0,0 +1,156 @@
+package org.insa.graphs.algorithm.partition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.junit.Test;
+
+public class InertialFlowPartitionerTest {
+
+    /**
+     * Create a grid of the given number of rows and columns with two-way roads,
+     * with or without positions, made of the given number of disconnected copies.
+     */
+    private static Graph createGrid(int rows, int columns, int copies, boolean withPoints) {
+        List<Node> nodes = new ArrayList<>();
+        RoadInformation info = new RoadInformation(RoadType.UNCLASSIFIED, null, false, 50, null);
+        for (int c = 0; c < copies; ++c) {
+            final int offset = nodes.size();
+            for (int i = 0; i < rows; ++i) {
+                for (int j = 0; j < columns; ++j) {
+                    nodes.add(new Node(nodes.size(),
+                            withPoints ? new Point(1 + 0.01f * j + c, 43 + 0.01f * i) : null));
+                }
+            }
+            for (int i = 0; i < rows; ++i) {
+                for (int j = 0; j < columns; ++j) {
+                    final Node node = nodes.get(offset + i * columns + j);
+                    if (j + 1 < columns) {
+                        Node.linkNodes(node, nodes.get(offset + i * columns + j + 1), 100, info,
+                                new ArrayList<>());
+                    }
+                    if (i + 1 < rows) {
+                        Node.linkNodes(node, nodes.get(offset + (i + 1) * columns + j), 100, info,
+                                new ArrayList<>());
+                    }
+                }
+            }
+        }
+        return new Graph("GRID", "", nodes, null);
+    }
+
+    /**
+     * @return Number of pairs of adjacent nodes in different cells at the given
+     *         level.
+     */
+    private static int getCut(Graph graph, MultiLevelPartition partition, int level) {
+        int cut = 0;
+        for (Node node: graph.getNodes()) {
+            for (Arc arc: node.getSuccessors()) {
+                if (node.getId() < arc.getDestination().getId() && partition.getCell(level,
+                        node.getId()) != partition.getCell(level, arc.getDestination().getId())) {
+                    ++cut;
+                }
+            }
+        }
+        return cut;
+    }
+
+    /**
+     * @return Number of nodes of each cell of the given level.
+     */
+    private static int[] getSizes(MultiLevelPartition partition, int level) {
+        int[] sizes = new int[partition.getNumberOfCells(level)];
+        for (int node = 0; node < partition.getNumberOfNodes(); ++node) {
+            ++sizes[partition.getCell(level, node)];
+        }
+        return sizes;
+    }
+
+    @Test
+    public void testGridBisection() {
+        Graph graph = createGrid(20, 30, 1, true);
+        MultiLevelPartition partition = new InertialFlowPartitioner().partition(graph, 450);
+        assertEquals(1, partition.getNumberOfLevels());
+        assertEquals(2, partition.getNumberOfCells(0));
+        for (int size: getSizes(partition, 0)) {
+            assertTrue(size >= 150 && size <= 450);
+        }
+        assertEquals(20, getCut(graph, partition, 0));
+    }
+
+    @Test
+    public void testGridBisectionWithoutPoints() {
+        Graph graph = createGrid(10, 40, 1, false);
+        MultiLevelPartition partition = new InertialFlowPartitioner().partition(graph, 300);
+        assertEquals(2, partition.getNumberOfCells(0));
+        for (int size: getSizes(partition, 0)) {
+            assertTrue(size >= 100 && size <= 300);
+        }
+        assertEquals(10, getCut(graph, partition, 0));
+    }
+
+    @Test
+    public void testDisconnected() {
+        Graph graph = createGrid(10, 10, 2, true);
+        MultiLevelPartition partition = new InertialFlowPartitioner().partition(graph, 100);
+        assertEquals(2, partition.getNumberOfCells(0));
+        assertEquals(0, getCut(graph, partition, 0));
+    }
+
+    @Test
+    public void testLevels() {
+        for (boolean withPoints: Arrays.asList(true, false)) {
+            Graph graph = createGrid(30, 30, 1, withPoints);
+            final int[] maxCellSizes = { 20, 100, 400, 2000 };
+            MultiLevelPartition partition = new InertialFlowPartitioner().partition(graph,
+                    maxCellSizes);
+
+            // The last level contains the whole graph, and is dropped.
+            assertEquals(3, partition.getNumberOfLevels());
+            for (int level = 0; level < partition.getNumberOfLevels(); ++level) {
+                for (int size: getSizes(partition, level)) {
+                    assertTrue(size > 0 && size <= maxCellSizes[level]);
+                }
+                if (level > 0) {
+                    assertTrue(getCut(graph, partition, level) <= getCut(graph, partition,
+                            level - 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDeterministic() {
+        Graph graph = createGrid(40, 40, 1, true);
+        MultiLevelPartition first = new InertialFlowPartitioner().partition(graph, 50, 400);
+        MultiLevelPartition second = new InertialFlowPartitioner().partition(graph, 50, 400);
+        for (int level = 0; level < first.getNumberOfLevels(); ++level) {
+            for (Node node: graph.getNodes()) {
+                assertEquals(first.getCell(level, node.getId()),
+                        second.getCell(level, node.getId()));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBalance() {
+        new InertialFlowPartitioner(0.6, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCellSizes() {
+        new InertialFlowPartitioner().partition(createGrid(5, 5, 1, true), 10, 5);
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AStarTest {
+
+    // Random graph with positions, sparse enough to have unreachable pairs.
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(new Random(103), "ASTAR", 60, 140, true);
+    }
+
+    /**
+     * Check that A* with the given queue gives the same costs as Dijkstra for all
+     * the pairs of nodes, with all the filters (in length and time modes).
+     */
+    private void checkQueries(QueueType queueType) {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (Node origin: graph.getNodes()) {
+                for (Node destination: graph.getNodes()) {
+                    ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                            inspector);
+                    ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                    ShortestPathSolution actual = new AStarAlgorithm(data, queueType).run();
+                    assertEquals(expected.getStatus(), actual.getStatus());
+                    if (actual.isFeasible()) {
+                        assertTrue(actual.getPath().isValid());
+                        assertEquals(origin, actual.getPath().getOrigin());
+                        assertEquals(destination, actual.getPath().getDestination());
+                        assertEquals(expected.getCost(), actual.getCost(), 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQueries() {
+        checkQueries(QueueType.BINARY_HEAP);
+    }
+
+    @Test
+    public void testOtherQueue() {
+        checkQueries(QueueType.PAIRING_HEAP);
+    }
+
+    @Test
+    public void testLowerBound() {
+        // The bound never exceeds the cost of the shortest path to the destination.
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (Node origin: graph.getNodes()) {
+                final Node destination = graph.get(0);
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector);
+                ShortestPathSolution solution = new DijkstraAlgorithm(data).run();
+                if (solution.isFeasible()) {
+                    assertTrue(new AStarAlgorithm(data).getLowerBound(origin.getId()) <= solution
+                            .getCost() + 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameNode() {
+        ShortestPathSolution solution = new AStarAlgorithm(new ShortestPathData(graph,
+                graph.get(5), graph.get(5), ArcInspectorFactory.getAllFilters().get(2))).run();
+        assertEquals(Status.INFEASIBLE, solution.getStatus());
+    }
+
+}
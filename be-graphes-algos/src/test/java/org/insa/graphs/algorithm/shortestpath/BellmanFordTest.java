@@ -0,0 +1,55 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BellmanFordTest {
+
+    // Random graph, sparse enough to have unreachable pairs of nodes.
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(new Random(101), "BELLMAN-FORD", 40, 80);
+    }
+
+    @Test
+    public void testQueries() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (Node origin: graph.getNodes()) {
+                for (Node destination: graph.getNodes()) {
+                    ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                            inspector);
+                    ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                    ShortestPathSolution actual = new BellmanFordAlgorithm(data).run();
+                    assertEquals(expected.getStatus(), actual.getStatus());
+                    if (actual.isFeasible()) {
+                        assertTrue(actual.getPath().isValid());
+                        assertEquals(origin, actual.getPath().getOrigin());
+                        assertEquals(destination, actual.getPath().getDestination());
+                        assertEquals(expected.getCost(), actual.getCost(), 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameNode() {
+        ShortestPathSolution solution = new BellmanFordAlgorithm(new ShortestPathData(graph,
+                graph.get(5), graph.get(5), ArcInspectorFactory.getAllFilters().get(0))).run();
+        assertEquals(Status.INFEASIBLE, solution.getStatus());
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BidirectionalDijkstraTest {
+
+    // Random graphs, sparse enough to have unreachable pairs of nodes.
+    private static List<Graph> graphs;
+
+    @BeforeClass
+    public static void initAll() {
+        Random random = new Random(97);
+        graphs = new ArrayList<>();
+        for (int g = 0; g < 3; ++g) {
+            graphs.add(RandomGraphs.create(random, "BIDIRECTIONAL-" + g, 40, 70));
+        }
+    }
+
+    /**
+     * Check that the given variant gives the same costs as Dijkstra for all the
+     * pairs of nodes of the test graphs, with all the filters.
+     */
+    private void checkQueries(QueueType queueType, boolean parallel) {
+        int nbFeasible = 0, nbInfeasible = 0;
+        for (Graph graph: graphs) {
+            for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+                for (Node origin: graph.getNodes()) {
+                    for (Node destination: graph.getNodes()) {
+                        ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                                inspector);
+                        ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                        ShortestPathSolution actual = new BidirectionalDijkstraAlgorithm(data,
+                                queueType, parallel).run();
+                        assertEquals(expected.getStatus(), actual.getStatus());
+                        if (!expected.isFeasible()) {
+                            ++nbInfeasible;
+                            continue;
+                        }
+                        ++nbFeasible;
+                        assertTrue(actual.getPath().isValid());
+                        assertEquals(origin, actual.getPath().getOrigin());
+                        assertEquals(destination, actual.getPath().getDestination());
+                        assertEquals(expected.getCost(), actual.getCost(), 1e-6);
+                    }
+                }
+            }
+        }
+
+        // Both cases are covered.
+        assertTrue(nbFeasible > 0);
+        assertTrue(nbInfeasible > graphs.size() * graphs.get(0).size() * 4);
+    }
+
+    @Test
+    public void testSequential() {
+        checkQueries(QueueType.BINARY_HEAP, false);
+    }
+
+    @Test
+    public void testParallel() {
+        checkQueries(QueueType.BINARY_HEAP, true);
+    }
+
+    @Test
+    public void testOtherQueues() {
+        checkQueries(QueueType.PAIRING_HEAP, false);
+        checkQueries(QueueType.FOUR_ARY_HEAP, true);
+    }
+
+    @Test
+    public void testSameNode() {
+        final Graph graph = graphs.get(0);
+        for (boolean parallel: new boolean[] { false, true }) {
+            ShortestPathSolution solution = new BidirectionalDijkstraAlgorithm(
+                    new ShortestPathData(graph, graph.get(3), graph.get(3),
+                            ArcInspectorFactory.getAllFilters().get(0)),
+                    QueueType.BINARY_HEAP, parallel).run();
+            assertEquals(Status.INFEASIBLE, solution.getStatus());
+        }
+    }
+
+    @Test
+    public void testFactory() throws Exception {
+        final Graph graph = graphs.get(0);
+        ShortestPathData data = new ShortestPathData(graph, graph.get(0), graph.get(1),
+                ArcInspectorFactory.getAllFilters().get(0));
+        assertFalse(((BidirectionalDijkstraAlgorithm) AlgorithmFactory.createAlgorithm(
+                AlgorithmFactory.getAlgorithmClass(ShortestPathAlgorithm.class,
+                        "Bidirectional Dijkstra"),
+                data)).isParallel());
+        assertTrue(((BidirectionalDijkstraAlgorithm) AlgorithmFactory.createAlgorithm(
+                AlgorithmFactory.getAlgorithmClass(ShortestPathAlgorithm.class,
+                        "Bidirectional Dijkstra (parallel)"),
+                data)).isParallel());
+    }
+
+}
@@ -0,0 +1,212 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractSolution.Status;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.pareto.ParetoAlgorithm;
+import org.insa.graphs.algorithm.pareto.ParetoData;
+import org.insa.graphs.algorithm.pareto.ParetoSolution;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ConstrainedShortestPathTest {
+
+    // Graphs of 9 nodes, whose optimal paths are found by enumerate().
+    private static List<Graph> graphs;
+
+    // Larger random graph.
+    private static Graph largeGraph;
+
+    // Fastest paths (all roads) under a length cap.
+    private static ArcInspector timeInspector, lengthInspector;
+
+    @BeforeClass
+    public static void initAll() {
+        Random random = new Random(61);
+        graphs = new ArrayList<>();
+        for (int g = 0; g < 20; ++g) {
+            graphs.add(RandomGraphs.create(random, "CONSTRAINED-" + g, 9, 24));
+        }
+        largeGraph = RandomGraphs.create(random, "CONSTRAINED-LARGE", 400, 2000);
+        timeInspector = ArcInspectorFactory.getAllFilters().get(2);
+        lengthInspector = ArcInspectorFactory.getAllFilters().get(0);
+    }
+
+    /**
+     * Add the (cost, resource) of all the loopless paths from the given node to
+     * the given destination to the given list.
+     */
+    private static void enumerate(ConstrainedShortestPathData data, Node node, boolean[] visited,
+            double cost, double resource, List<double[]> costs) {
+        if (node == data.getDestination()) {
+            costs.add(new double[] { cost, resource });
+            return;
+        }
+        visited[node.getId()] = true;
+        for (Arc arc: node.getSuccessors()) {
+            if (data.isAllowed(arc) && !visited[arc.getDestination().getId()]) {
+                enumerate(data, arc.getDestination(), visited, cost + data.getCost(arc),
+                        resource + data.getResource(arc), costs);
+            }
+        }
+        visited[node.getId()] = false;
+    }
+
+    /**
+     * Check that the path of the given solution is valid, allowed, from the origin
+     * to the destination of the data, and within the maximum resource.
+     */
+    private static void checkPath(ConstrainedShortestPathSolution solution) {
+        ConstrainedShortestPathData data = solution.getInputData();
+        assertTrue(solution.getPath().isValid());
+        assertEquals(data.getOrigin(), solution.getPath().getOrigin());
+        assertEquals(data.getDestination(), solution.getPath().getDestination());
+        double cost = 0, resource = 0;
+        for (Arc arc: solution.getPath().getArcs()) {
+            assertTrue(data.isAllowed(arc));
+            cost += data.getCost(arc);
+            resource += data.getResource(arc);
+        }
+        assertEquals(cost, solution.getCost(), 1e-6);
+        assertEquals(resource, solution.getResource(), 1e-3);
+        assertTrue(resource <= data.getMaximumResource() + 1e-6);
+        assertTrue(solution.getLowerBound() <= solution.getCost() + 1e-6);
+    }
+
+    @Test
+    public void testAgainstEnumeration() {
+        Random random = new Random(67);
+        for (Graph graph: graphs) {
+            for (int i = 0; i < 10; ++i) {
+                Node origin = graph.get(random.nextInt(graph.size()));
+                Node destination = graph.get(random.nextInt(graph.size()));
+                if (origin == destination) {
+                    continue;
+                }
+                List<double[]> costs = new ArrayList<>();
+                enumerate(new ConstrainedShortestPathData(graph, origin, destination,
+                        timeInspector, lengthInspector, 0), origin, new boolean[graph.size()], 0,
+                        0, costs);
+
+                // Caps between the shortest path and beyond the length of the fastest
+                // path, and below the shortest path (infeasible).
+                double minimumResource = Double.POSITIVE_INFINITY,
+                        maximumResource = 0;
+                for (double[] cost: costs) {
+                    minimumResource = Math.min(minimumResource, cost[1]);
+                    maximumResource = Math.max(maximumResource, cost[1]);
+                }
+                for (double cap: new double[] { minimumResource - 1, minimumResource,
+                        minimumResource + random.nextDouble()
+                                * (maximumResource - minimumResource),
+                        maximumResource }) {
+                    if (!(cap >= 0)) {
+                        continue;
+                    }
+                    ConstrainedShortestPathData data = new ConstrainedShortestPathData(graph,
+                            origin, destination, timeInspector, lengthInspector, cap);
+                    double expected = Double.POSITIVE_INFINITY;
+                    for (double[] cost: costs) {
+                        if (cost[1] <= cap) {
+                            expected = Math.min(expected, cost[0]);
+                        }
+                    }
+                    ConstrainedShortestPathSolution solution = new ConstrainedShortestPathAlgorithm(
+                            data).run();
+                    if (expected == Double.POSITIVE_INFINITY) {
+                        assertEquals(Status.INFEASIBLE, solution.getStatus());
+                        continue;
+                    }
+                    assertEquals(Status.OPTIMAL, solution.getStatus());
+                    checkPath(solution);
+                    assertEquals(expected, solution.getCost(), 1e-6);
+                    assertEquals(expected, solution.getLowerBound(), 1e-6);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAgainstParetoFront() {
+        // The fastest path under a length cap is the fastest path of the Pareto
+        // front (length, travel time) within the cap.
+        Random random = new Random(71);
+        for (int i = 0; i < 10; ++i) {
+            Node origin = largeGraph.get(random.nextInt(largeGraph.size()));
+            Node destination = largeGraph.get(random.nextInt(largeGraph.size()));
+            ParetoSolution front = new ParetoAlgorithm(
+                    new ParetoData(largeGraph, origin, destination, timeInspector)).run();
+            if (!front.isFeasible()) {
+                continue;
+            }
+            final int last = front.getPaths().size() - 1;
+            final double cap = front.getLength(0)
+                    + random.nextDouble() * (front.getLength(last) - front.getLength(0));
+            double expected = Double.POSITIVE_INFINITY;
+            for (int j = 0; j <= last; ++j) {
+                if (front.getLength(j) <= cap) {
+                    expected = Math.min(expected, front.getTravelTime(j));
+                }
+            }
+            ConstrainedShortestPathSolution solution = new ConstrainedShortestPathAlgorithm(
+                    new ConstrainedShortestPathData(largeGraph, origin, destination,
+                            timeInspector, lengthInspector, cap)).run();
+            assertEquals(Status.OPTIMAL, solution.getStatus());
+            checkPath(solution);
+            assertEquals(expected, solution.getCost(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testTimeLimit() {
+        // Without time, the search returns the shortest path (for the resource) if
+        // the fastest path is not within the cap.
+        Random random = new Random(73);
+        int nbFeasible = 0;
+        for (int i = 0; i < 10; ++i) {
+            Node origin = largeGraph.get(random.nextInt(largeGraph.size()));
+            Node destination = largeGraph.get(random.nextInt(largeGraph.size()));
+            ShortestPathSolution shortestPath = new DijkstraAlgorithm(
+                    new ShortestPathData(largeGraph, origin, destination, lengthInspector)).run();
+            if (!shortestPath.isFeasible()) {
+                continue;
+            }
+            ConstrainedShortestPathSolution shortest = new ConstrainedShortestPathAlgorithm(
+                    new ConstrainedShortestPathData(largeGraph, origin, destination,
+                            timeInspector, lengthInspector, 1.2 * shortestPath.getCost(),
+                            Duration.ZERO)).run();
+            assertTrue(shortest.isFeasible());
+            checkPath(shortest);
+            if (shortest.getStatus() == Status.FEASIBLE) {
+                ++nbFeasible;
+                ConstrainedShortestPathSolution optimal = new ConstrainedShortestPathAlgorithm(
+                        new ConstrainedShortestPathData(largeGraph, origin, destination,
+                                timeInspector, lengthInspector,
+                                shortest.getInputData().getMaximumResource())).run();
+                assertEquals(Status.OPTIMAL, optimal.getStatus());
+                assertTrue(optimal.getCost() <= shortest.getCost() + 1e-6);
+                assertTrue(optimal.getCost() >= shortest.getLowerBound() - 1e-6);
+            }
+        }
+        assertTrue(nbFeasible > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMaximumResource() {
+        new ConstrainedShortestPathData(largeGraph, largeGraph.get(0), largeGraph.get(1),
+                timeInspector, lengthInspector, -1);
+    }
+
+}
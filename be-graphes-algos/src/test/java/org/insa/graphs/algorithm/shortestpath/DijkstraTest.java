@@ -0,0 +1,104 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AlgorithmFactory;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.utils.IndexedPriorityQueueFactory.QueueType;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DijkstraTest {
+
+    // Random graph, sparse enough to have unreachable pairs.
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(new Random(109), "DIJKSTRA", 60, 140);
+    }
+
+    /**
+     * Check that the variant of Dijkstra registered under the given name uses
+     * the given queue and gives the same costs as Dijkstra with a binary heap for
+     * all the pairs of nodes, with all the filters.
+     */
+    private void checkVariant(String name, QueueType queueType) throws Exception {
+        assertEquals(DijkstraAlgorithm.class,
+                AlgorithmFactory.getAlgorithmClass(ShortestPathAlgorithm.class, name));
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            for (Node origin: graph.getNodes()) {
+                for (Node destination: graph.getNodes()) {
+                    ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                            inspector);
+                    ShortestPathSolution expected = new DijkstraAlgorithm(data).run();
+                    DijkstraAlgorithm algorithm = (DijkstraAlgorithm) AlgorithmFactory
+                            .createAlgorithm(ShortestPathAlgorithm.class, name, data);
+                    assertEquals(queueType, algorithm.getQueueType());
+                    ShortestPathSolution actual = algorithm.run();
+                    assertEquals(expected.getStatus(), actual.getStatus());
+                    if (actual.isFeasible()) {
+                        assertTrue(actual.getPath().isValid());
+                        assertEquals(expected.getCost(), actual.getCost(), 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInputDataFilter() {
+        // Input data forbidding the arcs towards odd nodes, beyond their inspector.
+        ArcInspector inspector = ArcInspectorFactory.getAllFilters().get(0);
+        for (Node origin: graph.getNodes()) {
+            for (Node destination: graph.getNodes()) {
+                ShortestPathData data = new ShortestPathData(graph, origin, destination,
+                        inspector) {
+                    @Override
+                    public boolean isAllowed(Arc arc) {
+                        return super.isAllowed(arc) && arc.getDestination().getId() % 2 == 0;
+                    }
+
+                    @Override
+                    public boolean usesInspectorCostsOnly() {
+                        return false;
+                    }
+                };
+                ShortestPathSolution solution = new DijkstraAlgorithm(data).run();
+                if (destination.getId() % 2 == 1) {
+                    assertFalse(solution.isFeasible());
+                }
+                if (solution.isFeasible()) {
+                    for (Arc arc: solution.getPath().getArcs()) {
+                        assertTrue(data.isAllowed(arc));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFourAryHeap() throws Exception {
+        checkVariant("Dijkstra (4-ary heap)", QueueType.FOUR_ARY_HEAP);
+    }
+
+    @Test
+    public void testRadixHeap() throws Exception {
+        checkVariant("Dijkstra (radix heap)", QueueType.RADIX_HEAP);
+    }
+
+    @Test
+    public void testBucketQueue() throws Exception {
+        checkVariant("Dijkstra (bucket queue)", QueueType.BUCKET_QUEUE);
+    }
+
+}
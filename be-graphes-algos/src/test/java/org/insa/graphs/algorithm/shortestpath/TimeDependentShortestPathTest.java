@@ -0,0 +1,207 @@
+package org.insa.graphs.algorithm.shortestpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.TravelTimeFunction;
+import org.insa.graphs.model.TravelTimeProfiles;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TimeDependentShortestPathTest {
+
+    // Random graph with fast primary roads and slower residential roads.
+    private static Graph graph;
+
+    // Primary roads are jammed at rush hour, other roads are not.
+    private static TravelTimeProfiles profiles;
+
+    // Filters in TIME mode.
+    private static List<ArcInspector> inspectors;
+
+    @BeforeClass
+    public static void initAll() {
+        Random random = new Random(31);
+        Node[] nodes = new Node[120];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i,
+                    new Point(1.4f + random.nextFloat() * 0.1f, 43.5f + random.nextFloat() * 0.1f));
+        }
+        RoadInformation primary = new RoadInformation(RoadType.PRIMARY, new AccessRestrictions(),
+                false, 90, null),
+                residential = new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(),
+                        false, 50, null);
+        for (int i = 0; i < 400; ++i) {
+            Node origin = nodes[random.nextInt(nodes.length)],
+                    destination = nodes[random.nextInt(nodes.length)];
+            float length = (float) (origin.getPoint().distanceTo(destination.getPoint())
+                    * (1 + random.nextFloat()));
+            Node.linkNodes(origin, destination, length,
+                    random.nextInt(3) == 0 ? primary : residential, new ArrayList<>());
+        }
+        graph = new Graph("TIME-DEPENDENT", "", Arrays.asList(nodes),
+                new GraphStatistics(
+                        new BoundingBox(new Point(1.4f, 43.6f), new Point(1.5f, 43.5f)), 0, 400,
+                        90, 0));
+
+        Map<RoadType, TravelTimeFunction> functions = new EnumMap<>(RoadType.class);
+        functions.put(RoadType.PRIMARY,
+                new TravelTimeFunction(TravelTimeFunction.DAY,
+                        new int[] { 6 * 3600, 8 * 3600, 10 * 3600, 16 * 3600, 18 * 3600,
+                                20 * 3600 },
+                        new float[] { 1, 2.5f, 1.2f, 1.2f, 2.2f, 1 }));
+        functions.put(RoadType.RESIDENTIAL, new TravelTimeFunction(TravelTimeFunction.DAY,
+                new int[] { 0, 12 * 3600 }, new float[] { 0.9f, 1.1f }));
+        profiles = new TravelTimeProfiles(functions);
+
+        inspectors = new ArrayList<>();
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            if (inspector.getMode() == Mode.TIME) {
+                inspectors.add(inspector);
+            }
+        }
+    }
+
+    /**
+     * Compute the earliest arrival times at all the nodes by relaxing all the arcs
+     * until no arrival time changes (exact for FIFO functions).
+     */
+    private static double[] earliestArrivals(TimeDependentShortestPathData data) {
+        double[] arrivals = new double[graph.size()];
+        Arrays.fill(arrivals, Double.POSITIVE_INFINITY);
+        arrivals[data.getOrigin().getId()] = data.getDepartureTime();
+        for (boolean changed = true; changed;) {
+            changed = false;
+            for (Node node: graph.getNodes()) {
+                if (arrivals[node.getId()] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (Arc arc: node.getSuccessors()) {
+                    if (!data.isAllowed(arc)) {
+                        continue;
+                    }
+                    final double arrival = arrivals[node.getId()]
+                            + data.getCost(arc, arrivals[node.getId()]);
+                    if (arrival < arrivals[arc.getDestination().getId()] - 1e-9) {
+                        arrivals[arc.getDestination().getId()] = arrival;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return arrivals;
+    }
+
+    @Test
+    public void testAgainstLabelCorrecting() {
+        Random random = new Random(37);
+        for (ArcInspector inspector: inspectors) {
+            for (double departure: new double[] { 3 * 3600, 7.5 * 3600, 8 * 3600, 17.75 * 3600,
+                    23.9 * 3600 }) {
+                for (int i = 0; i < 6; ++i) {
+                    Node origin = graph.get(random.nextInt(graph.size())),
+                            destination = graph.get(random.nextInt(graph.size()));
+                    TimeDependentShortestPathData data = new TimeDependentShortestPathData(graph,
+                            origin, destination, inspector, profiles, departure);
+                    final double arrival = earliestArrivals(data)[destination.getId()];
+                    for (TimeDependentDijkstraAlgorithm algorithm: Arrays.asList(
+                            new TimeDependentDijkstraAlgorithm(data),
+                            new TimeDependentAStarAlgorithm(data))) {
+                        TimeDependentShortestPathSolution solution = algorithm.run();
+                        if (origin == destination || arrival == Double.POSITIVE_INFINITY) {
+                            assertFalse(solution.isFeasible());
+                            continue;
+                        }
+                        assertTrue(solution.getPath().isValid());
+                        assertEquals(departure, solution.getDepartureTime(), 0);
+                        assertEquals(arrival, solution.getArrivalTime(), 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConstantProfiles() {
+        TravelTimeProfiles constant = new TravelTimeProfiles(Collections.emptyMap());
+        Random random = new Random(41);
+        for (ArcInspector inspector: inspectors) {
+            for (int i = 0; i < 20; ++i) {
+                Node origin = graph.get(random.nextInt(graph.size())),
+                        destination = graph.get(random.nextInt(graph.size()));
+                ShortestPathSolution expected = new DijkstraAlgorithm(
+                        new ShortestPathData(graph, origin, destination, inspector)).run();
+                TimeDependentShortestPathSolution solution = new TimeDependentAStarAlgorithm(
+                        new TimeDependentShortestPathData(graph, origin, destination, inspector,
+                                constant, random.nextInt(TravelTimeFunction.DAY))).run();
+                assertEquals(expected.isFeasible(), solution.isFeasible());
+                assertEquals(expected.getCost(), solution.getCost(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testRushHour() {
+        // Leaving at rush hour never takes less time than at night, since every
+        // factor is higher.
+        Random random = new Random(43);
+        final ArcInspector inspector = inspectors.get(0);
+        int slower = 0;
+        for (int i = 0; i < 20; ++i) {
+            Node origin = graph.get(random.nextInt(graph.size())),
+                    destination = graph.get(random.nextInt(graph.size()));
+            TimeDependentShortestPathSolution night = new TimeDependentDijkstraAlgorithm(
+                    new TimeDependentShortestPathData(graph, origin, destination, inspector,
+                            profiles, 3 * 3600)).run(),
+                    rush = new TimeDependentDijkstraAlgorithm(new TimeDependentShortestPathData(
+                            graph, origin, destination, inspector, profiles, 8 * 3600)).run();
+            if (night.isFeasible()) {
+                assertTrue(rush.getCost() >= night.getCost() - 1e-6);
+                if (rush.getCost() > night.getCost() + 1e-6) {
+                    ++slower;
+                }
+            }
+        }
+        assertTrue(slower > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLengthMode() {
+        for (ArcInspector inspector: ArcInspectorFactory.getAllFilters()) {
+            if (inspector.getMode() == Mode.LENGTH) {
+                new TimeDependentShortestPathData(graph, graph.get(0), graph.get(1), inspector,
+                        profiles, 0);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherMap() {
+        TravelTimeProfiles other = new TravelTimeProfiles(Collections.emptyMap(), "OTHER",
+                Collections.singletonMap(0, TravelTimeFunction.CONSTANT));
+        new TimeDependentShortestPathData(graph, graph.get(0), graph.get(1), inspectors.get(0),
+                other, 0);
+    }
+
+}
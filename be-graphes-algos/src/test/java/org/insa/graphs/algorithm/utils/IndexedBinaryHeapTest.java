@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class IndexedBinaryHeapTest extends IndexedPriorityQueueTest {
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue() {
+        return new IndexedBinaryHeap(0);
+    }
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue(IndexedPriorityQueue queue) {
+        return new IndexedBinaryHeap((IndexedBinaryHeap) queue);
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class IndexedBucketQueueTest extends IndexedPriorityQueueTest {
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue() {
+        return new IndexedBucketQueue(0, 1.0);
+    }
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue(IndexedPriorityQueue queue) {
+        return new IndexedBucketQueue((IndexedBucketQueue) queue);
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class IndexedDaryHeapTest extends IndexedPriorityQueueTest {
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue() {
+        return new IndexedDaryHeap(0, 4);
+    }
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue(IndexedPriorityQueue queue) {
+        return new IndexedDaryHeap((IndexedDaryHeap) queue);
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class IndexedPairingHeapTest extends IndexedPriorityQueueTest {
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue() {
+        return new IndexedPairingHeap(0);
+    }
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue(IndexedPriorityQueue queue) {
+        return new IndexedPairingHeap((IndexedPairingHeap) queue);
+    }
+
+}
@@ -0,0 +1,221 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Runs the tests of {@link PriorityQueueTest} on an {@link IndexedPriorityQueue}
+ * (through an adapter using the values of the {@link MutableInteger} as keys),
+ * and tests the operations specific to indexed queues.
+ * 
+ */
+public abstract class IndexedPriorityQueueTest extends PriorityQueueTest {
+
+    /**
+     * Needs to be implemented by child class to actually provide indexed priority
+     * queue implementation.
+     * 
+     * @return A new instance of an IndexedPriorityQueue implementation.
+     */
+    public abstract IndexedPriorityQueue createIndexedQueue();
+
+    /**
+     * Needs to be implemented by child class to actually provide indexed priority
+     * queue implementation.
+     * 
+     * @param queue Queue to copy.
+     * 
+     * @return Copy of the given queue.
+     */
+    public abstract IndexedPriorityQueue createIndexedQueue(IndexedPriorityQueue queue);
+
+    /**
+     * Adapter from an IndexedPriorityQueue to a PriorityQueue of MutableInteger,
+     * each MutableInteger being associated with a new element.
+     */
+    private class Adapter implements PriorityQueue<MutableInteger> {
+
+        private final IndexedPriorityQueue queue;
+        private final IdentityHashMap<MutableInteger, Integer> ids;
+        private final List<MutableInteger> values;
+
+        public Adapter() {
+            this.queue = createIndexedQueue();
+            this.ids = new IdentityHashMap<>();
+            this.values = new ArrayList<>();
+        }
+
+        public Adapter(Adapter adapter) {
+            this.queue = createIndexedQueue(adapter.queue);
+            this.ids = new IdentityHashMap<>(adapter.ids);
+            this.values = new ArrayList<>(adapter.values);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.queue.isEmpty();
+        }
+
+        @Override
+        public int size() {
+            return this.queue.size();
+        }
+
+        @Override
+        public void insert(MutableInteger x) {
+            Integer id = this.ids.get(x);
+            if (id == null) {
+                id = this.values.size();
+                this.ids.put(x, id);
+                this.values.add(x);
+            }
+            this.queue.insert(id, x.get());
+        }
+
+        @Override
+        public void remove(MutableInteger x) throws ElementNotFoundException {
+            Integer id = this.ids.get(x);
+            if (id == null || !this.queue.contains(id)) {
+                throw new ElementNotFoundException(x);
+            }
+            this.queue.remove(id);
+        }
+
+        @Override
+        public MutableInteger findMin() throws EmptyPriorityQueueException {
+            return this.values.get(this.queue.findMin());
+        }
+
+        @Override
+        public MutableInteger deleteMin() throws EmptyPriorityQueueException {
+            return this.values.get(this.queue.deleteMin());
+        }
+
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue() {
+        return new Adapter();
+    }
+
+    @Override
+    public PriorityQueue<MutableInteger> createQueue(PriorityQueue<MutableInteger> queue) {
+        return new Adapter((Adapter) queue);
+    }
+
+    /**
+     * @return New indexed queue containing the parameters, element i having the
+     *         value of the i-th parameter as key.
+     */
+    private IndexedPriorityQueue createFilledQueue() {
+        IndexedPriorityQueue queue = createIndexedQueue();
+        for (int i = 0; i < parameters.data.length; ++i) {
+            queue.insert(i, parameters.data[i].get());
+        }
+        return queue;
+    }
+
+    @Test
+    public void testContains() {
+        IndexedPriorityQueue queue = createFilledQueue();
+        for (int i = 0; i < parameters.data.length; ++i) {
+            assertTrue(queue.contains(i));
+            assertEquals(parameters.data[i].get(), queue.getKey(i), 0);
+        }
+        assertFalse(queue.contains(parameters.data.length));
+        while (!queue.isEmpty()) {
+            assertFalse(queue.contains(queue.deleteMin()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertTwice() {
+        Assume.assumeTrue(parameters.data.length > 0);
+        IndexedPriorityQueue queue = createFilledQueue();
+        queue.insert(0, parameters.data[0].get());
+    }
+
+    @Test(expected = ElementNotFoundException.class)
+    public void testDecreaseKeyNotFound() {
+        IndexedPriorityQueue queue = createFilledQueue();
+        queue.decreaseKey(parameters.data.length, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncreaseKey() {
+        Assume.assumeTrue(parameters.data.length > 0);
+        IndexedPriorityQueue queue = createFilledQueue();
+        queue.decreaseKey(0, parameters.data[0].get() + 1);
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        Assume.assumeTrue(parameters.data.length > 0);
+        IndexedPriorityQueue queue = createFilledQueue();
+
+        // Elements are decreased in the deletion order, each one becoming the new
+        // minimum.
+        double min = queue.getKey(queue.findMin());
+        for (int i: parameters.deleteOrder) {
+            queue.decreaseKey(i, --min);
+            assertEquals(i, queue.findMin());
+            assertEquals(min, queue.getKey(i), 0);
+            assertEquals(parameters.data.length, queue.size());
+        }
+
+        // Elements are now deleted in the reverse order.
+        for (int j = parameters.deleteOrder.length - 1; j >= 0; --j) {
+            assertEquals(parameters.deleteOrder[j], queue.deleteMin());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testInsertOrDecrease() {
+        IndexedPriorityQueue queue = createIndexedQueue();
+        for (int i = 0; i < parameters.data.length; ++i) {
+            queue.insertOrDecrease(i, parameters.data[i].get());
+        }
+        assertEquals(parameters.data.length, queue.size());
+
+        // Elements already in the queue keep their key.
+        for (int i = 0; i < parameters.data.length; ++i) {
+            queue.insertOrDecrease(i, parameters.data[i].get());
+            assertEquals(parameters.data[i].get(), queue.getKey(i), 0);
+        }
+        assertEquals(parameters.data.length, queue.size());
+        double previous = Double.NEGATIVE_INFINITY;
+        while (!queue.isEmpty()) {
+            final double key = queue.getKey(queue.findMin());
+            assertTrue(key >= previous);
+            previous = key;
+            queue.deleteMin();
+        }
+    }
+
+    @Test
+    public void testClear() {
+        IndexedPriorityQueue queue = createFilledQueue();
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+        for (int i = 0; i < parameters.data.length; ++i) {
+            assertFalse(queue.contains(i));
+        }
+
+        // The queue can be filled again.
+        for (int i = 0; i < parameters.data.length; ++i) {
+            queue.insert(i, parameters.data[i].get());
+        }
+        assertEquals(parameters.data.length, queue.size());
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.insa.graphs.algorithm.utils;
+
+public class IndexedRadixHeapTest extends IndexedPriorityQueueTest {
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue() {
+        return new IndexedRadixHeap(0);
+    }
+
+    @Override
+    public IndexedPriorityQueue createIndexedQueue(IndexedPriorityQueue queue) {
+        return new IndexedRadixHeap((IndexedRadixHeap) queue);
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.insa.graphs.algorithm.ArcInspector;
+import org.insa.graphs.algorithm.ArcInspectorFactory;
+import org.insa.graphs.algorithm.RandomGraphs;
+import org.insa.graphs.algorithm.shortestpath.DijkstraAlgorithm;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
+import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class OneToManySearchTest {
+
+    // Random graph, inspector and costs of its arcs.
+    private static Graph graph;
+    private static ArcInspector inspector;
+    private static double[] costs;
+
+    @BeforeClass
+    public static void initAll() {
+        graph = RandomGraphs.create(new Random(107), "SEARCH", 50, 110);
+        inspector = ArcInspectorFactory.getAllFilters().get(2);
+        costs = ArcCosts.get(graph, inspector);
+    }
+
+    /**
+     * @return Cost of the shortest path between the given nodes given by
+     *         Dijkstra, 0 for a node to itself.
+     */
+    private static double expected(Node origin, Node destination) {
+        if (origin == destination) {
+            return 0;
+        }
+        ShortestPathSolution solution = new DijkstraAlgorithm(
+                new ShortestPathData(graph, origin, destination, inspector)).run();
+        return solution.isFeasible() ? solution.getCost() : Double.POSITIVE_INFINITY;
+    }
+
+    @Test
+    public void testForwardAndBackward() {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        for (Node source: graph.getNodes()) {
+            for (boolean backward: new boolean[] { false, true }) {
+                try (SearchWorkspace workspace = SearchWorkspace.acquire(graph.size())) {
+                    final double[] previous = { 0 };
+                    OneToManySearch.run(adjacency, costs, backward, source.getId(), workspace,
+                            (node, distance) -> {
+                                assertTrue(distance >= previous[0]);
+                                previous[0] = distance;
+                                return true;
+                            });
+                    for (Node node: graph.getNodes()) {
+                        final double distance = backward ? expected(node, source)
+                                : expected(source, node);
+                        assertEquals(distance != Double.POSITIVE_INFINITY,
+                                workspace.isSettled(node.getId()));
+                        assertEquals(distance, workspace.getDistance(node.getId()), 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStop() {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        int nbChecked = 0;
+        for (Node source: graph.getNodes()) {
+            try (SearchWorkspace workspace = SearchWorkspace.acquire(graph.size())) {
+                final int[] nbSettled = { 0 };
+                OneToManySearch.run(adjacency, costs, false, source.getId(), workspace,
+                        (node, distance) -> ++nbSettled[0] < 3);
+
+                // The search settles nothing after the listener stops it.
+                int nbMarked = 0;
+                for (int node = 0; node < graph.size(); ++node) {
+                    if (workspace.isSettled(node)) {
+                        ++nbMarked;
+                    }
+                }
+                assertEquals(nbSettled[0], nbMarked);
+                assertTrue(nbSettled[0] <= 3);
+                if (nbSettled[0] == 3) {
+                    ++nbChecked;
+                }
+            }
+        }
+        assertTrue(nbChecked > 0);
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.insa.graphs.algorithm.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SearchWorkspaceTest {
+
+    @Test
+    public void testReset() {
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(10)) {
+            workspace.visit(3, 1.5);
+            workspace.update(3, 4.0, 7);
+            workspace.settle(3);
+            assertTrue(workspace.isVisited(3));
+            assertTrue(workspace.isSettled(3));
+            assertEquals(4.0, workspace.getDistance(3), 0);
+            assertEquals(7, workspace.getPredecessorArc(3));
+            assertEquals(1.5, workspace.getPotential(3), 0);
+
+            workspace.reset();
+            assertFalse(workspace.isVisited(3));
+            assertFalse(workspace.isSettled(3));
+            assertEquals(Double.POSITIVE_INFINITY, workspace.getDistance(3), 0);
+            assertEquals(-1, workspace.getPredecessorArc(3));
+        }
+    }
+
+    @Test
+    public void testAcquireReuse() {
+        SearchWorkspace first = SearchWorkspace.acquire(10);
+        first.visit(5, 0);
+        first.close();
+
+        // Workspaces from the pool are clean and grown if needed.
+        try (SearchWorkspace second = SearchWorkspace.acquire(20)) {
+            assertFalse(second.isVisited(5));
+            second.visit(19, 0);
+            assertTrue(second.isVisited(19));
+        }
+    }
+
+    @Test
+    public void testQueueReset() {
+        try (SearchWorkspace workspace = SearchWorkspace.acquire(10)) {
+            IndexedPriorityQueue queue = workspace.getQueue();
+            assertTrue(queue.isEmpty());
+            queue.insert(2, 1.0);
+            queue.insert(7, 0.5);
+            workspace.reset();
+            assertTrue(queue.isEmpty());
+            assertFalse(queue.contains(2));
+            assertFalse(queue.contains(7));
+        }
+    }
+
+    @Test
+    public void testCloseTwice() {
+        SearchWorkspace workspace = SearchWorkspace.acquire(10);
+        workspace.close();
+        workspace.close();
+
+        // The workspace has been given back once, so it cannot be acquired twice.
+        try (SearchWorkspace first = SearchWorkspace.acquire(10);
+                SearchWorkspace second = SearchWorkspace.acquire(10)) {
+            assertNotSame(first, second);
+        }
+    }
+
+    @Test
+    public void testShrink() {
+        SearchWorkspace large = SearchWorkspace.acquire(1 << 16);
+        assertTrue(large.getCapacity() >= 1 << 16);
+        large.close();
+
+        // Workspaces much larger than needed are reallocated.
+        try (SearchWorkspace small = SearchWorkspace.acquire(10)) {
+            assertTrue(small.getCapacity() < 1 << 16);
+            small.visit(9, 0);
+            assertTrue(small.isVisited(9));
+        }
+    }
+
+}
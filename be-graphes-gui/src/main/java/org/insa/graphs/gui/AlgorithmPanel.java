@@ -23,6 +23,7 @@ import javax.swing.JPanel;
 import javax.swing.border.EmptyBorder;
 
 import org.insa.graphs.algorithm.AbstractAlgorithm;
+import org.insa.graphs.algorithm.AbstractInputData;
 import org.insa.graphs.algorithm.AlgorithmFactory;
 import org.insa.graphs.algorithm.ArcInspector;
 import org.insa.graphs.algorithm.ArcInspectorFactory;
@@ -51,18 +52,20 @@ public class AlgorithmPanel extends JPanel implements DrawingChangeListener {
 
         private final List<Node> nodes;
         private final Class<? extends AbstractAlgorithm<?>> algoClass;
+        private final String algoName;
 
         private final ArcInspector arcFilter;
 
         private final boolean graphicVisualization;
         private final boolean textualVisualization;
 
-        public StartActionEvent(Class<? extends AbstractAlgorithm<?>> algoClass, List<Node> nodes,
-                ArcInspector arcFilter, boolean graphicVisualization,
+        public StartActionEvent(Class<? extends AbstractAlgorithm<?>> algoClass, String algoName,
+                List<Node> nodes, ArcInspector arcFilter, boolean graphicVisualization,
                 boolean textualVisualization) {
             super(AlgorithmPanel.this, START_EVENT_ID, START_EVENT_COMMAND);
             this.nodes = nodes;
             this.algoClass = algoClass;
+            this.algoName = algoName;
             this.graphicVisualization = graphicVisualization;
             this.textualVisualization = textualVisualization;
             this.arcFilter = arcFilter;
@@ -89,6 +92,31 @@ public class AlgorithmPanel extends JPanel implements DrawingChangeListener {
             return this.algoClass;
         }
 
+        /**
+         * @return Name of the algorithm associated with this event.
+         */
+        public String getAlgorithmName() {
+            return this.algoName;
+        }
+
+        /**
+         * Create the algorithm associated with this event, as registered in the
+         * {@link AlgorithmFactory}.
+         * 
+         * @param data Input data for the algorithm.
+         * 
+         * @return A new instance of the algorithm using the given data.
+         * 
+         * @throws Exception if something wrong happens when constructing the
+         *         algorithm.
+         * 
+         * @see AlgorithmFactory#createAlgorithm(Class, String, AbstractInputData)
+         */
+        public AbstractAlgorithm<?> createAlgorithm(AbstractInputData data) throws Exception {
+            return AlgorithmFactory.createAlgorithm(AlgorithmPanel.this.baseAlgorithm,
+                    this.algoName, data);
+        }
+
         /**
          * @return true if graphic visualization is enabled.
          */
@@ -105,6 +133,9 @@ public class AlgorithmPanel extends JPanel implements DrawingChangeListener {
 
     };
 
+    // Base algorithm of the algorithms of this panel.
+    private final Class<? extends AbstractAlgorithm<?>> baseAlgorithm;
+
     // Input panels for node.
     protected NodesInputPanel nodesInputPanel;
 
@@ -138,6 +169,7 @@ public class AlgorithmPanel extends JPanel implements DrawingChangeListener {
     public AlgorithmPanel(Component parent, Class<? extends AbstractAlgorithm<?>> baseAlgorithm,
             String title, String[] nodeNames, boolean enableArcFilterSelection) {
         super();
+        this.baseAlgorithm = baseAlgorithm;
         setLayout(new BoxLayout(this, BoxLayout.PAGE_AXIS));
 
         setBorder(new EmptyBorder(15, 15, 15, 15));
@@ -218,9 +250,9 @@ public class AlgorithmPanel extends JPanel implements DrawingChangeListener {
             @Override
             public void actionPerformed(ActionEvent e) {
                 for (ActionListener lis: startActionListeners) {
+                    final String name = (String) algoSelect.getSelectedItem();
                     lis.actionPerformed(new StartActionEvent(
-                            AlgorithmFactory.getAlgorithmClass(baseAlgorithm,
-                                    (String) algoSelect.getSelectedItem()),
+                            AlgorithmFactory.getAlgorithmClass(baseAlgorithm, name), name,
                             nodesInputPanel.getNodeForInputs(),
                             (ArcInspector) arcFilterSelect.getSelectedItem(),
                             graphicObserverCheckbox.isSelected(),
@@ -12,11 +12,16 @@ import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +29,7 @@ import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -43,14 +49,18 @@ import javax.swing.UIManager;
 import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
 
+import org.insa.graphs.algorithm.AbstractInputData.Mode;
 import org.insa.graphs.algorithm.AbstractSolution;
-import org.insa.graphs.algorithm.AlgorithmFactory;
 import org.insa.graphs.algorithm.carpooling.CarPoolingAlgorithm;
+import org.insa.graphs.algorithm.isochrone.IsochroneAlgorithm;
+import org.insa.graphs.algorithm.isochrone.IsochroneData;
+import org.insa.graphs.algorithm.isochrone.IsochroneSolution;
 import org.insa.graphs.algorithm.packageswitch.PackageSwitchAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathAlgorithm;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathData;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathSolution;
 import org.insa.graphs.algorithm.shortestpath.ShortestPathTextObserver;
+import org.insa.graphs.algorithm.utils.PreprocessingStore;
 import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentTextObserver;
 import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsAlgorithm;
 import org.insa.graphs.algorithm.weakconnectivity.WeaklyConnectedComponentsData;
@@ -61,15 +71,19 @@ import org.insa.graphs.gui.drawing.Drawing;
 import org.insa.graphs.gui.drawing.GraphPalette;
 import org.insa.graphs.gui.drawing.components.BasicDrawing;
 import org.insa.graphs.gui.drawing.components.MapViewDrawing;
+import org.insa.graphs.gui.observers.IsochroneGraphicObserver;
 import org.insa.graphs.gui.observers.ShortestPathGraphicObserver;
 import org.insa.graphs.gui.observers.WeaklyConnectedComponentGraphicObserver;
 import org.insa.graphs.gui.utils.FileUtils;
 import org.insa.graphs.gui.utils.FileUtils.FolderType;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
-import org.insa.graphs.model.io.BinaryGraphReader;
 import org.insa.graphs.model.io.BinaryPathReader;
+import org.insa.graphs.model.io.ChannelGraphReader;
+import org.insa.graphs.model.io.CompiledGraphReader;
+import org.insa.graphs.model.io.CompiledGraphWriter;
 import org.insa.graphs.model.io.GraphReader;
+import org.insa.graphs.model.io.GraphWriter;
 import org.insa.graphs.model.io.MapMismatchException;
 
 public class MainWindow extends JFrame {
@@ -108,11 +122,14 @@ public class MainWindow extends JFrame {
 
     // Algorithm panels
     private final List<AlgorithmPanel> algoPanels = new ArrayList<>();
-    private final AlgorithmPanel wccPanel, spPanel, cpPanel, psPanel;
+    private final AlgorithmPanel wccPanel, spPanel, isoPanel, cpPanel, psPanel;
 
     // Path panel
     private final PathsPanel pathPanel;
 
+    // Item to compile the binary graph files when they are opened.
+    private JCheckBoxMenuItem compileMapItem;
+
     // List of items that cannot be used without a graph
     private final ArrayList<JMenuItem> graphLockItems = new ArrayList<JMenuItem>();
 
@@ -166,8 +183,7 @@ public class MainWindow extends JFrame {
 
                 WeaklyConnectedComponentsAlgorithm wccAlgorithm = null;
                 try {
-                    wccAlgorithm = (WeaklyConnectedComponentsAlgorithm) AlgorithmFactory
-                            .createAlgorithm(evt.getAlgorithmClass(), data);
+                    wccAlgorithm = (WeaklyConnectedComponentsAlgorithm) evt.createAlgorithm(data);
                 }
                 catch (Exception e1) {
                     JOptionPane.showMessageDialog(MainWindow.this,
@@ -212,8 +228,7 @@ public class MainWindow extends JFrame {
 
                 ShortestPathAlgorithm spAlgorithm = null;
                 try {
-                    spAlgorithm = (ShortestPathAlgorithm) AlgorithmFactory
-                            .createAlgorithm(evt.getAlgorithmClass(), data);
+                    spAlgorithm = (ShortestPathAlgorithm) evt.createAlgorithm(data);
                 }
                 catch (Exception e1) {
                     JOptionPane.showMessageDialog(MainWindow.this,
@@ -242,8 +257,8 @@ public class MainWindow extends JFrame {
                         // Add the solution to the solution panel (but do not display
                         // overlay).
                         spPanel.solutionPanel.addSolution(solution, false);
-                        // If the solution is feasible, add the path to the path panel.
-                        if (solution.isFeasible()) {
+                        // If the solution has a path, add it to the path panel.
+                        if (solution.hasPath()) {
                             pathPanel.addPath(solution.getPath());
                         }
                         // Show the solution panel and enable the shortest-path panel.
@@ -254,6 +269,82 @@ public class MainWindow extends JFrame {
             }
         });
 
+        isoPanel = new AlgorithmPanel(this, IsochroneAlgorithm.class, "Isochrone",
+                new String[] { "Origin" }, true);
+        isoPanel.addStartActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                StartActionEvent evt = (StartActionEvent) e;
+
+                // Budgets are asked in minutes (time) or kilometers (length).
+                final boolean time = evt.getArcFilter().getMode() == Mode.TIME;
+                String input = JOptionPane.showInputDialog(MainWindow.this,
+                        "Budgets (in " + (time ? "minutes" : "kilometers")
+                                + ", separated by commas):",
+                        time ? "10, 20, 30" : "5, 10, 20");
+                if (input == null) {
+                    return;
+                }
+                IsochroneData data = null;
+                try {
+                    String[] values = input.split(",");
+                    double[] budgets = new double[values.length];
+                    for (int i = 0; i < values.length; ++i) {
+                        budgets[i] = Double.parseDouble(values[i].trim()) * (time ? 60 : 1000);
+                    }
+                    data = new IsochroneData(graph, evt.getNodes().get(0), budgets,
+                            evt.getArcFilter());
+                }
+                catch (IllegalArgumentException e1) {
+                    JOptionPane.showMessageDialog(MainWindow.this,
+                            "Invalid budgets: " + input + ".", "Invalid budgets",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                IsochroneAlgorithm isoAlgorithm = null;
+                try {
+                    isoAlgorithm = (IsochroneAlgorithm) evt.createAlgorithm(data);
+                }
+                catch (Exception e1) {
+                    JOptionPane.showMessageDialog(MainWindow.this,
+                            "An error occurred while creating the specified algorithm.",
+                            "Internal error: Algorithm instantiation failure",
+                            JOptionPane.ERROR_MESSAGE);
+                    e1.printStackTrace();
+                    return;
+                }
+
+                isoPanel.setEnabled(false);
+
+                if (evt.isGraphicVisualizationEnabled()) {
+                    isoAlgorithm.addObserver(new IsochroneGraphicObserver(drawing));
+                }
+
+                final IsochroneAlgorithm copyAlgorithm = isoAlgorithm;
+                launchThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        IsochroneSolution solution = copyAlgorithm.run();
+                        isoPanel.solutionPanel.addSolution(solution, false);
+                        // Draw the largest isochrone first, from red (largest) to
+                        // green (smallest).
+                        final int nbIsochrones = solution.getNumberOfIsochrones();
+                        for (int i = nbIsochrones - 1; i >= 0; --i) {
+                            float hue = nbIsochrones == 1 ? 0
+                                    : 0.33f * (nbIsochrones - 1 - i) / (nbIsochrones - 1);
+                            if (!solution.getBoundary(i).isEmpty()) {
+                                drawing.drawPolygon(solution.getBoundary(i),
+                                        Color.getHSBColor(hue, 0.9f, 0.9f));
+                            }
+                        }
+                        isoPanel.solutionPanel.setVisible(true);
+                        isoPanel.setEnabled(true);
+                    }
+                });
+            }
+        });
+
         cpPanel = new AlgorithmPanel(this, CarPoolingAlgorithm.class, "Car-Pooling", new String[] {
                 "Origin Car", "Origin Pedestrian", "Destination Car", "Destination Pedestrian" },
                 true);
@@ -264,6 +355,7 @@ public class MainWindow extends JFrame {
         // add algorithm panels
         algoPanels.add(wccPanel);
         algoPanels.add(spPanel);
+        algoPanels.add(isoPanel);
         algoPanels.add(cpPanel);
         algoPanels.add(psPanel);
 
@@ -295,20 +387,45 @@ public class MainWindow extends JFrame {
             public void actionPerformed(ActionEvent e) {
                 JFileChooser chooser = FileUtils.createFileChooser(FolderType.Map);
                 if (chooser.showOpenDialog(MainWindow.this) == JFileChooser.APPROVE_OPTION) {
-                    graphFilePath = chooser.getSelectedFile().getAbsolutePath();
+                    File mapFile = chooser.getSelectedFile();
+                    File compiledFile = CompiledGraphReader.getCompiledFile(mapFile);
+
+                    // The path of the original file is needed to find the associated
+                    // mapsforge file.
+                    if (mapFile.equals(compiledFile)) {
+                        graphFilePath = mapFile.getAbsolutePath().substring(0,
+                                mapFile.getAbsolutePath().lastIndexOf('.')) + ".mapgr";
+                    }
+                    else {
+                        graphFilePath = mapFile.getAbsolutePath();
+                    }
+
+                    // Preprocessing data (e.g., landmarks) next to the map are read, but
+                    // data computed in memory are not written to the map directory.
+                    PreprocessingStore.setDirectory(mapFile.getAbsoluteFile().getParentFile());
+
+                    // Use the compiled graph if it is up-to-date, otherwise read the binary
+                    // file (and compile it for the next time if requested).
+                    CompiledGraphReader compiledReader = CompiledGraphReader.openIfFresh(mapFile);
+                    if (compiledReader != null) {
+                        loadGraph(compiledReader, null);
+                        return;
+                    }
 
                     // Note: Don't use a try-resources block since loadGraph is asynchronous.
-                    final DataInputStream stream;
+                    final FileChannel channel;
                     try {
-                        stream = new DataInputStream(new BufferedInputStream(
-                                new FileInputStream(chooser.getSelectedFile())));
+                        channel = FileChannel.open(mapFile.toPath(), StandardOpenOption.READ);
                     }
                     catch (IOException e1) {
                         JOptionPane.showMessageDialog(MainWindow.this,
                                 "Cannot open the selected file.");
                         return;
                     }
-                    loadGraph(new BinaryGraphReader(stream));
+                    loadGraph(new ChannelGraphReader(channel),
+                            compileMapItem.isSelected() && !mapFile.equals(compiledFile)
+                                    ? compiledFile
+                                    : null);
                 }
             }
         };
@@ -572,7 +689,14 @@ public class MainWindow extends JFrame {
         drawGraph(null, this.currentPalette);
     }
 
-    private void loadGraph(GraphReader reader) {
+    /**
+     * Load a graph using the given reader (asynchronously).
+     * 
+     * @param reader Reader to read the graph from.
+     * @param compiledFile File where the graph should be compiled once read, or
+     *        null to not compile it.
+     */
+    private void loadGraph(GraphReader reader, File compiledFile) {
         launchThread(new Runnable() {
             @Override
             public void run() {
@@ -599,6 +723,28 @@ public class MainWindow extends JFrame {
                 progressBar.dispose();
                 progressBar = null;
 
+                if (reader instanceof ChannelGraphReader) {
+                    ChannelGraphReader channelReader = (ChannelGraphReader) reader;
+                    System.out.println(String.format("Graph read in %d ms (%.1f MB/s).",
+                            channelReader.getReadingTime().toMillis(),
+                            channelReader.getThroughput()));
+                }
+
+                // Compiling is only an optimization for the next loads, so failures are
+                // only reported on the console (e.g., the map folder is read-only).
+                if (compiledFile != null) {
+                    try (GraphWriter writer = new CompiledGraphWriter(new DataOutputStream(
+                            new BufferedOutputStream(new FileOutputStream(compiledFile))))) {
+                        writer.writeGraph(graph);
+                        System.out.println("Compiled graph written to " + compiledFile + ".");
+                    }
+                    catch (IOException exception) {
+                        compiledFile.delete();
+                        System.out.println("Unable to write the compiled graph to "
+                                + compiledFile + ": " + exception.getMessage());
+                    }
+                }
+
                 String info = graph.getMapId();
                 if (graph.getMapName() != null && !graph.getMapName().isEmpty()) {
                     // The \u200e character is the left-to-right mark, we need to avoid issue with
@@ -671,6 +817,11 @@ public class MainWindow extends JFrame {
         }));
         graphLockItems.add(openPathItem);
 
+        // Compile item, off by default since it writes next to the map file.
+        compileMapItem = new JCheckBoxMenuItem("Compile Maps on Open");
+        compileMapItem.setToolTipText("Write a ." + CompiledGraphReader.FILE_EXTENSION
+                + " file next to the opened maps, which is faster to open next time.");
+
         // Close item
         JMenuItem closeItem = new JMenuItem("Quit", KeyEvent.VK_Q);
         closeItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Q, ActionEvent.ALT_MASK));
@@ -686,6 +837,7 @@ public class MainWindow extends JFrame {
         JMenu fileMenu = new JMenu("File");
         fileMenu.add(openMapItem);
         fileMenu.add(openPathItem);
+        fileMenu.add(compileMapItem);
         fileMenu.addSeparator();
         fileMenu.add(closeItem);
 
@@ -746,6 +898,15 @@ public class MainWindow extends JFrame {
             }
         }));
 
+        // Isochrone
+        JMenuItem isoItem = new JMenuItem("Isochrone");
+        isoItem.addActionListener(baf.createBlockingAction(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                enableAlgorithmPanel(isoPanel);
+            }
+        }));
+
         // Car pooling
         JMenuItem cpItem = new JMenuItem("Car Pooling");
         cpItem.addActionListener(baf.createBlockingAction(new ActionListener() {
@@ -766,12 +927,14 @@ public class MainWindow extends JFrame {
 
         graphLockItems.add(wccItem);
         graphLockItems.add(spItem);
+        graphLockItems.add(isoItem);
         graphLockItems.add(cpItem);
         graphLockItems.add(psItem);
 
         algoMenu.add(wccItem);
         algoMenu.addSeparator();
         algoMenu.add(spItem);
+        algoMenu.add(isoItem);
         algoMenu.add(cpItem);
         algoMenu.add(psItem);
 
@@ -106,8 +106,11 @@ public class SolutionPanel extends JPanel implements DrawingChangeListener, Grap
                     if (method.getReturnType().equals(Path.class)
                             && method.getParameterCount() == 0) {
                         try {
+                            // Feasible solutions may have no path (e.g., costs only).
                             Path path = (Path) method.invoke(this.solution);
-                            overlays.add(drawing.drawPath(path));
+                            if (path != null) {
+                                overlays.add(drawing.drawPath(path));
+                            }
                         }
                         catch (IllegalAccessException | IllegalArgumentException
                                 | InvocationTargetException e) {
@@ -1,10 +1,12 @@
 package org.insa.graphs.gui.drawing;
 
 import java.awt.Color;
+import java.util.List;
 
 import org.insa.graphs.gui.drawing.overlays.MarkerOverlay;
 import org.insa.graphs.gui.drawing.overlays.PathOverlay;
 import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+import org.insa.graphs.gui.drawing.overlays.PolygonOverlay;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.model.Point;
@@ -154,4 +156,16 @@ public interface Drawing {
      */
     public PathOverlay drawPath(Path path);
 
+    /**
+     * Draw a closed polygon, filled with a translucent version of the given color
+     * and outlined with the given color.
+     * 
+     * @param points Vertices of the polygon (the last vertex is linked to the
+     *        first one).
+     * @param color Color of the polygon to draw.
+     * 
+     * @return A PolygonOverlay instance representing the newly drawn polygon.
+     */
+    public PolygonOverlay drawPolygon(List<Point> points, Color color);
+
 }
@@ -5,6 +5,7 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.Polygon;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
@@ -32,6 +33,7 @@ import org.insa.graphs.gui.drawing.overlays.MarkerUtils;
 import org.insa.graphs.gui.drawing.overlays.Overlay;
 import org.insa.graphs.gui.drawing.overlays.PathOverlay;
 import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+import org.insa.graphs.gui.drawing.overlays.PolygonOverlay;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
@@ -305,6 +307,41 @@ public class BasicDrawing extends JPanel implements Drawing {
 
     }
 
+    private class BasicPolygonOverlay extends BasicOverlay implements PolygonOverlay {
+
+        // Alpha of the filling of the polygon.
+        private static final int FILL_ALPHA = 80;
+
+        // Vertices of the polygon
+        private final List<Point> points;
+
+        public BasicPolygonOverlay(List<Point> points, Color color) {
+            super(color);
+            this.points = points;
+        }
+
+        public int getZLevel() {
+            return 2;
+        }
+
+        @Override
+        public void drawImpl(Graphics2D graphics) {
+            Polygon polygon = new Polygon();
+            for (Point point: points) {
+                polygon.addPoint(projection.longitudeToPixelX(point.getLongitude()),
+                        projection.latitudeToPixelY(point.getLatitude()));
+            }
+            Color color = getColor();
+            graphics.setColor(
+                    new Color(color.getRed(), color.getGreen(), color.getBlue(), FILL_ALPHA));
+            graphics.fillPolygon(polygon);
+            graphics.setStroke(new BasicStroke(2));
+            graphics.setColor(color);
+            graphics.drawPolygon(polygon);
+        }
+
+    }
+
     /**
      * Class encapsulating a set of overlays.
      *
@@ -744,4 +781,10 @@ public class BasicDrawing extends JPanel implements Drawing {
         return drawPath(path, DEFAULT_PATH_COLOR, markers);
     }
 
+    @Override
+    public PolygonOverlay drawPolygon(List<Point> points, Color color) {
+        return (PolygonOverlay) this.overlays
+                .add(new BasicPolygonOverlay(new ArrayList<>(points), color));
+    }
+
 }
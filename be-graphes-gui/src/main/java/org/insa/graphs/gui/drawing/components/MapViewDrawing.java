@@ -22,12 +22,15 @@ import org.insa.graphs.gui.drawing.overlays.MarkerUtils;
 import org.insa.graphs.gui.drawing.overlays.Overlay;
 import org.insa.graphs.gui.drawing.overlays.PathOverlay;
 import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+import org.insa.graphs.gui.drawing.overlays.PolygonOverlay;
 import org.insa.graphs.gui.drawing.overlays.PolylineAutoScaling;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.model.Point;
 import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.graphics.Paint;
+import org.mapsforge.core.graphics.Style;
 import org.mapsforge.core.model.BoundingBox;
 import org.mapsforge.core.model.LatLong;
 import org.mapsforge.core.model.MapPosition;
@@ -286,6 +289,28 @@ public class MapViewDrawing extends MapView implements Drawing {
 
     };
 
+    /**
+     * PolygonOverlay for MapViewDrawing.
+     *
+     */
+    private class MapViewPolygonOverlay extends MapViewOverlay implements PolygonOverlay {
+
+        public MapViewPolygonOverlay(Polygon polygon, Color color) {
+            super(new Layer[] { polygon }, color);
+        }
+
+        @Override
+        public void setColor(Color color) {
+            super.setColor(color);
+            Polygon polygon = (Polygon) this.layers[0];
+            polygon.getPaintFill().setColor(GRAPHIC_FACTORY.createColor(80, color.getRed(),
+                    color.getGreen(), color.getBlue()));
+            polygon.getPaintStroke().setColor(GRAPHIC_FACTORY.createColor(255, color.getRed(),
+                    color.getGreen(), color.getBlue()));
+        }
+
+    }
+
     // Default path color.
     public static final Color DEFAULT_PATH_COLOR = new Color(66, 134, 244);
 
@@ -518,4 +543,17 @@ public class MapViewDrawing extends MapView implements Drawing {
         return drawPath(path, DEFAULT_PATH_COLOR, markers);
     }
 
+    @Override
+    public PolygonOverlay drawPolygon(List<Point> points, Color color) {
+        Paint fill = GRAPHIC_FACTORY.createPaint(), stroke = GRAPHIC_FACTORY.createPaint();
+        fill.setStyle(Style.FILL);
+        stroke.setStyle(Style.STROKE);
+        stroke.setStrokeWidth(2);
+        Polygon polygon = new Polygon(fill, stroke, GRAPHIC_FACTORY);
+        polygon.setPoints(points.stream().map(this::convertPoint).collect(Collectors.toList()));
+        MapViewPolygonOverlay overlay = new MapViewPolygonOverlay(polygon, color);
+        overlay.setColor(color);
+        return overlay;
+    }
+
 }
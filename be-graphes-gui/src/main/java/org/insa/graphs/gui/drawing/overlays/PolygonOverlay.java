@@ -0,0 +1,5 @@
+package org.insa.graphs.gui.drawing.overlays;
+
+public interface PolygonOverlay extends Overlay {
+
+}
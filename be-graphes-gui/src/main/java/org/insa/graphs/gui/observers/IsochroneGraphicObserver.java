@@ -0,0 +1,34 @@
+package org.insa.graphs.gui.observers;
+
+import java.awt.Color;
+
+import org.insa.graphs.algorithm.isochrone.IsochroneObserver;
+import org.insa.graphs.gui.drawing.Drawing;
+import org.insa.graphs.gui.drawing.overlays.PointSetOverlay;
+import org.insa.graphs.model.Node;
+
+public class IsochroneGraphicObserver implements IsochroneObserver {
+
+    // Drawing and Graph drawing
+    protected Drawing drawing;
+    protected PointSetOverlay psOverlay;
+
+    public IsochroneGraphicObserver(Drawing drawing) {
+        this.drawing = drawing;
+        psOverlay = drawing.createPointSetOverlay(1, Color.BLUE);
+    }
+
+    @Override
+    public void notifyOriginProcessed(Node node) {
+    }
+
+    @Override
+    public void notifyNodeMarked(Node node, double cost) {
+        psOverlay.addPoint(node.getPoint());
+    }
+
+    @Override
+    public void notifyBudgetExhausted(int index, double budget) {
+    }
+
+}
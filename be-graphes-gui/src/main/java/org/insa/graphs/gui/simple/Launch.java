@@ -4,6 +4,7 @@ import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.io.BufferedInputStream;
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 
 import javax.swing.JFrame;
@@ -15,6 +16,7 @@ import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Path;
 import org.insa.graphs.model.io.BinaryGraphReader;
 import org.insa.graphs.model.io.BinaryPathReader;
+import org.insa.graphs.model.io.CompiledGraphReader;
 import org.insa.graphs.model.io.GraphReader;
 import org.insa.graphs.model.io.PathReader;
 
@@ -50,9 +52,12 @@ public class Launch {
         final String mapName = "/mnt/commetud/3eme Annee MIC/Graphes-et-Algorithmes/Maps/insa.mapgr";
         final String pathName = "/mnt/commetud/3eme Annee MIC/Graphes-et-Algorithmes/Paths/path_fr31insa_rangueil_r2.path";
 
-        // Create a graph reader.
-        final GraphReader reader = new BinaryGraphReader(
-                new DataInputStream(new BufferedInputStream(new FileInputStream(mapName))));
+        // Create a graph reader, using the compiled graph if it is up-to-date.
+        GraphReader reader = CompiledGraphReader.openIfFresh(new File(mapName));
+        if (reader == null) {
+            reader = new BinaryGraphReader(
+                    new DataInputStream(new BufferedInputStream(new FileInputStream(mapName))));
+        }
 
         // TODONE: Read the graph.
         final Graph graph = reader.read();
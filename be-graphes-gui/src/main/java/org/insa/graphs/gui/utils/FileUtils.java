@@ -11,6 +11,8 @@ import javax.swing.JFileChooser;
 import javax.swing.filechooser.FileFilter;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
+import org.insa.graphs.model.io.CompiledGraphReader;
+
 public class FileUtils {
 
     // Preferences
@@ -23,7 +25,7 @@ public class FileUtils {
     public enum FolderType {
 
         /**
-         * Folder type for graph files input (*.mapgr).
+         * Folder type for graph files input (*.mapgr, *.mmapgr).
          */
         Map,
 
@@ -66,7 +68,8 @@ public class FileUtils {
                 new PreferencesEntry("DefaultPathOutputsFolder", "paths"));
 
         // Populate folderToFilter
-        folderToFilter.put(FolderType.Map, new FileNameExtensionFilter("Graph files", "mapgr"));
+        folderToFilter.put(FolderType.Map, new FileNameExtensionFilter("Graph files", "mapgr",
+                CompiledGraphReader.FILE_EXTENSION));
         folderToFilter.put(FolderType.PathInput, new FileNameExtensionFilter("Path files", "path"));
         folderToFilter.put(FolderType.PathOutput,
                 new FileNameExtensionFilter("Path files", "path"));
@@ -0,0 +1,604 @@
+package org.insa.graphs.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * Compressed sparse row (CSR) representation of the successors of a
+ * {@link Graph}.
+ * </p>
+ *
+ * <p>
+ * Arcs are numbered from {@code 0} to {@code getNumberOfArcs() - 1}, grouped by
+ * origin node and in the same order as {@link Node#getSuccessors()}. The
+ * successors of node {@code i} are the arcs whose index lies in
+ * {@code [getFirstArc(i), getFirstArc(i + 1))}. For each arc, the destination,
+ * the length and the index of the road information are stored in flat primitive
+ * arrays so that algorithms can scan the graph without following object
+ * references.
+ * </p>
+ *
+ * <p>
+ * The predecessors of the nodes are available through an incoming-arc index
+ * (see {@link #getFirstIncomingArc(int)}), which is built on first use.
+ * </p>
+ *
+ * <p>
+ * The arrays do not hold the {@link Arc} objects, which are only referenced by
+ * the successor lists of their origin. They are still available through
+ * {@link #getArc(int, int)} (or {@link #getArc(int)}, which first looks for the
+ * origin of the arc), e.g., to call an arc inspector or to build a {@link Path}.
+ * </p>
+ *
+ */
+public final class AdjacencyArrays {
+
+    // Index of the first arc of each node (size is number of nodes + 1).
+    private final int[] firstArc;
+
+    // Destination node of each arc.
+    private final int[] head;
+
+    // Length of each arc.
+    private final float[] length;
+
+    // Index of the road information of each arc.
+    private final int[] descriptor;
+
+    // Road informations, indexed by descriptor.
+    private final RoadInformation[] descriptors;
+
+    // Index of the forward arc of each backward arc (-1 for forward arcs).
+    private final int[] originalArc;
+
+    // Nodes whose successor lists hold the arc objects, or null if the arc
+    // objects are created on demand.
+    private final List<Node> nodes;
+
+    // Function creating the arc objects on demand, or null if the arc objects are
+    // held by the nodes.
+    private final IntFunction<Arc> arcFactory;
+
+    // Incoming-arc index, built on first use.
+    private volatile IncomingArcs incoming;
+
+    /**
+     * Predecessors of the nodes, in CSR form: the arcs entering node {@code i}
+     * are {@code arc[j]} for {@code j} in {@code [first[i], first[i + 1])}, and
+     * {@code tail[j]} is the origin of {@code arc[j]}.
+     */
+    private static final class IncomingArcs {
+
+        private final int[] first, arc, tail;
+
+        IncomingArcs(int[] first, int[] arc, int[] tail) {
+            this.first = first;
+            this.arc = arc;
+            this.tail = tail;
+        }
+
+    }
+
+    /**
+     * Create the adjacency arrays for the given list of nodes, discovering the
+     * road informations from the arcs.
+     *
+     * @param nodes Nodes of the graph, the node at index {@code i} must have ID
+     *        {@code i}.
+     */
+    public AdjacencyArrays(List<Node> nodes) {
+        this(nodes, null);
+    }
+
+    /**
+     * Create the adjacency arrays for the given list of nodes.
+     *
+     * @param nodes Nodes of the graph, the node at index {@code i} must have ID
+     *        {@code i}.
+     * @param descriptors Road informations of the graph (e.g., in the order they
+     *        were read from a file), or {@code null} to discover them from the
+     *        arcs. Road informations that are not in this array are appended to
+     *        it.
+     */
+    public AdjacencyArrays(List<Node> nodes, RoadInformation[] descriptors) {
+        final int nbNodes = nodes.size();
+
+        int nbArcs = 0;
+        for (Node node: nodes) {
+            nbArcs += node.getNumberOfSuccessors();
+        }
+
+        this.firstArc = new int[nbNodes + 1];
+        this.head = new int[nbArcs];
+        this.length = new float[nbArcs];
+        this.descriptor = new int[nbArcs];
+        this.originalArc = new int[nbArcs];
+        this.nodes = nodes;
+        this.arcFactory = null;
+
+        // Map road information to their index.
+        IdentityHashMap<RoadInformation, Integer> indices = new IdentityHashMap<>();
+        ArrayList<RoadInformation> allDescriptors = new ArrayList<>();
+        if (descriptors != null) {
+            for (RoadInformation info: descriptors) {
+                if (!indices.containsKey(info)) {
+                    indices.put(info, allDescriptors.size());
+                }
+                allDescriptors.add(info);
+            }
+        }
+
+        int index = 0;
+        for (int i = 0; i < nbNodes; ++i) {
+            this.firstArc[i] = index;
+            for (Arc arc: nodes.get(i).getSuccessors()) {
+                Integer desc = indices.get(arc.getRoadInformation());
+                if (desc == null) {
+                    desc = allDescriptors.size();
+                    indices.put(arc.getRoadInformation(), desc);
+                    allDescriptors.add(arc.getRoadInformation());
+                }
+                arc.setIndex(index);
+                this.head[index] = arc.getDestination().getId();
+                this.length[index] = arc.getLength();
+                this.descriptor[index] = desc;
+                ++index;
+            }
+        }
+        this.firstArc[nbNodes] = index;
+
+        // Indices of the forward arcs are known only once all arcs are numbered.
+        for (Node node: nodes) {
+            for (Arc arc: node.getSuccessors()) {
+                this.originalArc[arc.getIndex()] = arc instanceof ArcBackward
+                        ? ((ArcBackward) arc).getOriginalArc().getIndex()
+                        : -1;
+            }
+        }
+
+        this.descriptors = allDescriptors.toArray(new RoadInformation[allDescriptors.size()]);
+    }
+
+    /**
+     * <p>
+     * Create adjacency arrays from the given arrays, and create the corresponding
+     * arcs between the given nodes.
+     * </p>
+     * 
+     * <p>
+     * The given nodes must not have any successor yet. Once this constructor
+     * returns, the successors of each node are the arcs of the arrays, in the same
+     * order. The given arrays are not copied.
+     * </p>
+     * 
+     * <p>
+     * Arcs are created in parallel (in the fork-join pool of the calling thread if
+     * any, or the common pool), so the given points function must be thread-safe.
+     * </p>
+     *
+     * @param nodes Nodes of the graph, the node at index {@code i} must have ID
+     *        {@code i}.
+     * @param firstArc Index of the first arc of each node, with an extra entry at
+     *        the end containing the number of arcs.
+     * @param head Destination node of each arc.
+     * @param length Length of each arc.
+     * @param descriptor Index of the road information of each arc.
+     * @param descriptors Road informations, indexed by descriptor.
+     * @param originalArc Index of the forward arc of each backward arc, or
+     *        {@code -1} for forward arcs.
+     * @param points Function returning the points of a forward arc from its index,
+     *        or null if the points of the arcs are not available.
+     * 
+     * @see #getOriginalArc(int)
+     */
+    public AdjacencyArrays(List<Node> nodes, int[] firstArc, int[] head, float[] length,
+            int[] descriptor, RoadInformation[] descriptors, int[] originalArc,
+            IntFunction<List<Point>> points) {
+        this(nodes, firstArc, head, length, descriptor, descriptors, originalArc, points, null,
+                null);
+    }
+
+    /**
+     * Create adjacency arrays from the given arrays, and create the corresponding
+     * arcs between the given nodes, the points of the arcs being stored in the
+     * given geometry.
+     *
+     * @param nodes Nodes of the graph, the node at index {@code i} must have ID
+     *        {@code i}.
+     * @param firstArc Index of the first arc of each node, with an extra entry at
+     *        the end containing the number of arcs.
+     * @param head Destination node of each arc.
+     * @param length Length of each arc.
+     * @param descriptor Index of the road information of each arc.
+     * @param descriptors Road informations, indexed by descriptor.
+     * @param originalArc Index of the forward arc of each backward arc, or
+     *        {@code -1} for forward arcs.
+     * @param geometry Geometry containing the points of the arcs, or null if the
+     *        points of the arcs are not available.
+     * @param polylines Index of the polyline of each forward arc in the geometry
+     *        (unused if geometry is null).
+     * 
+     * @see #AdjacencyArrays(List, int[], int[], float[], int[], RoadInformation[],
+     *      int[], IntFunction)
+     */
+    public AdjacencyArrays(List<Node> nodes, int[] firstArc, int[] head, float[] length,
+            int[] descriptor, RoadInformation[] descriptors, int[] originalArc,
+            PackedGeometry geometry, int[] polylines) {
+        this(nodes, firstArc, head, length, descriptor, descriptors, originalArc, null,
+                geometry, polylines);
+    }
+
+    private AdjacencyArrays(List<Node> nodes, int[] firstArc, int[] head, float[] length,
+            int[] descriptor, RoadInformation[] descriptors, int[] originalArc,
+            IntFunction<List<Point>> points, PackedGeometry geometry, int[] polylines) {
+        this.firstArc = firstArc;
+        this.head = head;
+        this.length = length;
+        this.descriptor = descriptor;
+        this.descriptors = descriptors;
+        this.originalArc = originalArc;
+        this.nodes = nodes;
+        this.arcFactory = null;
+
+        // Forward arcs must be created first since backward arcs refer to them. Each
+        // node only receives its own successors, so nodes can be processed in
+        // parallel. The arcs are only kept by the nodes once this constructor
+        // returns.
+        final Arc[] arcs = new Arc[head.length];
+        final int nbNodes = nodes.size();
+        IntStream.range(0, nbNodes).parallel().forEach((i) -> {
+            Node origin = nodes.get(i);
+            for (int a = firstArc[i]; a < firstArc[i + 1]; ++a) {
+                if (originalArc[a] >= 0) {
+                    continue;
+                }
+                if (points != null) {
+                    arcs[a] = new ArcForward(origin, nodes.get(head[a]), length[a],
+                            descriptors[descriptor[a]], points.apply(a));
+                }
+                else {
+                    arcs[a] = new ArcForward(origin, nodes.get(head[a]), length[a],
+                            descriptors[descriptor[a]], geometry,
+                            geometry == null ? -1 : polylines[a]);
+                }
+            }
+        });
+
+        IntStream.range(0, nbNodes).parallel().forEach((i) -> {
+            Node origin = nodes.get(i);
+            for (int a = firstArc[i]; a < firstArc[i + 1]; ++a) {
+                if (originalArc[a] >= 0) {
+                    arcs[a] = new ArcBackward(arcs[originalArc[a]]);
+                }
+                arcs[a].setIndex(a);
+                origin.addSuccessor(arcs[a]);
+            }
+        });
+    }
+
+    /**
+     * @return Number of nodes.
+     */
+    public int getNumberOfNodes() {
+        return this.firstArc.length - 1;
+    }
+
+    /**
+     * @return Number of arcs.
+     */
+    public int getNumberOfArcs() {
+        return this.head.length;
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Index of the first successor of the given node.
+     */
+    public int getFirstArc(int node) {
+        return this.firstArc[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Index after the last successor of the given node.
+     */
+    public int getEndArc(int node) {
+        return this.firstArc[node + 1];
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return ID of the destination node of the given arc.
+     */
+    public int getHead(int arc) {
+        return this.head[arc];
+    }
+
+    /**
+     * Retrieve the origin of the given arc, by binary search over the first arcs of
+     * the nodes (in <i>O(log |V|)</i>).
+     *
+     * @param arc Index of an arc.
+     *
+     * @return ID of the origin node of the given arc.
+     */
+    public int getTail(int arc) {
+        int low = 0, high = getNumberOfNodes() - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (this.firstArc[middle] <= arc) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Create the adjacency arrays of the reverse of the graph of the given
+     * arrays, whose successors are the predecessors in the given arrays. The
+     * incoming-arc index of the given arrays is reused, the lengths, descriptors
+     * and original arcs are gathered into new arrays (12 bytes per arc), and no
+     * arc object is kept: the arcs are created each time they are retrieved.
+     * 
+     * @param forward Adjacency arrays of the original graph.
+     * @param nodes Nodes of the reverse graph, may be filled after this
+     *        constructor returns.
+     */
+    private AdjacencyArrays(AdjacencyArrays forward, List<Node> nodes) {
+        final IncomingArcs incoming = forward.getIncoming();
+        final int nbArcs = forward.getNumberOfArcs();
+
+        this.firstArc = incoming.first;
+        this.head = incoming.tail;
+        this.length = new float[nbArcs];
+        this.descriptor = new int[nbArcs];
+        this.descriptors = forward.descriptors;
+        this.originalArc = new int[nbArcs];
+        this.nodes = null;
+
+        // Position in these arrays of the reverse of each arc of the original graph.
+        int[] position = new int[nbArcs];
+        for (int j = 0; j < nbArcs; ++j) {
+            position[incoming.arc[j]] = j;
+        }
+
+        // The reverse of a backward arc is the backward arc of the reverse of its
+        // forward arc.
+        for (int j = 0; j < nbArcs; ++j) {
+            final int a = incoming.arc[j];
+            this.length[j] = forward.length[a];
+            this.descriptor[j] = forward.descriptor[a];
+            this.originalArc[j] = forward.originalArc[a] == -1 ? -1
+                    : position[forward.originalArc[a]];
+        }
+
+        // The predecessors in the reverse graph are the successors in the original
+        // graph.
+        this.incoming = new IncomingArcs(forward.firstArc, position, forward.head);
+
+        this.arcFactory = (j) -> {
+            final int a = incoming.arc[j];
+            return new ArcReversed(forward.getArc(incoming.tail[j], a),
+                    nodes.get(forward.head[a]), nodes.get(incoming.tail[j]));
+        };
+    }
+
+    /**
+     * Create the adjacency arrays of the reverse graph of these arrays (see
+     * {@link Graph#reverseView()}).
+     * 
+     * @param nodes Nodes of the reverse graph, may be filled after this method
+     *        returns but before any arc is retrieved.
+     * 
+     * @return Adjacency arrays of the reverse graph.
+     */
+    AdjacencyArrays reverse(List<Node> nodes) {
+        return new AdjacencyArrays(this, nodes);
+    }
+
+    /**
+     * @return The incoming-arc index, built on the first call.
+     */
+    private IncomingArcs getIncoming() {
+        IncomingArcs result = this.incoming;
+        if (result == null) {
+            synchronized (this) {
+                result = this.incoming;
+                if (result == null) {
+                    result = buildIncoming();
+                    this.incoming = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Build the incoming-arc index with a counting sort of the arcs by
+     * destination.
+     */
+    private IncomingArcs buildIncoming() {
+        final int nbNodes = getNumberOfNodes(), nbArcs = getNumberOfArcs();
+        int[] first = new int[nbNodes + 1];
+        for (int a = 0; a < nbArcs; ++a) {
+            ++first[this.head[a] + 1];
+        }
+        for (int i = 0; i < nbNodes; ++i) {
+            first[i + 1] += first[i];
+        }
+        int[] next = Arrays.copyOf(first, nbNodes);
+        int[] arc = new int[nbArcs], tail = new int[nbArcs];
+        for (int i = 0; i < nbNodes; ++i) {
+            for (int a = this.firstArc[i]; a < this.firstArc[i + 1]; ++a) {
+                final int j = next[this.head[a]]++;
+                arc[j] = a;
+                tail[j] = i;
+            }
+        }
+        return new IncomingArcs(first, arc, tail);
+    }
+
+    /**
+     * <p>
+     * Retrieve the position of the first predecessor of the given node in the
+     * incoming-arc index.
+     * </p>
+     * 
+     * <p>
+     * The arcs entering node {@code i} are {@code getIncomingArc(j)} for
+     * {@code j} in {@code [getFirstIncomingArc(i), getEndIncomingArc(i))}. The
+     * index is built on the first call of one of these methods (in
+     * <i>O(|V| + |A|)</i>, thread-safe) and kept afterwards.
+     * </p>
+     *
+     * @param node ID of a node.
+     *
+     * @return Position of the first arc entering the given node.
+     */
+    public int getFirstIncomingArc(int node) {
+        return getIncoming().first[node];
+    }
+
+    /**
+     * @param node ID of a node.
+     *
+     * @return Position after the last arc entering the given node.
+     * 
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getEndIncomingArc(int node) {
+        return getIncoming().first[node + 1];
+    }
+
+    /**
+     * @param position Position in the incoming-arc index.
+     *
+     * @return Index of the arc at the given position.
+     * 
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getIncomingArc(int position) {
+        return getIncoming().arc[position];
+    }
+
+    /**
+     * @param position Position in the incoming-arc index.
+     *
+     * @return ID of the origin node of the arc at the given position.
+     * 
+     * @see #getFirstIncomingArc(int)
+     */
+    public int getIncomingTail(int position) {
+        return getIncoming().tail[position];
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return Length of the given arc, in meters.
+     */
+    public float getLength(int arc) {
+        return this.length[arc];
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return Index of the road information of the given arc.
+     *
+     * @see #getDescriptors()
+     */
+    public int getDescriptorIndex(int arc) {
+        return this.descriptor[arc];
+    }
+
+    /**
+     * @param arc Index of an arc.
+     *
+     * @return Road information of the given arc.
+     */
+    public RoadInformation getRoadInformation(int arc) {
+        return this.descriptors[this.descriptor[arc]];
+    }
+
+    /**
+     * @return Road informations of the graph, indexed by descriptor (the returned
+     *         array must not be modified).
+     */
+    public RoadInformation[] getDescriptors() {
+        return this.descriptors;
+    }
+
+    /**
+     * <p>
+     * Retrieve the forward arc of the given arc.
+     * </p>
+     * 
+     * <p>
+     * A two-ways road is represented by a forward arc, which holds the data, and a
+     * backward arc going in the opposite direction that refers to it. One-way
+     * roads only have a forward arc.
+     * </p>
+     *
+     * @param arc Index of an arc.
+     *
+     * @return Index of the forward arc corresponding to the given arc if it is a
+     *         backward arc, or {@code -1} if the given arc is a forward arc.
+     */
+    public int getOriginalArc(int arc) {
+        return this.originalArc[arc];
+    }
+
+    /**
+     * Retrieve the arc object corresponding to the given index, when its origin is
+     * not known (see {@link #getTail(int)}).
+     *
+     * @param arc Index of an arc.
+     *
+     * @return Arc object corresponding to the given index.
+     */
+    public Arc getArc(int arc) {
+        if (this.arcFactory != null) {
+            return createArc(arc);
+        }
+        return getArc(getTail(arc), arc);
+    }
+
+    /**
+     * Retrieve the arc object corresponding to the given index, read from the
+     * successors of its origin (in constant time).
+     *
+     * @param node ID of the origin of the arc.
+     * @param arc Index of an arc leaving the given node.
+     *
+     * @return Arc object corresponding to the given index.
+     */
+    public Arc getArc(int node, int arc) {
+        if (this.arcFactory != null) {
+            return createArc(arc);
+        }
+        return this.nodes.get(node).getSuccessor(arc - this.firstArc[node]);
+    }
+
+    /**
+     * Create the arc object corresponding to the given index, for arrays whose arc
+     * objects are created on demand.
+     */
+    private Arc createArc(int arc) {
+        Arc result = this.arcFactory.apply(arc);
+        result.setIndex(arc);
+        return result;
+    }
+
+}
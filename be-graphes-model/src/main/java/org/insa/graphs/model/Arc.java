@@ -19,6 +19,27 @@ import java.util.List;
  */
 public abstract class Arc {
 
+    // Index of this arc in the adjacency arrays of its graph.
+    private int index = -1;
+
+    /**
+     * @return Index of this arc in the {@link AdjacencyArrays} of the graph
+     *         containing it, or {@code -1} if this arc does not belong to a graph
+     *         yet.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Set the index of this arc in the adjacency arrays of its graph.
+     * 
+     * @param index Index of this arc.
+     */
+    void setIndex(int index) {
+        this.index = index;
+    }
+
     /**
      * @return Origin node of this arc.
      */
@@ -64,7 +85,8 @@ public abstract class Arc {
     public abstract RoadInformation getRoadInformation();
 
     /**
-     * @return Points representing segments of this arc.
+     * @return Points representing segments of this arc. The points may be decoded
+     *         on each call, so this method should not be used when computing routes.
      */
     public abstract List<Point> getPoints();
 }
@@ -25,6 +25,13 @@ class ArcBackward extends Arc {
         this.originalArc = originalArc;
     }
 
+    /**
+     * @return Original forward arc corresponding to this backward arc.
+     */
+    Arc getOriginalArc() {
+        return this.originalArc;
+    }
+
     @Override
     public Node getOrigin() {
         return this.originalArc.getDestination();
@@ -1,5 +1,6 @@
 package org.insa.graphs.model;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -19,9 +20,14 @@ class ArcForward extends Arc {
     // Road information.
     private final RoadInformation info;
 
-    // Segments.
+    // Segments, or null if they are stored in a packed geometry or not available.
     private final List<Point> points;
 
+    // Geometry containing the segments (or null), and index of the polyline of this
+    // arc in it.
+    private final PackedGeometry geometry;
+    private final int polyline;
+
     /**
      * Create a new ArcForward with the given attributes.
      * 
@@ -37,7 +43,32 @@ class ArcForward extends Arc {
         this.destination = dest;
         this.length = length;
         this.info = roadInformation;
-        this.points = points;
+        this.points = points == null ? null : Collections.unmodifiableList(points);
+        this.geometry = null;
+        this.polyline = -1;
+    }
+
+    /**
+     * Create a new ArcForward with the given attributes, whose points are stored
+     * in the given geometry.
+     * 
+     * @param origin Origin of this arc.
+     * @param dest Destination of this arc.
+     * @param length Length of this arc (in meters).
+     * @param roadInformation Road information for this arc.
+     * @param geometry Geometry containing the points of this arc, or null if the
+     *        points are not available.
+     * @param polyline Index of the polyline of this arc in the geometry.
+     */
+    protected ArcForward(Node origin, Node dest, float length, RoadInformation roadInformation,
+            PackedGeometry geometry, int polyline) {
+        this.origin = origin;
+        this.destination = dest;
+        this.length = length;
+        this.info = roadInformation;
+        this.points = null;
+        this.geometry = geometry;
+        this.polyline = polyline;
     }
 
     @Override
@@ -62,7 +93,13 @@ class ArcForward extends Arc {
 
     @Override
     public List<Point> getPoints() {
-        return Collections.unmodifiableList(points);
+        if (points != null) {
+            return points;
+        }
+        if (geometry != null) {
+            return geometry.getPoints(polyline, origin.getPoint(), destination.getPoint());
+        }
+        return Arrays.asList(origin.getPoint(), destination.getPoint());
     }
 
 }
@@ -0,0 +1,87 @@
+package org.insa.graphs.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of Arc used by the reverse view of a graph (see
+ * {@link Graph#reverseView()}): the reverse of an arc of the original graph,
+ * going between nodes of the view. This arc only holds references to the
+ * original arc and to its end nodes. Since the view does not keep its arcs,
+ * the same arc of the view may be represented by several objects, which are
+ * equal.
+ *
+ */
+class ArcReversed extends Arc {
+
+    // Arc of the original graph.
+    private final Arc reversedArc;
+
+    // Origin and destination, in the reverse view.
+    private final Node origin, destination;
+
+    /**
+     * Create a new arc which is the reverse of the given arc.
+     * 
+     * @param reversedArc Arc of the original graph.
+     * @param origin Origin of this arc, i.e., the node of the reverse view
+     *        corresponding to the destination of the original arc.
+     * @param destination Destination of this arc, i.e., the node of the reverse
+     *        view corresponding to the origin of the original arc.
+     */
+    ArcReversed(Arc reversedArc, Node origin, Node destination) {
+        this.reversedArc = reversedArc;
+        this.origin = origin;
+        this.destination = destination;
+    }
+
+    /**
+     * @return Arc of the original graph that this arc reverses.
+     */
+    Arc getReversedArc() {
+        return this.reversedArc;
+    }
+
+    @Override
+    public Node getOrigin() {
+        return this.origin;
+    }
+
+    @Override
+    public Node getDestination() {
+        return this.destination;
+    }
+
+    @Override
+    public float getLength() {
+        return this.reversedArc.getLength();
+    }
+
+    @Override
+    public RoadInformation getRoadInformation() {
+        return this.reversedArc.getRoadInformation();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof ArcReversed) {
+            ArcReversed arc = (ArcReversed) other;
+            return this.reversedArc == arc.reversedArc && this.origin == arc.origin;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.reversedArc.hashCode();
+    }
+
+    @Override
+    public List<Point> getPoints() {
+        List<Point> pts = new ArrayList<>(this.reversedArc.getPoints());
+        Collections.reverse(pts);
+        return pts;
+    }
+
+}
@@ -1,8 +1,10 @@
 package org.insa.graphs.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * <p>
@@ -13,6 +15,17 @@ import java.util.List;
  * This class acts as a object-oriented <b>adjacency list</b> for a graph, i.e.,
  * it holds a list of nodes and each node holds a list of its successors.
  * </p>
+ * 
+ * <p>
+ * The same successors are also available as flat primitive arrays through
+ * {@link #getAdjacency()}, which should be preferred in performance-critical
+ * loops.
+ * </p>
+ * 
+ * <p>
+ * The predecessors of the nodes are available through the reverse view of the
+ * graph (see {@link #reverseView()}).
+ * </p>
  *
  */
 public final class Graph {
@@ -29,6 +42,12 @@ public final class Graph {
     // Graph information of this graph.
     private final GraphStatistics graphStatistics;
 
+    // Successors of the nodes as flat arrays.
+    private final AdjacencyArrays adjacency;
+
+    // Reverse view of this graph, created on first use.
+    private volatile Graph reverse;
+
     /**
      * Create a new graph with the given ID, name, nodes and information.
      * 
@@ -38,10 +57,26 @@ public final class Graph {
      * @param graphStatistics Information for this graph.
      */
     public Graph(String mapId, String mapName, List<Node> nodes, GraphStatistics graphStatistics) {
+        this(mapId, mapName, nodes, graphStatistics, new AdjacencyArrays(nodes));
+    }
+
+    /**
+     * Create a new graph with the given ID, name, nodes, information and adjacency
+     * arrays.
+     * 
+     * @param mapId ID of the map corresponding to this graph.
+     * @param mapName Name of the map corresponding to this graph.
+     * @param nodes List of nodes for this graph.
+     * @param graphStatistics Information for this graph.
+     * @param adjacency Adjacency arrays built from the given list of nodes.
+     */
+    public Graph(String mapId, String mapName, List<Node> nodes, GraphStatistics graphStatistics,
+            AdjacencyArrays adjacency) {
         this.mapId = mapId;
         this.mapName = mapName;
         this.nodes = Collections.unmodifiableList(nodes);
         this.graphStatistics = graphStatistics;
+        this.adjacency = adjacency;
     }
 
     /**
@@ -64,6 +99,13 @@ public final class Graph {
         return this.nodes.get(id);
     }
 
+    /**
+     * @return Successors of the nodes of this graph as flat arrays.
+     */
+    public AdjacencyArrays getAdjacency() {
+        return this.adjacency;
+    }
+
     /**
      * @return Number of nodes in this graph.
      */
@@ -95,7 +137,81 @@ public final class Graph {
     }
 
     /**
-     * @return Transpose graph of this graph.
+     * <p>
+     * Retrieve the reverse view of this graph, i.e., the graph with the same nodes
+     * where each arc goes in the opposite direction: the successors of a node in
+     * the view are its predecessors in this graph.
+     * </p>
+     * 
+     * <p>
+     * The view is created on the first call and shared afterwards. Unlike
+     * {@link #transpose()}, it copies no arc: its adjacency arrays reuse the
+     * incoming-arc index of {@link #getAdjacency()} (built on first use, 8 bytes
+     * per arc) and add a copy of the lengths, descriptors and original arcs in
+     * the order of the view (12 bytes per arc). Its arcs are not kept: each
+     * retrieval creates a small object referring to the arc of this graph, and
+     * the objects created for the same arc are equal. The reverse view of the
+     * view is this graph.
+     * </p>
+     * 
+     * @return Reverse view of this graph.
+     * 
+     * @see AdjacencyArrays#getFirstIncomingArc(int)
+     */
+    public Graph reverseView() {
+        Graph result = this.reverse;
+        if (result == null) {
+            synchronized (this) {
+                result = this.reverse;
+                if (result == null) {
+                    ArrayList<Node> reverseNodes = new ArrayList<>(size());
+                    final AdjacencyArrays reverseAdjacency = this.adjacency.reverse(reverseNodes);
+                    for (Node node: this.nodes) {
+                        reverseNodes.add(new Node(node.getId(), node.getPoint(),
+                                new SuccessorList(reverseAdjacency, node.getId())));
+                    }
+                    result = new Graph("R/" + mapId, mapName, reverseNodes, graphStatistics,
+                            reverseAdjacency);
+                    result.reverse = this;
+                    this.reverse = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Successors of a node, as a view over adjacency arrays.
+     */
+    private static class SuccessorList extends AbstractList<Arc> implements RandomAccess {
+
+        private final AdjacencyArrays adjacency;
+        private final int node;
+
+        SuccessorList(AdjacencyArrays adjacency, int node) {
+            this.adjacency = adjacency;
+            this.node = node;
+        }
+
+        @Override
+        public Arc get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return this.adjacency.getArc(this.adjacency.getFirstArc(this.node) + index);
+        }
+
+        @Override
+        public int size() {
+            return this.adjacency.getEndArc(this.node) - this.adjacency.getFirstArc(this.node);
+        }
+
+    }
+
+    /**
+     * @return Transpose graph of this graph, as a new graph whose nodes and arcs
+     *         are copies of those of this graph (see {@link #reverseView()} for a
+     *         view that is not a copy).
      */
     public Graph transpose() {
         ArrayList<Node> trNodes = new ArrayList<>(nodes.size());
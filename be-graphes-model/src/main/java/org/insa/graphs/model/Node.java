@@ -65,6 +65,58 @@ public final class Node { //implements Comparable<Node> {
         return arc;
     }
 
+    /**
+     * <p>
+     * Link the two given nodes with one or two arcs (depending on roadInformation),
+     * with the given attributes, the points of the arcs being stored in the given
+     * geometry.
+     * </p>
+     * 
+     * <p>
+     * This method works as {@link #linkNodes(Node, Node, float, RoadInformation,
+     * ArrayList)}. The given polyline must go from origin to destination, it is
+     * marked as reversed if the forward arc goes from destination to origin.
+     * </p>
+     * 
+     * @param origin Origin of the arc.
+     * @param destination Destination of the arc.
+     * @param length Length of the arc.
+     * @param roadInformation Information corresponding to the arc.
+     * @param geometry Geometry containing the points of the arc, or null if the
+     *        points of the arc are not available.
+     * @param polyline Index of the polyline of the arc in the geometry.
+     * 
+     * @return The newly created forward arc (origin to destination).
+     */
+    public static Arc linkNodes(Node origin, Node destination, float length,
+            RoadInformation roadInformation, PackedGeometry geometry, int polyline) {
+        Arc arc = null;
+        if (roadInformation.isOneWay()) {
+            arc = new ArcForward(origin, destination, length, roadInformation, geometry,
+                    polyline);
+            origin.addSuccessor(arc);
+        }
+        else {
+            Arc d2o;
+            if (origin.getId() < destination.getId()) {
+                arc = new ArcForward(origin, destination, length, roadInformation, geometry,
+                        polyline);
+                d2o = new ArcBackward(arc);
+            }
+            else {
+                if (geometry != null) {
+                    geometry.setReversed(polyline);
+                }
+                d2o = new ArcForward(destination, origin, length, roadInformation, geometry,
+                        polyline);
+                arc = new ArcBackward(d2o);
+            }
+            origin.addSuccessor(arc);
+            destination.addSuccessor(d2o);
+        }
+        return arc;
+    }
+
     // ID of the node.
     private final int id;
 
@@ -72,7 +124,7 @@ public final class Node { //implements Comparable<Node> {
     private final Point point;
 
     // Successors.
-    private final ArrayList<Arc> successors;
+    private final List<Arc> successors;
 
     /**
      * Create a new Node with the given ID corresponding to the given Point with an
@@ -87,6 +139,21 @@ public final class Node { //implements Comparable<Node> {
         this.successors = new ArrayList<Arc>();
     }
 
+    /**
+     * Create a new Node with the given ID corresponding to the given Point, whose
+     * successors are given by the given list (e.g., a view over the arrays of a
+     * graph).
+     * 
+     * @param id ID of the node.
+     * @param point Position of the node.
+     * @param successors Successors of the node, not copied.
+     */
+    Node(int id, Point point, List<Arc> successors) {
+        this.id = id;
+        this.point = point;
+        this.successors = successors;
+    }
+
     /**
      * Add a successor to this node.
      * 
@@ -117,6 +184,15 @@ public final class Node { //implements Comparable<Node> {
         return !this.successors.isEmpty();
     }
 
+    /**
+     * @param index Index of a successor of this node.
+     * 
+     * @return Arc to the successor at the given index.
+     */
+    Arc getSuccessor(int index) {
+        return this.successors.get(index);
+    }
+
     /**
      * @return List of successors of this node (unmodifiable list).
      * 
@@ -0,0 +1,173 @@
+package org.insa.graphs.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * <p>
+ * Compact storage for the points (geometry) of the arcs of a graph.
+ * </p>
+ *
+ * <p>
+ * The points of an arc form a polyline going from one end of the arc to the
+ * other. Only the intermediate points are stored, as differences between
+ * consecutive points in units of {@code 1 / 200 000} degree (as in the binary
+ * graph files), in a single {@code short} array shared by all the arcs. Points
+ * are decoded into {@link Point} objects only when {@link #getPoints} is
+ * called.
+ * </p>
+ *
+ * <p>
+ * A polyline may be marked as reversed (see {@link #setReversed(int)}), in
+ * which case its differences go from the destination of the arc to its origin.
+ * This is used by two-ways roads whose forward arc goes in the opposite
+ * direction of the road in the file.
+ * </p>
+ *
+ */
+public final class PackedGeometry {
+
+    /**
+     * Number of units per degree of the stored differences.
+     */
+    public static final float UNITS_PER_DEGREE = 2.0e5f;
+
+    // Index of the first segment of each polyline (size is number of polylines +
+    // 1).
+    private int[] firstSegment;
+
+    // Longitude and latitude differences of each segment.
+    private short[] deltas;
+
+    // Number of polylines.
+    private int size;
+
+    // Reversed polylines.
+    private final BitSet reversed;
+
+    /**
+     * Create a new empty geometry.
+     */
+    public PackedGeometry() {
+        this.firstSegment = new int[1024];
+        this.deltas = new short[4096];
+        this.size = 0;
+        this.reversed = new BitSet();
+    }
+
+    /**
+     * Create a new geometry from the given arrays, which are not copied.
+     *
+     * @param firstSegment Index of the first segment of each polyline, with an
+     *        extra entry at the end containing the number of segments.
+     * @param deltas Longitude and latitude differences of each segment (two
+     *        entries per segment).
+     */
+    public PackedGeometry(int[] firstSegment, short[] deltas) {
+        this.firstSegment = firstSegment;
+        this.deltas = deltas;
+        this.size = firstSegment.length - 1;
+        this.reversed = new BitSet();
+    }
+
+    /**
+     * Add a new polyline to this geometry.
+     *
+     * @param segments Longitude and latitude differences of the segments of the
+     *        polyline (two entries per segment).
+     * @param nbSegments Number of segments of the polyline.
+     *
+     * @return Index of the new polyline.
+     */
+    public int addPolyline(short[] segments, int nbSegments) {
+        if (this.size + 1 == this.firstSegment.length) {
+            this.firstSegment = Arrays.copyOf(this.firstSegment, 2 * this.firstSegment.length);
+        }
+        final int first = this.firstSegment[this.size];
+        if (2 * (first + nbSegments) > this.deltas.length) {
+            this.deltas = Arrays.copyOf(this.deltas,
+                    Math.max(2 * this.deltas.length, 2 * (first + nbSegments)));
+        }
+        System.arraycopy(segments, 0, this.deltas, 2 * first, 2 * nbSegments);
+        this.firstSegment[this.size + 1] = first + nbSegments;
+        return this.size++;
+    }
+
+    /**
+     * Release the unused capacity of this geometry. Polylines can still be added
+     * afterwards.
+     */
+    public void trimToSize() {
+        this.firstSegment = Arrays.copyOf(this.firstSegment, this.size + 1);
+        this.deltas = Arrays.copyOf(this.deltas, 2 * this.firstSegment[this.size]);
+    }
+
+    /**
+     * Mark the given polyline as reversed, i.e., going from the destination of its
+     * arc to the origin.
+     *
+     * @param polyline Index of a polyline.
+     */
+    public void setReversed(int polyline) {
+        this.reversed.set(polyline);
+    }
+
+    /**
+     * @param polyline Index of a polyline.
+     *
+     * @return true if the given polyline is reversed.
+     */
+    public boolean isReversed(int polyline) {
+        return this.reversed.get(polyline);
+    }
+
+    /**
+     * @return Number of polylines in this geometry.
+     */
+    public int getNumberOfPolylines() {
+        return this.size;
+    }
+
+    /**
+     * @param polyline Index of a polyline.
+     *
+     * @return Number of intermediate points of the given polyline.
+     */
+    public int getNumberOfSegments(int polyline) {
+        return this.firstSegment[polyline + 1] - this.firstSegment[polyline];
+    }
+
+    /**
+     * Decode the points of the given polyline.
+     *
+     * @param polyline Index of a polyline.
+     * @param origin First point of the arc.
+     * @param destination Last point of the arc.
+     *
+     * @return New list containing the points from origin to destination.
+     */
+    public List<Point> getPoints(int polyline, Point origin, Point destination) {
+        final boolean isReversed = this.reversed.get(polyline);
+        final Point first = isReversed ? destination : origin;
+        final int start = this.firstSegment[polyline], end = this.firstSegment[polyline + 1];
+
+        // Points are decoded from the first point of the polyline, and put in the
+        // list from the end if the polyline is reversed.
+        Point[] points = new Point[end - start + 2];
+        int index = isReversed ? points.length - 1 : 0, step = isReversed ? -1 : 1;
+        points[index] = first;
+        float longitude = first.getLongitude(), latitude = first.getLatitude();
+        for (int seg = start; seg < end; ++seg) {
+            longitude += this.deltas[2 * seg] / UNITS_PER_DEGREE;
+            latitude += this.deltas[2 * seg + 1] / UNITS_PER_DEGREE;
+            index += step;
+            points[index] = new Point(longitude, latitude);
+        }
+        points[index + step] = isReversed ? origin : destination;
+
+        return new ArrayList<>(Arrays.asList(points));
+    }
+
+}
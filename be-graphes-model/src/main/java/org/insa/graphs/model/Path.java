@@ -102,6 +102,24 @@ public class Path {
         return new Path(graph, arcs);
     }
 
+    /**
+     * Create a new path made of the arcs with the given indices in the adjacency
+     * arrays of the given graph (see {@link Graph#getAdjacency()}).
+     * 
+     * @param graph Graph containing the arcs.
+     * @param arcs Indices of the arcs of the path, in order.
+     * 
+     * @return A path made of the given arcs.
+     */
+    public static Path createFromArcIndices(Graph graph, int[] arcs) {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        ArrayList<Arc> list = new ArrayList<>(arcs.length);
+        for (int a: arcs) {
+            list.add(adjacency.getArc(a));
+        }
+        return new Path(graph, list);
+    }
+
     /**
      * Concatenate the given paths.
      * 
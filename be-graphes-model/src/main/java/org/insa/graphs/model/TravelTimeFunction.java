@@ -0,0 +1,206 @@
+package org.insa.graphs.model;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Periodic piecewise-linear function giving, for a time of departure, the factor
+ * by which the static travel time of an arc must be multiplied (e.g., 1.6 on
+ * urban roads at rush hour).
+ * </p>
+ *
+ * <p>
+ * The function is an interpolation table of breakpoints (time in seconds within
+ * the period, factor): the factor is interpolated linearly between consecutive
+ * breakpoints, and between the last breakpoint and the first one of the next
+ * period. Functions are immutable and meant to be shared by many arcs (see
+ * {@link TravelTimeProfiles}).
+ * </p>
+ *
+ * <p>
+ * Time-dependent shortest path algorithms require the FIFO property: leaving
+ * later never means arriving earlier. For an arc of static travel time
+ * {@code t}, this holds if the slopes of the function are at least
+ * {@code -1 / t}, which is the case for all realistic profiles (a factor
+ * decreasing by less than 0.5 per hour is FIFO for all arcs shorter than two
+ * hours).
+ * </p>
+ *
+ */
+public final class TravelTimeFunction {
+
+    /**
+     * Default period of the functions: one day, in seconds.
+     */
+    public static final int DAY = 24 * 3600;
+
+    /**
+     * Constant function equal to 1 (static travel times).
+     */
+    public static final TravelTimeFunction CONSTANT = new TravelTimeFunction(DAY, new int[] { 0 },
+            new float[] { 1 });
+
+    // Period, breakpoints and factors of the function.
+    private final int period;
+    private final int[] times;
+    private final float[] factors;
+
+    // Minimum and maximum factors.
+    private final float minimumFactor, maximumFactor;
+
+    /**
+     * Create a new travel time function from the given breakpoints.
+     *
+     * @param period Period of the function, in seconds.
+     * @param times Times of the breakpoints, in seconds, strictly increasing and
+     *        within [0, period).
+     * @param factors Factors at the breakpoints, strictly positive.
+     *
+     * @throws IllegalArgumentException if the period is not positive, if there is
+     *         no breakpoint, or if a time or a factor is invalid.
+     */
+    public TravelTimeFunction(int period, int[] times, float[] factors)
+            throws IllegalArgumentException {
+        if (period <= 0) {
+            throw new IllegalArgumentException("invalid period: " + period);
+        }
+        if (times.length == 0 || times.length != factors.length) {
+            throw new IllegalArgumentException(
+                    "invalid number of breakpoints: " + times.length + ", " + factors.length);
+        }
+        float minimum = Float.POSITIVE_INFINITY, maximum = 0;
+        for (int i = 0; i < times.length; ++i) {
+            if (times[i] < 0 || times[i] >= period || (i > 0 && times[i] <= times[i - 1])) {
+                throw new IllegalArgumentException("invalid breakpoint time: " + times[i]);
+            }
+            if (!(factors[i] > 0) || factors[i] == Float.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("invalid factor: " + factors[i]);
+            }
+            minimum = Math.min(minimum, factors[i]);
+            maximum = Math.max(maximum, factors[i]);
+        }
+        this.period = period;
+        this.times = times.clone();
+        this.factors = factors.clone();
+        this.minimumFactor = minimum;
+        this.maximumFactor = maximum;
+    }
+
+    /**
+     * @return Period of this function, in seconds.
+     */
+    public int getPeriod() {
+        return this.period;
+    }
+
+    /**
+     * @return Number of breakpoints of this function.
+     */
+    public int getNumberOfBreakpoints() {
+        return this.times.length;
+    }
+
+    /**
+     * @param index Index of the breakpoint.
+     *
+     * @return Time of the breakpoint at the given index, in seconds.
+     */
+    public int getBreakpointTime(int index) {
+        return this.times[index];
+    }
+
+    /**
+     * @param index Index of the breakpoint.
+     *
+     * @return Factor of the breakpoint at the given index.
+     */
+    public float getBreakpointFactor(int index) {
+        return this.factors[index];
+    }
+
+    /**
+     * @return Minimum factor of this function.
+     */
+    public float getMinimumFactor() {
+        return this.minimumFactor;
+    }
+
+    /**
+     * @return Maximum factor of this function.
+     */
+    public float getMaximumFactor() {
+        return this.maximumFactor;
+    }
+
+    /**
+     * @param time Time, in seconds (any value, the function is periodic).
+     *
+     * @return Factor at the given time.
+     */
+    public double getFactor(double time) {
+        final int nbBreakpoints = this.times.length;
+        if (nbBreakpoints == 1) {
+            return this.factors[0];
+        }
+        double t = time % this.period;
+        if (t < 0) {
+            t += this.period;
+        }
+
+        // Last breakpoint at or before t (the one of the previous period if t is
+        // before the first breakpoint).
+        int i = Arrays.binarySearch(this.times, (int) Math.floor(t));
+        if (i < 0) {
+            i = -i - 2;
+        }
+        final double t0, t1;
+        final float f0, f1;
+        if (i < 0) {
+            t0 = this.times[nbBreakpoints - 1] - this.period;
+            f0 = this.factors[nbBreakpoints - 1];
+        }
+        else {
+            t0 = this.times[i];
+            f0 = this.factors[i];
+        }
+        if (i + 1 < nbBreakpoints) {
+            t1 = this.times[i + 1];
+            f1 = this.factors[i + 1];
+        }
+        else {
+            t1 = this.times[0] + this.period;
+            f1 = this.factors[0];
+        }
+        return f0 + (f1 - f0) * (t - t0) / (t1 - t0);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof TravelTimeFunction)) {
+            return false;
+        }
+        TravelTimeFunction function = (TravelTimeFunction) other;
+        return this.period == function.period && Arrays.equals(this.times, function.times)
+                && Arrays.equals(this.factors, function.factors);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.period + Arrays.hashCode(this.times))
+                + Arrays.hashCode(this.factors);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("TravelTimeFunction[");
+        for (int i = 0; i < this.times.length; ++i) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(String.format("%02d:%02d=%.2f", this.times[i] / 3600,
+                    this.times[i] / 60 % 60, this.factors[i]));
+        }
+        return builder.append("]").toString();
+    }
+
+}
@@ -0,0 +1,182 @@
+package org.insa.graphs.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Set of {@link TravelTimeFunction} describing how the travel times of the arcs
+ * of a graph change over time.
+ * </p>
+ *
+ * <p>
+ * Each road type has a function (the constant function by default), and some
+ * arcs may have their own function, which overrides the one of their road type.
+ * Functions are shared: the memory used is proportional to the number of
+ * distinct functions and overridden arcs, not to the number of arcs. Since arcs
+ * are identified by their index, profiles with overrides are bound to the map
+ * they were created for.
+ * </p>
+ *
+ */
+public class TravelTimeProfiles {
+
+    // Function of each road type (indexed by ordinal).
+    private final TravelTimeFunction[] functionsByType;
+
+    // Map of the overrides, and function of the overridden arcs (by arc index).
+    private final String mapId;
+    private final Map<Integer, TravelTimeFunction> functionsByArc;
+
+    // Minimum factor of all the functions.
+    private final double minimumFactor;
+
+    /**
+     * Create new profiles with a function per road type only.
+     *
+     * @param functionsByType Function of the road types, the road types not in
+     *        this map have constant travel times.
+     */
+    public TravelTimeProfiles(Map<RoadType, TravelTimeFunction> functionsByType) {
+        this(functionsByType, null, Collections.emptyMap());
+    }
+
+    /**
+     * Create new profiles with a function per road type and per-arc overrides.
+     *
+     * @param functionsByType Function of the road types, the road types not in
+     *        this map have constant travel times.
+     * @param mapId ID of the map of the overridden arcs (may be null if there is
+     *        no override).
+     * @param functionsByArc Function of the overridden arcs, by index of the arcs
+     *        (see {@link Arc#getIndex()}).
+     *
+     * @throws IllegalArgumentException if there are overrides but no map ID.
+     */
+    public TravelTimeProfiles(Map<RoadType, TravelTimeFunction> functionsByType, String mapId,
+            Map<Integer, TravelTimeFunction> functionsByArc) throws IllegalArgumentException {
+        if (mapId == null && !functionsByArc.isEmpty()) {
+            throw new IllegalArgumentException("arc overrides require a map ID");
+        }
+        this.functionsByType = new TravelTimeFunction[RoadType.values().length];
+        for (RoadType type: RoadType.values()) {
+            this.functionsByType[type.ordinal()] = functionsByType.getOrDefault(type,
+                    TravelTimeFunction.CONSTANT);
+        }
+        this.mapId = mapId;
+        this.functionsByArc = Map.copyOf(functionsByArc);
+
+        double minimum = Double.POSITIVE_INFINITY;
+        for (TravelTimeFunction function: getFunctions()) {
+            minimum = Math.min(minimum, function.getMinimumFactor());
+        }
+        this.minimumFactor = minimum;
+    }
+
+    /**
+     * @return ID of the map of the overridden arcs, or null if there is no
+     *         override.
+     */
+    public String getMapId() {
+        return this.mapId;
+    }
+
+    /**
+     * @return true if some arcs have their own function.
+     */
+    public boolean hasArcOverrides() {
+        return !this.functionsByArc.isEmpty();
+    }
+
+    /**
+     * @param type Road type.
+     *
+     * @return Function of the given road type.
+     */
+    public TravelTimeFunction getFunction(RoadType type) {
+        return this.functionsByType[type.ordinal()];
+    }
+
+    /**
+     * @return Functions of the road types (one entry per road type).
+     */
+    public Map<RoadType, TravelTimeFunction> getFunctionsByType() {
+        Map<RoadType, TravelTimeFunction> functions = new EnumMap<>(RoadType.class);
+        for (RoadType type: RoadType.values()) {
+            functions.put(type, getFunction(type));
+        }
+        return functions;
+    }
+
+    /**
+     * @return Functions of the overridden arcs, by index of the arcs (unmodifiable
+     *         map).
+     */
+    public Map<Integer, TravelTimeFunction> getFunctionsByArc() {
+        return this.functionsByArc;
+    }
+
+    /**
+     * @return Distinct functions of these profiles, road type functions first.
+     */
+    public Set<TravelTimeFunction> getFunctions() {
+        Set<TravelTimeFunction> functions = new LinkedHashSet<>();
+        Collections.addAll(functions, this.functionsByType);
+        functions.addAll(this.functionsByArc.values());
+        return functions;
+    }
+
+    /**
+     * @param arc Arc of the graph of these profiles.
+     *
+     * @return Function of the given arc, its own one if it is overridden, the one
+     *         of its road type otherwise.
+     */
+    public TravelTimeFunction getFunction(Arc arc) {
+        if (!this.functionsByArc.isEmpty()) {
+            TravelTimeFunction function = this.functionsByArc.get(arc.getIndex());
+            if (function != null) {
+                return function;
+            }
+        }
+        return this.functionsByType[arc.getRoadInformation().getType().ordinal()];
+    }
+
+    /**
+     * @param arc Arc of the graph of these profiles.
+     * @param time Time of departure, in seconds.
+     *
+     * @return Factor to apply to the static travel time of the given arc when
+     *         leaving at the given time.
+     */
+    public double getFactor(Arc arc, double time) {
+        return getFunction(arc).getFactor(time);
+    }
+
+    /**
+     * @param arc Arc of the graph of these profiles.
+     * @param time Time of departure, in seconds.
+     *
+     * @return Travel time on the given arc at its maximum speed, when leaving at
+     *         the given time, in seconds.
+     *
+     * @see Arc#getMinimumTravelTime()
+     */
+    public double getTravelTime(Arc arc, double time) {
+        return arc.getMinimumTravelTime() * getFactor(arc, time);
+    }
+
+    /**
+     * @return Minimum factor of all the functions, i.e., a lower bound of the
+     *         factor of any arc at any time.
+     */
+    public double getMinimumFactor() {
+        return this.minimumFactor;
+    }
+
+}
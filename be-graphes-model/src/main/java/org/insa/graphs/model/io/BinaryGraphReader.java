@@ -7,10 +7,12 @@ import java.util.EnumMap;
 import java.util.List;
 
 import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AdjacencyArrays;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.GraphStatistics;
 import org.insa.graphs.model.Node;
+import org.insa.graphs.model.PackedGeometry;
 import org.insa.graphs.model.Point;
 import org.insa.graphs.model.RoadInformation;
 import org.insa.graphs.model.AccessRestrictions.AccessMode;
@@ -25,12 +27,15 @@ import org.insa.graphs.model.RoadInformation.RoadType;
 public class BinaryGraphReader extends BinaryReader implements GraphReader {
 
     // Map version and magic number targeted for this reader.
-    private static final int VERSION = 5;
-    private static final int MAGIC_NUMBER = 0x208BC3B3;
+    protected static final int VERSION = 5;
+    protected static final int MAGIC_NUMBER = 0x208BC3B3;
 
     // Length of the map id field (in bytes)
     protected static final int MAP_ID_FIELD_LENGTH = 32;
 
+    // Parts of the graph to load.
+    private final LoadProfile profile;
+
     // List of observers
     protected List<GraphReaderObserver> observers = new ArrayList<>();
 
@@ -139,7 +144,19 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
      * @param dis Input stream to read from.
      */
     public BinaryGraphReader(DataInputStream dis) {
+        this(dis, LoadProfile.FULL);
+    }
+
+    /**
+     * Create a new BinaryGraphReader that read from the given input stream and
+     * loads the given parts of the graph.
+     * 
+     * @param dis Input stream to read from.
+     * @param profile Parts of the graph to load.
+     */
+    public BinaryGraphReader(DataInputStream dis, LoadProfile profile) {
         super(MAGIC_NUMBER, VERSION, dis);
+        this.profile = profile;
     }
 
     @Override
@@ -229,6 +246,8 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
         float maxLength = 0;
         final int copyNbTotalSuccesors = nbTotalSuccessors; // Stupid Java...
         int nbOneWayRoad = 0;
+        PackedGeometry geometry = profile == LoadProfile.FULL ? new PackedGeometry() : null;
+        short[] segments = new short[0];
         observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccesors));
         for (int node = 0; node < nbNodes; ++node) {
             for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
@@ -255,34 +274,36 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 // Number of segments.
                 int nbSegments = dis.readUnsignedShort();
 
-                // Chain of points corresponding to the segments.
-                ArrayList<Point> points = new ArrayList<Point>(nbSegments + 2);
-                points.add(nodes.get(node).getPoint());
-
-                for (int seg = 0; seg < nbSegments; ++seg) {
-                    Point lastPoint = points.get(points.size() - 1);
-
-                    float dlon = (dis.readShort()) / 2.0e5f;
-                    float dlat = (dis.readShort()) / 2.0e5f;
-
-                    points.add(new Point(lastPoint.getLongitude() + dlon,
-                            lastPoint.getLatitude() + dlat));
+                // Differences between the points corresponding to the segments.
+                int polyline = -1;
+                if (geometry != null) {
+                    if (segments.length < 2 * nbSegments) {
+                        segments = new short[2 * nbSegments];
+                    }
+                    for (int seg = 0; seg < 2 * nbSegments; ++seg) {
+                        segments[seg] = dis.readShort();
+                    }
+                    polyline = geometry.addPolyline(segments, nbSegments);
+                }
+                else {
+                    dis.skipNBytes(4 * nbSegments);
                 }
-
-                points.add(nodes.get(destNode).getPoint());
 
                 RoadInformation info = descs[descrNum];
                 Node orig = nodes.get(node);
                 Node dest = nodes.get(destNode);
 
                 // Add successor to initial arc.
-                Arc arc = Node.linkNodes(orig, dest, length, info, points);
+                Arc arc = Node.linkNodes(orig, dest, length, info, geometry, polyline);
                 if (info.isOneWay()) {
                     nbOneWayRoad++;
                 }
                 observers.forEach((observer) -> observer.notifyNewArcRead(arc));
             }
         }
+        if (geometry != null) {
+            geometry.trimToSize();
+        }
 
         // Check format.
         checkByteOrThrow(253);
@@ -295,7 +316,8 @@ public class BinaryGraphReader extends BinaryReader implements GraphReader {
                 new GraphStatistics(
                         new BoundingBox(new Point(minLongitude, maxLatitude),
                                 new Point(maxLongitude, minLatitude)),
-                        nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength));
+                        nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength),
+                new AdjacencyArrays(nodes, descs));
     }
 
     /**
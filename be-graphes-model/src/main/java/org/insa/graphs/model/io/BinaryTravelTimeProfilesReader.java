@@ -0,0 +1,145 @@
+package org.insa.graphs.model.io;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.TravelTimeFunction;
+import org.insa.graphs.model.TravelTimeProfiles;
+
+/**
+ * <p>
+ * Reader for travel time profiles in binary format, as written by
+ * {@link BinaryTravelTimeProfilesWriter}.
+ * </p>
+ *
+ * <p>
+ * The file holds the distinct functions once, followed by the function index
+ * of each road type and of each overridden arc:
+ * </p>
+ *
+ * <ul>
+ * <li>magic number and version,</li>
+ * <li>number of functions (short), then for each function its period (int),
+ * its number of breakpoints (short) and its breakpoints (int time, float
+ * factor),</li>
+ * <li>number of road types with a function (byte), then for each of them the
+ * ordinal of the road type (byte) and the index of its function (short),</li>
+ * <li>map ID of the overrides (fixed length, empty if there is no
+ * override),</li>
+ * <li>number of overridden arcs (int), then for each of them the index of the
+ * arc (int) and the index of its function (short).</li>
+ * </ul>
+ *
+ */
+public class BinaryTravelTimeProfilesReader extends BinaryReader {
+
+    // Profiles version and magic number targeted for this reader.
+    protected static final int VERSION = 1;
+    protected static final int MAGIC_NUMBER = 0x54545046;
+
+    /**
+     * Create a new BinaryTravelTimeProfilesReader that reads from the given input
+     * stream.
+     *
+     * @param dis Input stream to read from.
+     */
+    public BinaryTravelTimeProfilesReader(DataInputStream dis) {
+        super(MAGIC_NUMBER, VERSION, dis);
+    }
+
+    /**
+     * Read travel time profiles.
+     *
+     * @return Profiles read.
+     *
+     * @throws IOException if an error occurs while reading the profiles.
+     * @throws BadFormatException if a function or an index is invalid.
+     */
+    public TravelTimeProfiles readProfiles() throws IOException {
+
+        // Read and check magic number and version.
+        checkMagicNumberOrThrow(dis.readInt());
+        checkVersionOrThrow(dis.readInt());
+
+        // Read functions.
+        TravelTimeFunction[] functions = new TravelTimeFunction[dis.readUnsignedShort()];
+        for (int i = 0; i < functions.length; ++i) {
+            final int period = dis.readInt();
+            final int nbBreakpoints = dis.readUnsignedShort();
+            int[] times = new int[nbBreakpoints];
+            float[] factors = new float[nbBreakpoints];
+            for (int j = 0; j < nbBreakpoints; ++j) {
+                times[j] = dis.readInt();
+                factors[j] = dis.readFloat();
+            }
+            try {
+                functions[i] = new TravelTimeFunction(period, times, factors);
+            }
+            catch (IllegalArgumentException e) {
+                throw new BadFormatException("Invalid travel time function: " + e.getMessage());
+            }
+        }
+
+        // Read functions of the road types.
+        final RoadType[] types = RoadType.values();
+        Map<RoadType, TravelTimeFunction> functionsByType = new EnumMap<>(RoadType.class);
+        final int nbTypes = dis.readUnsignedByte();
+        for (int i = 0; i < nbTypes; ++i) {
+            final int type = dis.readUnsignedByte();
+            if (type >= types.length) {
+                throw new BadFormatException("Invalid road type: " + type);
+            }
+            functionsByType.put(types[type], readFunction(functions));
+        }
+
+        // Read overrides.
+        String mapId = readFixedLengthString(BinaryGraphReader.MAP_ID_FIELD_LENGTH, "UTF-8");
+        Map<Integer, TravelTimeFunction> functionsByArc = new HashMap<>();
+        final int nbOverrides = dis.readInt();
+        for (int i = 0; i < nbOverrides; ++i) {
+            final int arc = dis.readInt();
+            functionsByArc.put(arc, readFunction(functions));
+        }
+
+        this.dis.close();
+
+        return new TravelTimeProfiles(functionsByType, nbOverrides == 0 ? null : mapId,
+                functionsByArc);
+    }
+
+    /**
+     * Read travel time profiles for the given graph.
+     *
+     * @param graph Graph of the profiles.
+     *
+     * @return Profiles read.
+     *
+     * @throws IOException if an error occurs while reading the profiles.
+     * @throws MapMismatchException if the profiles override arcs of another map.
+     */
+    public TravelTimeProfiles readProfiles(Graph graph) throws IOException {
+        TravelTimeProfiles profiles = readProfiles();
+        if (profiles.hasArcOverrides() && !profiles.getMapId().equals(graph.getMapId())) {
+            throw new MapMismatchException(profiles.getMapId(), graph.getMapId());
+        }
+        return profiles;
+    }
+
+    /**
+     * Read a function index from the input stream and return the corresponding
+     * function.
+     */
+    private TravelTimeFunction readFunction(TravelTimeFunction[] functions) throws IOException {
+        final int index = dis.readUnsignedShort();
+        if (index >= functions.length) {
+            throw new BadFormatException("Invalid travel time function index: " + index);
+        }
+        return functions[index];
+    }
+
+}
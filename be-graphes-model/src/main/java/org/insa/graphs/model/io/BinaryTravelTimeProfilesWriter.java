@@ -0,0 +1,89 @@
+package org.insa.graphs.model.io;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.TravelTimeFunction;
+import org.insa.graphs.model.TravelTimeProfiles;
+
+/**
+ * Writer for travel time profiles in the binary format read by
+ * {@link BinaryTravelTimeProfilesReader}. Each distinct function is written
+ * once, however many road types and arcs use it.
+ *
+ */
+public class BinaryTravelTimeProfilesWriter extends BinaryWriter {
+
+    /**
+     * Create a new BinaryTravelTimeProfilesWriter that writes to the given output
+     * stream.
+     *
+     * @param dos Output stream to write to.
+     */
+    public BinaryTravelTimeProfilesWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    /**
+     * Write the given travel time profiles.
+     *
+     * @param profiles Profiles to write.
+     *
+     * @throws IOException if an error occurs while writing the profiles.
+     * @throws IllegalArgumentException if the profiles have too many distinct
+     *         functions.
+     */
+    public void writeProfiles(TravelTimeProfiles profiles) throws IOException {
+
+        // Write magic number and version.
+        dos.writeInt(BinaryTravelTimeProfilesReader.MAGIC_NUMBER);
+        dos.writeInt(BinaryTravelTimeProfilesReader.VERSION);
+
+        // Write functions.
+        Map<TravelTimeFunction, Integer> indices = new HashMap<>();
+        for (TravelTimeFunction function: profiles.getFunctions()) {
+            indices.put(function, indices.size());
+        }
+        if (indices.size() > 0xffff) {
+            throw new IllegalArgumentException("too many functions: " + indices.size());
+        }
+        dos.writeShort(indices.size());
+        for (TravelTimeFunction function: profiles.getFunctions()) {
+            dos.writeInt(function.getPeriod());
+            dos.writeShort(function.getNumberOfBreakpoints());
+            for (int i = 0; i < function.getNumberOfBreakpoints(); ++i) {
+                dos.writeInt(function.getBreakpointTime(i));
+                dos.writeFloat(function.getBreakpointFactor(i));
+            }
+        }
+
+        // Write functions of the road types (constant ones are implicit).
+        Map<RoadType, TravelTimeFunction> functionsByType = profiles.getFunctionsByType();
+        functionsByType.values().removeIf(TravelTimeFunction.CONSTANT::equals);
+        dos.writeByte(functionsByType.size());
+        for (Map.Entry<RoadType, TravelTimeFunction> entry: functionsByType.entrySet()) {
+            dos.writeByte(entry.getKey().ordinal());
+            dos.writeShort(indices.get(entry.getValue()));
+        }
+
+        // Write overrides.
+        String mapId = profiles.hasArcOverrides() ? profiles.getMapId() : "";
+        dos.write(Arrays.copyOf(mapId.getBytes(StandardCharsets.UTF_8),
+                BinaryGraphReader.MAP_ID_FIELD_LENGTH));
+        dos.writeInt(profiles.getFunctionsByArc().size());
+        for (Map.Entry<Integer, TravelTimeFunction> entry: profiles.getFunctionsByArc()
+                .entrySet()) {
+            dos.writeInt(entry.getKey());
+            dos.writeShort(indices.get(entry.getValue()));
+        }
+
+        dos.flush();
+        dos.close();
+    }
+
+}
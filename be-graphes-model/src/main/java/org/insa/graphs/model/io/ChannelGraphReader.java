@@ -0,0 +1,405 @@
+package org.insa.graphs.model.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.PackedGeometry;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+
+/**
+ * <p>
+ * Implementation of {@link GraphReader} to read graph in binary format from a
+ * channel.
+ * </p>
+ *
+ * <p>
+ * This reader reads the same files as {@link BinaryGraphReader} and produces
+ * the same {@link Graph}, but the file is read in large chunks and decoded
+ * directly from a {@link ByteBuffer} instead of field by field through a
+ * {@link DataInputStream}. The sines and cosines of the latitudes of the nodes
+ * are computed once per node, so checking the length of the arcs only requires
+ * one cosine and one arc cosine per arc.
+ * </p>
+ *
+ * <p>
+ * The number of bytes read and the time spent reading the last graph are
+ * available through {@link #getBytesRead()}, {@link #getReadingTime()} and
+ * {@link #getThroughput()}.
+ * </p>
+ *
+ */
+public class ChannelGraphReader implements GraphReader {
+
+    /**
+     * Default size of the buffer used to read the channel, in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    // Size of a node and of the fixed part of an arc in the file (in bytes).
+    private static final int NODE_SIZE = 9;
+    private static final int ARC_SIZE = 12;
+
+    // Channel to read from.
+    private final ReadableByteChannel channel;
+
+    // Buffer containing the bytes read but not decoded yet.
+    private final ByteBuffer buffer;
+
+    // Parts of the graph to load.
+    private final LoadProfile profile;
+
+    // Version of the file being read.
+    private int version;
+
+    // Number of bytes read, and time spent reading (in nanoseconds).
+    private long bytesRead;
+    private long readingTime;
+
+    // List of observers
+    protected List<GraphReaderObserver> observers = new ArrayList<>();
+
+    /**
+     * Create a new ChannelGraphReader that reads from the given channel.
+     *
+     * @param channel Channel to read from.
+     */
+    public ChannelGraphReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE, LoadProfile.FULL);
+    }
+
+    /**
+     * Create a new ChannelGraphReader that reads from the given channel and loads
+     * the given parts of the graph.
+     *
+     * @param channel Channel to read from.
+     * @param profile Parts of the graph to load.
+     */
+    public ChannelGraphReader(ReadableByteChannel channel, LoadProfile profile) {
+        this(channel, DEFAULT_BUFFER_SIZE, profile);
+    }
+
+    /**
+     * Create a new ChannelGraphReader that reads from the given channel using a
+     * buffer of the given size, and loads the given parts of the graph.
+     *
+     * @param channel Channel to read from.
+     * @param bufferSize Size of the buffer, in bytes. The buffer must be able to
+     *        hold the largest entry of the file, so it cannot be smaller than
+     *        {@link #DEFAULT_BUFFER_SIZE}.
+     * @param profile Parts of the graph to load.
+     */
+    public ChannelGraphReader(ReadableByteChannel channel, int bufferSize,
+            LoadProfile profile) {
+        this.channel = channel;
+        this.profile = profile;
+        this.buffer = ByteBuffer.allocate(Math.max(bufferSize, DEFAULT_BUFFER_SIZE));
+        this.buffer.limit(0);
+    }
+
+    @Override
+    public void addObserver(GraphReaderObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * @return Number of bytes read from the channel by the last call to
+     *         {@link #read()}.
+     */
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    /**
+     * @return Duration of the last call to {@link #read()}.
+     */
+    public Duration getReadingTime() {
+        return Duration.ofNanos(this.readingTime);
+    }
+
+    /**
+     * @return Throughput of the last call to {@link #read()}, in megabytes per
+     *         second.
+     */
+    public double getThroughput() {
+        if (this.readingTime == 0) {
+            return 0;
+        }
+        return (this.bytesRead / 1e6) / (this.readingTime / 1e9);
+    }
+
+    /**
+     * Ensure that the buffer contains at least the given number of bytes, reading
+     * from the channel if necessary.
+     *
+     * @param size Number of bytes that must be available.
+     *
+     * @throws IOException if an error occurs while reading, or if the channel ends
+     *         before the given number of bytes is available.
+     */
+    private void ensure(int size) throws IOException {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < size) {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            bytesRead += read;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Check if the next byte in the buffer correspond to the given byte.
+     */
+    private void checkByteOrThrow(int b) throws IOException {
+        ensure(1);
+        if (Byte.toUnsignedInt(buffer.get()) != b) {
+            throw new BadFormatException();
+        }
+    }
+
+    /**
+     * Read a string encoded as by {@link java.io.DataOutput#writeUTF(String)}.
+     */
+    private String readUTF() throws IOException {
+        ensure(2);
+        int length = Short.toUnsignedInt(buffer.getShort(buffer.position()));
+        ensure(2 + length);
+        byte[] bytes = new byte[2 + length];
+        buffer.get(bytes);
+        return new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+    }
+
+    /**
+     * Read 24 bits in BigEndian order from the buffer.
+     */
+    private int get24bits() {
+        int x = Short.toUnsignedInt(buffer.getShort());
+        return (x << 8) | Byte.toUnsignedInt(buffer.get());
+    }
+
+    @Override
+    public Graph read() throws IOException {
+        final long start = System.nanoTime();
+        this.bytesRead = 0;
+
+        // Read and check magic number and file version.
+        ensure(8);
+        int magicNumber = buffer.getInt();
+        if (magicNumber != BinaryGraphReader.MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, BinaryGraphReader.MAGIC_NUMBER);
+        }
+        version = buffer.getInt();
+        if (version < BinaryGraphReader.VERSION) {
+            throw new BadVersionException(version, BinaryGraphReader.VERSION);
+        }
+
+        // Read map id.
+        String mapId;
+        String mapName = "";
+
+        if (version < 6) {
+            ensure(4);
+            mapId = "0x" + Integer.toHexString(buffer.getInt());
+        }
+        else {
+            ensure(BinaryGraphReader.MAP_ID_FIELD_LENGTH);
+            byte[] bytes = new byte[BinaryGraphReader.MAP_ID_FIELD_LENGTH];
+            buffer.get(bytes);
+            mapId = new String(bytes, StandardCharsets.UTF_8).trim();
+            mapName = readUTF();
+        }
+
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        // Number of descriptors and nodes.
+        ensure(8);
+        final int nbDesc = buffer.getInt();
+        final int nbNodes = buffer.getInt();
+
+        // Decode the nodes section as a whole.
+        final float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        final int[] nbSuccessors = new int[nbNodes];
+        for (int node = 0; node < nbNodes;) {
+            ensure(NODE_SIZE);
+            final int end = Math.min(nbNodes, node + buffer.remaining() / NODE_SIZE);
+            for (; node < end; ++node) {
+                longitudes[node] = ((float) buffer.getInt()) / 1E6f;
+                latitudes[node] = ((float) buffer.getInt()) / 1E6f;
+                nbSuccessors[node] = Byte.toUnsignedInt(buffer.get());
+            }
+        }
+
+        // Create the nodes and compute the trigonometric values used to compute the
+        // distances (in the same way as Point.distance).
+        float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        final double[] sinLatitudes = new double[nbNodes], cosLatitudes = new double[nbNodes];
+        int nbTotalSuccessors = 0;
+        ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
+        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        for (int node = 0; node < nbNodes; ++node) {
+            minLongitude = Math.min(longitudes[node], minLongitude);
+            minLatitude = Math.min(latitudes[node], minLatitude);
+            maxLongitude = Math.max(longitudes[node], maxLongitude);
+            maxLatitude = Math.max(latitudes[node], maxLatitude);
+            nbTotalSuccessors += nbSuccessors[node];
+
+            sinLatitudes[node] = Math.sin(Math.toRadians(latitudes[node]));
+            cosLatitudes[node] = Math.cos(Math.toRadians(latitudes[node]));
+
+            final Node aNode = new Node(node, new Point(longitudes[node], latitudes[node]));
+            nodes.add(aNode);
+            observers.forEach((observer) -> observer.notifyNewNodeRead(aNode));
+        }
+
+        // Check format.
+        checkByteOrThrow(255);
+
+        // Read descriptors.
+        RoadInformation[] descs = new RoadInformation[nbDesc];
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        int maxSpeed = 0;
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            final RoadInformation roadinf = readRoadInformation();
+            descs[descr] = roadinf;
+            observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
+
+            // Update max speed
+            maxSpeed = Math.max(roadinf.getMaximumSpeed(), maxSpeed);
+        }
+
+        // Check format.
+        checkByteOrThrow(254);
+
+        // Read successors and convert to arcs.
+        final int arcSize = version < 8 ? ARC_SIZE - 2 : ARC_SIZE;
+        float maxLength = 0;
+        int nbOneWayRoad = 0;
+        final int copyNbTotalSuccessors = nbTotalSuccessors;
+        PackedGeometry geometry = profile == LoadProfile.FULL ? new PackedGeometry() : null;
+        short[] segments = new short[0];
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbTotalSuccessors));
+        for (int node = 0; node < nbNodes; ++node) {
+            final Node orig = nodes.get(node);
+            for (int succ = 0; succ < nbSuccessors[node]; ++succ) {
+                ensure(arcSize);
+
+                final int destNode = get24bits();
+                final int descrNum = get24bits();
+
+                float length;
+                if (version < 8) {
+                    length = Short.toUnsignedInt(buffer.getShort());
+                }
+                else {
+                    length = buffer.getInt() / 1000.0f;
+                }
+                maxLength = Math.max(length, maxLength);
+
+                double koef = sinLatitudes[node] * sinLatitudes[destNode]
+                        + cosLatitudes[node] * cosLatitudes[destNode] * Math
+                                .cos(Math.toRadians(longitudes[destNode] - longitudes[node]));
+                koef = Math.max(-1.0, Math.min(1.0, koef));
+                length = Math.max(length, (float) (Point.EARTH_RADIUS * Math.acos(koef)));
+
+                final int nbSegments = Short.toUnsignedInt(buffer.getShort());
+
+                // Differences between the points corresponding to the segments.
+                ensure(4 * nbSegments);
+                int polyline = -1;
+                if (geometry != null) {
+                    if (segments.length < 2 * nbSegments) {
+                        segments = new short[2 * nbSegments];
+                    }
+                    for (int seg = 0; seg < 2 * nbSegments; ++seg) {
+                        segments[seg] = buffer.getShort();
+                    }
+                    polyline = geometry.addPolyline(segments, nbSegments);
+                }
+                else {
+                    buffer.position(buffer.position() + 4 * nbSegments);
+                }
+
+                final Node dest = nodes.get(destNode);
+                RoadInformation info = descs[descrNum];
+
+                // Add successor to initial arc.
+                Arc arc = Node.linkNodes(orig, dest, length, info, geometry, polyline);
+                if (info.isOneWay()) {
+                    nbOneWayRoad++;
+                }
+                observers.forEach((observer) -> observer.notifyNewArcRead(arc));
+            }
+        }
+
+        if (geometry != null) {
+            geometry.trimToSize();
+        }
+
+        // Check format.
+        checkByteOrThrow(253);
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        Graph graph = new Graph(mapId, mapName, nodes,
+                new GraphStatistics(
+                        new BoundingBox(new Point(minLongitude, maxLatitude),
+                                new Point(maxLongitude, minLatitude)),
+                        nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength),
+                new AdjacencyArrays(nodes, descs));
+
+        this.readingTime = System.nanoTime() - start;
+
+        return graph;
+    }
+
+    /**
+     * Read the next road information from the buffer.
+     *
+     * @return The next RoadInformation in the buffer.
+     *
+     * @throws IOException if an error occurs while reading from the channel.
+     */
+    private RoadInformation readRoadInformation() throws IOException {
+        ensure(2);
+        char type = (char) Byte.toUnsignedInt(buffer.get());
+        int x = Byte.toUnsignedInt(buffer.get());
+        AccessRestrictions access = new AccessRestrictions();
+        if (version >= 7) {
+            ensure(8);
+            access = BinaryGraphReader.toAccessInformation(buffer.getLong());
+        }
+        else if (version >= 6) {
+            ensure(2);
+            buffer.getShort();
+        }
+        return new RoadInformation(BinaryGraphReader.toRoadType(type), access, (x & 0x80) > 0,
+                (x & 0x7F) * 5, readUTF());
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+}
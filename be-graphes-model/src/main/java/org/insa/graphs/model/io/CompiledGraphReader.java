@@ -0,0 +1,343 @@
+package org.insa.graphs.model.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+
+/**
+ * <p>
+ * Implementation of {@link GraphReader} to read graphs written by
+ * {@link CompiledGraphWriter}.
+ * </p>
+ *
+ * <p>
+ * The file is memory-mapped and its arrays are bulk-copied into the adjacency
+ * arrays of the graph, instead of being decoded field by field, so loading a
+ * compiled graph is faster than parsing the original binary file. The nodes
+ * and arcs of the graph are still created as with the other readers, so the
+ * loaded graph takes as much memory as a graph read from the binary file. Only
+ * the points of the arcs stay in the mapped file and are read when requested.
+ * </p>
+ *
+ */
+public class CompiledGraphReader implements GraphReader {
+
+    // Version and magic number of compiled graphs.
+    protected static final int VERSION = 1;
+    protected static final int MAGIC_NUMBER = 0x4D475243;
+
+    // Size of the fixed prefix of the file (magic number, version and header
+    // size).
+    protected static final int PREFIX_SIZE = 12;
+
+    /**
+     * Extension of compiled graph files.
+     */
+    public static final String FILE_EXTENSION = "mmapgr";
+
+    /**
+     * Retrieve the compiled file corresponding to the given binary graph file,
+     * i.e. a file in the same folder with the same name but the
+     * {@link #FILE_EXTENSION} extension.
+     *
+     * @param mapFile Binary graph file.
+     *
+     * @return The compiled graph file for the given file (that may not exist).
+     */
+    public static File getCompiledFile(File mapFile) {
+        String name = mapFile.getName();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        return new File(mapFile.getParentFile(), name + "." + FILE_EXTENSION);
+    }
+
+    /**
+     * Open the compiled file corresponding to the given graph file (see
+     * {@link #getCompiledFile(File)}) if it is up-to-date, i.e. if it exists and
+     * has not been modified before the given file.
+     *
+     * @param mapFile Binary graph file (or compiled graph file).
+     *
+     * @return A reader for the compiled graph file, or null if there is no
+     *         up-to-date compiled graph file or if it cannot be opened.
+     */
+    public static CompiledGraphReader openIfFresh(File mapFile) {
+        final File compiledFile = getCompiledFile(mapFile);
+        if (!compiledFile.exists() || compiledFile.lastModified() < mapFile.lastModified()) {
+            return null;
+        }
+        try {
+            return new CompiledGraphReader(compiledFile);
+        }
+        catch (IOException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Immutable view of the points of an arc inside the mapped file.
+     */
+    private static class MappedPoints extends AbstractList<Point> {
+
+        private final FloatBuffer longitudes, latitudes;
+        private final int first, size;
+
+        public MappedPoints(FloatBuffer longitudes, FloatBuffer latitudes, int first, int size) {
+            this.longitudes = longitudes;
+            this.latitudes = latitudes;
+            this.first = first;
+            this.size = size;
+        }
+
+        @Override
+        public Point get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return new Point(longitudes.get(first + index), latitudes.get(first + index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+    // Channel of the file.
+    private final FileChannel channel;
+
+    // Parts of the graph to load.
+    private final LoadProfile profile;
+
+    // List of observers
+    protected List<GraphReaderObserver> observers = new ArrayList<>();
+
+    /**
+     * Create a new CompiledGraphReader that reads the given compiled graph file.
+     *
+     * @param file File to read.
+     *
+     * @throws IOException if the file cannot be opened.
+     */
+    public CompiledGraphReader(File file) throws IOException {
+        this(file, LoadProfile.FULL);
+    }
+
+    /**
+     * Create a new CompiledGraphReader that reads the given compiled graph file and
+     * loads the given parts of the graph.
+     *
+     * @param file File to read.
+     * @param profile Parts of the graph to load.
+     *
+     * @throws IOException if the file cannot be opened.
+     */
+    public CompiledGraphReader(File file, LoadProfile profile) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.profile = profile;
+    }
+
+    @Override
+    public void addObserver(GraphReaderObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Map the given section of the file.
+     */
+    private ByteBuffer map(long position, long size) throws IOException {
+        if (position + size > channel.size()) {
+            throw new BadFormatException("Truncated compiled graph.");
+        }
+        return channel.map(MapMode.READ_ONLY, position, size);
+    }
+
+    @Override
+    public Graph read() throws IOException {
+
+        // Read and check magic number and file version.
+        ByteBuffer prefix = map(0, PREFIX_SIZE);
+        int magicNumber = prefix.getInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, MAGIC_NUMBER);
+        }
+        int version = prefix.getInt();
+        if (version != VERSION) {
+            throw new BadVersionException(version, VERSION);
+        }
+        int headerSize = prefix.getInt();
+
+        ByteBuffer header = map(0, headerSize);
+        header.position(PREFIX_SIZE);
+
+        // Read map id and name.
+        byte[] mapIdBytes = new byte[BinaryGraphReader.MAP_ID_FIELD_LENGTH];
+        header.get(mapIdBytes);
+        final String mapId = new String(mapIdBytes, StandardCharsets.UTF_8).trim();
+        final String mapName = readString(header);
+
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        final int nbNodes = header.getInt();
+        final int nbArcs = header.getInt();
+        final int nbDesc = header.getInt();
+        final int nbPoints = header.getInt();
+
+        BoundingBox box = new BoundingBox(new Point(header.getFloat(), header.getFloat()),
+                new Point(header.getFloat(), header.getFloat()));
+        GraphStatistics statistics = new GraphStatistics(box, header.getInt(), header.getInt(),
+                header.getInt(), header.getFloat());
+
+        // Read descriptors.
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        RoadInformation[] descs = new RoadInformation[nbDesc];
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            final RoadInformation roadinf = readRoadInformation(header);
+            descs[descr] = roadinf;
+            observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
+        }
+
+        // Map the arrays.
+        long position = headerSize;
+        FloatBuffer longitudes = map(position, 4L * nbNodes).asFloatBuffer();
+        position += 4L * nbNodes;
+        FloatBuffer latitudes = map(position, 4L * nbNodes).asFloatBuffer();
+        position += 4L * nbNodes;
+
+        int[] firstArc = new int[nbNodes + 1];
+        map(position, 4L * (nbNodes + 1)).asIntBuffer().get(firstArc);
+        position += 4L * (nbNodes + 1);
+
+        int[] head = new int[nbArcs];
+        map(position, 4L * nbArcs).asIntBuffer().get(head);
+        position += 4L * nbArcs;
+
+        float[] length = new float[nbArcs];
+        map(position, 4L * nbArcs).asFloatBuffer().get(length);
+        position += 4L * nbArcs;
+
+        int[] descriptor = new int[nbArcs];
+        map(position, 4L * nbArcs).asIntBuffer().get(descriptor);
+        position += 4L * nbArcs;
+
+        int[] originalArc = new int[nbArcs];
+        map(position, 4L * nbArcs).asIntBuffer().get(originalArc);
+        position += 4L * nbArcs;
+
+        IntBuffer firstPoint = map(position, 4L * (nbArcs + 1)).asIntBuffer();
+        position += 4L * (nbArcs + 1);
+        FloatBuffer pointLongitudes = map(position, 4L * nbPoints).asFloatBuffer();
+        position += 4L * nbPoints;
+        FloatBuffer pointLatitudes = map(position, 4L * nbPoints).asFloatBuffer();
+        position += 4L * nbPoints;
+
+        if (position != channel.size()) {
+            throw new BadFormatException();
+        }
+
+        // Create nodes.
+        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        ArrayList<Node> nodes = new ArrayList<Node>(nbNodes);
+        for (int node = 0; node < nbNodes; ++node) {
+            final Node aNode = new Node(node,
+                    new Point(longitudes.get(node), latitudes.get(node)));
+            nodes.add(aNode);
+            observers.forEach((observer) -> observer.notifyNewNodeRead(aNode));
+        }
+
+        // Create arcs, points are left in the mapped file.
+        IntFunction<List<Point>> points = null;
+        if (profile == LoadProfile.FULL) {
+            points = (arc) -> new MappedPoints(pointLongitudes, pointLatitudes,
+                    firstPoint.get(arc), firstPoint.get(arc + 1) - firstPoint.get(arc));
+        }
+        AdjacencyArrays adjacency = new AdjacencyArrays(nodes, firstArc, head, length,
+                descriptor, descs, originalArc, points);
+
+        int nbForwardArcs = 0;
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            if (originalArc[arc] < 0) {
+                ++nbForwardArcs;
+            }
+        }
+        final int copyNbForwardArcs = nbForwardArcs;
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(copyNbForwardArcs));
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            if (originalArc[arc] < 0) {
+                final int copyArc = arc;
+                observers.forEach(
+                        (observer) -> observer.notifyNewArcRead(adjacency.getArc(copyArc)));
+            }
+        }
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        return new Graph(mapId, mapName, nodes, statistics, adjacency);
+    }
+
+    /**
+     * Read a nullable string (length followed by UTF-8 bytes, or {@code -1}).
+     */
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the next road information from the given buffer.
+     */
+    private static RoadInformation readRoadInformation(ByteBuffer buffer) {
+        RoadType type = RoadType.values()[buffer.get()];
+        boolean oneway = buffer.get() != 0;
+        int maxSpeed = buffer.getInt();
+        int nbModes = buffer.get();
+        AccessRestrictions access = null;
+        if (nbModes > 0) {
+            EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(
+                    AccessMode.class);
+            for (int i = 0; i < nbModes; ++i) {
+                restrictions.put(AccessMode.values()[i],
+                        AccessRestriction.values()[buffer.get()]);
+            }
+            access = new AccessRestrictions(restrictions);
+        }
+        return new RoadInformation(type, access, oneway, maxSpeed, readString(buffer));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+}
@@ -0,0 +1,196 @@
+package org.insa.graphs.model.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+
+/**
+ * <p>
+ * Implementation of {@link GraphWriter} that writes graphs in the compiled
+ * format read by {@link CompiledGraphReader}.
+ * </p>
+ *
+ * <p>
+ * A compiled graph is made of a small header (map information, statistics and
+ * road informations) followed by the flat arrays of the graph (coordinates of
+ * the nodes, {@link AdjacencyArrays} and points of the arcs), so that it can be
+ * read with bulk copies instead of being parsed field by field.
+ * </p>
+ *
+ */
+public class CompiledGraphWriter extends BinaryWriter implements GraphWriter {
+
+    /**
+     * Create a new CompiledGraphWriter that writes to the given output stream.
+     *
+     * @param dos Output stream to write to.
+     */
+    public CompiledGraphWriter(DataOutputStream dos) {
+        super(dos);
+    }
+
+    @Override
+    public void writeGraph(Graph graph) throws IOException {
+        final AdjacencyArrays adjacency = graph.getAdjacency();
+        final int nbNodes = graph.size();
+        final int nbArcs = adjacency.getNumberOfArcs();
+
+        // Only forward arcs hold points, backward arcs use the ones of their forward
+        // arc.
+        int nbPoints = 0;
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            if (adjacency.getOriginalArc(arc) < 0) {
+                nbPoints += getPoints(adjacency, arc).size();
+            }
+        }
+
+        // The header is written in memory first since its size is needed to locate
+        // the arrays.
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+
+        header.write(Arrays.copyOf(graph.getMapId().getBytes(StandardCharsets.UTF_8),
+                BinaryGraphReader.MAP_ID_FIELD_LENGTH));
+        writeString(header, graph.getMapName());
+
+        header.writeInt(nbNodes);
+        header.writeInt(nbArcs);
+        header.writeInt(adjacency.getDescriptors().length);
+        header.writeInt(nbPoints);
+
+        GraphStatistics statistics = graph.getGraphInformation();
+        BoundingBox box = statistics.getBoundingBox();
+        header.writeFloat(box.getTopLeftPoint().getLongitude());
+        header.writeFloat(box.getTopLeftPoint().getLatitude());
+        header.writeFloat(box.getBottomRightPoint().getLongitude());
+        header.writeFloat(box.getBottomRightPoint().getLatitude());
+        header.writeInt(statistics.getOneWayRoadCount());
+        header.writeInt(statistics.getTwoWaysRoadCount());
+        header.writeInt(statistics.getMaximumSpeed());
+        header.writeFloat(statistics.getMaximumLength());
+
+        for (RoadInformation info: adjacency.getDescriptors()) {
+            writeRoadInformation(header, info);
+        }
+        header.flush();
+
+        // Arrays are aligned on 8 bytes.
+        int headerSize = CompiledGraphReader.PREFIX_SIZE + headerBytes.size();
+        int padding = (8 - headerSize % 8) % 8;
+        headerSize += padding;
+
+        dos.writeInt(CompiledGraphReader.MAGIC_NUMBER);
+        dos.writeInt(CompiledGraphReader.VERSION);
+        dos.writeInt(headerSize);
+        headerBytes.writeTo(dos);
+        dos.write(new byte[padding]);
+
+        // Coordinates of the nodes.
+        for (Node node: graph.getNodes()) {
+            dos.writeFloat(node.getPoint().getLongitude());
+        }
+        for (Node node: graph.getNodes()) {
+            dos.writeFloat(node.getPoint().getLatitude());
+        }
+
+        // Adjacency arrays.
+        for (int node = 0; node <= nbNodes; ++node) {
+            dos.writeInt(node < nbNodes ? adjacency.getFirstArc(node) : nbArcs);
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(adjacency.getHead(arc));
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeFloat(adjacency.getLength(arc));
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(adjacency.getDescriptorIndex(arc));
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(adjacency.getOriginalArc(arc));
+        }
+
+        // Points of the arcs.
+        int firstPoint = 0;
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            dos.writeInt(firstPoint);
+            if (adjacency.getOriginalArc(arc) < 0) {
+                firstPoint += getPoints(adjacency, arc).size();
+            }
+        }
+        dos.writeInt(firstPoint);
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            if (adjacency.getOriginalArc(arc) < 0) {
+                for (Point point: getPoints(adjacency, arc)) {
+                    dos.writeFloat(point.getLongitude());
+                }
+            }
+        }
+        for (int arc = 0; arc < nbArcs; ++arc) {
+            if (adjacency.getOriginalArc(arc) < 0) {
+                for (Point point: getPoints(adjacency, arc)) {
+                    dos.writeFloat(point.getLatitude());
+                }
+            }
+        }
+
+        dos.flush();
+    }
+
+    /**
+     * @return Points of the given arc, or an empty list if the arc has none.
+     */
+    private static List<Point> getPoints(AdjacencyArrays adjacency, int arc) {
+        List<Point> points = adjacency.getArc(arc).getPoints();
+        return points == null ? List.of() : points;
+    }
+
+    /**
+     * Write a nullable string (length followed by UTF-8 bytes, or {@code -1}).
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        }
+        else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Write the given road information.
+     */
+    private static void writeRoadInformation(DataOutputStream out, RoadInformation info)
+            throws IOException {
+        out.writeByte(info.getType().ordinal());
+        out.writeByte(info.isOneWay() ? 1 : 0);
+        out.writeInt(info.getMaximumSpeed());
+        AccessRestrictions access = info.getAccessRestrictions();
+        if (access == null) {
+            out.writeByte(0);
+        }
+        else {
+            out.writeByte(AccessMode.values().length);
+            for (AccessMode mode: AccessMode.values()) {
+                out.writeByte(access.getRestrictionFor(mode).ordinal());
+            }
+        }
+        writeString(out, info.getName());
+    }
+
+}
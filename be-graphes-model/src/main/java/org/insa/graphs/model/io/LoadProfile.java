@@ -0,0 +1,23 @@
+package org.insa.graphs.model.io;
+
+import org.insa.graphs.model.Arc;
+
+/**
+ * Enumeration of the parts of a graph that a {@link GraphReader} loads.
+ *
+ */
+public enum LoadProfile {
+
+    /**
+     * Load the whole graph, including the points of the arcs.
+     */
+    FULL,
+
+    /**
+     * Load only what is needed to compute routes, the points of the arcs are
+     * skipped. {@link Arc#getPoints()} then returns the origin and destination of
+     * the arc only.
+     */
+    ROUTING_ONLY;
+
+}
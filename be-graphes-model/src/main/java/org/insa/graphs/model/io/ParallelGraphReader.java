@@ -0,0 +1,453 @@
+package org.insa.graphs.model.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.PackedGeometry;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+
+/**
+ * <p>
+ * Implementation of {@link GraphReader} to read graph in binary format using
+ * several threads.
+ * </p>
+ *
+ * <p>
+ * This reader reads the same files as {@link BinaryGraphReader} and produces
+ * the same {@link Graph}. The file is memory-mapped and read in several phases:
+ * </p>
+ * <ol>
+ * <li>the nodes, whose entries have a fixed size, are decoded in parallel;</li>
+ * <li>the descriptors are decoded sequentially;</li>
+ * <li>the offset of each arc entry is computed by a sequential scan that only
+ * reads the number of segments of each arc;</li>
+ * <li>the arcs and their points are decoded in parallel;</li>
+ * <li>the successors of each node (its arcs and the reverse of the two-ways
+ * arcs ending at it) are merged in parallel, each node being handled by a
+ * single task so that no lock is needed.</li>
+ * </ol>
+ *
+ * <p>
+ * Parallel phases run in the {@link ForkJoinPool} given to the reader. Observers
+ * are notified from the calling thread once each phase is done.
+ * </p>
+ *
+ */
+public class ParallelGraphReader implements GraphReader {
+
+    // Size of a node and of the fixed part of an arc in the file (in bytes).
+    private static final int NODE_SIZE = 9;
+    private static final int ARC_SIZE = 12;
+
+    // Channel of the file.
+    private final FileChannel channel;
+
+    // Pool running the parallel phases.
+    private final ForkJoinPool pool;
+
+    // Parts of the graph to load.
+    private final LoadProfile profile;
+
+    // List of observers
+    protected List<GraphReaderObserver> observers = new ArrayList<>();
+
+    /**
+     * Create a new ParallelGraphReader that reads from the given file channel
+     * using the common fork-join pool.
+     *
+     * @param channel Channel of the file to read.
+     */
+    public ParallelGraphReader(FileChannel channel) {
+        this(channel, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new ParallelGraphReader that reads from the given file channel
+     * using the given fork-join pool.
+     *
+     * @param channel Channel of the file to read.
+     * @param pool Pool used to run the parallel phases.
+     */
+    public ParallelGraphReader(FileChannel channel, ForkJoinPool pool) {
+        this(channel, pool, LoadProfile.FULL);
+    }
+
+    /**
+     * Create a new ParallelGraphReader that reads from the given file channel
+     * using the given fork-join pool, and loads the given parts of the graph.
+     *
+     * @param channel Channel of the file to read.
+     * @param pool Pool used to run the parallel phases.
+     * @param profile Parts of the graph to load.
+     */
+    public ParallelGraphReader(FileChannel channel, ForkJoinPool pool, LoadProfile profile) {
+        this.channel = channel;
+        this.pool = pool;
+        this.profile = profile;
+    }
+
+    @Override
+    public void addObserver(GraphReaderObserver observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public Graph read() throws IOException {
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException("File too large to be mapped.");
+        }
+        final ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+
+        // Parallel streams started from a task of the pool run in the pool.
+        try {
+            return pool.submit(() -> read(buffer)).get();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException(exception);
+        }
+        catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof UncheckedIOException) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof BufferUnderflowException
+                    || cause instanceof IndexOutOfBoundsException) {
+                throw new BadFormatException("Truncated graph.");
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Read a graph from the given buffer.
+     */
+    private Graph read(ByteBuffer buffer) throws IOException {
+
+        // Read and check magic number and file version.
+        int magicNumber = buffer.getInt();
+        if (magicNumber != BinaryGraphReader.MAGIC_NUMBER) {
+            throw new BadMagicNumberException(magicNumber, BinaryGraphReader.MAGIC_NUMBER);
+        }
+        final int version = buffer.getInt();
+        if (version < BinaryGraphReader.VERSION) {
+            throw new BadVersionException(version, BinaryGraphReader.VERSION);
+        }
+
+        // Read map id.
+        String mapId;
+        String mapName = "";
+
+        if (version < 6) {
+            mapId = "0x" + Integer.toHexString(buffer.getInt());
+        }
+        else {
+            byte[] bytes = new byte[BinaryGraphReader.MAP_ID_FIELD_LENGTH];
+            buffer.get(bytes);
+            mapId = new String(bytes, StandardCharsets.UTF_8).trim();
+            mapName = readUTF(buffer);
+        }
+
+        observers.forEach((observer) -> observer.notifyStartReading(mapId));
+
+        // Number of descriptors and nodes.
+        final int nbDesc = buffer.getInt();
+        final int nbNodes = buffer.getInt();
+
+        // Phase 1: nodes.
+        final int nodesStart = buffer.position();
+        final float[] longitudes = new float[nbNodes], latitudes = new float[nbNodes];
+        final double[] sinLatitudes = new double[nbNodes], cosLatitudes = new double[nbNodes];
+        final int[] nbSuccessors = new int[nbNodes];
+        final Node[] nodeArray = new Node[nbNodes];
+        if (nodesStart + (long) NODE_SIZE * nbNodes >= buffer.limit()) {
+            throw new BadFormatException("Truncated graph.");
+        }
+        buffer.position(nodesStart + NODE_SIZE * nbNodes);
+        IntStream.range(0, nbNodes).parallel().forEach((node) -> {
+            int offset = nodesStart + NODE_SIZE * node;
+            longitudes[node] = ((float) buffer.getInt(offset)) / 1E6f;
+            latitudes[node] = ((float) buffer.getInt(offset + 4)) / 1E6f;
+            nbSuccessors[node] = Byte.toUnsignedInt(buffer.get(offset + 8));
+            sinLatitudes[node] = Math.sin(Math.toRadians(latitudes[node]));
+            cosLatitudes[node] = Math.cos(Math.toRadians(latitudes[node]));
+            nodeArray[node] = new Node(node, new Point(longitudes[node], latitudes[node]));
+        });
+        final ArrayList<Node> nodes = new ArrayList<Node>(Arrays.asList(nodeArray));
+
+        float minLongitude = Float.POSITIVE_INFINITY, minLatitude = Float.POSITIVE_INFINITY,
+                maxLongitude = Float.NEGATIVE_INFINITY, maxLatitude = Float.NEGATIVE_INFINITY;
+        final int[] firstFileArc = new int[nbNodes + 1];
+        observers.forEach((observer) -> observer.notifyStartReadingNodes(nbNodes));
+        for (int node = 0; node < nbNodes; ++node) {
+            minLongitude = Math.min(longitudes[node], minLongitude);
+            minLatitude = Math.min(latitudes[node], minLatitude);
+            maxLongitude = Math.max(longitudes[node], maxLongitude);
+            maxLatitude = Math.max(latitudes[node], maxLatitude);
+            firstFileArc[node + 1] = firstFileArc[node] + nbSuccessors[node];
+
+            final Node aNode = nodeArray[node];
+            observers.forEach((observer) -> observer.notifyNewNodeRead(aNode));
+        }
+        final int nbTotalSuccessors = firstFileArc[nbNodes];
+
+        checkByteOrThrow(buffer, 255);
+
+        // Phase 2: descriptors.
+        final RoadInformation[] descs = new RoadInformation[nbDesc];
+        observers.forEach((observer) -> observer.notifyStartReadingDescriptors(nbDesc));
+        int maxSpeed = 0;
+        for (int descr = 0; descr < nbDesc; ++descr) {
+            final RoadInformation roadinf = readRoadInformation(buffer, version);
+            descs[descr] = roadinf;
+            observers.forEach((observer) -> observer.notifyNewDescriptorRead(roadinf));
+
+            // Update max speed
+            maxSpeed = Math.max(roadinf.getMaximumSpeed(), maxSpeed);
+        }
+
+        checkByteOrThrow(buffer, 254);
+
+        // Phase 3: index the entries of the arcs.
+        final int arcSize = version < 8 ? ARC_SIZE - 2 : ARC_SIZE;
+        final int[] arcOffsets = new int[nbTotalSuccessors];
+        final int[] firstSegment = new int[nbTotalSuccessors + 1];
+        int offset = buffer.position();
+        for (int arc = 0; arc < nbTotalSuccessors; ++arc) {
+            final int nbSegments = Short.toUnsignedInt(buffer.getShort(offset + arcSize - 2));
+            arcOffsets[arc] = offset;
+            firstSegment[arc + 1] = firstSegment[arc] + nbSegments;
+            offset += arcSize + 4 * nbSegments;
+        }
+        buffer.position(offset);
+        checkByteOrThrow(buffer, 253);
+
+        // Phase 4: decode the arcs, in the order of the file.
+        final int[] fileOrigins = new int[nbTotalSuccessors];
+        final int[] fileDestinations = new int[nbTotalSuccessors];
+        final int[] fileDescriptors = new int[nbTotalSuccessors];
+        final float[] fileRawLengths = new float[nbTotalSuccessors];
+        final float[] fileLengths = new float[nbTotalSuccessors];
+        final short[] deltas = new short[profile == LoadProfile.FULL
+                ? 2 * firstSegment[nbTotalSuccessors]
+                : 0];
+        IntStream.range(0, nbNodes).parallel().forEach((node) -> {
+            for (int arc = firstFileArc[node]; arc < firstFileArc[node + 1]; ++arc) {
+                final int arcOffset = arcOffsets[arc];
+                final int destNode = get24bits(buffer, arcOffset);
+                final int descrNum = get24bits(buffer, arcOffset + 3);
+                if (destNode >= nbNodes || descrNum >= nbDesc) {
+                    throw new UncheckedIOException(new BadFormatException());
+                }
+
+                float length;
+                if (version < 8) {
+                    length = Short.toUnsignedInt(buffer.getShort(arcOffset + 6));
+                }
+                else {
+                    length = buffer.getInt(arcOffset + 6) / 1000.0f;
+                }
+                fileRawLengths[arc] = length;
+
+                // Same computation as Point.distance.
+                double koef = sinLatitudes[node] * sinLatitudes[destNode]
+                        + cosLatitudes[node] * cosLatitudes[destNode] * Math
+                                .cos(Math.toRadians(longitudes[destNode] - longitudes[node]));
+                koef = Math.max(-1.0, Math.min(1.0, koef));
+                length = Math.max(length, (float) (Point.EARTH_RADIUS * Math.acos(koef)));
+
+                // Differences between the points corresponding to the segments.
+                if (profile == LoadProfile.FULL) {
+                    for (int seg = 2 * firstSegment[arc], segOffset = arcOffset + arcSize;
+                            seg < 2 * firstSegment[arc + 1]; ++seg, segOffset += 2) {
+                        deltas[seg] = buffer.getShort(segOffset);
+                    }
+                }
+
+                fileOrigins[arc] = node;
+                fileDestinations[arc] = destNode;
+                fileDescriptors[arc] = descrNum;
+                fileLengths[arc] = length;
+            }
+        });
+
+        // Two-ways arcs ending at each node, sorted by order in the file. Two-ways
+        // roads are stored from the node with the lowest ID (see Node.linkNodes), so
+        // the polylines of the other ones are reversed.
+        final PackedGeometry geometry = profile == LoadProfile.FULL
+                ? new PackedGeometry(firstSegment, deltas)
+                : null;
+        float maxLength = 0;
+        int nbOneWayRoad = 0;
+        final int[] firstReverseArc = new int[nbNodes + 1];
+        for (int arc = 0; arc < nbTotalSuccessors; ++arc) {
+            maxLength = Math.max(fileRawLengths[arc], maxLength);
+            if (descs[fileDescriptors[arc]].isOneWay()) {
+                nbOneWayRoad++;
+            }
+            else {
+                firstReverseArc[fileDestinations[arc] + 1]++;
+                if (geometry != null && fileOrigins[arc] >= fileDestinations[arc]) {
+                    geometry.setReversed(arc);
+                }
+            }
+        }
+        for (int node = 0; node < nbNodes; ++node) {
+            firstReverseArc[node + 1] += firstReverseArc[node];
+        }
+        final int[] reverseArcs = new int[firstReverseArc[nbNodes]];
+        final int[] nextReverseArc = Arrays.copyOf(firstReverseArc, nbNodes);
+        for (int arc = 0; arc < nbTotalSuccessors; ++arc) {
+            if (!descs[fileDescriptors[arc]].isOneWay()) {
+                reverseArcs[nextReverseArc[fileDestinations[arc]]++] = arc;
+            }
+        }
+
+        // Phase 5: merge the arcs of each node. The successors of a node are its arcs
+        // and the reverse of the two-ways arcs ending at it, in the order of the file
+        // (an arc comes before its reverse for loops), as if Node.linkNodes was
+        // called for each arc.
+        final int nbArcs = nbTotalSuccessors + reverseArcs.length;
+        final int[] firstArc = new int[nbNodes + 1];
+        for (int node = 0; node < nbNodes; ++node) {
+            firstArc[node + 1] = firstArc[node] + nbSuccessors[node]
+                    + firstReverseArc[node + 1] - firstReverseArc[node];
+        }
+        final int[] head = new int[nbArcs];
+        final float[] length = new float[nbArcs];
+        final int[] descriptor = new int[nbArcs];
+        final int[] originalArc = new int[nbArcs];
+        final int[] arcIndices = new int[nbTotalSuccessors];
+        final int[] reverseArcIndices = new int[nbTotalSuccessors];
+        IntStream.range(0, nbNodes).parallel().forEach((node) -> {
+            int arc = firstFileArc[node], reverse = firstReverseArc[node];
+            for (int index = firstArc[node]; index < firstArc[node + 1]; ++index) {
+                if (reverse == firstReverseArc[node + 1]
+                        || (arc < firstFileArc[node + 1] && arc <= reverseArcs[reverse])) {
+                    head[index] = fileDestinations[arc];
+                    length[index] = fileLengths[arc];
+                    descriptor[index] = fileDescriptors[arc];
+                    arcIndices[arc++] = index;
+                }
+                else {
+                    final int reverseArc = reverseArcs[reverse++];
+                    head[index] = fileOrigins[reverseArc];
+                    length[index] = fileLengths[reverseArc];
+                    descriptor[index] = fileDescriptors[reverseArc];
+                    reverseArcIndices[reverseArc] = index;
+                }
+            }
+        });
+
+        // Link forward and backward arcs.
+        final int[] polylines = new int[nbArcs];
+        IntStream.range(0, nbTotalSuccessors).parallel().forEach((arc) -> {
+            final int index = arcIndices[arc];
+            if (descs[fileDescriptors[arc]].isOneWay()) {
+                originalArc[index] = -1;
+                polylines[index] = arc;
+            }
+            else if (fileOrigins[arc] < fileDestinations[arc]) {
+                originalArc[index] = -1;
+                originalArc[reverseArcIndices[arc]] = index;
+                polylines[index] = arc;
+            }
+            else {
+                originalArc[reverseArcIndices[arc]] = -1;
+                originalArc[index] = reverseArcIndices[arc];
+                polylines[reverseArcIndices[arc]] = arc;
+            }
+        });
+
+        final AdjacencyArrays adjacency = new AdjacencyArrays(nodes, firstArc, head, length,
+                descriptor, descs, originalArc, geometry, polylines);
+
+        observers.forEach((observer) -> observer.notifyStartReadingArcs(nbTotalSuccessors));
+        for (int arc = 0; arc < nbTotalSuccessors; ++arc) {
+            final int index = arcIndices[arc];
+            observers.forEach((observer) -> observer.notifyNewArcRead(adjacency.getArc(index)));
+        }
+
+        observers.forEach((observer) -> observer.notifyEndReading());
+
+        return new Graph(mapId, mapName, nodes,
+                new GraphStatistics(
+                        new BoundingBox(new Point(minLongitude, maxLatitude),
+                                new Point(maxLongitude, minLatitude)),
+                        nbOneWayRoad, nbTotalSuccessors - nbOneWayRoad, maxSpeed, maxLength),
+                adjacency);
+    }
+
+    /**
+     * Check if the next byte in the buffer correspond to the given byte.
+     */
+    private static void checkByteOrThrow(ByteBuffer buffer, int b) throws BadFormatException {
+        if (Byte.toUnsignedInt(buffer.get()) != b) {
+            throw new BadFormatException();
+        }
+    }
+
+    /**
+     * Read 24 bits in BigEndian order at the given offset of the buffer.
+     */
+    private static int get24bits(ByteBuffer buffer, int offset) {
+        return (Short.toUnsignedInt(buffer.getShort(offset)) << 8)
+                | Byte.toUnsignedInt(buffer.get(offset + 2));
+    }
+
+    /**
+     * Read a string encoded as by {@link java.io.DataOutput#writeUTF(String)}.
+     */
+    private static String readUTF(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[2 + Short.toUnsignedInt(buffer.getShort(buffer.position()))];
+        buffer.get(bytes);
+        return new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+    }
+
+    /**
+     * Read the next road information from the buffer.
+     */
+    private static RoadInformation readRoadInformation(ByteBuffer buffer, int version)
+            throws IOException {
+        char type = (char) Byte.toUnsignedInt(buffer.get());
+        int x = Byte.toUnsignedInt(buffer.get());
+        AccessRestrictions access = new AccessRestrictions();
+        if (version >= 7) {
+            access = BinaryGraphReader.toAccessInformation(buffer.getLong());
+        }
+        else if (version >= 6) {
+            buffer.getShort();
+        }
+        return new RoadInformation(BinaryGraphReader.toRoadType(type), access, (x & 0x80) > 0,
+                (x & 0x7F) * 5, readUTF(buffer));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+}
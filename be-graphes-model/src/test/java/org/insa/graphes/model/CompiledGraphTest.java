@@ -0,0 +1,179 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.AccessRestrictions.AccessRestriction;
+import org.insa.graphs.model.AdjacencyArrays;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.GraphStatistics;
+import org.insa.graphs.model.GraphStatistics.BoundingBox;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.io.CompiledGraphReader;
+import org.insa.graphs.model.io.CompiledGraphWriter;
+import org.insa.graphs.model.io.GraphReader;
+import org.insa.graphs.model.io.GraphWriter;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CompiledGraphTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Small graph use for tests
+    private static Graph graph;
+
+    @BeforeClass
+    public static void initAll() {
+
+        EnumMap<AccessMode, AccessRestriction> restrictions = new EnumMap<>(AccessMode.class);
+        for (AccessMode mode: AccessMode.values()) {
+            restrictions.put(mode, AccessRestriction.ALLOWED);
+        }
+        restrictions.put(AccessMode.FOOT, AccessRestriction.FORBIDDEN);
+        RoadInformation oneway = new RoadInformation(RoadType.MOTORWAY,
+                new AccessRestrictions(restrictions), true, 130, "A61"),
+                twoways = new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(), false,
+                        50, "Avenue de Rangueil");
+
+        // Create nodes
+        Node[] nodes = new Node[4];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, new Point(1.4f + i * 0.01f, 43.5f - i * 0.01f));
+        }
+
+        Node.linkNodes(nodes[0], nodes[1], 10, oneway, points(nodes[0], nodes[1], 2));
+        Node.linkNodes(nodes[2], nodes[0], 20, twoways, points(nodes[2], nodes[0], 1));
+        Node.linkNodes(nodes[1], nodes[2], 30, twoways, points(nodes[1], nodes[2], 0));
+        Node.linkNodes(nodes[3], nodes[2], 40, oneway, points(nodes[3], nodes[2], 3));
+
+        graph = new Graph("0x1234", "Test", Arrays.asList(nodes),
+                new GraphStatistics(
+                        new BoundingBox(new Point(1.4f, 43.5f), new Point(1.43f, 43.47f)), 2, 2,
+                        130, 40));
+    }
+
+    /**
+     * @return List of points from a to b with the given number of intermediate
+     *         points.
+     */
+    private static ArrayList<Point> points(Node a, Node b, int nbIntermediate) {
+        ArrayList<Point> points = new ArrayList<>();
+        points.add(a.getPoint());
+        for (int i = 1; i <= nbIntermediate; ++i) {
+            float t = i / (nbIntermediate + 1.0f);
+            points.add(new Point(
+                    a.getPoint().getLongitude()
+                            + t * (b.getPoint().getLongitude() - a.getPoint().getLongitude()),
+                    a.getPoint().getLatitude()
+                            + t * (b.getPoint().getLatitude() - a.getPoint().getLatitude())));
+        }
+        points.add(b.getPoint());
+        return points;
+    }
+
+    private static void assertPointEquals(Point expected, Point actual) {
+        assertEquals(expected.getLongitude(), actual.getLongitude(), 1e-6);
+        assertEquals(expected.getLatitude(), actual.getLatitude(), 1e-6);
+    }
+
+    @Test
+    public void testWriteThenRead() throws IOException {
+        File file = folder.newFile("test." + CompiledGraphReader.FILE_EXTENSION);
+        try (GraphWriter writer = new CompiledGraphWriter(new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file))))) {
+            writer.writeGraph(graph);
+        }
+
+        Graph read;
+        try (GraphReader reader = new CompiledGraphReader(file)) {
+            read = reader.read();
+        }
+
+        assertEquals(graph.getMapId(), read.getMapId());
+        assertEquals(graph.getMapName(), read.getMapName());
+        assertEquals(graph.size(), read.size());
+        assertEquals(graph.getGraphInformation().getArcCount(),
+                read.getGraphInformation().getArcCount());
+        assertEquals(graph.getGraphInformation().getMaximumSpeed(),
+                read.getGraphInformation().getMaximumSpeed());
+
+        AdjacencyArrays expected = graph.getAdjacency(), actual = read.getAdjacency();
+        assertEquals(expected.getNumberOfArcs(), actual.getNumberOfArcs());
+        for (Node node: graph.getNodes()) {
+            Node readNode = read.get(node.getId());
+            assertPointEquals(node.getPoint(), readNode.getPoint());
+            assertEquals(node.getNumberOfSuccessors(), readNode.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessors().get(i), readArc = readNode.getSuccessors().get(i);
+                assertEquals(arc.getIndex(), readArc.getIndex());
+                assertSame(readNode, readArc.getOrigin());
+                assertEquals(arc.getDestination().getId(), readArc.getDestination().getId());
+                assertEquals(arc.getLength(), readArc.getLength(), 1e-6);
+                assertEquals(expected.getOriginalArc(arc.getIndex()),
+                        actual.getOriginalArc(readArc.getIndex()));
+
+                RoadInformation info = arc.getRoadInformation(),
+                        readInfo = readArc.getRoadInformation();
+                assertEquals(info.getType(), readInfo.getType());
+                assertEquals(info.getName(), readInfo.getName());
+                assertEquals(info.isOneWay(), readInfo.isOneWay());
+                assertEquals(info.getMaximumSpeed(), readInfo.getMaximumSpeed());
+                for (AccessMode mode: AccessMode.values()) {
+                    assertEquals(info.getAccessRestrictions().getRestrictionFor(mode),
+                            readInfo.getAccessRestrictions().getRestrictionFor(mode));
+                }
+
+                List<Point> points = arc.getPoints(), readPoints = readArc.getPoints();
+                assertEquals(points.size(), readPoints.size());
+                for (int j = 0; j < points.size(); ++j) {
+                    assertPointEquals(points.get(j), readPoints.get(j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOpenIfFresh() throws IOException {
+        File mapFile = folder.newFile("test.mapgr");
+        assertNull(CompiledGraphReader.openIfFresh(mapFile));
+
+        File file = CompiledGraphReader.getCompiledFile(mapFile);
+        try (GraphWriter writer = new CompiledGraphWriter(new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file))))) {
+            writer.writeGraph(graph);
+        }
+        try (GraphReader reader = CompiledGraphReader.openIfFresh(mapFile)) {
+            assertEquals(graph.size(), reader.read().size());
+        }
+        try (GraphReader reader = CompiledGraphReader.openIfFresh(file)) {
+            assertNotNull(reader);
+        }
+
+        // The compiled file is stale once the binary file is modified after it.
+        mapFile.setLastModified(file.lastModified() + 1000);
+        assertNull(CompiledGraphReader.openIfFresh(mapFile));
+    }
+
+}
@@ -0,0 +1,301 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.Point;
+import org.insa.graphs.model.AccessRestrictions.AccessMode;
+import org.insa.graphs.model.io.BinaryGraphReader;
+import org.insa.graphs.model.io.ChannelGraphReader;
+import org.insa.graphs.model.io.GraphReader;
+import org.insa.graphs.model.io.LoadProfile;
+import org.insa.graphs.model.io.ParallelGraphReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GraphReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Coordinates (x 1e6) of the nodes of the test map.
+    private static final int[][] COORDINATES = new int[][] { { 1400000, 43500000 },
+            { 1410000, 43510000 }, { 1420000, 43490000 }, { 1405000, 43480000 } };
+
+    // Arcs of the test map: origin, destination, descriptor, length (in meters),
+    // and deltas of the intermediate points.
+    private static final int[][] ARCS = new int[][] { { 0, 1, 0, 1600, 400, 500, 600, 700 },
+            { 0, 2, 1, 10 }, { 1, 2, 2, 2500, -100, -300 }, { 3, 0, 1, 2100 },
+            { 3, 2, 0, 1900, 200, 100, 300, 200, 100, 50 } };
+
+    /**
+     * @return Content of a small map in binary format, using the given version.
+     */
+    private static byte[] createMap(int version) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bytes);
+        dos.writeInt(0x208BC3B3);
+        dos.writeInt(version);
+        if (version < 6) {
+            dos.writeInt(0x1234);
+        }
+        else {
+            byte[] mapId = new byte[32];
+            System.arraycopy("test-map".getBytes("UTF-8"), 0, mapId, 0, 8);
+            dos.write(mapId);
+            dos.writeUTF("Test map \u00e9");
+        }
+
+        dos.writeInt(3);
+        dos.writeInt(COORDINATES.length);
+        for (int node = 0; node < COORDINATES.length; ++node) {
+            int nbSuccessors = 0;
+            for (int[] arc: ARCS) {
+                nbSuccessors += arc[0] == node ? 1 : 0;
+            }
+            dos.writeInt(COORDINATES[node][0]);
+            dos.writeInt(COORDINATES[node][1]);
+            dos.writeByte(nbSuccessors);
+        }
+        dos.writeByte(255);
+
+        for (int descr = 0; descr < 3; ++descr) {
+            dos.writeByte("ajn".charAt(descr));
+            dos.writeByte((descr == 0 ? 0x80 : 0) | (26 - 10 * descr));
+            if (version >= 7) {
+                dos.writeLong(0x1111111111L * (descr + 1));
+            }
+            else if (version >= 6) {
+                dos.writeShort(0);
+            }
+            dos.writeUTF("Road " + descr);
+        }
+        dos.writeByte(254);
+
+        for (int[] arc: ARCS) {
+            dos.writeShort(arc[1] >> 8);
+            dos.writeByte(arc[1] & 0xff);
+            dos.writeShort(arc[2] >> 8);
+            dos.writeByte(arc[2] & 0xff);
+            if (version < 8) {
+                dos.writeShort(arc[3]);
+            }
+            else {
+                dos.writeInt(arc[3] * 1000 + 250);
+            }
+            dos.writeShort((arc.length - 4) / 2);
+            for (int i = 4; i < arc.length; ++i) {
+                dos.writeShort(arc[i]);
+            }
+        }
+        dos.writeByte(253);
+        dos.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return Channel over the given bytes that returns at most a few bytes per
+     *         read, to check that entries spanning several reads are decoded.
+     */
+    private static ReadableByteChannel createChannel(byte[] content) {
+        final ReadableByteChannel channel = Channels
+                .newChannel(new ByteArrayInputStream(content));
+        return new ReadableByteChannel() {
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                ByteBuffer slice = dst.slice();
+                slice.limit(Math.min(slice.limit(), 7));
+                int read = channel.read(slice);
+                if (read > 0) {
+                    dst.position(dst.position() + read);
+                }
+                return read;
+            }
+        };
+    }
+
+    private static void assertPointEquals(Point expected, Point actual) {
+        assertEquals(expected.getLongitude(), actual.getLongitude(), 0);
+        assertEquals(expected.getLatitude(), actual.getLatitude(), 0);
+    }
+
+    @Test
+    public void testChannelGraphReader() throws IOException {
+        for (int version = 5; version <= 8; ++version) {
+            byte[] content = createMap(version);
+            Graph expected = new BinaryGraphReader(
+                    new DataInputStream(new ByteArrayInputStream(content))).read();
+
+            ChannelGraphReader reader = new ChannelGraphReader(createChannel(content));
+            Graph actual = reader.read();
+            reader.close();
+
+            assertEquals(content.length, reader.getBytesRead());
+            assertTrue(reader.getThroughput() > 0);
+            assertSameGraph(expected, actual);
+        }
+    }
+
+    @Test
+    public void testParallelGraphReader() throws IOException {
+        for (int version = 5; version <= 8; ++version) {
+            byte[] content = createMap(version);
+            Graph expected = new BinaryGraphReader(
+                    new DataInputStream(new ByteArrayInputStream(content))).read();
+
+            File file = folder.newFile("test-" + version + ".mapgr");
+            Files.write(file.toPath(), content);
+            Graph actual;
+            try (GraphReader reader = new ParallelGraphReader(
+                    FileChannel.open(file.toPath(), StandardOpenOption.READ))) {
+                actual = reader.read();
+            }
+            assertSameGraph(expected, actual);
+        }
+    }
+
+    @Test
+    public void testPoints() throws IOException {
+        Graph graph = new BinaryGraphReader(
+                new DataInputStream(new ByteArrayInputStream(createMap(8)))).read();
+        for (int[] entry: ARCS) {
+            Node origin = graph.get(entry[0]);
+            Arc arc = null;
+            for (Arc successor: origin.getSuccessors()) {
+                if (successor.getDestination().getId() == entry[1]) {
+                    arc = successor;
+                }
+            }
+
+            List<Point> points = arc.getPoints();
+            assertEquals((entry.length - 4) / 2 + 2, points.size());
+            assertSame(origin.getPoint(), points.get(0));
+            float longitude = origin.getPoint().getLongitude(),
+                    latitude = origin.getPoint().getLatitude();
+            for (int i = 4; i < entry.length; i += 2) {
+                longitude += ((short) entry[i]) / 2.0e5f;
+                latitude += ((short) entry[i + 1]) / 2.0e5f;
+                assertPointEquals(new Point(longitude, latitude), points.get((i - 2) / 2));
+            }
+            assertSame(graph.get(entry[1]).getPoint(), points.get(points.size() - 1));
+        }
+    }
+
+    @Test
+    public void testRoutingOnly() throws IOException {
+        byte[] content = createMap(8);
+        File file = folder.newFile("test.mapgr");
+        Files.write(file.toPath(), content);
+
+        List<GraphReader> readers = Arrays.asList(
+                new BinaryGraphReader(new DataInputStream(new ByteArrayInputStream(content)),
+                        LoadProfile.ROUTING_ONLY),
+                new ChannelGraphReader(createChannel(content), LoadProfile.ROUTING_ONLY),
+                new ParallelGraphReader(FileChannel.open(file.toPath(), StandardOpenOption.READ),
+                        ForkJoinPool.commonPool(), LoadProfile.ROUTING_ONLY));
+        Graph expected = new BinaryGraphReader(
+                new DataInputStream(new ByteArrayInputStream(content))).read();
+        for (GraphReader reader: readers) {
+            Graph graph = reader.read();
+            reader.close();
+            assertEquals(expected.size(), graph.size());
+            assertEquals(expected.getGraphInformation().getArcCount(),
+                    graph.getGraphInformation().getArcCount());
+            assertEquals(expected.getAdjacency().getNumberOfArcs(),
+                    graph.getAdjacency().getNumberOfArcs());
+            for (Node node: graph.getNodes()) {
+                for (Arc arc: node.getSuccessors()) {
+                    assertEquals(Arrays.asList(arc.getOrigin().getPoint(),
+                            arc.getDestination().getPoint()), arc.getPoints());
+                }
+            }
+        }
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getMapId(), actual.getMapId());
+        assertEquals(expected.getMapName(), actual.getMapName());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getGraphInformation().getArcCount(),
+                actual.getGraphInformation().getArcCount());
+        assertEquals(expected.getGraphInformation().getMaximumSpeed(),
+                actual.getGraphInformation().getMaximumSpeed());
+        assertEquals(expected.getGraphInformation().getMaximumLength(),
+                actual.getGraphInformation().getMaximumLength(), 0);
+        assertPointEquals(
+                expected.getGraphInformation().getBoundingBox().getTopLeftPoint(),
+                actual.getGraphInformation().getBoundingBox().getTopLeftPoint());
+        assertPointEquals(
+                expected.getGraphInformation().getBoundingBox().getBottomRightPoint(),
+                actual.getGraphInformation().getBoundingBox().getBottomRightPoint());
+
+        for (Node node: expected.getNodes()) {
+            Node actualNode = actual.get(node.getId());
+            assertPointEquals(node.getPoint(), actualNode.getPoint());
+            assertEquals(node.getNumberOfSuccessors(), actualNode.getNumberOfSuccessors());
+            for (int i = 0; i < node.getNumberOfSuccessors(); ++i) {
+                Arc arc = node.getSuccessors().get(i),
+                        actualArc = actualNode.getSuccessors().get(i);
+                assertEquals(arc.getDestination().getId(),
+                        actualArc.getDestination().getId());
+                assertEquals(arc.getIndex(), actualArc.getIndex());
+                assertEquals(expected.getAdjacency().getOriginalArc(arc.getIndex()),
+                        actual.getAdjacency().getOriginalArc(actualArc.getIndex()));
+                assertEquals(arc.getLength(), actualArc.getLength(), 0);
+                assertEquals(arc.getRoadInformation().getName(),
+                        actualArc.getRoadInformation().getName());
+                assertEquals(arc.getRoadInformation().getType(),
+                        actualArc.getRoadInformation().getType());
+                assertEquals(arc.getRoadInformation().isOneWay(),
+                        actualArc.getRoadInformation().isOneWay());
+                assertEquals(arc.getRoadInformation().getMaximumSpeed(),
+                        actualArc.getRoadInformation().getMaximumSpeed());
+                for (AccessMode mode: AccessMode.values()) {
+                    assertEquals(
+                            arc.getRoadInformation().getAccessRestrictions()
+                                    .getRestrictionFor(mode),
+                            actualArc.getRoadInformation().getAccessRestrictions()
+                                    .getRestrictionFor(mode));
+                }
+
+                List<Point> points = arc.getPoints(), actualPoints = actualArc.getPoints();
+                assertEquals(points.size(), actualPoints.size());
+                for (int j = 0; j < points.size(); ++j) {
+                    assertPointEquals(points.get(j), actualPoints.get(j));
+                }
+            }
+        }
+    }
+
+}
@@ -1,12 +1,15 @@
 package org.insa.graphes.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.insa.graphs.model.AdjacencyArrays;
 import org.insa.graphs.model.Arc;
 import org.insa.graphs.model.Graph;
 import org.insa.graphs.model.Node;
@@ -108,5 +111,110 @@ public class GraphTest {
         assertEquals(0, getArcsBetween(transpose.get(4), transpose.get(2)).size());
         assertEquals(1, getArcsBetween(transpose.get(4), transpose.get(3)).size());
 
+        // The transpose graph is a copy, not the reverse view.
+        assertNotSame(graph.reverseView(), transpose);
+        assertNotSame(graph.get(0), transpose.get(0).getSuccessors().get(0).getDestination());
+
+    }
+
+    @Test
+    public void testAdjacency() {
+        AdjacencyArrays adjacency = graph.getAdjacency();
+
+        assertEquals(graph.size(), adjacency.getNumberOfNodes());
+
+        int nbArcs = 0;
+        for (Node node: graph.getNodes()) {
+            List<Arc> successors = node.getSuccessors();
+            assertEquals(successors.size(),
+                    adjacency.getEndArc(node.getId()) - adjacency.getFirstArc(node.getId()));
+            for (int i = 0; i < successors.size(); ++i) {
+                Arc arc = successors.get(i);
+                int index = adjacency.getFirstArc(node.getId()) + i;
+                assertEquals(index, arc.getIndex());
+                assertSame(arc, adjacency.getArc(index));
+                assertSame(arc, adjacency.getArc(node.getId(), index));
+                assertEquals(node.getId(), adjacency.getTail(index));
+                assertEquals(arc.getDestination().getId(), adjacency.getHead(index));
+                assertEquals(arc.getLength(), adjacency.getLength(index), 1e-6);
+                assertSame(arc.getRoadInformation(), adjacency.getRoadInformation(index));
+            }
+            nbArcs += successors.size();
+        }
+        assertEquals(nbArcs, adjacency.getNumberOfArcs());
+    }
+
+    @Test
+    public void testIncomingArcs() {
+        AdjacencyArrays adjacency = graph.getAdjacency();
+
+        int nbArcs = 0;
+        for (Node node: graph.getNodes()) {
+            List<Arc> predecessors = new ArrayList<>();
+            for (Node other: graph.getNodes()) {
+                predecessors.addAll(getArcsBetween(other, node));
+            }
+            final int first = adjacency.getFirstIncomingArc(node.getId()),
+                    end = adjacency.getEndIncomingArc(node.getId());
+            assertEquals(predecessors.size(), end - first);
+            for (int i = 0; i < predecessors.size(); ++i) {
+                assertSame(predecessors.get(i), adjacency.getArc(adjacency.getIncomingArc(first + i)));
+                assertEquals(predecessors.get(i).getOrigin().getId(),
+                        adjacency.getIncomingTail(first + i));
+            }
+            nbArcs += predecessors.size();
+        }
+        assertEquals(nbArcs, adjacency.getNumberOfArcs());
     }
+
+    @Test
+    public void testReverseView() {
+        Graph reverse = graph.reverseView();
+        assertSame(reverse, graph.reverseView());
+        assertSame(graph, reverse.reverseView());
+        assertEquals(graph.size(), reverse.size());
+
+        AdjacencyArrays adjacency = reverse.getAdjacency();
+        for (Node node: reverse.getNodes()) {
+            assertEquals(graph.get(node.getId()).getPoint(), node.getPoint());
+            for (Node other: reverse.getNodes()) {
+                List<Arc> arcs = getArcsBetween(node, other);
+                assertEquals(getArcsBetween(graph.get(other.getId()), graph.get(node.getId())).size(),
+                        arcs.size());
+                for (Arc arc: arcs) {
+                    assertSame(node, arc.getOrigin());
+                    assertSame(other, arc.getDestination());
+                    assertEquals(arc, adjacency.getArc(arc.getIndex()));
+                    assertEquals(arc, adjacency.getArc(node.getId(), arc.getIndex()));
+                    assertEquals(other.getId(), adjacency.getHead(arc.getIndex()));
+                    assertEquals(node.getId(), adjacency.getTail(arc.getIndex()));
+                }
+            }
+        }
+
+        // Each arc of the view is the reverse of an arc of the graph, and two-ways
+        // roads are still represented by a forward and a backward arc.
+        for (int a = 0; a < adjacency.getNumberOfArcs(); ++a) {
+            final int original = adjacency.getOriginalArc(a);
+            if (original != -1) {
+                assertEquals(-1, adjacency.getOriginalArc(original));
+                assertSame(adjacency.getArc(a).getRoadInformation(),
+                        adjacency.getArc(original).getRoadInformation());
+                assertEquals(adjacency.getArc(a).getOrigin(),
+                        adjacency.getArc(original).getDestination());
+            }
+        }
+
+        // The predecessors of the view are the successors of the graph.
+        for (Node node: reverse.getNodes()) {
+            assertEquals(graph.get(node.getId()).getNumberOfSuccessors(),
+                    adjacency.getEndIncomingArc(node.getId())
+                            - adjacency.getFirstIncomingArc(node.getId()));
+            for (int i = adjacency.getFirstIncomingArc(node.getId()); i < adjacency
+                    .getEndIncomingArc(node.getId()); ++i) {
+                assertEquals(node.getId(), adjacency.getHead(adjacency.getIncomingArc(i)));
+            }
+        }
+    }
+
 }
@@ -230,6 +230,17 @@ public class PathTest {
         assertTrue(path.isEmpty());
     }
 
+    @Test
+    public void testCreateFromArcIndices() {
+        Path path = Path.createFromArcIndices(graph,
+                new int[] { a2b.getIndex(), b2c.getIndex(), c2d_3.getIndex() });
+        assertEquals(Arrays.asList(a2b, b2c, c2d_3), path.getArcs());
+        assertTrue(path.isValid());
+
+        path = Path.createFromArcIndices(graph, new int[0]);
+        assertTrue(path.isEmpty());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testCreateFastestPathFromNodesException() {
         Path.createFastestPathFromNodes(graph, Arrays.asList(new Node[] { nodes[1], nodes[0] }));
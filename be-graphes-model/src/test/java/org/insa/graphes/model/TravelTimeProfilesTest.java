@@ -0,0 +1,183 @@
+package org.insa.graphes.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.insa.graphs.model.AccessRestrictions;
+import org.insa.graphs.model.Arc;
+import org.insa.graphs.model.Graph;
+import org.insa.graphs.model.Node;
+import org.insa.graphs.model.RoadInformation;
+import org.insa.graphs.model.RoadInformation.RoadType;
+import org.insa.graphs.model.TravelTimeFunction;
+import org.insa.graphs.model.TravelTimeProfiles;
+import org.insa.graphs.model.io.BadFormatException;
+import org.insa.graphs.model.io.BinaryTravelTimeProfilesReader;
+import org.insa.graphs.model.io.BinaryTravelTimeProfilesWriter;
+import org.insa.graphs.model.io.MapMismatchException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TravelTimeProfilesTest {
+
+    // Rush hour at 8:00 and 18:00, free flow at night.
+    private static TravelTimeFunction rushHour;
+
+    // Small graph with a residential road and a motorway.
+    private static Graph graph;
+    private static Arc residential, motorway;
+
+    @BeforeClass
+    public static void initAll() {
+        rushHour = new TravelTimeFunction(TravelTimeFunction.DAY,
+                new int[] { 6 * 3600, 8 * 3600, 10 * 3600, 16 * 3600, 18 * 3600, 20 * 3600 },
+                new float[] { 1, 2, 1.2f, 1.2f, 1.8f, 1 });
+
+        Node[] nodes = new Node[3];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new Node(i, null);
+        }
+        residential = Node.linkNodes(nodes[0], nodes[1], 500,
+                new RoadInformation(RoadType.RESIDENTIAL, new AccessRestrictions(), true, 50, ""),
+                new ArrayList<>());
+        motorway = Node.linkNodes(nodes[1], nodes[2], 10000,
+                new RoadInformation(RoadType.MOTORWAY, new AccessRestrictions(), true, 130, ""),
+                new ArrayList<>());
+        graph = new Graph("0x4321", "Test", Arrays.asList(nodes), null);
+    }
+
+    /**
+     * Write the given profiles and read them back.
+     */
+    private static TravelTimeProfiles writeAndRead(TravelTimeProfiles profiles)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BinaryTravelTimeProfilesWriter(new DataOutputStream(bytes)).writeProfiles(profiles);
+        return new BinaryTravelTimeProfilesReader(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))).readProfiles(
+                        graph);
+    }
+
+    @Test
+    public void testFactor() {
+        assertEquals(1, rushHour.getFactor(6 * 3600), 1e-6);
+        assertEquals(2, rushHour.getFactor(8 * 3600), 1e-6);
+        assertEquals(1.5, rushHour.getFactor(7 * 3600), 1e-6);
+        assertEquals(1.6, rushHour.getFactor(9 * 3600), 1e-6);
+        assertEquals(1.2, rushHour.getFactor(12 * 3600), 1e-6);
+        assertEquals(1, rushHour.getFactor(3 * 3600), 1e-6);
+        assertEquals(1, rushHour.getFactor(23 * 3600), 1e-6);
+        assertEquals(1, rushHour.getMinimumFactor(), 0);
+        assertEquals(2, rushHour.getMaximumFactor(), 0);
+
+        // Periodicity.
+        assertEquals(rushHour.getFactor(7.5 * 3600),
+                rushHour.getFactor(7.5 * 3600 + TravelTimeFunction.DAY), 1e-6);
+        assertEquals(rushHour.getFactor(17 * 3600), rushHour.getFactor(-7 * 3600), 1e-6);
+
+        // Wrap-around between the last breakpoint and the first one.
+        TravelTimeFunction night = new TravelTimeFunction(TravelTimeFunction.DAY,
+                new int[] { 2 * 3600, 22 * 3600 }, new float[] { 1, 2 });
+        assertEquals(1.5, night.getFactor(0), 1e-6);
+        assertEquals(1.25, night.getFactor(1 * 3600), 1e-6);
+        assertEquals(1.75, night.getFactor(23 * 3600), 1e-6);
+        assertEquals(1.5, night.getFactor(12 * 3600), 1e-6);
+        assertEquals(1, TravelTimeFunction.CONSTANT.getFactor(12345), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedBreakpoints() {
+        new TravelTimeFunction(TravelTimeFunction.DAY, new int[] { 10, 5 }, new float[] { 1, 1 });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFactor() {
+        new TravelTimeFunction(TravelTimeFunction.DAY, new int[] { 0 }, new float[] { 0 });
+    }
+
+    @Test
+    public void testProfiles() {
+        Map<RoadType, TravelTimeFunction> functions = new EnumMap<>(RoadType.class);
+        functions.put(RoadType.RESIDENTIAL, rushHour);
+        TravelTimeProfiles profiles = new TravelTimeProfiles(functions);
+        assertFalse(profiles.hasArcOverrides());
+        assertSame(rushHour, profiles.getFunction(residential));
+        assertSame(TravelTimeFunction.CONSTANT, profiles.getFunction(motorway));
+        assertEquals(residential.getMinimumTravelTime() * 2,
+                profiles.getTravelTime(residential, 8 * 3600), 1e-6);
+        assertEquals(motorway.getMinimumTravelTime(), profiles.getTravelTime(motorway, 8 * 3600),
+                1e-6);
+        assertEquals(1, profiles.getMinimumFactor(), 0);
+
+        // Overrides take precedence over road types.
+        TravelTimeFunction jam = new TravelTimeFunction(TravelTimeFunction.DAY,
+                new int[] { 0 }, new float[] { 0.5f });
+        profiles = new TravelTimeProfiles(functions, graph.getMapId(),
+                Collections.singletonMap(motorway.getIndex(), jam));
+        assertTrue(profiles.hasArcOverrides());
+        assertSame(jam, profiles.getFunction(motorway));
+        assertEquals(0.5, profiles.getMinimumFactor(), 0);
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Map<RoadType, TravelTimeFunction> functions = new EnumMap<>(RoadType.class);
+        functions.put(RoadType.RESIDENTIAL, rushHour);
+        functions.put(RoadType.PRIMARY, rushHour);
+        TravelTimeProfiles profiles = new TravelTimeProfiles(functions, graph.getMapId(),
+                Collections.singletonMap(motorway.getIndex(), rushHour));
+
+        TravelTimeProfiles read = writeAndRead(profiles);
+        assertEquals(graph.getMapId(), read.getMapId());
+        assertEquals(profiles.getFunctionsByType(), read.getFunctionsByType());
+        assertEquals(profiles.getFunctionsByArc(), read.getFunctionsByArc());
+
+        // Functions are shared after reading as well.
+        assertEquals(2, read.getFunctions().size());
+        assertSame(read.getFunction(RoadType.RESIDENTIAL), read.getFunction(RoadType.PRIMARY));
+        assertSame(read.getFunction(RoadType.RESIDENTIAL), read.getFunction(motorway));
+
+        // Without overrides, profiles are not bound to a map.
+        read = writeAndRead(new TravelTimeProfiles(functions));
+        assertEquals(null, read.getMapId());
+        assertEquals(rushHour, read.getFunction(residential));
+    }
+
+    @Test(expected = MapMismatchException.class)
+    public void testMapMismatch() throws IOException {
+        writeAndRead(new TravelTimeProfiles(Collections.emptyMap(), "0x9999",
+                Collections.singletonMap(0, rushHour)));
+    }
+
+    @Test(expected = BadFormatException.class)
+    public void testBadFunctionIndex() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BinaryTravelTimeProfilesWriter(new DataOutputStream(bytes))
+                .writeProfiles(new TravelTimeProfiles(
+                        Collections.singletonMap(RoadType.RESIDENTIAL, rushHour)));
+        byte[] data = bytes.toByteArray();
+
+        // Index of the function of the residential roads, after the functions and
+        // the number and ordinal of the road types.
+        final int offset = 4 + 4 + 2 + 2 * (4 + 2) + 8 * (1 + rushHour.getNumberOfBreakpoints())
+                + 1 + 1;
+        data[offset] = 0;
+        data[offset + 1] = 7;
+        new BinaryTravelTimeProfilesReader(new DataInputStream(new ByteArrayInputStream(data)))
+                .readProfiles();
+    }
+
+}